@@ -1,20 +1,31 @@
 package com.treasuremap.app;
 
 import java.io.IOException;
-import java.util.List;
+import java.nio.file.Paths;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import com.treasuremap.app.controller.ConcurrentEngine;
+import com.treasuremap.app.controller.DistributedEngine;
 import com.treasuremap.app.controller.Game;
+import com.treasuremap.app.controller.GameEngine;
+import com.treasuremap.app.controller.GameLoader;
+import com.treasuremap.app.controller.IntentEngine;
+import com.treasuremap.app.controller.LoadReport;
+import com.treasuremap.app.controller.ShardedEngine;
+import com.treasuremap.app.controller.SpeculativeEngine;
+import com.treasuremap.app.controller.TickEngine;
+import com.treasuremap.app.controller.WorkerReport;
 import com.treasuremap.app.model.Adventurer;
-import com.treasuremap.app.model.AdventurerParser;
+import com.treasuremap.app.model.ChunkedTileStorage;
 import com.treasuremap.app.model.Orientation;
+import com.treasuremap.app.model.Scenario;
+import com.treasuremap.app.model.ScenarioFile;
 import com.treasuremap.app.model.Tile;
 import com.treasuremap.app.model.TileType;
 import com.treasuremap.app.model.TreasureMap;
-import com.treasuremap.app.model.TreasureMapParser;
 
 /**
  * Hello world!
@@ -23,25 +34,81 @@ import com.treasuremap.app.model.TreasureMapParser;
 public class App {
 
     public static void main(String[] args) throws IOException, InterruptedException {
-		if (args.length >= 2) {
-			String adventurersFile = args[0];
-			String mapFile = args[1];
+		if (args.length >= 4 && "convert".equals(args[0])) {
+			convert(args[1], args[2], args[3]);
+		} else if (args.length >= 2 || args.length == 1 && args[0].endsWith(ScenarioFile.EXTENSION)) {
+			boolean isScenario = args[0].endsWith(ScenarioFile.EXTENSION);
+			int engineIndex = isScenario ? 1 : 2;
+			GameEngine engine = args.length > engineIndex ? createEngine(args[engineIndex]) : null;
 
-			System.out.println("Adventurers' file: " + adventurersFile);
-			System.out.println("Treasure map's file: " + mapFile);
+			if (args.length > engineIndex && engine == null) {
+				System.err.println("Error, engine '" + args[engineIndex] + "' unknown.");
+				return;
+			}
 
-			TreasureMap map = TreasureMapParser.getInstance().parseFile(mapFile);
-			List<Adventurer> adventurers = AdventurerParser.getInstance().parseFile(adventurersFile);
+			Game game = new Game();
+			LoadReport loadReport = null;
+
+			if (isScenario) {
+				System.out.println("Scenario's file: " + args[0]);
+
+				Scenario scenario = ScenarioFile.read(Paths.get(args[0]));
+				game.setMap(scenario.getMap());
+				scenario.getAdventurers().asList().forEach(game::addAdventurer);
+			} else {
+				String adventurersFile = args[0];
+				String mapFile = args[1];
+
+				if (GameLoader.STANDARD_INPUT.equals(adventurersFile) && GameLoader.STANDARD_INPUT.equals(mapFile)) {
+					System.err.println("Error, only one file can be read from the standard input.");
+					return;
+				}
+
+				System.out.println("Adventurers' file: " + adventurersFile);
+				System.out.println("Treasure map's file: " + mapFile);
+
+				// The map and the adventurers are parsed at the same time
+				GameLoader loader = new GameLoader(adventurersFile, mapFile, args.length >= 4 ? args[3] : null);
+				loader.load(game);
+				loadReport = loader.getReport();
+			}
+
+			TreasureMap map = game.getMap();
+
+			if (engine != null) {
+				if (loadReport != null) {
+					System.out.println(loadReport);
+				}
+
+				game.setEngine(engine);
+				game.play();
+				game.report();
+
+				if (map.getStorage() instanceof ChunkedTileStorage) {
+					System.out.println(((ChunkedTileStorage) map.getStorage()).getStatistics());
+				}
+
+				if (engine instanceof DistributedEngine) {
+					for (WorkerReport report : ((DistributedEngine) engine).getReports()) {
+						System.out.println(report);
+					}
+				}
+
+				return;
+			}
 
 			System.out.print("\033[H\033[2J");
+
+			if (loadReport != null) {
+				System.out.println(loadReport);
+			}
+
 			System.out.println("Game initialized. Game starting in 3 seconds.");
 			Thread.sleep(3000);
 
-			Game game = new Game();
-			game.setMap(map);
-			game.setAdventurers(adventurers);
 			game.play();
 			game.print();
+			game.awaitTermination();
 		} else {
 			System.out.print("\033[H\033[2J");
 			System.out.println("To start a game with your own settings, provide two files: (1) adventurers.txt (2) map.txt");
@@ -52,6 +119,50 @@ public class App {
 		}
 	}
 
+	/**
+	 * Converts a scenario between its text files and its binary file, see {@link ScenarioFile}:
+	 * - convert adventurers.txt map.txt scenario.scenario, writes the scenario file of the text files;
+	 * - convert scenario.scenario adventurers.txt map.txt, writes the text files of the scenario file.
+	 *
+	 * @param first  The adventurers' file, or the scenario file to read.
+	 * @param second The map file, or the adventurers' file to write.
+	 * @param third  The scenario file to write, or the map file to write.
+	 * @throws IOException if a file cannot be read or written.
+	 */
+	private static void convert(String first, String second, String third) throws IOException {
+		if (first.endsWith(ScenarioFile.EXTENSION)) {
+			ScenarioFile.writeText(ScenarioFile.read(Paths.get(first)), Paths.get(second), Paths.get(third));
+			System.out.println("Scenario written to files '" + second + "' and '" + third + "'");
+		} else {
+			ScenarioFile.convert(first, second, Paths.get(third));
+			System.out.println("Scenario written to file '" + third + "'");
+		}
+	}
+
+	/**
+	 * Returns the engine matching the given name, returns null if it is not expected.
+	 * Available engines:
+	 * - headless, see {@link TickEngine};
+	 * - concurrent, see {@link ConcurrentEngine};
+	 * - intent, see {@link IntentEngine};
+	 * - speculative, see {@link SpeculativeEngine};
+	 * - sharded, see {@link ShardedEngine};
+	 * - distributed, see {@link DistributedEngine}.
+	 *
+	 * @param name The name of the engine.
+	 * @return the engine or null if name is not expected.
+	 */
+	private static GameEngine createEngine(String name) {
+		if ("headless".equals(name)) return new TickEngine();
+		if ("concurrent".equals(name)) return new ConcurrentEngine();
+		if ("intent".equals(name)) return new IntentEngine();
+		if ("speculative".equals(name)) return new SpeculativeEngine();
+		if ("sharded".equals(name)) return new ShardedEngine();
+		if ("distributed".equals(name)) return new DistributedEngine();
+
+		return null;
+	}
+
 	/**
 	 * Plays an instance of game.
 	 */
@@ -64,7 +175,7 @@ public class App {
 		TreasureMap map = new TreasureMap(3, 3);
 		map.addAdventurer(adventurer, 0, 0);
 
-		Tile tile = map.getTiles()[2][1];
+		Tile tile = map.getTile(1, 2);
 		tile.setTreasures(7);
 
 		Game game = new Game();
@@ -74,6 +185,12 @@ public class App {
 
 		game.play();
 		game.print();
+
+		try {
+			game.awaitTermination();
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
 	}
 
 }
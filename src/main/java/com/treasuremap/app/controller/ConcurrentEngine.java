@@ -0,0 +1,57 @@
+package com.treasuremap.app.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import com.treasuremap.app.model.Adventurer;
+
+/**
+ * ConcurrentEngine
+ *
+ * Headless engine where the adventurers truly run concurrently against the map.
+ * Each adventurer is a lightweight task, at every tick the tasks are submitted to the scheduler's pool whose size
+ * is the number of cores, the tick ends once every task has executed its step.
+ * Thus the number of threads does not depend on the number of adventurers.
+ */
+public class ConcurrentEngine implements GameEngine {
+	/**
+	 * The scheduler executing the tasks.
+	 */
+	private final GameScheduler scheduler;
+
+	/**
+	 * Constructs a new object ConcurrentEngine using the scheduler of the process.
+	 */
+	public ConcurrentEngine() {
+		this(GameScheduler.getInstance());
+	}
+
+	/**
+	 * Constructs a new object ConcurrentEngine.
+	 *
+	 * @param scheduler The scheduler executing the tasks.
+	 */
+	public ConcurrentEngine(GameScheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+
+	@Override
+	public void run(Game game) {
+		List<Callable<Object>> tasks = new ArrayList<>(game.getAdventurers().size());
+
+		for (Adventurer adventurer : game.getAdventurers()) {
+			tasks.add(Executors.callable(new GameRunnable(game, adventurer)));
+		}
+
+		try {
+			while (!game.isOver()) {
+				scheduler.invokeAll(tasks);
+				game.incrementDuration();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
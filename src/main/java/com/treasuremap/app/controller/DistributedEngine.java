@@ -0,0 +1,559 @@
+package com.treasuremap.app.controller;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ProcessBuilder.Redirect;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.treasuremap.app.model.Adventurer;
+import com.treasuremap.app.model.TileStorage;
+import com.treasuremap.app.model.TileType;
+import com.treasuremap.app.model.TreasureMap;
+import lombok.Getter;
+
+/**
+ * DistributedEngine
+ *
+ * Headless engine splitting the map into vertical strips, each strip is played by a {@link DistributedWorker}
+ * connected over TCP on the loopback interface. The workers are separate processes, or threads of this process.
+ * The rules are the ones of {@link IntentEngine}, thus both give the same results.
+ *
+ * This engine is the coordinator: it routes the moves across the borders and the adventurers handed off,
+ * and it acts as the barrier between the phases of a tick, see {@link DistributedProtocol}.
+ * The game is over when no adventurer is left to act: finished if every path is completed, else stalled.
+ * Once over, the workers send back their adventurers and treasures, and their counters.
+ *
+ * Each worker only holds the tiles of its strip, but the coordinator keeps the whole map the game was loaded with,
+ * and every adventurer: the workers share the computation, not the memory, thus a map too large for the heap of one
+ * process cannot be played by this engine.
+ */
+public class DistributedEngine implements GameEngine {
+	/**
+	 * The time waited for a worker to connect between two checks that the workers are alive, in milliseconds.
+	 */
+	private static final int ACCEPT_POLL_MILLIS = 200;
+
+	/**
+	 * The time waited for every worker to connect, in milliseconds.
+	 */
+	private static final long ACCEPT_TIMEOUT_MILLIS = 60_000;
+
+	/**
+	 * The maximum number of workers.
+	 */
+	private final int workers;
+
+	/**
+	 * True if the workers are launched as processes, else as threads.
+	 */
+	private final boolean isForking;
+
+	/**
+	 * The reports of the workers of the last game.
+	 *
+	 * @return the reports of the workers of the last game.
+	 */
+	@Getter
+	private List<WorkerReport> reports = Collections.emptyList();
+
+	/**
+	 * Constructs a new object DistributedEngine launching one worker process per available core.
+	 */
+	public DistributedEngine() {
+		this(Runtime.getRuntime().availableProcessors(), true);
+	}
+
+	/**
+	 * Constructs a new object DistributedEngine.
+	 *
+	 * @param workers   The maximum number of workers, the map is never split into strips narrower than a tile.
+	 * @param isForking True if the workers are launched as processes, else as threads.
+	 */
+	public DistributedEngine(int workers, boolean isForking) {
+		this.workers = Math.max(1, workers);
+		this.isForking = isForking;
+	}
+
+	@Override
+	public void run(Game game) {
+		if (game.isOver()) {
+			return;
+		}
+
+		TreasureMap map = game.getMap();
+		int strips = Math.min(workers, map.getWidth());
+		int stripWidth = (map.getWidth() + strips - 1) / strips;
+		strips = (map.getWidth() + stripWidth - 1) / stripWidth;
+
+		Workers launched = new Workers();
+		Connection[] connections = new Connection[strips];
+		long start = System.nanoTime();
+
+		try (ServerSocket server = new ServerSocket(0, strips, InetAddress.getLoopbackAddress())) {
+			try {
+				for (int i = 0 ; i < strips ; i++) {
+					launched.launch(server.getLocalPort());
+				}
+
+				server.setSoTimeout(ACCEPT_POLL_MILLIS);
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ACCEPT_TIMEOUT_MILLIS);
+
+				for (int i = 0 ; i < strips ; i++) {
+					connections[i] = new Connection(launched.accept(server, deadline));
+				}
+
+				for (int i = 0 ; i < strips ; i++) {
+					initialize(connections[i], map, game.getAdventurers(), i * stripWidth, Math.min(map.getWidth(), (i + 1) * stripWidth));
+				}
+
+				boolean isStalled = play(game, connections, stripWidth);
+				collect(game, connections, isStalled, System.nanoTime() - start);
+			} finally {
+				close(connections);
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("The distributed game has failed", e);
+		} finally {
+			launched.await();
+		}
+	}
+
+	/**
+	 * Closes the given connections, all of them even if one fails.
+	 *
+	 * @param connections The connections, null for a worker not connected.
+	 * @throws IOException if a connection cannot be closed, the next failures being suppressed.
+	 */
+	private static void close(Connection[] connections) throws IOException {
+		IOException failure = null;
+
+		for (Connection connection : connections) {
+			try {
+				if (connection != null) {
+					connection.socket.close();
+				}
+			} catch (IOException e) {
+				if (failure == null) {
+					failure = e;
+				} else {
+					failure.addSuppressed(e);
+				}
+			}
+		}
+
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Sends its strip to the given worker: the mountains and the treasures, and the adventurers standing on it.
+	 *
+	 * @param connection  The connection to the worker.
+	 * @param map         The map.
+	 * @param adventurers The adventurers.
+	 * @param from        The first column of the strip.
+	 * @param to          The column following the strip.
+	 * @throws IOException
+	 */
+	private static void initialize(Connection connection, TreasureMap map, List<Adventurer> adventurers, int from, int to) throws IOException {
+		DataOutputStream output = connection.output;
+		output.writeByte(DistributedProtocol.INIT);
+		output.writeInt(map.getWidth());
+		output.writeInt(map.getHeight());
+		output.writeInt(from);
+		output.writeInt(to - from);
+
+		TileStorage storage = map.getStorage();
+		List<int[]> tiles = new ArrayList<>();
+
+		storage.forEachNonBlank((x, y) -> {
+			if (x >= from && x < to && (storage.getType(x, y) != TileType.PRAIRIE || storage.getTreasures(x, y) > 0)) {
+				tiles.add(new int[] { x, y, storage.getType(x, y).ordinal(), storage.getTreasures(x, y) });
+			}
+		});
+
+		output.writeInt(tiles.size());
+
+		for (int[] tile : tiles) {
+			output.writeInt(tile[0]);
+			output.writeInt(tile[1]);
+			output.writeByte(tile[2]);
+			output.writeInt(tile[3]);
+		}
+
+		List<Integer> members = new ArrayList<>();
+
+		for (int i = 0 ; i < adventurers.size() ; i++) {
+			if (adventurers.get(i).getX() >= from && adventurers.get(i).getX() < to) {
+				members.add(i);
+			}
+		}
+
+		output.writeInt(members.size());
+
+		for (int i : members) {
+			Adventurer adventurer = adventurers.get(i);
+			DistributedProtocol.writeAdventurer(output, i, adventurer, adventurer.getX(), adventurer.getY());
+		}
+
+		output.flush();
+	}
+
+	/**
+	 * Plays the ticks until no adventurer is left to act.
+	 *
+	 * A tick where nobody acts changes nothing, thus the game has stalled. It is counted unless every adventurer
+	 * already waited at the previous tick: {@link IntentEngine} would have stopped right after that one.
+	 *
+	 * @param game        The game.
+	 * @param connections The connections to the workers, by strip.
+	 * @param stripWidth  The width of a strip.
+	 * @return true if the game has stalled, false if it has finished.
+	 * @throws IOException
+	 */
+	private static boolean play(Game game, Connection[] connections, int stripWidth) throws IOException {
+		int strips = connections.length;
+
+		while (true) {
+			for (Connection connection : connections) {
+				connection.output.writeByte(DistributedProtocol.TICK);
+				connection.output.flush();
+			}
+
+			// Moves across the borders, routed to the owner of the target
+			List<List<int[]>> outbound = new ArrayList<>();
+			List<List<int[]>> inbound = new ArrayList<>();
+
+			for (int i = 0 ; i < strips ; i++) {
+				inbound.add(new ArrayList<>());
+			}
+
+			for (int i = 0 ; i < strips ; i++) {
+				DataInputStream input = connections[i].input;
+				DistributedProtocol.expect(input, DistributedProtocol.CLAIMS);
+				List<int[]> claims = new ArrayList<>();
+
+				for (int k = input.readInt() ; k > 0 ; k--) {
+					int[] claim = { input.readInt(), input.readInt(), input.readInt(), 0 };
+					List<int[]> owner = inbound.get(claim[1] / stripWidth);
+					claim[3] = owner.size();
+					owner.add(claim);
+					claims.add(claim);
+				}
+
+				outbound.add(claims);
+			}
+
+			for (int i = 0 ; i < strips ; i++) {
+				DataOutputStream output = connections[i].output;
+				output.writeByte(DistributedProtocol.INBOUND);
+				output.writeInt(inbound.get(i).size());
+
+				for (int[] claim : inbound.get(i)) {
+					output.writeInt(claim[0]);
+					output.writeInt(claim[1]);
+					output.writeInt(claim[2]);
+				}
+
+				output.flush();
+			}
+
+			byte[][] verdicts = new byte[strips][];
+			int acting = 0;
+			int incomplete = 0;
+			int waited = 0;
+
+			for (int i = 0 ; i < strips ; i++) {
+				DataInputStream input = connections[i].input;
+				DistributedProtocol.expect(input, DistributedProtocol.VERDICTS);
+				verdicts[i] = new byte[input.readInt()];
+				input.readFully(verdicts[i]);
+				acting += input.readInt();
+				incomplete += input.readInt();
+				waited += input.readInt();
+			}
+
+			boolean isOver = acting == 0;
+
+			for (int i = 0 ; i < strips ; i++) {
+				DataOutputStream output = connections[i].output;
+				output.writeByte(DistributedProtocol.OUTCOME);
+
+				for (int[] claim : outbound.get(i)) {
+					output.writeByte(verdicts[claim[1] / stripWidth][claim[3]]);
+				}
+
+				output.writeBoolean(isOver);
+				output.flush();
+			}
+
+			if (isOver) {
+				if (incomplete > 0 && waited < incomplete) {
+					game.incrementDuration();
+				}
+
+				return incomplete > 0;
+			}
+
+			// Adventurers who crossed the borders, handed off to the owner of their new tile
+			List<List<byte[]>> arrivals = new ArrayList<>();
+
+			for (int i = 0 ; i < strips ; i++) {
+				arrivals.add(new ArrayList<>());
+			}
+
+			for (int i = 0 ; i < strips ; i++) {
+				DataInputStream input = connections[i].input;
+				DistributedProtocol.expect(input, DistributedProtocol.HANDOFFS);
+
+				for (int k = input.readInt() ; k > 0 ; k--) {
+					int index = input.readInt();
+					Adventurer adventurer = DistributedProtocol.readAdventurer(input);
+					arrivals.get(adventurer.getX() / stripWidth).add(serialize(index, adventurer));
+				}
+			}
+
+			for (int i = 0 ; i < strips ; i++) {
+				DataOutputStream output = connections[i].output;
+				output.writeByte(DistributedProtocol.ARRIVALS);
+				output.writeInt(arrivals.get(i).size());
+
+				for (byte[] arrival : arrivals.get(i)) {
+					output.write(arrival);
+				}
+
+				output.flush();
+			}
+
+			game.incrementDuration();
+		}
+	}
+
+	/**
+	 * Serializes the given adventurer handed off, as expected by the worker owning their new tile.
+	 *
+	 * @param index      The index of the adventurer.
+	 * @param adventurer The adventurer, with global coordinates.
+	 * @return the bytes of the adventurer.
+	 * @throws IOException
+	 */
+	private static byte[] serialize(int index, Adventurer adventurer) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (DataOutputStream output = new DataOutputStream(bytes)) {
+			DistributedProtocol.writeAdventurer(output, index, adventurer, adventurer.getX(), adventurer.getY());
+		}
+
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Reads the final state sent by the workers into the game, and their reports.
+	 * If the game has stalled, the adventurers still to act are flagged as waiting.
+	 *
+	 * @param game        The game.
+	 * @param connections The connections to the workers, by strip.
+	 * @param isStalled   True if the game has stalled, else false.
+	 * @param wallNanos   The time elapsed since the workers have been launched, in nanoseconds.
+	 * @throws IOException
+	 */
+	private void collect(Game game, Connection[] connections, boolean isStalled, long wallNanos) throws IOException {
+		TreasureMap map = game.getMap();
+		List<Adventurer> adventurers = game.getAdventurers();
+		List<WorkerReport> reports = new ArrayList<>();
+
+		for (Adventurer adventurer : adventurers) {
+			map.getTile(adventurer.getX(), adventurer.getY()).setAdventurer(null);
+		}
+
+		map.getStorage().forEachNonBlank((x, y) -> map.getTile(x, y).setTreasures(0));
+
+		for (int i = 0 ; i < connections.length ; i++) {
+			DataInputStream input = connections[i].input;
+			DistributedProtocol.expect(input, DistributedProtocol.FINAL);
+			int members = input.readInt();
+
+			for (int k = 0 ; k < members ; k++) {
+				Adventurer adventurer = adventurers.get(input.readInt());
+				Adventurer state = DistributedProtocol.readAdventurer(input);
+				adventurer.setX(state.getX());
+				adventurer.setY(state.getY());
+				adventurer.setOrientation(state.getOrientation());
+				adventurer.setPointer(state.getPointer());
+				adventurer.setTreasures(state.getTreasures());
+				adventurer.setWaiting(isStalled && !adventurer.hasCompletedPath());
+				map.getTile(adventurer.getX(), adventurer.getY()).setAdventurer(adventurer);
+			}
+
+			for (int k = input.readInt() ; k > 0 ; k--) {
+				int x = input.readInt();
+				int y = input.readInt();
+				map.getTile(x, y).setTreasures(input.readInt());
+			}
+
+			reports.add(new WorkerReport(i, members, input.readLong(), input.readLong(), input.readInt(), wallNanos));
+		}
+
+		this.reports = reports;
+	}
+
+	/**
+	 * A connection to a worker.
+	 */
+	private static class Connection {
+		/**
+		 * The socket.
+		 */
+		private final Socket socket;
+
+		/**
+		 * The input, buffered.
+		 */
+		private final DataInputStream input;
+
+		/**
+		 * The output, buffered.
+		 */
+		private final DataOutputStream output;
+
+		Connection(Socket socket) throws IOException {
+			this.socket = socket;
+			socket.setTcpNoDelay(true);
+			input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		}
+
+	}
+
+	/**
+	 * The workers launched for a game, processes or threads.
+	 */
+	private class Workers {
+		/**
+		 * The processes launched.
+		 */
+		private final List<Process> processes = new ArrayList<>();
+
+		/**
+		 * The files of the error outputs of the processes, by process.
+		 */
+		private final List<File> logs = new ArrayList<>();
+
+		/**
+		 * The threads launched.
+		 */
+		private final List<Thread> threads = new ArrayList<>();
+
+		/**
+		 * The exceptions of the threads which have failed.
+		 */
+		private final List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+
+		/**
+		 * Launches a worker connecting to the given port.
+		 *
+		 * @param port The port of the coordinator.
+		 * @throws IOException if the process cannot be launched.
+		 */
+		void launch(int port) throws IOException {
+			String host = InetAddress.getLoopbackAddress().getHostAddress();
+
+			if (isForking) {
+				String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+				File log = File.createTempFile("distributed-worker-", ".log");
+				logs.add(log);
+				processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), DistributedWorker.class.getName(), host, String.valueOf(port))
+						.redirectOutput(Redirect.INHERIT)
+						.redirectError(log)
+						.start());
+			} else {
+				Thread thread = new Thread(new DistributedWorker(host, port), "distributed-worker-" + threads.size());
+				thread.setDaemon(true);
+				thread.setUncaughtExceptionHandler((t, e) -> failures.add(e));
+				thread.start();
+				threads.add(thread);
+			}
+		}
+
+		/**
+		 * Waits for the next worker to connect, checking meanwhile that no worker has exited.
+		 *
+		 * @param server   The server socket, with a timeout.
+		 * @param deadline The time by which every worker must have connected, see {@link System#nanoTime()}.
+		 * @return the socket of the worker.
+		 * @throws IOException if a worker has exited, with its error output, or none connected in time.
+		 */
+		Socket accept(ServerSocket server, long deadline) throws IOException {
+			while (true) {
+				try {
+					return server.accept();
+				} catch (SocketTimeoutException e) {
+					check();
+
+					if (System.nanoTime() - deadline > 0) {
+						throw new IOException("The workers have not connected within " + ACCEPT_TIMEOUT_MILLIS + " ms");
+					}
+				}
+			}
+		}
+
+		/**
+		 * Checks that no worker has exited.
+		 *
+		 * @throws IOException if a worker has exited, with its error output.
+		 */
+		private void check() throws IOException {
+			for (int i = 0 ; i < processes.size() ; i++) {
+				if (!processes.get(i).isAlive()) {
+					String log = new String(Files.readAllBytes(logs.get(i).toPath()), StandardCharsets.UTF_8).trim();
+					throw new IOException("Worker " + i + " has exited with code " + processes.get(i).exitValue()
+							+ (log.isEmpty() ? "" : ": " + log));
+				}
+			}
+
+			synchronized (failures) {
+				if (!failures.isEmpty()) {
+					throw new IOException("A worker has failed", failures.get(0));
+				}
+			}
+		}
+
+		/**
+		 * Waits for the workers to exit, which they do once their connection is closed, the processes still running
+		 * after {@link #ACCEPT_TIMEOUT_MILLIS} being killed, and deletes the files of their error outputs.
+		 */
+		void await() {
+			try {
+				for (Process process : processes) {
+					process.waitFor(ACCEPT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+					process.destroy();
+				}
+
+				for (Thread thread : threads) {
+					thread.join(ACCEPT_TIMEOUT_MILLIS);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				for (File log : logs) {
+					log.delete();
+				}
+			}
+		}
+	}
+}
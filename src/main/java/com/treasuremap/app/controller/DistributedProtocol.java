@@ -0,0 +1,139 @@
+package com.treasuremap.app.controller;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import com.treasuremap.app.model.Adventurer;
+import com.treasuremap.app.model.Orientation;
+
+/**
+ * DistributedProtocol
+ *
+ * Messages exchanged between {@link DistributedEngine}, the coordinator, and its {@link DistributedWorker}s.
+ * Every message starts with its type, a tick is made of the following exchanges:
+ *
+ *   coordinator                      worker
+ *       TICK      ------------------>
+ *                 <------------------  CLAIMS     moves aiming at another strip
+ *       INBOUND   ------------------>             moves aiming at this strip
+ *                 <------------------  VERDICTS   outcome of the inbound moves, counters
+ *       OUTCOME   ------------------>             outcome of the outbound moves, stop or apply
+ *                 <------------------  HANDOFFS   adventurers who crossed the border, or FINAL if stopped
+ *       ARRIVALS  ------------------>
+ */
+final class DistributedProtocol {
+	static final byte INIT = 1;
+	static final byte TICK = 2;
+	static final byte CLAIMS = 3;
+	static final byte INBOUND = 4;
+	static final byte VERDICTS = 5;
+	static final byte OUTCOME = 6;
+	static final byte HANDOFFS = 7;
+	static final byte ARRIVALS = 8;
+	static final byte FINAL = 9;
+
+	/**
+	 * Constructs a new object DistributedProtocol.
+	 */
+	private DistributedProtocol() {}
+
+	/**
+	 * Reads the type of the next message and checks it is the expected one.
+	 *
+	 * @param input    The input.
+	 * @param expected The expected type.
+	 * @throws IOException if the type is not the expected one.
+	 */
+	static void expect(DataInputStream input, byte expected) throws IOException {
+		byte type = input.readByte();
+
+		if (type != expected) {
+			throw new IOException("Unexpected message " + type + ", expecting " + expected);
+		}
+	}
+
+	/**
+	 * Writes a string of any length.
+	 *
+	 * @param output The output.
+	 * @param value  The string.
+	 * @throws IOException
+	 */
+	static void writeString(DataOutputStream output, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	/**
+	 * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+	 *
+	 * @param input The input.
+	 * @return the string.
+	 * @throws IOException
+	 */
+	static String readString(DataInputStream input) throws IOException {
+		byte[] bytes = new byte[input.readInt()];
+		input.readFully(bytes);
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Writes the given adventurer and their index, the coordinates are global ones.
+	 *
+	 * @param output     The output.
+	 * @param index      The index of the adventurer.
+	 * @param adventurer The adventurer.
+	 * @param x          The global abscissa.
+	 * @param y          The global ordinate.
+	 * @throws IOException
+	 */
+	static void writeAdventurer(DataOutputStream output, int index, Adventurer adventurer, int x, int y) throws IOException {
+		output.writeInt(index);
+		writeString(output, adventurer.getName());
+		writeString(output, adventurer.getPath());
+		output.writeInt(x);
+		output.writeInt(y);
+		output.writeByte(adventurer.getOrientation().ordinal());
+		output.writeInt(adventurer.getPointer());
+		output.writeInt(adventurer.getTreasures());
+		output.writeBoolean(adventurer.isWaiting());
+	}
+
+	/**
+	 * Reads an adventurer written by {@link #writeAdventurer(DataOutputStream, int, Adventurer, int, int)},
+	 * the index is not read.
+	 *
+	 * @param input The input.
+	 * @return the adventurer, with global coordinates.
+	 * @throws IOException
+	 */
+	static Adventurer readAdventurer(DataInputStream input) throws IOException {
+		return readAdventurer(input, new Adventurer());
+	}
+
+	/**
+	 * Reads an adventurer written by {@link #writeAdventurer(DataOutputStream, int, Adventurer, int, int)} into the
+	 * given one, e.g. the view kept by a worker for an adventurer coming back, the index is not read.
+	 *
+	 * @param input      The input.
+	 * @param adventurer The adventurer to update.
+	 * @return the adventurer, with global coordinates.
+	 * @throws IOException
+	 */
+	static Adventurer readAdventurer(DataInputStream input, Adventurer adventurer) throws IOException {
+		adventurer.setName(readString(input));
+		adventurer.setPath(readString(input));
+		adventurer.setX(input.readInt());
+		adventurer.setY(input.readInt());
+		adventurer.setOrientation(Orientation.values()[input.readByte()]);
+		adventurer.setPointer(input.readInt());
+		adventurer.setTreasures(input.readInt());
+		adventurer.setWaiting(input.readBoolean());
+
+		return adventurer;
+	}
+}
@@ -0,0 +1,409 @@
+package com.treasuremap.app.controller;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.treasuremap.app.model.Adventurer;
+import com.treasuremap.app.model.Tile;
+import com.treasuremap.app.model.TileStorage;
+import com.treasuremap.app.model.TileType;
+import com.treasuremap.app.model.TreasureMap;
+
+/**
+ * DistributedWorker
+ *
+ * Plays a vertical strip of the map for a {@link DistributedEngine}, with the rules of {@link IntentEngine}.
+ * The worker only knows the tiles of its strip and the adventurers standing on it: a move across the border
+ * is resolved by the worker owning the target, and the adventurer is handed off to it once the move is applied.
+ * The coordinates of the adventurers are local to the strip, they are translated when exchanged.
+ *
+ * Run it as a process with: java -cp treasure-map.jar com.treasuremap.app.controller.DistributedWorker host port
+ */
+public class DistributedWorker implements Runnable {
+	/**
+	 * Intent of an adventurer aiming at a tile of another strip, until its owner resolves it.
+	 */
+	private static final byte CROSS = 5;
+
+	/**
+	 * The host of the coordinator.
+	 */
+	private final String host;
+
+	/**
+	 * The port of the coordinator.
+	 */
+	private final int port;
+
+	/**
+	 * The global abscissa of the first column of the strip.
+	 */
+	private int offset;
+
+	/**
+	 * The width of the whole map.
+	 */
+	private int width;
+
+	/**
+	 * The tiles of the strip.
+	 */
+	private TreasureMap map;
+
+	/**
+	 * The adventurers standing on the strip, by index.
+	 */
+	private final TreeMap<Integer, Adventurer> members = new TreeMap<>();
+
+	/**
+	 * The adventurers who have stood on the strip, by index: an adventurer coming back is read into the same view,
+	 * thus into the same store of the storage, see {@link TileStorage#claim(int, int, Adventurer)}.
+	 */
+	private final Map<Integer, Adventurer> views = new HashMap<>();
+
+	/**
+	 * The number of actions executed by this worker.
+	 */
+	private long actions;
+
+	/**
+	 * The time spent computing, in nanoseconds, exchanges excluded.
+	 */
+	private long busyNanos;
+
+	/**
+	 * The number of ticks played.
+	 */
+	private int ticks;
+
+	/**
+	 * Constructs a new object DistributedWorker.
+	 *
+	 * @param host The host of the coordinator.
+	 * @param port The port of the coordinator.
+	 */
+	public DistributedWorker(String host, int port) {
+		this.host = host;
+		this.port = port;
+	}
+
+	/**
+	 * Connects to the coordinator given as arguments, host then port, and plays until it stops.
+	 *
+	 * @param args The host and the port of the coordinator.
+	 */
+	public static void main(String[] args) {
+		if (args.length < 2) {
+			System.err.println("Usage: DistributedWorker host port");
+			System.exit(1);
+		}
+
+		new DistributedWorker(args[0], Integer.parseInt(args[1])).run();
+	}
+
+	@Override
+	public void run() {
+		try (Socket socket = new Socket(host, port)) {
+			socket.setTcpNoDelay(true);
+			DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+			initialize(input);
+
+			while (tick(input, output)) {
+				ticks++;
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("The worker has failed", e);
+		}
+	}
+
+	/**
+	 * Reads the strip and its adventurers.
+	 *
+	 * @param input The input.
+	 * @throws IOException
+	 */
+	private void initialize(DataInputStream input) throws IOException {
+		DistributedProtocol.expect(input, DistributedProtocol.INIT);
+		width = input.readInt();
+		int height = input.readInt();
+		offset = input.readInt();
+		map = new TreasureMap(input.readInt(), height);
+
+		for (int k = input.readInt() ; k > 0 ; k--) {
+			int x = input.readInt() - offset;
+			int y = input.readInt();
+			Tile tile = map.getTile(x, y);
+			tile.setType(TileType.values()[input.readByte()]);
+			tile.setTreasures(input.readInt());
+		}
+
+		for (int k = input.readInt() ; k > 0 ; k--) {
+			int index = input.readInt();
+			Adventurer adventurer = DistributedProtocol.readAdventurer(input, views.computeIfAbsent(index, i -> new Adventurer()));
+			adventurer.setX(adventurer.getX() - offset);
+			map.getTile(adventurer.getX(), adventurer.getY()).setAdventurer(adventurer);
+			members.put(index, adventurer);
+		}
+	}
+
+	/**
+	 * Plays one tick, returns false if the coordinator has stopped the game instead.
+	 *
+	 * @param input  The input.
+	 * @param output The output.
+	 * @return true if the tick has been played, else false.
+	 * @throws IOException
+	 */
+	private boolean tick(DataInputStream input, DataOutputStream output) throws IOException {
+		DistributedProtocol.expect(input, DistributedProtocol.TICK);
+		long start = System.nanoTime();
+
+		int count = members.size();
+		int[] indexes = new int[count];
+		Adventurer[] adventurers = new Adventurer[count];
+		byte[] intents = new byte[count];
+		int[] targetsX = new int[count];
+		int[] targetsY = new int[count];
+		List<Integer> outbound = new ArrayList<>();
+		int slot = 0;
+
+		for (Map.Entry<Integer, Adventurer> member : members.entrySet()) {
+			indexes[slot] = member.getKey();
+			adventurers[slot] = member.getValue();
+			IntentEngine.intend(map, adventurers[slot], slot, intents, targetsX, targetsY);
+
+			if (intents[slot] == IntentEngine.BUMP && isAcrossBorder(targetsX[slot], targetsY[slot])) {
+				intents[slot] = CROSS;
+				outbound.add(slot);
+			}
+
+			slot++;
+		}
+
+		output.writeByte(DistributedProtocol.CLAIMS);
+		output.writeInt(outbound.size());
+
+		for (int s : outbound) {
+			output.writeInt(indexes[s]);
+			output.writeInt(targetsX[s] + offset);
+			output.writeInt(targetsY[s]);
+		}
+
+		busyNanos += System.nanoTime() - start;
+		output.flush();
+
+		DistributedProtocol.expect(input, DistributedProtocol.INBOUND);
+		start = System.nanoTime();
+
+		int inboundCount = input.readInt();
+		int[] inboundIndexes = new int[inboundCount];
+		long[] inboundTiles = new long[inboundCount];
+		byte[] verdicts = new byte[inboundCount];
+
+		for (int k = 0 ; k < inboundCount ; k++) {
+			inboundIndexes[k] = input.readInt();
+			int x = input.readInt() - offset;
+			int y = input.readInt();
+			TileStorage storage = map.getStorage();
+			inboundTiles[k] = TileStorage.key(x, y);
+			verdicts[k] = storage.getType(x, y) == TileType.MOUNTAIN ? IntentEngine.BUMP
+					: storage.isOccupied(x, y) ? IntentEngine.WAIT : IntentEngine.MOVE;
+		}
+
+		resolve(indexes, intents, targetsX, targetsY, inboundIndexes, inboundTiles, verdicts);
+
+		int acting = 0;
+		int incomplete = 0;
+		int waited = 0;
+
+		for (int s = 0 ; s < count ; s++) {
+			if (isActing(intents[s])) {
+				acting++;
+			}
+
+			if (!adventurers[s].hasCompletedPath()) {
+				incomplete++;
+
+				if (adventurers[s].isWaiting()) {
+					waited++;
+				}
+			}
+		}
+
+		output.writeByte(DistributedProtocol.VERDICTS);
+		output.writeInt(inboundCount);
+
+		for (int k = 0 ; k < inboundCount ; k++) {
+			output.writeByte(verdicts[k]);
+
+			if (isActing(verdicts[k])) {
+				acting++;
+			}
+		}
+
+		output.writeInt(acting);
+		output.writeInt(incomplete);
+		output.writeInt(waited);
+		busyNanos += System.nanoTime() - start;
+		output.flush();
+
+		DistributedProtocol.expect(input, DistributedProtocol.OUTCOME);
+
+		for (int s : outbound) {
+			intents[s] = input.readByte();
+		}
+
+		if (input.readBoolean()) {
+			report(output);
+			return false;
+		}
+
+		start = System.nanoTime();
+		List<Integer> handoffs = new ArrayList<>();
+
+		for (int s = 0 ; s < count ; s++) {
+			Adventurer adventurer = adventurers[s];
+
+			if (isActing(intents[s])) {
+				actions++;
+			}
+
+			if (intents[s] == IntentEngine.MOVE && isAcrossBorder(targetsX[s], targetsY[s])) {
+				map.removeAdventurer(adventurer.getX(), adventurer.getY());
+				adventurer.setPointer(adventurer.getPointer() + 1);
+				adventurer.setWaiting(false);
+				members.remove(indexes[s]);
+				handoffs.add(s);
+			} else {
+				IntentEngine.apply(map, adventurer, intents[s], targetsX[s], targetsY[s]);
+				adventurer.setWaiting(intents[s] == IntentEngine.WAIT);
+			}
+		}
+
+		output.writeByte(DistributedProtocol.HANDOFFS);
+		output.writeInt(handoffs.size());
+
+		for (int s : handoffs) {
+			DistributedProtocol.writeAdventurer(output, indexes[s], adventurers[s], targetsX[s] + offset, targetsY[s]);
+		}
+
+		busyNanos += System.nanoTime() - start;
+		output.flush();
+
+		DistributedProtocol.expect(input, DistributedProtocol.ARRIVALS);
+		start = System.nanoTime();
+
+		for (int k = input.readInt() ; k > 0 ; k--) {
+			int index = input.readInt();
+			Adventurer adventurer = DistributedProtocol.readAdventurer(input, views.computeIfAbsent(index, i -> new Adventurer()));
+			map.addAdventurer(adventurer, adventurer.getX() - offset, adventurer.getY());
+			members.put(index, adventurer);
+		}
+
+		busyNanos += System.nanoTime() - start;
+
+		return true;
+	}
+
+	/**
+	 * Resolves the moves aiming at the tiles of the strip, the local ones and the inbound ones:
+	 * the first adventurer in order wins a tile, the others wait.
+	 */
+	private void resolve(int[] indexes, byte[] intents, int[] targetsX, int[] targetsY, int[] inboundIndexes, long[] inboundTiles, byte[] verdicts) {
+		Map<Long, Integer> winners = new HashMap<>();
+
+		for (int s = 0 ; s < indexes.length ; s++) {
+			if (intents[s] == IntentEngine.MOVE) {
+				winners.merge(TileStorage.key(targetsX[s], targetsY[s]), indexes[s], Math::min);
+			}
+		}
+
+		for (int k = 0 ; k < inboundIndexes.length ; k++) {
+			if (verdicts[k] == IntentEngine.MOVE) {
+				winners.merge(inboundTiles[k], inboundIndexes[k], Math::min);
+			}
+		}
+
+		for (int s = 0 ; s < indexes.length ; s++) {
+			if (intents[s] == IntentEngine.MOVE && winners.get(TileStorage.key(targetsX[s], targetsY[s])) != indexes[s]) {
+				intents[s] = IntentEngine.WAIT;
+			}
+		}
+
+		for (int k = 0 ; k < inboundIndexes.length ; k++) {
+			if (verdicts[k] == IntentEngine.MOVE && winners.get(inboundTiles[k]) != inboundIndexes[k]) {
+				verdicts[k] = IntentEngine.WAIT;
+			}
+		}
+	}
+
+	/**
+	 * Sends the adventurers, the treasures left on the strip and the counters of this worker.
+	 *
+	 * @param output The output.
+	 * @throws IOException
+	 */
+	private void report(DataOutputStream output) throws IOException {
+		output.writeByte(DistributedProtocol.FINAL);
+		output.writeInt(members.size());
+
+		for (Map.Entry<Integer, Adventurer> member : members.entrySet()) {
+			Adventurer adventurer = member.getValue();
+			DistributedProtocol.writeAdventurer(output, member.getKey(), adventurer, adventurer.getX() + offset, adventurer.getY());
+		}
+
+		TileStorage storage = map.getStorage();
+		List<int[]> treasures = new ArrayList<>();
+
+		storage.forEachNonBlank((x, y) -> {
+			if (storage.getTreasures(x, y) > 0) {
+				treasures.add(new int[] { x + offset, y, storage.getTreasures(x, y) });
+			}
+		});
+
+		output.writeInt(treasures.size());
+
+		for (int[] treasure : treasures) {
+			output.writeInt(treasure[0]);
+			output.writeInt(treasure[1]);
+			output.writeInt(treasure[2]);
+		}
+
+		output.writeLong(actions);
+		output.writeLong(busyNanos);
+		output.writeInt(ticks);
+		output.flush();
+	}
+
+	/**
+	 * Returns true if the given local coordinates are within the map but past the borders of the strip, else false.
+	 *
+	 * @param x The local abscissa.
+	 * @param y The ordinate.
+	 * @return true if the coordinates belong to another strip, else false.
+	 */
+	private boolean isAcrossBorder(int x, int y) {
+		return (x < 0 || x >= map.getWidth()) && x + offset >= 0 && x + offset < width && y >= 0 && y < map.getHeight();
+	}
+
+	/**
+	 * Returns true if the given intent executes an action, i.e. the pointer of the path moves forward.
+	 *
+	 * @param intent The intent.
+	 * @return true if the intent executes an action, else false.
+	 */
+	private static boolean isActing(byte intent) {
+		return intent == IntentEngine.TURN || intent == IntentEngine.MOVE || intent == IntentEngine.BUMP;
+	}
+}
@@ -1,17 +1,18 @@
 package com.treasuremap.app.controller;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import com.treasuremap.app.model.Adventurer;
 import com.treasuremap.app.model.GameUtils;
 import com.treasuremap.app.model.Orientation;
-import com.treasuremap.app.model.Tile;
+import com.treasuremap.app.model.PathProgram;
+import com.treasuremap.app.model.TileStorage;
+import com.treasuremap.app.model.TileType;
 import com.treasuremap.app.model.TreasureMap;
 
 import lombok.Getter;
@@ -22,14 +23,11 @@ import lombok.Setter;
  */
 public class Game {
 	/**
-	 * Duration of the game in seconds.
-	 */
-	private int duration = 0;
-
-	/**
-	 * Timer to measures elapsed time.
+	 * Duration of the game in seconds, or in ticks when an engine is set.
+	 *
+	 * @return the duration of the game.
 	 */
-	private Timer durationTimer = new Timer();
+	@Getter private int duration = 0;
 
 	/**
 	 * The adventurer presents on the map.
@@ -37,7 +35,7 @@ public class Game {
 	 * @param adventurers The adventurers to set.
 	 * @return the adventurers on the map.
 	 */
-	@Getter @Setter private List<Adventurer> adventurers;
+	@Getter @Setter private List<Adventurer> adventurers = new ArrayList<>();
 
 	/**
 	 * The treasure map.
@@ -48,53 +46,106 @@ public class Game {
 	@Getter @Setter private TreasureMap map;
 
 	/**
-	 * The threads.
+	 * The scheduler pacing the game in real time, null until set or needed, see {@link #getScheduler()}.
 	 *
-	 * @return the threads.
+	 * @param scheduler the scheduler to set.
 	 */
-	@Getter private Thread[] gameThreads;
+	@Setter private GameScheduler scheduler;
 
 	/**
-	 * Starts the threads.
+	 * Completed once the game played in real time has finished.
 	 */
-	public void play() {
-		initTimer();
-		gameThreads = new Thread[adventurers.size()];
+	private CompletableFuture<Void> playing = CompletableFuture.completedFuture(null);
 
-		for (int i = 0 ; i < gameThreads.length ; i++) {
-			GameRunnable runnable = new GameRunnable(this, adventurers.get(i));
-			gameThreads[i] = new Thread(runnable);
-			gameThreads[i].run();
+	/**
+	 * Completed once the printer has written the result.
+	 */
+	private CompletableFuture<Void> printing = CompletableFuture.completedFuture(null);
+
+	/**
+	 * The engine running the game, if null then the game is played in real time.
+	 *
+	 * @param engine the engine to set.
+	 * @return the engine running the game.
+	 */
+	@Getter @Setter private GameEngine engine;
+
+	/**
+	 * Returns the scheduler pacing the game in real time, by default the scheduler of the process, which is only
+	 * created once a game is played in real time or printed: games run by an engine do not start its threads.
+	 *
+	 * @return the scheduler pacing the game.
+	 */
+	public GameScheduler getScheduler() {
+		if (scheduler == null) {
+			scheduler = GameScheduler.getInstance();
 		}
 
-		try {
-			for (int i = 0 ; i < gameThreads.length ;i++) {
-				gameThreads[i].join();
+		return scheduler;
+	}
+
+	/**
+	 * Starts the game in real time: one tick per second, paced by the scheduler.
+	 * If an engine is set, the game is run by the engine instead and this method returns when the game has finished.
+	 *
+	 * @see #tick()
+	 * @see GameEngine#run(Game)
+	 */
+	public void play() {
+		if (engine != null) {
+			engine.run(this);
+			return;
+		}
+
+		playing = getScheduler().repeat(() -> {
+			if (isOver()) {
+				return true;
 			}
-		}  catch (InterruptedException e) {
-			e.printStackTrace();
+
+			tick();
+
+			return isOver();
+		}, 1, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Places the given adventurer on the map at their coordinates, see
+	 * {@link TreasureMap#addAdventurer(Adventurer, int, int)}, and adds them to the adventurers of the game, which
+	 * must be modifiable. Adventurers can thus be added as they are read, before the game starts, see
+	 * {@link com.treasuremap.app.model.AdventurerParser#stream(String)}.
+	 *
+	 * @param adventurer The adventurer to add.
+	 * @throws IllegalArgumentException if the adventurer cannot be placed: out of the map, on a mountain or on an
+	 *                                  occupied tile.
+	 */
+	public void addAdventurer(Adventurer adventurer) {
+		if (!map.addAdventurer(adventurer, adventurer.getX(), adventurer.getY())) {
+			throw new IllegalArgumentException("Adventurer " + adventurer.getName() + " cannot be placed at ("
+					+ adventurer.getX() + "," + adventurer.getY() + ")");
 		}
+
+		adventurers.add(adventurer);
 	}
 
 	/**
-	 * Initializes the timer to measure the duration of the game.
+	 * Waits until the game played in real time has finished and the printer, if any, has written the result.
+	 *
+	 * @throws InterruptedException if interrupted while waiting.
 	 */
-	private void initTimer() {
-		durationTimer.scheduleAtFixedRate(new TimerTask() {
-			@Override
-			public void run() {
-				duration++;
-
-				if (hasFinished()) {
-					durationTimer.cancel();
-				}
-			}
-		}, 0, 1000);
+	public void awaitTermination() throws InterruptedException {
+		try {
+			playing.get();
+			printing.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("The game has failed", e.getCause());
+		}
 	}
 
 	/**
 	 * Executes given adventurer's current step then increases their pointer by 1.
 	 * If the pointer is greater than the path's length then does nothing.
+	 * If the adventurer is waiting for a tile to be free, then does nothing: the pointer is only increased
+	 * once the adventurer has been woken up and has moved.
 	 *
 	 * Here is an example: the adventurer 'A' is on first tile (0,0) and the path is 'AADADAGA' facing south.
 	 * The pointer is initially 0, after adventurer moves, the pointer is then 1.
@@ -110,33 +161,47 @@ public class Game {
 	 * |   |   |   |                                  |   |   |   |
 	 * +---+---+---+                                  +---+---+---+
 	 *
-	 * @see Adventurer#getPath()
+	 * @see Adventurer#getStep()
 	 * @param adventurer adventurer to move.
 	 */
 	public void executeAdventurerPath(Adventurer adventurer) {
-		String path = adventurer.getPath();
-		int pointer = adventurer.getPointer();
-
-		if (pointer >= path.length()) {
+		if (adventurer.hasCompletedPath() || adventurer.isWaiting()) {
 			return;
 		}
 
-		char c = path.charAt(pointer);
+		int pointer = adventurer.getPointer();
+		int step = adventurer.getStep();
 
-		if (c == 'A') {
-			map.moveAdventurerForward(adventurer);
+		if (step != PathProgram.MOVE) {
+			adventurer.turn(step);
 			adventurer.setPointer(pointer + 1);
-		} else if (c == 'D') {
-			adventurer.rotateRight();
+		} else if (map.moveAdventurerForwardOrWait(adventurer)) {
 			adventurer.setPointer(pointer + 1);
-		} else if (c == 'G') {
-			adventurer.rotateLeft();
-			adventurer.setPointer(pointer + 1);
-		} else {
-			System.err.println("Error, symbol '" + c + "' unknown.");
 		}
 	}
 
+	/**
+	 * Executes one tick of the game: every adventurer executes their current step, in the adventurers' order,
+	 * then the duration increases by one.
+	 *
+	 * @see #executeAdventurerPath(Adventurer)
+	 */
+	public void tick() {
+		for (Adventurer adventurer : adventurers) {
+			executeAdventurerPath(adventurer);
+		}
+
+		incrementDuration();
+	}
+
+	/**
+	 * Increases the duration by one tick, to be called by the engines once every adventurer
+	 * has executed their current step.
+	 */
+	void incrementDuration() {
+		duration++;
+	}
+
 	/**
 	 * Returns true if the game has finished, else false.
 	 * A game is said to have finished if every adventurer has executed every step of their path,
@@ -154,40 +219,84 @@ public class Game {
 		return true;
 	}
 
+	/**
+	 * Returns true if the game is stalled, else false.
+	 * A game is said to be stalled if it has not finished and every adventurer who has not completed their path
+	 * is waiting: nobody is left to free the tiles they are waiting for.
+	 *
+	 * @return true if the game is stalled, else false.
+	 */
+	public boolean isStalled() {
+		boolean hasWaitingAdventurer = false;
+
+		for (Adventurer adventurer : adventurers) {
+			if (adventurer.hasCompletedPath()) {
+				continue;
+			}
+
+			if (!adventurer.isWaiting()) {
+				return false;
+			}
+
+			hasWaitingAdventurer = true;
+		}
+
+		return hasWaitingAdventurer;
+	}
+
+	/**
+	 * Returns true if the game is over, i.e. it has either finished or stalled, else false.
+	 *
+	 * @return true if the game is over, else false.
+	 */
+	public boolean isOver() {
+		return hasFinished() || isStalled();
+	}
+
 	/**
 	 * Prints to standard output the state of the game.
 	 */
 	public void print() {
-		Timer timer = new Timer();
 		Game game = this;
 
-		timer.scheduleAtFixedRate(new TimerTask() {
-			@Override
-			public void run() {
-				System.out.println("\033[H\033[2J"); // Clear screen
-				System.out.println(game.toString());
-
-				if (game.hasFinished()) {
-					timer.cancel();
-
-					try {
-						GameUtils.writeGameStateToFile(game);
-						System.out.println("Result written to file 'result.txt'");
-					} catch (IOException e) {
-						e.printStackTrace();
-					}
-				}
+		printing = getScheduler().repeat(() -> {
+			System.out.println("\033[H\033[2J"); // Clear screen
+			System.out.println(game.toString());
+
+			if (!game.isOver()) {
+				return false;
 			}
-		}, 0, 50);
+
+			try {
+				GameUtils.writeGameStateToFile(game);
+				System.out.println("Result written to file 'result.txt'");
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+
+			return true;
+		}, 50, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Prints to standard output the final state of the game once, then writes it to file 'result.txt'.
+	 * Unlike {@link #print()}, the screen is not cleared and nothing is polled.
+	 *
+	 * @throws IOException
+	 */
+	public void report() throws IOException {
+		System.out.println(toString());
+		GameUtils.writeGameStateToFile(this);
+		System.out.println("Result written to file 'result.txt'");
 	}
 
 	@Override
 	public String toString() {
 		StringBuilder builder = new StringBuilder();
 
-		builder.append("Duration: " + duration + "s");
+		builder.append("Duration: " + duration + (engine == null ? "s" : " ticks"));
 		builder.append("\n");
-		builder.append("Game: " + (hasFinished() ? "finished" : "ongoing"));
+		builder.append("Game: " + (hasFinished() ? "finished" : isStalled() ? "stalled" : "ongoing"));
 		builder.append("\n");
 		builder.append("\n");
 		builder.append(map.toString());
@@ -225,42 +334,55 @@ public class Game {
 	}
 
 	/**
-	 * Returns one line describing the adventurer's current state.
+	 * Returns one line describing the adventurer's current state, below an arrow pointing at the next action of
+	 * their path. A path with repetitions or read from a file is not displayed one letter per action, see
+	 * {@link PathProgram#isExpanded()}: the arrow is replaced by the number of actions executed.
 	 *
 	 * @param adventurer The adventurer to describe.
 	 * @return string containing the state of the adventurer.
 	 */
 	private String builderAdventurerInfo(Adventurer adventurer) {
 		StringBuilder builder = new StringBuilder();
+		String path = adventurer.getPath();
+		PathProgram program = adventurer.getProgram();
+		boolean isExpanded = program == null || program.isExpanded();
+
+		if (isExpanded) {
+			int spaces = 0;
+
+			// John: (2,1), treasures=0, path=AADADAGA, orientation=EAST
+			spaces += adventurer.getName().length();
+			spaces += 3; // to reach the first parenthesis
+			spaces += String.valueOf( adventurer.getX() ).length();
+			spaces += 1; // comma between the coordinates
+			spaces += String.valueOf( adventurer.getY() ).length();
+			spaces += 3; // closing parenthesis, comma then space
+			spaces += "treasures".length();
+			spaces += 1; // equal sign
+			spaces += String.valueOf( adventurer.getTreasures() ).length();
+			spaces += 2; // comma then space
+			spaces += "path".length();
+			spaces += Math.min(adventurer.getPointer(), path == null ? 0 : path.length());
+
+			for (int i = 0 ; i < spaces ; i++) {
+				builder.append(" ");
+			}
 
-		int spaces = 0;
-
-		// John: (2,1), treasures=0, path=AADADAGA, orientation=EAST
-		spaces += adventurer.getName().length();
-		spaces += 3; // to reach the first parenthesis
-		spaces += String.valueOf( adventurer.getX() ).length();
-		spaces += 1; // comma between the coordinates
-		spaces += String.valueOf( adventurer.getY() ).length();
-		spaces += 3; // closing parenthesis, comma then space
-		spaces += "treasures".length();
-		spaces += 1; // equal sign
-		spaces += String.valueOf( adventurer.getTreasures() ).length();
-		spaces += 2; // comma then space
-		spaces += "path".length();
-		spaces += adventurer.getPointer();
-
-		for (int i = 0 ; i < spaces ; i++) {
-			builder.append(" ");
+			builder.append("↓");
+			builder.append("\n");
 		}
 
-		builder.append("↓");
-
-		builder.append("\n");
 		builder.append(adventurer.getName());
 		builder.append(": ");
 		builder.append("(" + (adventurer.getX() + 1) + "," + (adventurer.getY() + 1) + "), ");
 		builder.append("treasures=" + adventurer.getTreasures() + ", ");
-		builder.append("path=" + adventurer.getPath()+ ", ");
+		builder.append("path=" + path + ", ");
+
+		if (!isExpanded) {
+			int length = program.length();
+			builder.append("step=" + adventurer.getPointer() + (length >= 0 ? "/" + length : "") + ", ");
+		}
+
 		builder.append("orientation=" + adventurer.getOrientation().name());
 
 		return builder.toString();
@@ -273,24 +395,18 @@ public class Game {
 	 */
 	private String mountainsInfo() {
 		StringBuilder builder = new StringBuilder("[ Mountains ]\n");
-		boolean hasMountain = false;
-
-		Tile[][] tiles = map.getTiles();
-
-		for (int i = 0 ; i < tiles.length ; i++) {
-			for (int j = 0 ; j < tiles[i].length ; j++) {
-				Tile tile = tiles[i][j];
-
-				if (tile.isMountain()) {
-					hasMountain = true;
-
-					builder.append("(" + (tile.getX() + 1) + "," + (tile.getY() + 1) + ")");
-					builder.append("\n");
-				}
+		int header = builder.length();
+		TileStorage storage = map.getStorage();
+
+		storage.forEachNonBlank((x, y) -> {
+			if (storage.getType(x, y) == TileType.MOUNTAIN) {
+				// Tiles are built with (row, column)
+				builder.append("(" + (y + 1) + "," + (x + 1) + ")");
+				builder.append("\n");
 			}
-		}
+		});
 
-		if (!hasMountain) {
+		if (builder.length() == header) {
 			builder.append("No mountains\n");
 		}
 
@@ -304,24 +420,20 @@ public class Game {
 	 */
 	private String treasuresInfo() {
 		StringBuilder builder = new StringBuilder("[ Treasures ]\n");
-		boolean hasTreasures = false;
+		int header = builder.length();
+		TileStorage storage = map.getStorage();
 
-		Tile[][] tiles = map.getTiles();
+		storage.forEachNonBlank((x, y) -> {
+			int treasures = storage.getTreasures(x, y);
 
-		for (int i = 0 ; i < tiles.length ; i++) {
-			for (int j = 0 ; j < tiles[i].length ; j++) {
-				Tile tile = tiles[i][j];
-
-				if (tile.hasTreasures()) {
-					hasTreasures = true;
-
-					builder.append("(" + (tile.getX() + 1) + "," + (tile.getY() + 1) + "), quantity=" + tile.getTreasures());
-					builder.append("\n");
-				}
+			if (treasures > 0) {
+				// Tiles are built with (row, column)
+				builder.append("(" + (y + 1) + "," + (x + 1) + "), quantity=" + treasures);
+				builder.append("\n");
 			}
-		}
+		});
 
-		if (!hasTreasures) {
+		if (builder.length() == header) {
 			builder.append("No treasures\n");
 		}
 
@@ -0,0 +1,19 @@
+package com.treasuremap.app.controller;
+
+/**
+ * GameEngine
+ *
+ * Drives a game from its initial state until it is over, i.e. it has finished or stalled.
+ * An engine decides how the ticks are executed (paced, headless, concurrent...),
+ * the rules of a tick remain the ones of {@link Game#tick()}.
+ */
+public interface GameEngine {
+
+	/**
+	 * Runs the given game until it is over.
+	 *
+	 * @see Game#isOver()
+	 * @param game The game to run.
+	 */
+	void run(Game game);
+}
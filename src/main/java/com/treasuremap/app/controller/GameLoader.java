@@ -0,0 +1,219 @@
+package com.treasuremap.app.controller;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.stream.Stream;
+
+import com.treasuremap.app.model.Adventurer;
+import com.treasuremap.app.model.AdventurerParser;
+import com.treasuremap.app.model.TreasureMap;
+import com.treasuremap.app.model.TreasureMapParser;
+
+/**
+ * GameLoader
+ *
+ * Loads a game from the adventurers' file and the map file, both parsed at the same time: the map on a thread of its
+ * own, the adventurers on the calling thread. The adventurers read before the map is ready are kept aside, then every
+ * adventurer is placed on the map as soon as both are there, by blocks of {@link #BLOCK} adventurers, see
+ * {@link Game#addAdventurer(Adventurer)}. The duration of each phase is reported, see {@link #getReport()}.
+ *
+ * A malformed map file is reported first, as if the map had been parsed before the adventurers.
+ */
+public class GameLoader {
+	/**
+	 * The name given instead of the adventurers' file or of the map file to read it from the standard input.
+	 */
+	public static final String STANDARD_INPUT = "-";
+
+	/**
+	 * The number of adventurers placed at once.
+	 */
+	static final int BLOCK = 1024;
+
+	/**
+	 * The adventurers' file.
+	 */
+	private final String adventurersFile;
+
+	/**
+	 * The map file.
+	 */
+	private final String mapFile;
+
+	/**
+	 * File of the tiles of the map to create, null to keep the map in memory.
+	 */
+	private final String tilesFile;
+
+	/**
+	 * The time spent parsing the map file, in nanoseconds, written by the thread of the map before it completes.
+	 */
+	private long mapNanos;
+
+	/**
+	 * The time spent placing the adventurers, in nanoseconds.
+	 */
+	private long placementNanos;
+
+	/**
+	 * The durations of the last loading, null until a game has been loaded.
+	 */
+	private LoadReport report;
+
+	/**
+	 * Constructs a new object GameLoader.
+	 *
+	 * @param adventurersFile The adventurers' file, or {@link #STANDARD_INPUT}.
+	 * @param mapFile         The map file, or {@link #STANDARD_INPUT}.
+	 * @param tilesFile       File of the tiles of the map to create, null to keep the map in memory,
+	 *                        see {@link TreasureMapParser#parseFile(String, String)}.
+	 * @throws IllegalArgumentException if both files are the standard input.
+	 */
+	public GameLoader(String adventurersFile, String mapFile, String tilesFile) {
+		if (STANDARD_INPUT.equals(adventurersFile) && STANDARD_INPUT.equals(mapFile)) {
+			throw new IllegalArgumentException("Only one file can be read from the standard input");
+		}
+
+		this.adventurersFile = adventurersFile;
+		this.mapFile = mapFile;
+		this.tilesFile = tilesFile;
+	}
+
+	/**
+	 * Loads the map and the adventurers into the given game.
+	 *
+	 * @param game The game, without map nor adventurers.
+	 * @return the game.
+	 * @throws IOException if a file cannot be read.
+	 * @throws IllegalArgumentException if a file is malformed or an adventurer cannot be placed.
+	 */
+	public Game load(Game game) throws IOException {
+		long start = System.nanoTime();
+		FutureTask<TreasureMap> map = new FutureTask<>(this::parseMap);
+		Thread thread = new Thread(map, "map-loader");
+		thread.setDaemon(true);
+		thread.start();
+
+		List<Adventurer> pending = new ArrayList<>();
+		placementNanos = 0;
+
+		try (Stream<Adventurer> adventurers = streamAdventurers()) {
+			Iterator<Adventurer> iterator = adventurers.iterator();
+
+			while (iterator.hasNext()) {
+				pending.add(iterator.next());
+
+				// Placed by blocks once the map is there, kept aside meanwhile
+				if (pending.size() >= BLOCK && (game.getMap() != null || map.isDone())) {
+					place(game, map, pending);
+				}
+			}
+		} catch (RuntimeException e) {
+			// A malformed map is reported first
+			await(map);
+			throw e;
+		}
+
+		// Neither the placements nor the wait for the map are part of the parsing of the adventurers
+		long adventurersNanos = System.nanoTime() - start - placementNanos;
+		place(game, map, pending);
+		report = new LoadReport(mapNanos, adventurersNanos, placementNanos, System.nanoTime() - start,
+				game.getAdventurers().size());
+
+		return game;
+	}
+
+	/**
+	 * Returns the durations of the phases of the last loading.
+	 *
+	 * @return the report, null if no game has been loaded.
+	 */
+	public LoadReport getReport() {
+		return report;
+	}
+
+	/**
+	 * Parses the map file and records how long it took.
+	 *
+	 * @return the map.
+	 * @throws IOException if the file cannot be read.
+	 */
+	private TreasureMap parseMap() throws IOException {
+		long start = System.nanoTime();
+		TreasureMapParser parser = TreasureMapParser.getInstance();
+		TreasureMap map = STANDARD_INPUT.equals(mapFile)
+				? parser.parse(Channels.newChannel(System.in), "standard input", tilesFile)
+				: parser.parseFile(mapFile, tilesFile);
+		mapNanos = System.nanoTime() - start;
+
+		return map;
+	}
+
+	/**
+	 * Returns the adventurers of the adventurers' file as they are read.
+	 *
+	 * @return the stream of the adventurers.
+	 * @throws IOException if the file cannot be opened.
+	 */
+	private Stream<Adventurer> streamAdventurers() throws IOException {
+		AdventurerParser parser = AdventurerParser.getInstance();
+
+		return STANDARD_INPUT.equals(adventurersFile)
+				? parser.stream(System.in, "standard input")
+				: parser.stream(adventurersFile);
+	}
+
+	/**
+	 * Places the given adventurers on the map of the game, waiting for the map first if need be, and empties the list.
+	 *
+	 * @param game    The game.
+	 * @param map     The map being parsed.
+	 * @param pending The adventurers to place.
+	 * @throws IOException if the map file cannot be read.
+	 */
+	private void place(Game game, FutureTask<TreasureMap> map, List<Adventurer> pending) throws IOException {
+		if (game.getMap() == null) {
+			game.setMap(await(map));
+		}
+
+		long start = System.nanoTime();
+
+		for (Adventurer adventurer : pending) {
+			game.addAdventurer(adventurer);
+		}
+
+		pending.clear();
+		placementNanos += System.nanoTime() - start;
+	}
+
+	/**
+	 * Waits for the map being parsed and returns it.
+	 *
+	 * @param map The map being parsed.
+	 * @return the map.
+	 * @throws IOException if the map file cannot be read.
+	 */
+	private static TreasureMap await(FutureTask<TreasureMap> map) throws IOException {
+		try {
+			return map.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while loading the map", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+
+			throw new IllegalStateException("The map cannot be loaded", e.getCause());
+		}
+	}
+}
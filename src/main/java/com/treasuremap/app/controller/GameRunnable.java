@@ -1,14 +1,15 @@
 package com.treasuremap.app.controller;
 
-import java.util.Timer;
-import java.util.TimerTask;
-import com.treasuremap.app.App;
 import com.treasuremap.app.model.Adventurer;
 import lombok.Getter;
 import lombok.Setter;
 
 /**
- * GameThread
+ * GameRunnable
+ *
+ * Executes the current step of an adventurer, the tick is paced by whoever runs it.
+ *
+ * @see Game#executeAdventurerPath(Adventurer)
  */
 public class GameRunnable implements Runnable {
 	@Getter @Setter private Game game;
@@ -21,17 +22,6 @@ public class GameRunnable implements Runnable {
 
 	@Override
 	public void run() {
-		Timer timer = new Timer();
-
-		timer.scheduleAtFixedRate(new TimerTask() {
-			@Override
-			public void run() {
-				game.executeAdventurerPath(adventurer);
-
-				if (adventurer.getPointer() >= adventurer.getPath().length()) {
-					timer.cancel();
-				}
-			}
-		}, 0, 1000);
+		game.executeAdventurerPath(adventurer);
 	}
 }
@@ -0,0 +1,176 @@
+package com.treasuremap.app.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+/**
+ * GameScheduler
+ *
+ * Pool of threads shared by the games of the process: it paces the ticks, the printer and
+ * executes the adventurers' tasks of the concurrent engines.
+ * Its threads are daemons, use {@link #repeat(BooleanSupplier, long, TimeUnit)} futures to wait for a game.
+ */
+public class GameScheduler {
+	/**
+	 * The scheduler of the process.
+	 */
+	private static GameScheduler scheduler;
+
+	/**
+	 * The executor backing this scheduler.
+	 */
+	private final ScheduledExecutorService executor;
+
+	/**
+	 * The number of threads of the pool.
+	 */
+	private final int parallelism;
+
+	/**
+	 * Constructs a new object GameScheduler.
+	 *
+	 * @param threads The number of threads of the pool.
+	 */
+	public GameScheduler(int threads) {
+		parallelism = Math.max(1, threads);
+		executor = new ScheduledThreadPoolExecutor(parallelism, new DaemonThreadFactory());
+	}
+
+	/**
+	 * Returns the scheduler of the process, its size is the number of available cores.
+	 *
+	 * @return the scheduler of the process.
+	 */
+	public static synchronized GameScheduler getInstance() {
+		if (scheduler == null) {
+			scheduler = new GameScheduler(Runtime.getRuntime().availableProcessors());
+		}
+
+		return scheduler;
+	}
+
+	/**
+	 * Returns the number of threads of the pool.
+	 *
+	 * @return the number of threads of the pool.
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Runs the given task now then at a fixed rate until it returns true.
+	 * The returned future completes once the task has returned true, or exceptionally if the task has thrown anything,
+	 * an error included.
+	 *
+	 * @param task   The task to run, returns true when it is done.
+	 * @param period The period between two runs.
+	 * @param unit   The unit of the period.
+	 * @return a future completed when the task is done.
+	 */
+	public CompletableFuture<Void> repeat(BooleanSupplier task, long period, TimeUnit unit) {
+		CompletableFuture<Void> completion = new CompletableFuture<>();
+
+		ScheduledFuture<?> future = executor.scheduleAtFixedRate(() -> {
+			if (completion.isDone()) {
+				return;
+			}
+
+			try {
+				if (task.getAsBoolean()) {
+					completion.complete(null);
+				}
+			} catch (Throwable e) {
+				// Errors as well, the future would never complete otherwise and its waiters would hang
+				completion.completeExceptionally(e);
+			}
+		}, 0, period, unit);
+
+		completion.whenComplete((result, error) -> future.cancel(false));
+
+		return completion;
+	}
+
+	/**
+	 * Executes the given tasks on the pool and waits until all of them have completed.
+	 *
+	 * @param tasks The tasks to execute.
+	 * @throws InterruptedException if interrupted while waiting.
+	 * @throws IllegalStateException if a task has thrown.
+	 */
+	public <T> void invokeAll(List<? extends Callable<T>> tasks) throws InterruptedException {
+		for (Future<T> future : executor.invokeAll(tasks)) {
+			try {
+				future.get();
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("A task of the scheduler has failed", e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Executes the given action for every index from 0 (inclusive) to count (exclusive) on the pool
+	 * and waits until all of them have been executed.
+	 * The indexes are split into contiguous ranges, a few per thread, so that a task is not created per index.
+	 *
+	 * @param count  The number of indexes.
+	 * @param action The action to execute for each index.
+	 * @throws InterruptedException if interrupted while waiting.
+	 */
+	public void forEach(int count, IntConsumer action) throws InterruptedException {
+		int chunks = Math.min(count, parallelism * 4);
+		List<Callable<Object>> tasks = new ArrayList<>(chunks);
+
+		for (int chunk = 0 ; chunk < chunks ; chunk++) {
+			int from = (int) ((long) count * chunk / chunks);
+			int to = (int) ((long) count * (chunk + 1) / chunks);
+
+			tasks.add(() -> {
+				for (int i = from ; i < to ; i++) {
+					action.accept(i);
+				}
+
+				return null;
+			});
+		}
+
+		invokeAll(tasks);
+	}
+
+	/**
+	 * Stops the pool, tasks still scheduled are cancelled.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Creates the daemon threads of the pool.
+	 */
+	private static class DaemonThreadFactory implements ThreadFactory {
+		/**
+		 * Index of the next thread.
+		 */
+		private final AtomicInteger index = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "game-scheduler-" + index.incrementAndGet());
+			thread.setDaemon(true);
+
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,186 @@
+package com.treasuremap.app.controller;
+
+import java.util.List;
+
+import com.treasuremap.app.model.Adventurer;
+import com.treasuremap.app.model.PathProgram;
+import com.treasuremap.app.model.TileStorage;
+import com.treasuremap.app.model.TileType;
+import com.treasuremap.app.model.TreasureMap;
+
+/**
+ * IntentEngine
+ *
+ * Headless engine whose results do not depend on thread timing. Each tick is executed in three phases:
+ * 1. intent: in parallel, every adventurer computes their action against the map as it was at the beginning of the tick,
+ *    the map is only read;
+ * 2. resolve: adventurers aiming at the same free tile are resolved by the adventurers' order, the first one wins,
+ *    the others wait, see {@link TileClaims};
+ * 3. apply: in parallel, the winners move and gain the treasures, the others turn or wait.
+ *
+ * Once applied, an adventurer who waited is flagged as waiting only if the tile is still occupied:
+ * thus the game is stalled exactly when the next tick would change nothing.
+ *
+ * An adventurer can only move onto a tile free at the beginning of the tick: following an adventurer who leaves
+ * a tile costs one tick of waiting, whatever the order of the adventurers.
+ */
+public class IntentEngine implements GameEngine {
+	/**
+	 * Nothing to do: the path is completed.
+	 */
+	static final byte IDLE = 0;
+
+	/**
+	 * Turns as the current step of the path says, see {@link Adventurer#turn(int)}.
+	 */
+	static final byte TURN = 1;
+
+	/**
+	 * Moves forward onto a free tile, unless another adventurer wins it.
+	 */
+	static final byte MOVE = 2;
+
+	/**
+	 * Attempts to move onto a mountain or past the bounds: nothing happens but the action is done.
+	 */
+	static final byte BUMP = 3;
+
+	/**
+	 * Waits: the tile in front is occupied, or has been won by another adventurer.
+	 */
+	static final byte WAIT = 4;
+
+	/**
+	 * The scheduler executing the parallel phases.
+	 */
+	private final GameScheduler scheduler;
+
+	/**
+	 * Constructs a new object IntentEngine using the scheduler of the process.
+	 */
+	public IntentEngine() {
+		this(GameScheduler.getInstance());
+	}
+
+	/**
+	 * Constructs a new object IntentEngine.
+	 *
+	 * @param scheduler The scheduler executing the parallel phases.
+	 */
+	public IntentEngine(GameScheduler scheduler) {
+		this.scheduler = scheduler;
+	}
+
+	@Override
+	public void run(Game game) {
+		List<Adventurer> adventurers = game.getAdventurers();
+		TreasureMap map = game.getMap();
+		int count = adventurers.size();
+
+		byte[] intents = new byte[count];
+		int[] targetsX = new int[count];
+		int[] targetsY = new int[count];
+		TileClaims winners = new TileClaims(count);
+
+		try {
+			while (!game.isOver()) {
+				scheduler.forEach(count, i -> intend(map, adventurers.get(i), i, intents, targetsX, targetsY));
+
+				winners.clear();
+
+				for (int i = 0 ; i < count ; i++) {
+					if (intents[i] == MOVE && !winners.claim(TileStorage.key(targetsX[i], targetsY[i]), i)) {
+						intents[i] = WAIT;
+					}
+				}
+
+				scheduler.forEach(count, i -> apply(map, adventurers.get(i), intents[i], targetsX[i], targetsY[i]));
+				scheduler.forEach(count, i -> settle(map, adventurers.get(i), intents[i], targetsX[i], targetsY[i]));
+				game.incrementDuration();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Computes the intent of the given adventurer, the map is only read.
+	 *
+	 * @param map        The map.
+	 * @param adventurer The adventurer.
+	 * @param index      The index of the adventurer.
+	 * @param intents    The intents, by adventurer's index.
+	 * @param targetsX   The abscissas of the targets, by adventurer's index.
+	 * @param targetsY   The ordinates of the targets, by adventurer's index.
+	 */
+	static void intend(TreasureMap map, Adventurer adventurer, int index, byte[] intents, int[] targetsX, int[] targetsY) {
+		if (adventurer.hasCompletedPath()) {
+			intents[index] = IDLE;
+			return;
+		}
+
+		if (adventurer.getStep() != PathProgram.MOVE) {
+			intents[index] = TURN;
+			return;
+		}
+
+		int x = adventurer.getForwardX();
+		int y = adventurer.getForwardY();
+
+		targetsX[index] = x;
+		targetsY[index] = y;
+
+		if (x < 0 || y < 0 || x >= map.getWidth() || y >= map.getHeight()) {
+			intents[index] = BUMP;
+			return;
+		}
+
+		TileStorage storage = map.getStorage();
+
+		if (storage.getType(x, y) == TileType.MOUNTAIN) {
+			intents[index] = BUMP;
+		} else if (storage.isOccupied(x, y)) {
+			intents[index] = WAIT;
+		} else {
+			intents[index] = MOVE;
+		}
+	}
+
+	/**
+	 * Applies the resolved intent of the given adventurer.
+	 * The targets of the moves are distinct and were free at the beginning of the tick, thus the moves never collide.
+	 *
+	 * @param map        The map.
+	 * @param adventurer The adventurer.
+	 * @param intent     The resolved intent.
+	 * @param targetX    The abscissa of the target.
+	 * @param targetY    The ordinate of the target.
+	 */
+	static void apply(TreasureMap map, Adventurer adventurer, byte intent, int targetX, int targetY) {
+		if (intent == IDLE || intent == WAIT) {
+			return;
+		}
+
+		if (intent == TURN) {
+			adventurer.turn(adventurer.getStep());
+		} else if (intent == MOVE) {
+			map.moveAdventurer(adventurer, targetX, targetY);
+		}
+
+		adventurer.setPointer(adventurer.getPointer() + 1);
+	}
+
+	/**
+	 * Flags the given adventurer as waiting if they waited and the tile they aim at is still occupied, once every
+	 * intent has been applied.
+	 *
+	 * @param map        The map.
+	 * @param adventurer The adventurer.
+	 * @param intent     The resolved intent.
+	 * @param targetX    The abscissa of the target.
+	 * @param targetY    The ordinate of the target.
+	 */
+	static void settle(TreasureMap map, Adventurer adventurer, byte intent, int targetX, int targetY) {
+		adventurer.setWaiting(intent == WAIT && map.getStorage().isOccupied(targetX, targetY));
+	}
+}
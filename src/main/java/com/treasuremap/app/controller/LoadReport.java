@@ -0,0 +1,95 @@
+package com.treasuremap.app.controller;
+
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+
+/**
+ * LoadReport
+ *
+ * Durations of the phases of the loading of a game by a {@link GameLoader}. The map and the adventurers being parsed
+ * concurrently, the loading takes less than the sum of its phases.
+ */
+@Getter
+public class LoadReport {
+	/**
+	 * The time spent parsing the map file, in nanoseconds.
+	 *
+	 * @return the time spent parsing the map file.
+	 */
+	private final long mapNanos;
+
+	/**
+	 * The time spent parsing the adventurers' file, in nanoseconds, placement excluded.
+	 *
+	 * @return the time spent parsing the adventurers' file.
+	 */
+	private final long adventurersNanos;
+
+	/**
+	 * The time spent placing the adventurers on the map, in nanoseconds.
+	 *
+	 * @return the time spent placing the adventurers on the map.
+	 */
+	private final long placementNanos;
+
+	/**
+	 * The time elapsed from the start of the loading to the game being ready, in nanoseconds.
+	 *
+	 * @return the time elapsed loading the game.
+	 */
+	private final long wallNanos;
+
+	/**
+	 * The number of adventurers placed.
+	 *
+	 * @return the number of adventurers placed.
+	 */
+	private final int adventurers;
+
+	/**
+	 * Constructs a new object LoadReport.
+	 *
+	 * @param mapNanos         The time spent parsing the map file, in nanoseconds.
+	 * @param adventurersNanos The time spent parsing the adventurers' file, in nanoseconds.
+	 * @param placementNanos   The time spent placing the adventurers on the map, in nanoseconds.
+	 * @param wallNanos        The time elapsed loading the game, in nanoseconds.
+	 * @param adventurers      The number of adventurers placed.
+	 */
+	public LoadReport(long mapNanos, long adventurersNanos, long placementNanos, long wallNanos, int adventurers) {
+		this.mapNanos = mapNanos;
+		this.adventurersNanos = adventurersNanos;
+		this.placementNanos = placementNanos;
+		this.wallNanos = wallNanos;
+		this.adventurers = adventurers;
+	}
+
+	/**
+	 * Returns the time the phases would have taken one after the other, in nanoseconds.
+	 *
+	 * @return the sum of the durations of the phases.
+	 */
+	public long getSequentialNanos() {
+		return mapNanos + adventurersNanos + placementNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Map parsed in %d ms%n"
+				+ "Adventurers parsed in %d ms%n"
+				+ "%d adventurers placed in %d ms%n"
+				+ "Game loaded in %d ms, %d ms one phase after the other",
+				millis(mapNanos), millis(adventurersNanos), adventurers, millis(placementNanos), millis(wallNanos),
+				millis(getSequentialNanos()));
+	}
+
+	/**
+	 * Returns the given duration in milliseconds.
+	 *
+	 * @param nanos The duration, in nanoseconds.
+	 * @return the duration, in milliseconds.
+	 */
+	private static long millis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+}
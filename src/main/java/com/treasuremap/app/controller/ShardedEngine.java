@@ -0,0 +1,682 @@
+package com.treasuremap.app.controller;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+import com.treasuremap.app.model.Adventurer;
+import com.treasuremap.app.model.PathProgram;
+import com.treasuremap.app.model.TileStorage;
+import com.treasuremap.app.model.TileType;
+import com.treasuremap.app.model.TreasureMap;
+
+/**
+ * ShardedEngine
+ *
+ * Headless engine splitting the map into rectangular regions, each region is owned by one task at a time and plays
+ * the adventurers standing on it. The rules are the ones of {@link IntentEngine}, thus both give the same results.
+ *
+ * Each region owns its slice of the map: the tiles occupied by its adventurers and the tiles whose treasures have
+ * been taken. The storage of the map is only read during the game, for the terrain and the initial treasures, and
+ * the slices are written back to it once the game is over.
+ *
+ * Each tick is executed in four phases, every region running in parallel:
+ * 1. intent: the region's adventurers compute their action, a move is posted to the outbox towards the region owning the target;
+ * 2. resolve: the region resolves the moves aiming at its tiles, read from its own outbox and its neighbours' ones:
+ *    the target must be free in its slice and the first adventurer in order wins it;
+ * 3. apply: the region's adventurers act, the ones who crossed the border are posted to the outbox towards their new
+ *    region, which takes them in at the next phase;
+ * 4. settle: the region takes in the adventurers handed off and flags the ones who waited for its tiles.
+ *
+ * An adventurer moves by one tile at most, hence a region only exchanges with its neighbours. The regions count
+ * their adventurers still playing and waiting, thus the end of the game is known without visiting every adventurer.
+ */
+public class ShardedEngine implements GameEngine {
+	/**
+	 * The outbox of a region towards itself, see {@link Grid#direction(Region, int, int)}.
+	 */
+	private static final int CENTER = 4;
+
+	/**
+	 * The scheduler executing the regions.
+	 */
+	private final GameScheduler scheduler;
+
+	/**
+	 * The number of regions along the abscissa.
+	 */
+	private final int columns;
+
+	/**
+	 * The number of regions along the ordinate.
+	 */
+	private final int rows;
+
+	/**
+	 * Constructs a new object ShardedEngine using the scheduler of the process, the map is split into
+	 * as many vertical strips as threads.
+	 */
+	public ShardedEngine() {
+		this(GameScheduler.getInstance(), GameScheduler.getInstance().getParallelism(), 1);
+	}
+
+	/**
+	 * Constructs a new object ShardedEngine.
+	 *
+	 * @param scheduler The scheduler executing the regions.
+	 * @param columns   The number of regions along the abscissa.
+	 * @param rows      The number of regions along the ordinate.
+	 */
+	public ShardedEngine(GameScheduler scheduler, int columns, int rows) {
+		this.scheduler = scheduler;
+		this.columns = Math.max(1, columns);
+		this.rows = Math.max(1, rows);
+	}
+
+	@Override
+	public void run(Game game) {
+		List<Adventurer> adventurers = game.getAdventurers();
+		TreasureMap map = game.getMap();
+		int count = adventurers.size();
+
+		int columns = Math.min(this.columns, map.getWidth());
+		int rows = Math.min(this.rows, map.getHeight());
+		int regionWidth = (map.getWidth() + columns - 1) / columns;
+		int regionHeight = (map.getHeight() + rows - 1) / rows;
+		Region[] regions = new Region[columns * rows];
+
+		for (int i = 0 ; i < regions.length ; i++) {
+			regions[i] = new Region(i % columns, i / columns);
+		}
+
+		Grid grid = new Grid(regions, columns, rows, regionWidth, regionHeight);
+
+		int[] originsX = new int[count];
+		int[] originsY = new int[count];
+
+		for (int i = 0 ; i < count ; i++) {
+			Adventurer adventurer = adventurers.get(i);
+			originsX[i] = adventurer.getX();
+			originsY[i] = adventurer.getY();
+
+			Region region = grid.regionOf(originsX[i], originsY[i]);
+			region.members.add(i);
+			region.occupied.add(TileStorage.key(originsX[i], originsY[i]));
+		}
+
+		byte[] intents = new byte[count];
+		int[] targetsX = new int[count];
+		int[] targetsY = new int[count];
+
+		try {
+			boolean isOver = game.isOver();
+
+			while (!isOver) {
+				scheduler.forEach(regions.length, r -> regions[r].intend(grid, map, adventurers, intents, targetsX, targetsY));
+				scheduler.forEach(regions.length, r -> regions[r].resolve(grid, intents, targetsX, targetsY));
+				scheduler.forEach(regions.length, r -> regions[r].apply(grid, map, adventurers, intents, targetsX, targetsY));
+				scheduler.forEach(regions.length, r -> regions[r].settle(grid, map, adventurers, intents, targetsX, targetsY));
+				game.incrementDuration();
+
+				int playing = 0;
+				int waiting = 0;
+
+				for (Region region : regions) {
+					playing += region.playing;
+					waiting += region.waiting;
+				}
+
+				isOver = waiting == playing;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			store(map, adventurers, regions, originsX, originsY);
+		}
+	}
+
+	/**
+	 * Writes the slices of the regions back to the storage of the map: the adventurers who moved leave their
+	 * original tile and occupy their current one, the treasures taken are removed.
+	 *
+	 * @param map         The map.
+	 * @param adventurers The adventurers.
+	 * @param regions     The regions.
+	 * @param originsX    The abscissas of the adventurers when the game started, by index.
+	 * @param originsY    The ordinates of the adventurers when the game started, by index.
+	 */
+	private static void store(TreasureMap map, List<Adventurer> adventurers, Region[] regions, int[] originsX, int[] originsY) {
+		TileStorage storage = map.getStorage();
+
+		for (int i = 0 ; i < originsX.length ; i++) {
+			Adventurer adventurer = adventurers.get(i);
+
+			if (adventurer.getX() != originsX[i] || adventurer.getY() != originsY[i]) {
+				storage.release(originsX[i], originsY[i], adventurer);
+			}
+		}
+
+		for (int i = 0 ; i < originsX.length ; i++) {
+			Adventurer adventurer = adventurers.get(i);
+
+			if (adventurer.getX() != originsX[i] || adventurer.getY() != originsY[i]) {
+				storage.claim(adventurer.getX(), adventurer.getY(), adventurer);
+			}
+		}
+
+		for (Region region : regions) {
+			region.emptied.forEach(key -> storage.setTreasures((int) key, (int) (key >>> 32), 0));
+		}
+	}
+
+	/**
+	 * The layout of the regions.
+	 */
+	private static class Grid {
+		/**
+		 * The regions, row by row.
+		 */
+		private final Region[] regions;
+
+		/**
+		 * The number of regions along the abscissa.
+		 */
+		private final int columns;
+
+		/**
+		 * The number of regions along the ordinate.
+		 */
+		private final int rows;
+
+		/**
+		 * The width of a region.
+		 */
+		private final int regionWidth;
+
+		/**
+		 * The height of a region.
+		 */
+		private final int regionHeight;
+
+		Grid(Region[] regions, int columns, int rows, int regionWidth, int regionHeight) {
+			this.regions = regions;
+			this.columns = columns;
+			this.rows = rows;
+			this.regionWidth = regionWidth;
+			this.regionHeight = regionHeight;
+		}
+
+		/**
+		 * Returns the region owning the given coordinates, which are within the bounds.
+		 *
+		 * @param x The abscissa.
+		 * @param y The ordinate.
+		 * @return the region owning the given coordinates.
+		 */
+		Region regionOf(int x, int y) {
+			return regions[(y / regionHeight) * columns + x / regionWidth];
+		}
+
+		/**
+		 * Returns the region at the given column and row, null past the bounds.
+		 *
+		 * @param column The column.
+		 * @param row    The row.
+		 * @return the region or null.
+		 */
+		Region regionAt(int column, int row) {
+			if (column < 0 || row < 0 || column >= columns || row >= rows) {
+				return null;
+			}
+
+			return regions[row * columns + column];
+		}
+
+		/**
+		 * Returns the direction from the given region to the region owning the given coordinates, which are within
+		 * the bounds and next to the region: (dy + 1) * 3 + (dx + 1), dx and dy being -1, 0 or 1.
+		 *
+		 * @param region The region.
+		 * @param x      The abscissa.
+		 * @param y      The ordinate.
+		 * @return the direction, {@link #CENTER} for the region itself.
+		 */
+		int direction(Region region, int x, int y) {
+			return (y / regionHeight - region.row + 1) * 3 + (x / regionWidth - region.column + 1);
+		}
+	}
+
+	/**
+	 * A region of the map, its slice and the adventurers standing on it.
+	 */
+	private static class Region {
+		/**
+		 * The column of this region.
+		 */
+		private final int column;
+
+		/**
+		 * The row of this region.
+		 */
+		private final int row;
+
+		/**
+		 * Indexes of the adventurers standing on this region, in the adventurers' order.
+		 */
+		private final IndexList members = new IndexList();
+
+		/**
+		 * The keys of the tiles of this region occupied by its adventurers.
+		 */
+		private final TileSet occupied = new TileSet();
+
+		/**
+		 * The keys of the tiles of this region whose treasures have been taken during the game.
+		 */
+		private final TileSet emptied = new TileSet();
+
+		/**
+		 * Indexes of the adventurers sent to each neighbour, by direction, see {@link Grid#direction(Region, int, int)}:
+		 * the moves towards its tiles after the intent phase, the adventurers handed off after the apply phase.
+		 */
+		private final IndexList[] outboxes = new IndexList[9];
+
+		/**
+		 * Indexes of the adventurers aiming at a tile of this region during the tick, in the adventurers' order.
+		 */
+		private final IndexList contenders = new IndexList();
+
+		/**
+		 * The first contender of each tile during the tick.
+		 */
+		private final TileClaims winners = new TileClaims(16);
+
+		/**
+		 * The number of adventurers of this region who have not completed their path, after the tick.
+		 */
+		private int playing;
+
+		/**
+		 * The number of adventurers waiting for a tile of this region, after the tick.
+		 */
+		private int waiting;
+
+		Region(int column, int row) {
+			this.column = column;
+			this.row = row;
+
+			for (int d = 0 ; d < outboxes.length ; d++) {
+				outboxes[d] = new IndexList();
+			}
+		}
+
+		/**
+		 * Computes the intents of the adventurers of this region and posts the moves towards the owner of the target.
+		 * Only the terrain of the map is read.
+		 */
+		void intend(Grid grid, TreasureMap map, List<Adventurer> adventurers, byte[] intents, int[] targetsX, int[] targetsY) {
+			clearOutboxes();
+
+			for (int k = 0 ; k < members.size ; k++) {
+				int i = members.values[k];
+				Adventurer adventurer = adventurers.get(i);
+
+				if (adventurer.hasCompletedPath()) {
+					intents[i] = IntentEngine.IDLE;
+					continue;
+				}
+
+				if (adventurer.getStep() != PathProgram.MOVE) {
+					intents[i] = IntentEngine.TURN;
+					continue;
+				}
+
+				int x = adventurer.getForwardX();
+				int y = adventurer.getForwardY();
+
+				targetsX[i] = x;
+				targetsY[i] = y;
+
+				if (x < 0 || y < 0 || x >= map.getWidth() || y >= map.getHeight()
+						|| map.getStorage().getType(x, y) == TileType.MOUNTAIN) {
+					intents[i] = IntentEngine.BUMP;
+				} else {
+					intents[i] = IntentEngine.MOVE;
+					outboxes[grid.direction(this, x, y)].add(i);
+				}
+			}
+		}
+
+		/**
+		 * Resolves the moves aiming at the tiles of this region, as the slice was at the beginning of the tick:
+		 * the target must be free and the first adventurer in order wins it. The others wait, whichever region they
+		 * stand on.
+		 */
+		void resolve(Grid grid, byte[] intents, int[] targetsX, int[] targetsY) {
+			contenders.size = 0;
+
+			for (int d = 0 ; d < outboxes.length ; d++) {
+				Region sender = grid.regionAt(column - (d % 3 - 1), row - (d / 3 - 1));
+
+				if (sender != null) {
+					contenders.addAll(sender.outboxes[d]);
+				}
+			}
+
+			Arrays.sort(contenders.values, 0, contenders.size);
+			winners.clear();
+
+			for (int k = 0 ; k < contenders.size ; k++) {
+				int i = contenders.values[k];
+				long key = TileStorage.key(targetsX[i], targetsY[i]);
+
+				if (occupied.contains(key) || !winners.claim(key, i)) {
+					intents[i] = IntentEngine.WAIT;
+				}
+			}
+		}
+
+		/**
+		 * Applies the intents of the adventurers of this region and posts the ones who crossed the border
+		 * towards their new region. The adventurers who waited are flagged by the region of their target.
+		 */
+		void apply(Grid grid, TreasureMap map, List<Adventurer> adventurers, byte[] intents, int[] targetsX, int[] targetsY) {
+			clearOutboxes();
+
+			int kept = 0;
+
+			for (int k = 0 ; k < members.size ; k++) {
+				int i = members.values[k];
+				Adventurer adventurer = adventurers.get(i);
+				byte intent = intents[i];
+				int direction = CENTER;
+
+				if (intent == IntentEngine.TURN) {
+					adventurer.turn(adventurer.getStep());
+				} else if (intent == IntentEngine.MOVE) {
+					occupied.remove(TileStorage.key(adventurer.getX(), adventurer.getY()));
+					adventurer.setX(targetsX[i]);
+					adventurer.setY(targetsY[i]);
+					direction = grid.direction(this, targetsX[i], targetsY[i]);
+
+					if (direction == CENTER) {
+						enter(map, adventurer);
+					}
+				}
+
+				if (intent != IntentEngine.WAIT) {
+					adventurer.setWaiting(false);
+				}
+
+				if (intent != IntentEngine.IDLE && intent != IntentEngine.WAIT) {
+					adventurer.setPointer(adventurer.getPointer() + 1);
+				}
+
+				if (direction == CENTER) {
+					members.values[kept++] = i;
+				} else {
+					outboxes[direction].add(i);
+				}
+			}
+
+			members.size = kept;
+		}
+
+		/**
+		 * Takes in the adventurers handed off by the neighbours, flags the contenders of this region still waiting,
+		 * and counts the adventurers playing and waiting.
+		 */
+		void settle(Grid grid, TreasureMap map, List<Adventurer> adventurers, byte[] intents, int[] targetsX, int[] targetsY) {
+			int arrived = 0;
+
+			for (int d = 0 ; d < outboxes.length ; d++) {
+				Region sender = d == CENTER ? null : grid.regionAt(column - (d % 3 - 1), row - (d / 3 - 1));
+
+				if (sender == null) {
+					continue;
+				}
+
+				IndexList outbox = sender.outboxes[d];
+
+				for (int k = 0 ; k < outbox.size ; k++) {
+					members.add(outbox.values[k]);
+					enter(map, adventurers.get(outbox.values[k]));
+				}
+
+				arrived += outbox.size;
+			}
+
+			if (arrived > 0) {
+				Arrays.sort(members.values, 0, members.size);
+			}
+
+			waiting = 0;
+
+			for (int k = 0 ; k < contenders.size ; k++) {
+				int i = contenders.values[k];
+
+				if (intents[i] == IntentEngine.WAIT) {
+					boolean isWaiting = occupied.contains(TileStorage.key(targetsX[i], targetsY[i]));
+					adventurers.get(i).setWaiting(isWaiting);
+					waiting += isWaiting ? 1 : 0;
+				}
+			}
+
+			playing = 0;
+
+			for (int k = 0 ; k < members.size ; k++) {
+				playing += adventurers.get(members.values[k]).hasCompletedPath() ? 0 : 1;
+			}
+		}
+
+		/**
+		 * Records the given adventurer on their tile of this region, and gives them its treasures unless already taken.
+		 *
+		 * @param map        The map, only read.
+		 * @param adventurer The adventurer.
+		 */
+		private void enter(TreasureMap map, Adventurer adventurer) {
+			int x = adventurer.getX();
+			int y = adventurer.getY();
+			long key = TileStorage.key(x, y);
+
+			occupied.add(key);
+
+			if (!emptied.contains(key)) {
+				int treasures = map.getStorage().getTreasures(x, y);
+
+				if (treasures > 0) {
+					adventurer.setTreasures(adventurer.getTreasures() + treasures);
+					emptied.add(key);
+				}
+			}
+		}
+
+		/**
+		 * Empties the outboxes, once read by the neighbours.
+		 */
+		private void clearOutboxes() {
+			for (IndexList outbox : outboxes) {
+				outbox.size = 0;
+			}
+		}
+	}
+
+	/**
+	 * A growable list of indexes.
+	 */
+	private static class IndexList {
+		/**
+		 * The indexes, only the first size ones are relevant.
+		 */
+		private int[] values = new int[16];
+
+		/**
+		 * The number of indexes.
+		 */
+		private int size;
+
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+
+			values[size++] = value;
+		}
+
+		/**
+		 * Appends the indexes of the given list.
+		 *
+		 * @param list The list.
+		 */
+		void addAll(IndexList list) {
+			if (size + list.size > values.length) {
+				values = Arrays.copyOf(values, Math.max(size * 2, size + list.size));
+			}
+
+			System.arraycopy(list.values, 0, values, size, list.size);
+			size += list.size;
+		}
+	}
+
+	/**
+	 * A growable set of keys of tiles, see {@link TileStorage#key(int, int)}: an open-addressing table of primitive
+	 * keys, whose removals shift the following keys back instead of leaving tombstones.
+	 */
+	private static class TileSet {
+		/**
+		 * Key of an empty slot: the keys of the tiles of a map are never negative.
+		 */
+		private static final long EMPTY = -1;
+
+		/**
+		 * The keys, by slot.
+		 */
+		private long[] keys = empty(16);
+
+		/**
+		 * The number of keys.
+		 */
+		private int size;
+
+		/**
+		 * Returns true if the given key is in this set, else false.
+		 *
+		 * @param key The key.
+		 * @return true if the key is in this set, else false.
+		 */
+		boolean contains(long key) {
+			int mask = keys.length - 1;
+
+			for (int slot = hash(key) & mask ; keys[slot] != EMPTY ; slot = (slot + 1) & mask) {
+				if (keys[slot] == key) {
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		/**
+		 * Adds the given key, the table doubling beyond a load of one half.
+		 *
+		 * @param key The key, not negative.
+		 */
+		void add(long key) {
+			if (2 * (size + 1) > keys.length) {
+				long[] oldKeys = keys;
+				keys = empty(2 * oldKeys.length);
+				size = 0;
+
+				for (long oldKey : oldKeys) {
+					if (oldKey != EMPTY) {
+						add(oldKey);
+					}
+				}
+			}
+
+			int mask = keys.length - 1;
+			int slot = hash(key) & mask;
+
+			while (keys[slot] != EMPTY) {
+				if (keys[slot] == key) {
+					return;
+				}
+
+				slot = (slot + 1) & mask;
+			}
+
+			keys[slot] = key;
+			size++;
+		}
+
+		/**
+		 * Removes the given key if it is in this set.
+		 *
+		 * @param key The key.
+		 */
+		void remove(long key) {
+			int mask = keys.length - 1;
+			int slot = hash(key) & mask;
+
+			while (keys[slot] != key) {
+				if (keys[slot] == EMPTY) {
+					return;
+				}
+
+				slot = (slot + 1) & mask;
+			}
+
+			// Shifts back the following keys of the cluster which would not be found past the hole
+			for (int next = (slot + 1) & mask ; keys[next] != EMPTY ; next = (next + 1) & mask) {
+				int home = hash(keys[next]) & mask;
+
+				if (((next - home) & mask) >= ((next - slot) & mask)) {
+					keys[slot] = keys[next];
+					slot = next;
+				}
+			}
+
+			keys[slot] = EMPTY;
+			size--;
+		}
+
+		/**
+		 * Visits the keys of this set, in no particular order.
+		 *
+		 * @param action The action.
+		 */
+		void forEach(LongConsumer action) {
+			for (long key : keys) {
+				if (key != EMPTY) {
+					action.accept(key);
+				}
+			}
+		}
+
+		/**
+		 * Returns a table of the given number of empty slots.
+		 *
+		 * @param capacity The number of slots, a power of 2.
+		 * @return the table.
+		 */
+		private static long[] empty(int capacity) {
+			long[] keys = new long[capacity];
+			Arrays.fill(keys, EMPTY);
+
+			return keys;
+		}
+
+		/**
+		 * Returns the hash of the given key, spreading the ordinates and the abscissas.
+		 *
+		 * @param key The key.
+		 * @return the hash.
+		 */
+		private static int hash(long key) {
+			long h = key * 0x9E3779B97F4A7C15L;
+
+			return (int) (h ^ (h >>> 32));
+		}
+	}
+}
@@ -0,0 +1,296 @@
+package com.treasuremap.app.controller;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.treasuremap.app.model.Adventurer;
+import com.treasuremap.app.model.Orientation;
+import com.treasuremap.app.model.PathProgram;
+import com.treasuremap.app.model.TileStorage;
+import com.treasuremap.app.model.TileType;
+import com.treasuremap.app.model.TreasureMap;
+
+/**
+ * SpeculativeEngine
+ *
+ * Headless engine giving exactly the same results as {@link TickEngine}, optimistic about adventurers not meeting.
+ * The game is played by windows of a few ticks:
+ * 1. speculate: in parallel, every adventurer runs their next ticks alone, as if nobody else was on the map,
+ *    and records the tiles they occupy or attempt to move onto;
+ * 2. detect: in parallel, every adventurer marks the tiles they touch in a {@link TileOwners} table; adventurers
+ *    sharing a tile with someone else within the window, or already waiting, are conflicting;
+ * 3. replay: only the conflicting adventurers are played tick by tick with the sequential rules. If one of them is
+ *    about to touch a tile of a non-conflicting adventurer, the window is cut right there, or at its very beginning
+ *    that adventurer joins the conflicting ones;
+ * 4. commit: in parallel, the other adventurers execute their ticks of the window alone, their speculation being valid.
+ *
+ * When adventurers rarely meet, almost every tick is executed in parallel.
+ */
+public class SpeculativeEngine implements GameEngine {
+	/**
+	 * The scheduler executing the parallel phases.
+	 */
+	private final GameScheduler scheduler;
+
+	/**
+	 * The maximum number of ticks of a window.
+	 */
+	private final int window;
+
+	/**
+	 * Constructs a new object SpeculativeEngine using the scheduler of the process and windows of 64 ticks.
+	 */
+	public SpeculativeEngine() {
+		this(GameScheduler.getInstance(), 64);
+	}
+
+	/**
+	 * Constructs a new object SpeculativeEngine.
+	 *
+	 * @param scheduler The scheduler executing the parallel phases.
+	 * @param window    The maximum number of ticks of a window.
+	 */
+	public SpeculativeEngine(GameScheduler scheduler, int window) {
+		this.scheduler = scheduler;
+		this.window = Math.max(1, window);
+	}
+
+	@Override
+	public void run(Game game) {
+		List<Adventurer> adventurers = game.getAdventurers();
+		TreasureMap map = game.getMap();
+		int count = adventurers.size();
+
+		long[][] touched = new long[count][];
+		int[] remaining = new int[count];
+		boolean[] conflicting = new boolean[count];
+		int[] group = new int[count];
+		TileOwners owners = new TileOwners();
+
+		try {
+			while (!game.isOver()) {
+				scheduler.forEach(count, i -> {
+					Adventurer adventurer = adventurers.get(i);
+					touched[i] = speculate(map, adventurer, window, remaining, i);
+					conflicting[i] = adventurer.isWaiting();
+				});
+
+				long touches = 0;
+
+				for (long[] tiles : touched) {
+					touches += tiles.length;
+				}
+
+				owners.reset(touches, scheduler);
+
+				scheduler.forEach(count, i -> {
+					for (long tile : touched[i]) {
+						int owner = owners.touch(tile, i);
+
+						if (owner == TileOwners.SHARED) {
+							conflicting[i] = true;
+						} else if (owner != TileOwners.NONE && owner != i) {
+							conflicting[owner] = true;
+							conflicting[i] = true;
+						}
+					}
+				});
+
+				int size = 0;
+
+				for (int i = 0 ; i < count ; i++) {
+					if (conflicting[i]) {
+						group[size++] = i;
+					}
+				}
+
+				int ticks = replay(game, map, adventurers, conflicting, remaining, owners, group, size);
+
+				scheduler.forEach(count, i -> {
+					if (!conflicting[i]) {
+						for (int k = 0 ; k < ticks ; k++) {
+							game.executeAdventurerPath(adventurers.get(i));
+						}
+					}
+				});
+
+				for (int k = 0 ; k < ticks ; k++) {
+					game.incrementDuration();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Plays the conflicting adventurers with the sequential rules and returns the number of ticks of the window.
+	 * The window ends once every adventurer has nothing left to do in it, or before a conflicting adventurer
+	 * touches a tile of a non-conflicting one. Only the adventurers of the group are visited.
+	 *
+	 * @param game        The game.
+	 * @param map         The map.
+	 * @param adventurers The adventurers.
+	 * @param conflicting The conflicting adventurers, by index, completed when a tile is touched at the first tick.
+	 * @param remaining   The number of ticks each adventurer needs alone within the window, by index.
+	 * @param owners      The adventurer touching each tile.
+	 * @param group       The indexes of the conflicting adventurers, in increasing order, completed as conflicting.
+	 * @param size        The number of conflicting adventurers.
+	 * @return the number of ticks played.
+	 */
+	private int replay(Game game, TreasureMap map, List<Adventurer> adventurers, boolean[] conflicting, int[] remaining, TileOwners owners, int[] group, int size) {
+		int soloTicks = soloTicks(conflicting, remaining);
+		int tick = 0;
+
+		while (tick < window) {
+			boolean isGroupOver = true;
+			int joined = size;
+
+			for (int g = 0 ; g < size ; g++) {
+				Adventurer adventurer = adventurers.get(group[g]);
+
+				if (adventurer.hasCompletedPath()) {
+					continue;
+				}
+
+				isGroupOver &= adventurer.isWaiting();
+
+				long target = target(map, adventurer);
+				int owner = target < 0 ? TileOwners.NONE : owners.get(target);
+
+				if (owner >= 0 && !conflicting[owner]) {
+					if (tick > 0) {
+						return tick;
+					}
+
+					conflicting[owner] = true;
+					group[joined++] = owner;
+				}
+			}
+
+			if (joined > size) {
+				size = joined;
+				Arrays.sort(group, 0, size);
+				soloTicks = soloTicks(conflicting, remaining);
+				continue;
+			}
+
+			if (isGroupOver && tick >= soloTicks) {
+				break;
+			}
+
+			for (int g = 0 ; g < size ; g++) {
+				game.executeAdventurerPath(adventurers.get(group[g]));
+			}
+
+			tick++;
+		}
+
+		return tick;
+	}
+
+	/**
+	 * Returns the number of ticks the non-conflicting adventurers need within the window.
+	 *
+	 * @param conflicting The conflicting adventurers, by index.
+	 * @param remaining   The number of ticks each adventurer needs alone within the window, by index.
+	 * @return the number of ticks the non-conflicting adventurers need.
+	 */
+	private static int soloTicks(boolean[] conflicting, int[] remaining) {
+		int ticks = 0;
+
+		for (int i = 0 ; i < conflicting.length ; i++) {
+			if (!conflicting[i]) {
+				ticks = Math.max(ticks, remaining[i]);
+			}
+		}
+
+		return ticks;
+	}
+
+	/**
+	 * Plays the given adventurer alone for at most the given number of ticks, without modifying anything,
+	 * and returns the keys of the tiles they occupy or attempt to move onto.
+	 * The number of ticks they need is stored in remaining.
+	 *
+	 * @param map        The map, only the mountains and the bounds are read.
+	 * @param adventurer The adventurer.
+	 * @param ticks      The maximum number of ticks.
+	 * @param remaining  The number of ticks each adventurer needs, by index.
+	 * @param index      The index of the adventurer.
+	 * @return the keys of the touched tiles, possibly repeated.
+	 */
+	private static long[] speculate(TreasureMap map, Adventurer adventurer, int ticks, int[] remaining, int index) {
+		PathProgram program = adventurer.getProgram();
+		int pointer = adventurer.getPointer();
+		int x = adventurer.getX();
+		int y = adventurer.getY();
+		Orientation orientation = adventurer.getOrientation();
+		long[] touched = new long[ticks + 1];
+		int size = 0;
+		touched[size++] = TileStorage.key(x, y);
+
+		int tick = 0;
+
+		while (tick < ticks && program.hasStep(pointer)) {
+			int step = program.step(pointer);
+			tick++;
+
+			if (step == PathProgram.TURN_RIGHT) {
+				orientation = orientation.rotateRight();
+				pointer++;
+			} else if (step == PathProgram.TURN_LEFT) {
+				orientation = orientation.rotateLeft();
+				pointer++;
+			} else if (step == PathProgram.TURN_NONE) {
+				pointer++;
+			} else {
+				int targetX = x + orientation.getDx();
+				int targetY = y + orientation.getDy();
+
+				if (isFree(map, targetX, targetY)) {
+					x = targetX;
+					y = targetY;
+					touched[size++] = TileStorage.key(x, y);
+				}
+
+				pointer++;
+			}
+		}
+
+		remaining[index] = tick;
+
+		return Arrays.copyOf(touched, size);
+	}
+
+	/**
+	 * Returns the key of the tile the given adventurer is about to move onto, or -1 if their current step
+	 * is not a move or if the tile is a mountain or past the bounds.
+	 *
+	 * @param map        The map.
+	 * @param adventurer The adventurer.
+	 * @return the key of the tile or -1.
+	 */
+	private static long target(TreasureMap map, Adventurer adventurer) {
+		if (adventurer.getStep() != PathProgram.MOVE) {
+			return -1;
+		}
+
+		int x = adventurer.getForwardX();
+		int y = adventurer.getForwardY();
+
+		return isFree(map, x, y) ? TileStorage.key(x, y) : -1;
+	}
+
+	/**
+	 * Returns true if the given coordinates are within the bounds and not a mountain, else false.
+	 *
+	 * @param map The map.
+	 * @param x   The abscissa.
+	 * @param y   The ordinate.
+	 * @return true if an adventurer alone could move there, else false.
+	 */
+	private static boolean isFree(TreasureMap map, int x, int y) {
+		return x >= 0 && y >= 0 && x < map.getWidth() && y < map.getHeight() && map.getStorage().getType(x, y) != TileType.MOUNTAIN;
+	}
+}
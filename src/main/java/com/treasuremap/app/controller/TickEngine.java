@@ -0,0 +1,18 @@
+package com.treasuremap.app.controller;
+
+/**
+ * TickEngine
+ *
+ * Headless engine advancing a logical clock: one tick is one action A, D or G
+ * (i.e. one second of the real-time game), ticks are executed back to back
+ * without any sleep, screen clearing nor printer.
+ */
+public class TickEngine implements GameEngine {
+
+	@Override
+	public void run(Game game) {
+		while (!game.isOver()) {
+			game.tick();
+		}
+	}
+}
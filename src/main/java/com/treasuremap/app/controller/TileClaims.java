@@ -0,0 +1,154 @@
+package com.treasuremap.app.controller;
+
+import java.util.Arrays;
+
+/**
+ * TileClaims
+ *
+ * The first claimant of each tile claimed during a tick, by key of tile, see
+ * {@link com.treasuremap.app.model.TileStorage#key(int, int)}: an open-addressing table of primitive keys, reused from
+ * tick to tick. Claiming a tile allocates nothing once the table has grown to the number of claims of a tick, and
+ * {@link #clear()} only visits the slots used.
+ *
+ * Not thread-safe: the claims of a tick are resolved by one thread, in the adventurers' order.
+ */
+class TileClaims {
+	/**
+	 * The claimant of an empty slot.
+	 */
+	private static final int NONE = -1;
+
+	/**
+	 * The keys of the tiles, by slot.
+	 */
+	private long[] keys;
+
+	/**
+	 * The first claimants of the tiles, by slot, {@link #NONE} if the slot is empty.
+	 */
+	private int[] claimants;
+
+	/**
+	 * The slots used, in the order they were claimed.
+	 */
+	private int[] used;
+
+	/**
+	 * The number of slots used.
+	 */
+	private int size;
+
+	/**
+	 * Constructs a new object TileClaims sized for the given number of claims per tick.
+	 *
+	 * @param expected The expected number of claims per tick.
+	 */
+	TileClaims(int expected) {
+		allocate(Math.max(16, Integer.highestOneBit(Math.max(1, expected)) << 1));
+	}
+
+	/**
+	 * Records the given claimant as the claimant of the given tile, unless it has already been claimed.
+	 *
+	 * @param key      The key of the tile.
+	 * @param claimant The claimant, not negative.
+	 * @return true if the claimant is the first one of the tile, else false.
+	 */
+	boolean claim(long key, int claimant) {
+		if (2 * (size + 1) > keys.length) {
+			grow();
+		}
+
+		int mask = keys.length - 1;
+
+		for (int slot = hash(key) & mask ; ; slot = (slot + 1) & mask) {
+			if (claimants[slot] == NONE) {
+				keys[slot] = key;
+				claimants[slot] = claimant;
+				used[size++] = slot;
+				return true;
+			}
+
+			if (keys[slot] == key) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Returns the first claimant of the given tile.
+	 *
+	 * @param key The key of the tile.
+	 * @return the claimant, -1 if the tile has not been claimed.
+	 */
+	int get(long key) {
+		int mask = keys.length - 1;
+
+		for (int slot = hash(key) & mask ; ; slot = (slot + 1) & mask) {
+			if (claimants[slot] == NONE || keys[slot] == key) {
+				return claimants[slot];
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of tiles claimed.
+	 *
+	 * @return the number of tiles claimed.
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Forgets every claim, for the next tick.
+	 */
+	void clear() {
+		for (int i = 0 ; i < size ; i++) {
+			claimants[used[i]] = NONE;
+		}
+
+		size = 0;
+	}
+
+	/**
+	 * Doubles the table, the claims being kept.
+	 */
+	private void grow() {
+		long[] oldKeys = keys;
+		int[] oldClaimants = claimants;
+		int[] oldUsed = used;
+		int oldSize = size;
+
+		allocate(2 * oldKeys.length);
+
+		for (int i = 0 ; i < oldSize ; i++) {
+			claim(oldKeys[oldUsed[i]], oldClaimants[oldUsed[i]]);
+		}
+	}
+
+	/**
+	 * Allocates an empty table of the given number of slots.
+	 *
+	 * @param capacity The number of slots, a power of 2.
+	 */
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		claimants = new int[capacity];
+		used = new int[capacity / 2];
+		size = 0;
+		Arrays.fill(claimants, NONE);
+	}
+
+	/**
+	 * Returns the hash of the given key, spreading the ordinates and the abscissas.
+	 *
+	 * @param key The key.
+	 * @return the hash.
+	 */
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+
+		return (int) (h ^ (h >>> 32));
+	}
+}
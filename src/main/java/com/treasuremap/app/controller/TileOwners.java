@@ -0,0 +1,163 @@
+package com.treasuremap.app.controller;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * TileOwners
+ *
+ * The adventurer touching each tile during a window of {@link SpeculativeEngine}, recorded by every adventurer in
+ * parallel: an open-addressing table of primitive keys, see {@link com.treasuremap.app.model.TileStorage#key(int, int)},
+ * whose slots and owners are taken by compare-and-set. A tile touched by several adventurers is {@link #SHARED}
+ * whatever the order they touch it in, thus the table is the same whatever the scheduling.
+ *
+ * The table is reused from window to window, see {@link #reset(int, GameScheduler)}.
+ */
+class TileOwners {
+	/**
+	 * Owner of a tile nobody touches.
+	 */
+	static final int NONE = -1;
+
+	/**
+	 * Owner of a tile touched by several adventurers.
+	 */
+	static final int SHARED = -2;
+
+	/**
+	 * Key of an empty slot: the keys of the tiles of a map are never negative.
+	 */
+	private static final long EMPTY = -1;
+
+	/**
+	 * The maximum number of touches between two resets, half of the largest table.
+	 */
+	private static final long MAX_TOUCHES = 1 << 29;
+
+	/**
+	 * The number of slots emptied by a task of {@link #reset(int, GameScheduler)}.
+	 */
+	private static final int BLOCK = 1 << 14;
+
+	/**
+	 * Handle to take the slots.
+	 */
+	private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+
+	/**
+	 * Handle to take the owners.
+	 */
+	private static final VarHandle OWNERS = MethodHandles.arrayElementVarHandle(int[].class);
+
+	/**
+	 * The keys of the tiles, by slot, {@link #EMPTY} if the slot is free.
+	 */
+	private long[] keys = new long[0];
+
+	/**
+	 * The owners of the tiles, by slot.
+	 */
+	private int[] owners = new int[0];
+
+	/**
+	 * Empties the table, sized for the given number of touches. The table grows if need be, else its slots are
+	 * emptied on the given scheduler. Not to be called while tiles are touched.
+	 *
+	 * @param touches   The maximum number of tiles touched until the next reset.
+	 * @param scheduler The scheduler emptying the slots.
+	 * @throws InterruptedException  if interrupted while waiting.
+	 * @throws IllegalStateException if there are too many touches for a table.
+	 */
+	void reset(long touches, GameScheduler scheduler) throws InterruptedException {
+		if (touches > MAX_TOUCHES) {
+			throw new IllegalStateException("Too many tiles touched: " + touches);
+		}
+
+		int capacity = Math.max(16, Integer.highestOneBit((int) (2 * Math.max(1, touches) - 1)) << 1);
+
+		if (capacity > keys.length) {
+			keys = new long[capacity];
+			owners = new int[capacity];
+		}
+
+		long[] keys = this.keys;
+		int[] owners = this.owners;
+
+		scheduler.forEach((keys.length + BLOCK - 1) / BLOCK, block -> {
+			int from = block * BLOCK;
+			int to = Math.min(keys.length, from + BLOCK);
+			Arrays.fill(keys, from, to, EMPTY);
+			Arrays.fill(owners, from, to, NONE);
+		});
+	}
+
+	/**
+	 * Records that the given adventurer touches the given tile and returns the owner the tile had.
+	 *
+	 * @param key        The key of the tile.
+	 * @param adventurer The index of the adventurer.
+	 * @return {@link #NONE} if the adventurer is the first one to touch the tile, {@link #SHARED} if it was already
+	 *         shared, else the adventurer who touched it first, the tile being shared from now on unless it is the
+	 *         same adventurer.
+	 */
+	int touch(long key, int adventurer) {
+		int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+
+		while (true) {
+			long current = (long) KEYS.getVolatile(keys, slot);
+
+			if (current == EMPTY) {
+				current = (long) KEYS.compareAndExchange(keys, slot, EMPTY, key);
+				current = current == EMPTY ? key : current;
+			}
+
+			if (current == key) {
+				break;
+			}
+
+			slot = (slot + 1) & mask;
+		}
+
+		int owner = (int) OWNERS.compareAndExchange(owners, slot, NONE, adventurer);
+
+		if (owner != NONE && owner != SHARED && owner != adventurer) {
+			OWNERS.setVolatile(owners, slot, SHARED);
+		}
+
+		return owner;
+	}
+
+	/**
+	 * Returns the owner of the given tile, once every tile has been touched.
+	 *
+	 * @param key The key of the tile.
+	 * @return the index of the adventurer touching the tile, {@link #SHARED} or {@link #NONE}.
+	 */
+	int get(long key) {
+		int mask = keys.length - 1;
+
+		for (int slot = hash(key) & mask ; ; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) {
+				return owners[slot];
+			}
+
+			if (keys[slot] == EMPTY) {
+				return NONE;
+			}
+		}
+	}
+
+	/**
+	 * Returns the hash of the given key, spreading the ordinates and the abscissas.
+	 *
+	 * @param key The key.
+	 * @return the hash.
+	 */
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+
+		return (int) (h ^ (h >>> 32));
+	}
+}
@@ -0,0 +1,96 @@
+package com.treasuremap.app.controller;
+
+import lombok.Getter;
+
+/**
+ * WorkerReport
+ *
+ * Counters of a {@link DistributedWorker} once the game is over.
+ */
+@Getter
+public class WorkerReport {
+	/**
+	 * The index of the worker, i.e. of its strip from the west.
+	 *
+	 * @return the index of the worker.
+	 */
+	private final int worker;
+
+	/**
+	 * The number of adventurers standing on the strip at the end.
+	 *
+	 * @return the number of adventurers standing on the strip at the end.
+	 */
+	private final int adventurers;
+
+	/**
+	 * The number of actions executed by the worker.
+	 *
+	 * @return the number of actions executed by the worker.
+	 */
+	private final long actions;
+
+	/**
+	 * The time the worker spent computing, in nanoseconds, exchanges excluded.
+	 *
+	 * @return the time the worker spent computing.
+	 */
+	private final long busyNanos;
+
+	/**
+	 * The number of ticks played by the worker.
+	 *
+	 * @return the number of ticks played by the worker.
+	 */
+	private final int ticks;
+
+	/**
+	 * The time elapsed from the launch of the workers to the end of the game, in nanoseconds.
+	 *
+	 * @return the time elapsed from the launch of the workers to the end of the game.
+	 */
+	private final long wallNanos;
+
+	/**
+	 * Constructs a new object WorkerReport.
+	 *
+	 * @param worker      The index of the worker.
+	 * @param adventurers The number of adventurers standing on the strip at the end.
+	 * @param actions     The number of actions executed by the worker.
+	 * @param busyNanos   The time the worker spent computing, in nanoseconds.
+	 * @param ticks       The number of ticks played by the worker.
+	 * @param wallNanos   The time elapsed from the launch of the workers to the end of the game, in nanoseconds.
+	 */
+	public WorkerReport(int worker, int adventurers, long actions, long busyNanos, int ticks, long wallNanos) {
+		this.worker = worker;
+		this.adventurers = adventurers;
+		this.actions = actions;
+		this.busyNanos = busyNanos;
+		this.ticks = ticks;
+		this.wallNanos = wallNanos;
+	}
+
+	/**
+	 * Returns the number of actions executed per second of the game, exchanges included.
+	 *
+	 * @return the number of actions executed per second.
+	 */
+	public double getThroughput() {
+		return wallNanos == 0 ? 0 : actions * 1e9 / wallNanos;
+	}
+
+	/**
+	 * Returns the share of the game the worker spent computing, between 0 and 1.
+	 *
+	 * @return the share of the game the worker spent computing.
+	 */
+	public double getUtilization() {
+		return wallNanos == 0 ? 0 : (double) busyNanos / wallNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Worker %d: %d actions in %d ticks, %.0f actions/s, busy %.1f%%, %d adventurers",
+				worker, actions, ticks, getThroughput(), getUtilization() * 100, adventurers);
+	}
+}
@@ -1,37 +1,107 @@
 package com.treasuremap.app.model;
 
-import lombok.Data;
-
 /**
  * Adventurer
+ *
+ * View of an adventurer held by an {@link AdventurerStore}: the state of the adventurer lives in the store,
+ * two views of the same adventurer are equal.
  */
-@Data
 public class Adventurer {
 	/**
-	 * The adventurer's name.
+	 * The store holding the state of the adventurer.
+	 */
+	private final AdventurerStore store;
+
+	/**
+	 * The index of the adventurer in the store.
+	 */
+	private final int index;
+
+	/**
+	 * Constructs a new object Adventurer, named "A", held by a store of their own.
+	 */
+	public Adventurer() {
+		this.store = new AdventurerStore(this);
+		this.index = 0;
+	}
+
+	/**
+	 * Constructs a new view of the adventurer at the given index of the given store.
+	 *
+	 * @param store The store.
+	 * @param index The index.
+	 */
+	Adventurer(AdventurerStore store, int index) {
+		this.store = store;
+		this.index = index;
+	}
+
+	/**
+	 * Returns the index of the adventurer in the store.
+	 * Storages record the occupant of a tile by an identifier derived from it, see {@link AdventurerRegistry}.
+	 *
+	 * @return the index of the adventurer.
+	 */
+	int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Returns the store holding the state of the adventurer.
+	 *
+	 * @return the store.
+	 */
+	public AdventurerStore getStore() {
+		return store;
+	}
+
+	/**
+	 * Returns the adventurer's name.
 	 *
-	 * @param name The name to set.
 	 * @return the adventurer's name.
 	 */
-	private String name = "A";
+	public String getName() {
+		return store.getName(index);
+	}
+
+	/**
+	 * Sets the adventurer's name.
+	 *
+	 * @param name The name to set.
+	 */
+	public void setName(String name) {
+		store.setName(index, name);
+	}
 
 	/**
-	 * The number of treasures the adventurer has.
+	 * Returns the number of treasures the adventurer has.
 	 *
 	 * @return the number of treasures.
 	 */
-	private int treasures;
+	public int getTreasures() {
+		return store.getTreasures(index);
+	}
 
 	/**
-	 * The orientation.
+	 * Returns the orientation.
 	 *
-	 * @param orientation the orientation to set.
 	 * @return the orientation.
 	 */
-	private Orientation orientation;
+	public Orientation getOrientation() {
+		return store.getOrientation(index);
+	}
+
+	/**
+	 * Sets the orientation.
+	 *
+	 * @param orientation the orientation to set.
+	 */
+	public void setOrientation(Orientation orientation) {
+		store.setOrientation(index, orientation);
+	}
 
 	/**
-	 * The path, a string containing the following chars:
+	 * Returns the path, a string containing the following chars:
 	 * - 'A', moving forward;
 	 * - 'D', turn to the right;
 	 * - 'G', turn to the left.
@@ -46,38 +116,131 @@ public class Adventurer {
 	 * |   | ↓ |   |
 	 * +---+---+---+
 	 *
-	 * @param path the path to set.
+	 * The path is kept compiled, consecutive turns being folded, and is returned as it was given, see
+	 * {@link PathProgram#toString()}.
+	 *
 	 * @return the path.
 	 */
-	private String path;
+	public String getPath() {
+		PathProgram program = store.getProgram(index);
+		return program == null ? null : program.toString();
+	}
+
+	/**
+	 * Sets the path, see {@link #getPath()}. The path is compiled, see {@link PathProgram#compile(String)}.
+	 *
+	 * @param path the path to set.
+	 * @throws IllegalArgumentException if the path contains a symbol other than 'A', 'D' or 'G'.
+	 */
+	public void setPath(String path) {
+		store.setProgram(index, path == null ? null : PathProgram.compile(path));
+	}
+
+	/**
+	 * Sets the compiled path, e.g. as read from a scenario file, see {@link ScenarioFile}.
+	 *
+	 * @param program the compiled path to set, or null.
+	 */
+	void setProgram(PathProgram program) {
+		store.setProgram(index, program);
+	}
+
+	/**
+	 * Returns the compiled path.
+	 *
+	 * @return the compiled path.
+	 */
+	public PathProgram getProgram() {
+		return store.getProgram(index);
+	}
 
 	/**
-	 * The abscissa.
+	 * Returns the step of the compiled path to be executed, see {@link PathProgram#step(int)}.
+	 * The path must not be completed.
+	 *
+	 * @return the step to be executed.
+	 */
+	public int getStep() {
+		return store.getProgram(index).step(getPointer());
+	}
+
+	/**
+	 * Returns the abscissa.
 	 *
-	 * @param abscissa the abscissa to set.
 	 * @return the abscissa.
 	 */
-	private int x;
+	public int getX() {
+		return store.getX(index);
+	}
+
+	/**
+	 * Sets the abscissa.
+	 *
+	 * @param x the abscissa to set.
+	 */
+	public void setX(int x) {
+		store.setX(index, x);
+	}
 
 	/**
-	 * The ordinate.
+	 * Returns the ordinate.
 	 *
-	 * @param ordinate the ordinate to set.
 	 * @return the ordinate.
 	 */
-	private int y;
+	public int getY() {
+		return store.getY(index);
+	}
+
+	/**
+	 * Sets the ordinate.
+	 *
+	 * @param y the ordinate to set.
+	 */
+	public void setY(int y) {
+		store.setY(index, y);
+	}
 
 	/**
-	 * Indicates which step of the path is to be executed.
+	 * Returns which step of the path is to be executed.
 	 * Given the path 'AADADAGA', if pointer is 2 then the adventurer is to turn to the right.
 	 *
 	 *   ↓
 	 * AADADAGA, action is turning to the right.
-	 *  
-	 * @param pointer the index of the step.
+	 *
 	 * @return the step of the path.
 	 */
-	private int pointer;
+	public int getPointer() {
+		return store.getPointer(index);
+	}
+
+	/**
+	 * Sets which step of the path is to be executed, see {@link #getPointer()}.
+	 *
+	 * @param pointer the index of the step.
+	 */
+	public void setPointer(int pointer) {
+		store.setPointer(index, pointer);
+	}
+
+	/**
+	 * Returns true if the adventurer is waiting for the tile in front of them to be free, else false.
+	 * A waiting adventurer does not execute their path until woken up by the map.
+	 *
+	 * @see TreasureMap#moveAdventurerForwardOrWait(Adventurer)
+	 * @return true if the adventurer is waiting.
+	 */
+	public boolean isWaiting() {
+		return store.isWaiting(index);
+	}
+
+	/**
+	 * Sets whether the adventurer is waiting, see {@link #isWaiting()}.
+	 *
+	 * @param waiting true if the adventurer is waiting.
+	 */
+	public void setWaiting(boolean waiting) {
+		store.setWaiting(index, waiting);
+	}
 
 	/**
 	 * Sets the treasures.
@@ -86,7 +249,7 @@ public class Adventurer {
 	 */
 	public void setTreasures(int treasures) {
 		if (treasures >= 0) {
-			this.treasures = treasures;
+			store.setTreasures(index, treasures);
 		}
 	}
 
@@ -106,7 +269,7 @@ public class Adventurer {
 	 * @return true if given orientation matches adventurer's orientation, else false.
 	 */
 	public boolean isFacing(Orientation orientation) {
-		return this.orientation.equals(orientation);
+		return getOrientation() == orientation;
 	}
 
 	/**
@@ -115,19 +278,7 @@ public class Adventurer {
 	 * @return the new facing direction.
 	 */
 	public Orientation rotateLeft() {
-		Orientation currentOrientation = getOrientation();
-		Orientation newOrientation = Orientation.NORTH;
-
-		if (currentOrientation.equals(Orientation.NORTH)) {
-			newOrientation = Orientation.WEST;
-		} else if (currentOrientation.equals(Orientation.WEST)) {
-			newOrientation = Orientation.SOUTH;
-		} else if (currentOrientation.equals(Orientation.SOUTH)) {
-			newOrientation = Orientation.EAST;
-		} else if (currentOrientation.equals(Orientation.EAST)) {
-			newOrientation = Orientation.NORTH;
-		}
-
+		Orientation newOrientation = getOrientation().rotateLeft();
 		setOrientation(newOrientation);
 
 		return newOrientation;
@@ -139,37 +290,73 @@ public class Adventurer {
 	 * @return the new facing direction.
 	 */
 	public Orientation rotateRight() {
-		Orientation currentOrientation = getOrientation();
-		Orientation newOrientation = Orientation.NORTH;
-
-		if (currentOrientation.equals(Orientation.NORTH)) {
-			newOrientation = Orientation.EAST;
-		} else if (currentOrientation.equals(Orientation.EAST)) {
-			newOrientation = Orientation.SOUTH;
-		} else if (currentOrientation.equals(Orientation.SOUTH)) {
-			newOrientation = Orientation.WEST;
-		} else if (currentOrientation.equals(Orientation.WEST)) {
-			newOrientation = Orientation.NORTH;
-		}
-
+		Orientation newOrientation = getOrientation().rotateRight();
 		setOrientation(newOrientation);
 
 		return newOrientation;
 	}
 
+	/**
+	 * Returns the abscissa of the tile in front of the adventurer.
+	 *
+	 * @return the abscissa of the tile in front.
+	 */
+	public int getForwardX() {
+		return getX() + getOrientation().getDx();
+	}
+
+	/**
+	 * Returns the ordinate of the tile in front of the adventurer.
+	 *
+	 * @return the ordinate of the tile in front.
+	 */
+	public int getForwardY() {
+		return getY() + getOrientation().getDy();
+	}
+
+	/**
+	 * Executes the given turn: {@link PathProgram#TURN_RIGHT}, {@link PathProgram#TURN_LEFT}
+	 * or {@link PathProgram#TURN_NONE}, which keeps the orientation.
+	 *
+	 * @param step The step of the turn.
+	 */
+	public void turn(int step) {
+		if (step == PathProgram.TURN_RIGHT) {
+			rotateRight();
+		} else if (step == PathProgram.TURN_LEFT) {
+			rotateLeft();
+		}
+	}
+
 	/**
 	 * Returns true if adventurer has completed their path, else false.
-	 * An adventurer is said to have completed their path if the pointer is greater or equal
-	 * than the path's length.
+	 * An adventurer is said to have completed their path if the pointer is past the last step of the path,
+	 * see {@link PathProgram#hasStep(int)}.
 	 *
 	 * @return true if adventurer has completed their path, else false.
 	 */
 	public boolean hasCompletedPath() {
-		return pointer >= path.length();
+		return !store.getProgram(index).hasStep(getPointer());
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		if (!(object instanceof Adventurer)) {
+			return false;
+		}
+
+		Adventurer adventurer = (Adventurer) object;
+
+		return store == adventurer.store && index == adventurer.index;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * System.identityHashCode(store) + index;
 	}
 
 	@Override
 	public String toString() {
-		return name.substring(0, 1);
+		return getName().substring(0, 1);
 	}
 }
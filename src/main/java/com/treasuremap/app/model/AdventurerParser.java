@@ -1,11 +1,24 @@
 package com.treasuremap.app.model;
 
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * AdventurerParser
@@ -16,6 +29,16 @@ public class AdventurerParser {
 	 */
 	private static AdventurerParser parser;
 
+	/**
+	 * The size of the buffer reading a file streamed, in bytes.
+	 */
+	static final int BUFFER = 1 << 16;
+
+	/**
+	 * The capacity of the stores of the adventurers streamed.
+	 */
+	static final int BLOCK = 1024;
+
 	/**
 	 * Constructs a new object AdventurerParser.
 	 */
@@ -28,28 +51,121 @@ public class AdventurerParser {
 	 *   (0)  (1)      (2)       (3)
 	 * 'NAME  X-Y  ORIENTATION  PATH'.
 	 *
+	 * The path follows the syntax of {@link PathProgram#compile(String)}, e.g. 'AADADAGA' or '(AAD)*5000',
+	 * or is '@' followed by the name of a file holding it, relative to the adventurers' file.
+	 * A gzip compressed file, whatever its name, is decompressed as it is read.
+	 *
 	 * @param fileName File to parse.
 	 * @return a list of adventurers for given file's name.
 	 * @throws IOException Exception.
 	 */
 	public List<Adventurer> parseFile(String fileName) throws IOException {
-		List<Adventurer> adventurers = new ArrayList<>();
+		return parseStore(fileName).asList();
+	}
 
+	/**
+	 * Returns the adventurers of the given file's name, see {@link #parseFile(String)}, held by a single store.
+	 *
+	 * @param fileName File to parse.
+	 * @return a store of the adventurers for given file's name.
+	 * @throws IOException Exception.
+	 */
+	public AdventurerStore parseStore(String fileName) throws IOException {
 		Path path = Paths.get(fileName);
+		List<String> lines;
+
+		try (FileChannel channel = FileChannel.open(path);
+				BufferedReader reader = new BufferedReader(new InputStreamReader(
+						Channels.newInputStream(Input.decompress(channel)), StandardCharsets.UTF_8))) {
+			lines = reader.lines().collect(Collectors.toList());
+		}
 
-		for (String line : Files.readAllLines(path)) {
-			adventurers.add(produceAdventurer(line));
+		AdventurerStore store = new AdventurerStore(lines.size());
+		Tokenizer tokenizer = new Tokenizer("adventurers' file: " + path);
+
+		for (int i = 0 ; i < lines.size() ; i++) {
+			produceAdventurer(store.add(), tokenizer.reset(lines.get(i), i + 1), path.toAbsolutePath().getParent());
 		}
 
-		return adventurers;
+		return store;
+	}
+
+	/**
+	 * Returns the adventurers of the given file's name, see {@link #parseFile(String)}, as they are read.
+	 * The file is read through a buffer of {@link #BUFFER} bytes, decompressed first if it is gzip compressed, and an
+	 * adventurer is decoded each time the stream asks for one: the first adventurers can be placed on the map before
+	 * the rest of the file has been read, and the memory used by the parser does not depend on the size of the file.
+	 * The adventurers are held by stores of {@link #BLOCK} adventurers, allocated as they fill up. Blank lines are
+	 * skipped.
+	 *
+	 * The stream is sequential and holds the file open until it is closed.
+	 *
+	 * @param fileName File to parse.
+	 * @return a stream of the adventurers for given file's name.
+	 * @throws IOException if the file cannot be opened.
+	 */
+	public Stream<Adventurer> stream(String fileName) throws IOException {
+		Path path = Paths.get(fileName);
+		return stream(FileChannel.open(path), path.toAbsolutePath().getParent(), path.toString());
+	}
+
+	/**
+	 * Returns the adventurers of the given input as they are read, see {@link #stream(String)}, e.g. the standard
+	 * input. The path files are relative to the working directory.
+	 *
+	 * @param in     The input, gzip compressed or not, closed with the stream.
+	 * @param source The name of the input, for the errors.
+	 * @return a stream of the adventurers of the input.
+	 * @throws IOException if the input cannot be read.
+	 */
+	public Stream<Adventurer> stream(InputStream in, String source) throws IOException {
+		return stream(Channels.newChannel(in), source);
+	}
+
+	/**
+	 * Returns the adventurers of the given input as they are read, see {@link #stream(String)}.
+	 * The path files are relative to the working directory.
+	 *
+	 * @param channel The input, gzip compressed or not, closed with the stream.
+	 * @param source  The name of the input, for the errors.
+	 * @return a stream of the adventurers of the input.
+	 * @throws IOException if the input cannot be read.
+	 */
+	public Stream<Adventurer> stream(ReadableByteChannel channel, String source) throws IOException {
+		return stream(channel, Paths.get("").toAbsolutePath(), source);
+	}
+
+	/**
+	 * Returns the adventurers of the given input as they are read, decompressed first if it is gzip compressed.
+	 *
+	 * @param channel   The input, closed with the stream.
+	 * @param directory The directory of the path files.
+	 * @param source    The name of the input, for the errors.
+	 * @return a stream of the adventurers of the input.
+	 * @throws IOException if the input cannot be read.
+	 */
+	private Stream<Adventurer> stream(ReadableByteChannel channel, Path directory, String source) throws IOException {
+		Reader reader;
+
+		try {
+			reader = new Reader(Input.decompress(channel), directory, source);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+
+		return StreamSupport.stream(reader, false).onClose(reader::close);
 	}
 
 	/**
 	 * Returns an instance of adventurer's parser.
 	 *
+	 * The parser holds no state of its own, each parse having its own scanner: it can be used by several threads at
+	 * once, e.g. to load the map and the adventurers concurrently.
+	 *
 	 * @return an instance of adventurer's parser.
 	 */
-	public static AdventurerParser getInstance() {
+	public static synchronized AdventurerParser getInstance() {
 		if (parser == null) {
 			parser = new AdventurerParser();
 		}
@@ -58,48 +174,187 @@ public class AdventurerParser {
 	}
 
 	/**
-	 * Parses the given line and returns the matching object {@link Adventurer}.
+	 * Parses the given line into the given object {@link Adventurer} and returns it.
 	 *
-	 * @see #parseFile()
-	 * @param line the adventurer.
+	 * @see #parseFile(String)
+	 * @param adventurer the adventurer to fill.
+	 * @param tokenizer the tokenizer of the line.
+	 * @param directory the directory of the path files.
 	 * @return an adventurer.
+	 * @throws IllegalArgumentException if the line is malformed.
 	 */
-	private Adventurer produceAdventurer(String line) {
-		Adventurer adventurer = new Adventurer();
+	private Adventurer produceAdventurer(Adventurer adventurer, Tokenizer tokenizer, Path directory) {
+		String name = tokenizer.word();
+		tokenizer.coordinates();
+		Orientation orientation = getOrientation(tokenizer.letter());
 
-		String[] content = line.split(" ");
-		String name      = content[0];
-		String position  = content[1];
-		String direction = content[2];
-		String path      = content[3];
+		if (orientation == null) {
+			throw tokenizer.error("Orientation unknown");
+		}
 
-		// Retrieve the coordinates
-		int x = Integer.valueOf( position.split("-")[0] ).intValue();
-		int y = Integer.valueOf( position.split("-")[1] ).intValue();
-		Orientation orientation = getOrientation(direction);
+		String path = tokenizer.word();
+		tokenizer.end();
 
 		adventurer.setName(name);
-		adventurer.setX(x);
-		adventurer.setY(y);
+		adventurer.setX(tokenizer.getX());
+		adventurer.setY(tokenizer.getY());
 		adventurer.setOrientation(orientation);
-		adventurer.setPath(path);
+
+		try {
+			adventurer.setPath(path.startsWith("@") ? "@" + directory.resolve(path.substring(1)) : path);
+		} catch (IllegalArgumentException e) {
+			throw tokenizer.error(e.getMessage());
+		}
 
 		return adventurer;
 	}
 
 	/**
-	 * Returns the matching orientation for given string,
+	 * Returns the matching orientation for given letter,
 	 * returns null if it is not expected.
 	 *
-	 * @param value String value of the orientation.
+	 * @param value Letter of the orientation.
 	 * @return {@link Orientation} or null if value is not expected.
 	 */
-	private Orientation getOrientation(String value) {
-		if ("N".equals(value)) return Orientation.NORTH;
-		if ("E".equals(value)) return Orientation.EAST;
-		if ("S".equals(value)) return Orientation.SOUTH;
-		if ("O".equals(value) || "W".equals(value)) return Orientation.WEST;
+	private Orientation getOrientation(char value) {
+		if (value == 'N') return Orientation.NORTH;
+		if (value == 'E') return Orientation.EAST;
+		if (value == 'S') return Orientation.SOUTH;
+		if (value == 'O' || value == 'W') return Orientation.WEST;
 
 		return null;
 	}
+
+	/**
+	 * Spliterator decoding the adventurers of an input one line at a time, see {@link AdventurerParser#stream(String)}.
+	 */
+	private class Reader extends Spliterators.AbstractSpliterator<Adventurer> {
+		/**
+		 * The input.
+		 */
+		private final ReadableByteChannel channel;
+
+		/**
+		 * The directory of the path files.
+		 */
+		private final Path directory;
+
+		/**
+		 * The tokenizer of the lines.
+		 */
+		private final Tokenizer tokenizer;
+
+		/**
+		 * The bytes read and not decoded yet.
+		 */
+		private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER);
+
+		/**
+		 * The bytes of the line being read, grown to the longest line.
+		 */
+		private ByteBuffer line = ByteBuffer.allocate(128);
+
+		/**
+		 * The number of the line read, from 1.
+		 */
+		private long lineNumber;
+
+		/**
+		 * The store of the adventurers being decoded.
+		 */
+		private AdventurerStore store;
+
+		/**
+		 * Constructs a new object Reader.
+		 *
+		 * @param channel   The input.
+		 * @param directory The directory of the path files.
+		 * @param source    The name of the input.
+		 */
+		Reader(ReadableByteChannel channel, Path directory, String source) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			this.channel = channel;
+			this.directory = directory;
+			this.tokenizer = new Tokenizer("adventurers' file: " + source);
+			buffer.flip();
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Adventurer> action) {
+			while (nextLine()) {
+				if (tokenizer.isEnd()) {
+					continue;
+				}
+
+				if (store == null || store.size() == store.capacity()) {
+					store = new AdventurerStore(BLOCK);
+				}
+
+				action.accept(produceAdventurer(store.add(), tokenizer, directory));
+
+				return true;
+			}
+
+			return false;
+		}
+
+		/**
+		 * Reads the next line of the input and starts the tokenizer on it, returns false at the end of the file.
+		 *
+		 * @return true if a line has been read.
+		 * @throws UncheckedIOException if the input cannot be read.
+		 */
+		private boolean nextLine() {
+			line.clear();
+
+			try {
+				while (true) {
+					if (!buffer.hasRemaining()) {
+						buffer.clear();
+						int read = channel.read(buffer);
+						buffer.flip();
+
+						if (read < 0) {
+							if (line.position() == 0) {
+								return false;
+							}
+
+							break;
+						}
+					}
+
+					byte b = buffer.get();
+
+					if (b == '\n') {
+						break;
+					}
+
+					if (!line.hasRemaining()) {
+						line = ByteBuffer.allocate(2 * line.capacity()).put(line.flip());
+					}
+
+					line.put(b);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+
+			tokenizer.reset(line, 0, line.position(), ++lineNumber);
+
+			return true;
+		}
+
+		/**
+		 * Closes the input.
+		 *
+		 * @throws UncheckedIOException if the input cannot be closed.
+		 */
+		void close() {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
 }
@@ -0,0 +1,303 @@
+package com.treasuremap.app.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AdventurerRegistry
+ *
+ * The stores of the adventurers occupying a tile of a storage: storages record the occupant of a tile as an
+ * identifier given by their registry, which is resolved by the store holding the adventurer.
+ * Only the stores are kept, not the adventurers.
+ *
+ * A store is given as many consecutive identifiers as its capacity when one of its adventurers first occupies a tile,
+ * and keeps them while any of them occupies a tile: registering and unregistering an adventurer then only counts the
+ * tiles they occupy, in a slot of their own, without any lock. The identifiers are given back once none of its
+ * adventurers occupies a tile any more, see {@link #unregister(Adventurer)}, and given again to the next stores of
+ * the same capacity, thus the identifiers of a storage are bounded by the number of adventurers standing on it,
+ * however many come and go.
+ *
+ * An adventurer is registered and unregistered by one thread at a time, as they act on one thread at a time.
+ */
+class AdventurerRegistry {
+	/**
+	 * Handle to count the tiles occupied by each adventurer of a store.
+	 */
+	private static final VarHandle OCCUPIED = MethodHandles.arrayElementVarHandle(int[].class);
+
+	/**
+	 * The stores, by first identifier.
+	 */
+	private final ConcurrentNavigableMap<Integer, Registration> stores = new ConcurrentSkipListMap<>();
+
+	/**
+	 * The registrations, by store.
+	 */
+	private final ConcurrentHashMap<AdventurerStore, Registration> registrations = new ConcurrentHashMap<>();
+
+	/**
+	 * The first identifiers given back, by capacity of the stores.
+	 */
+	private final ConcurrentHashMap<Integer, Queue<Integer>> freed = new ConcurrentHashMap<>();
+
+	/**
+	 * The last identifier given, guarded by {@link #freed}.
+	 */
+	private int lastId;
+
+	/**
+	 * Registers the given adventurer as the occupant of a tile and returns their identifier, 0 for null.
+	 * Every registration must be followed by an {@link #unregister(Adventurer)} once the adventurer leaves the tile,
+	 * or fails to occupy it.
+	 *
+	 * @param adventurer The adventurer or null.
+	 * @return the identifier of the adventurer.
+	 * @throws IllegalStateException if there are no identifiers left.
+	 */
+	int register(Adventurer adventurer) {
+		if (adventurer == null) {
+			return 0;
+		}
+
+		AdventurerStore store = adventurer.getStore();
+
+		while (true) {
+			Registration registration = registrations.get(store);
+
+			if (registration == null) {
+				registration = registrations.computeIfAbsent(store, this::open);
+			}
+
+			if (registration.enter(adventurer.getIndex())) {
+				return registration.firstId + adventurer.getIndex();
+			}
+
+			// Given back meanwhile by the last adventurer of the store leaving their tile
+			registrations.remove(store, registration);
+		}
+	}
+
+	/**
+	 * Unregisters the given adventurer, registered by {@link #register(Adventurer)}: the identifiers of their store
+	 * are given back once none of its adventurers occupies a tile.
+	 *
+	 * @param adventurer The adventurer, nothing is done for null.
+	 * @throws IllegalStateException if the adventurer is not registered.
+	 */
+	void unregister(Adventurer adventurer) {
+		if (adventurer == null) {
+			return;
+		}
+
+		Registration registration = registrations.get(adventurer.getStore());
+
+		if (registration == null) {
+			throw new IllegalStateException("Unregistered adventurer: " + adventurer);
+		}
+
+		leave(registration, adventurer.getIndex());
+	}
+
+	/**
+	 * Unregisters the occupant of the given identifier, see {@link #unregister(Adventurer)}, e.g. an occupant
+	 * replaced by another one.
+	 *
+	 * @param id The identifier, nothing is done for 0.
+	 * @throws IllegalStateException if the identifier is unknown.
+	 */
+	void unregister(int id) {
+		if (id == 0) {
+			return;
+		}
+
+		Registration registration = find(id);
+		leave(registration, id - registration.firstId);
+	}
+
+	/**
+	 * Returns the identifier of the given adventurer, 0 if their store is not registered, i.e. they occupy no tile.
+	 *
+	 * @param adventurer The adventurer.
+	 * @return the identifier of the adventurer or 0.
+	 */
+	int getId(Adventurer adventurer) {
+		Registration registration = registrations.get(adventurer.getStore());
+		return registration == null ? 0 : registration.firstId + adventurer.getIndex();
+	}
+
+	/**
+	 * Returns the adventurer of the given identifier, null for 0.
+	 *
+	 * @param id The identifier.
+	 * @return the adventurer or null.
+	 * @throws IllegalStateException if the identifier is unknown.
+	 */
+	Adventurer get(int id) {
+		if (id == 0) {
+			return null;
+		}
+
+		Registration registration = find(id);
+
+		return registration.store.get(id - registration.firstId);
+	}
+
+	/**
+	 * Returns the registration of the store holding the given identifier.
+	 *
+	 * @param id The identifier.
+	 * @return the registration.
+	 * @throws IllegalStateException if the identifier is unknown.
+	 */
+	private Registration find(int id) {
+		Map.Entry<Integer, Registration> entry = stores.floorEntry(id);
+
+		if (entry == null || id - entry.getKey() >= entry.getValue().store.capacity()) {
+			throw new IllegalStateException("Unknown adventurer identifier: " + id);
+		}
+
+		return entry.getValue();
+	}
+
+	/**
+	 * Returns a new registration of the given store, given its identifiers.
+	 *
+	 * @param store The store.
+	 * @return the registration.
+	 * @throws IllegalStateException if there are no identifiers left.
+	 */
+	private Registration open(AdventurerStore store) {
+		Registration registration = new Registration(store, reserve(store.capacity()));
+		stores.put(registration.firstId, registration);
+
+		return registration;
+	}
+
+	/**
+	 * Records that the adventurer of the given index has left a tile, and gives the identifiers of their store back
+	 * if none of its adventurers occupies a tile any more.
+	 *
+	 * @param registration The registration of the store of the adventurer.
+	 * @param index        The index of the adventurer in their store.
+	 */
+	private void leave(Registration registration, int index) {
+		if (registration.leave(index)) {
+			registrations.remove(registration.store, registration);
+			stores.remove(registration.firstId, registration);
+			freed.computeIfAbsent(registration.store.capacity(), capacity -> new ConcurrentLinkedQueue<>())
+					.add(registration.firstId);
+		}
+	}
+
+	/**
+	 * Reserves the given number of consecutive identifiers, given back ones first, and returns the first one.
+	 *
+	 * @param count The number of identifiers.
+	 * @return the first identifier reserved.
+	 * @throws IllegalStateException if there are no identifiers left.
+	 */
+	private int reserve(int count) {
+		Queue<Integer> queue = freed.get(count);
+		Integer firstId = queue == null ? null : queue.poll();
+
+		if (firstId != null) {
+			return firstId;
+		}
+
+		synchronized (freed) {
+			if (lastId > Integer.MAX_VALUE - count) {
+				throw new IllegalStateException("No identifiers left for " + count + " adventurers");
+			}
+
+			firstId = lastId + 1;
+			lastId += count;
+
+			return firstId;
+		}
+	}
+
+	/**
+	 * The identifiers given to a store and the tiles occupied by its adventurers.
+	 */
+	private static class Registration {
+		/**
+		 * The store.
+		 */
+		final AdventurerStore store;
+
+		/**
+		 * The identifier of the adventurer at index 0.
+		 */
+		final int firstId;
+
+		/**
+		 * The number of tiles occupied by each adventurer of the store, by index, one slot each.
+		 */
+		final int[] occupied;
+
+		/**
+		 * The number of adventurers of the store occupying a tile, -1 once the identifiers have been given back.
+		 * Only changed when an adventurer enters their first tile or leaves their last one.
+		 */
+		final AtomicInteger occupying = new AtomicInteger();
+
+		/**
+		 * Constructs a new object Registration.
+		 *
+		 * @param store   The store.
+		 * @param firstId The identifier of the adventurer at index 0.
+		 */
+		Registration(AdventurerStore store, int firstId) {
+			this.store = store;
+			this.firstId = firstId;
+			this.occupied = new int[store.capacity()];
+		}
+
+		/**
+		 * Records that the adventurer of the given index occupies one more tile.
+		 *
+		 * @param index The index of the adventurer.
+		 * @return true if recorded, false if the identifiers have been given back.
+		 */
+		boolean enter(int index) {
+			if ((int) OCCUPIED.getAndAdd(occupied, index, 1) > 0) {
+				return true;
+			}
+
+			while (true) {
+				int count = occupying.get();
+
+				if (count < 0) {
+					OCCUPIED.getAndAdd(occupied, index, -1);
+					return false;
+				}
+
+				if (occupying.compareAndSet(count, count + 1)) {
+					return true;
+				}
+			}
+		}
+
+		/**
+		 * Records that the adventurer of the given index occupies one tile less.
+		 *
+		 * @param index The index of the adventurer.
+		 * @return true if no adventurer of the store occupies a tile any more and the identifiers are to be given
+		 *         back, by the caller only.
+		 */
+		boolean leave(int index) {
+			if ((int) OCCUPIED.getAndAdd(occupied, index, -1) > 1) {
+				return false;
+			}
+
+			return occupying.decrementAndGet() == 0 && occupying.compareAndSet(0, -1);
+		}
+	}
+}
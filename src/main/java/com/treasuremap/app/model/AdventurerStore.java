@@ -0,0 +1,355 @@
+package com.treasuremap.app.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * AdventurerStore
+ *
+ * Holds the state of adventurers in parallel primitive arrays, one per attribute, indexed by the position of the
+ * adventurer in the store. An {@link Adventurer} is a view of one index of a store: a view holds no state, so views
+ * are created on demand, see {@link #get(int)} and {@link #asList()}, and dropped as soon as they are unused.
+ *
+ * A store has a fixed capacity, the storages give it as many consecutive identifiers while its adventurers occupy
+ * their tiles, see {@link AdventurerRegistry}.
+ * The names are kept as references, the paths are compiled into a {@link PathProgram} of 2 bits per action.
+ */
+public class AdventurerStore {
+	/**
+	 * Handle to read and write {@link #waiting} across threads.
+	 */
+	private static final VarHandle WAITING = MethodHandles.arrayElementVarHandle(boolean[].class);
+
+	/**
+	 * The orientations for {@link #orientations}.
+	 */
+	private static final Orientation[] ORIENTATIONS = Orientation.values();
+
+	/**
+	 * The view returned for every index, set for a store created by {@link Adventurer#Adventurer()}.
+	 */
+	private final Adventurer owner;
+
+	/**
+	 * The number of adventurers added.
+	 */
+	private int size;
+
+	/**
+	 * The names.
+	 */
+	private final String[] names;
+
+	/**
+	 * The compiled paths.
+	 */
+	private final PathProgram[] programs;
+
+	/**
+	 * The abscissas.
+	 */
+	private final int[] xs;
+
+	/**
+	 * The ordinates.
+	 */
+	private final int[] ys;
+
+	/**
+	 * The ordinals of the orientations, -1 for none.
+	 */
+	private final byte[] orientations;
+
+	/**
+	 * The steps of the paths to be executed.
+	 */
+	private final int[] pointers;
+
+	/**
+	 * The numbers of treasures.
+	 */
+	private final int[] treasures;
+
+	/**
+	 * True for the adventurers waiting for a tile to be free.
+	 */
+	private final boolean[] waiting;
+
+	/**
+	 * Constructs a new object AdventurerStore, empty, for the given number of adventurers.
+	 *
+	 * @param capacity The maximum number of adventurers.
+	 */
+	public AdventurerStore(int capacity) {
+		this(capacity, null);
+	}
+
+	/**
+	 * Constructs a new object AdventurerStore holding only the given adventurer, see {@link Adventurer#Adventurer()}.
+	 *
+	 * @param owner The adventurer.
+	 */
+	AdventurerStore(Adventurer owner) {
+		this(1, owner);
+		size = 1;
+	}
+
+	/**
+	 * Constructs a new object AdventurerStore.
+	 *
+	 * @param capacity The maximum number of adventurers.
+	 * @param owner    The view returned for every index, or null.
+	 */
+	private AdventurerStore(int capacity, Adventurer owner) {
+		this.owner = owner;
+		names = new String[capacity];
+		programs = new PathProgram[capacity];
+		xs = new int[capacity];
+		ys = new int[capacity];
+		orientations = new byte[capacity];
+		pointers = new int[capacity];
+		treasures = new int[capacity];
+		waiting = new boolean[capacity];
+
+		for (int i = 0 ; i < capacity ; i++) {
+			names[i] = "A";
+			orientations[i] = -1;
+		}
+	}
+
+	/**
+	 * Returns the number of adventurers added.
+	 *
+	 * @return the number of adventurers.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the maximum number of adventurers.
+	 *
+	 * @return the capacity.
+	 */
+	public int capacity() {
+		return names.length;
+	}
+
+	/**
+	 * Adds an adventurer with the default values of {@link Adventurer#Adventurer()} and returns them.
+	 * Adding is not thread-safe, a store is filled before the game starts.
+	 *
+	 * @return the adventurer added.
+	 * @throws IllegalStateException if the store is full.
+	 */
+	public Adventurer add() {
+		if (size == capacity()) {
+			throw new IllegalStateException("Store full, capacity: " + capacity());
+		}
+
+		return get(size++);
+	}
+
+	/**
+	 * Returns the adventurer at the given index.
+	 *
+	 * @param index The index.
+	 * @return the adventurer.
+	 */
+	public Adventurer get(int index) {
+		return owner != null ? owner : new Adventurer(this, index);
+	}
+
+	/**
+	 * Returns the adventurers added, in order, as an unmodifiable list of views.
+	 *
+	 * @return the adventurers.
+	 */
+	public List<Adventurer> asList() {
+		return new Views();
+	}
+
+	/**
+	 * Returns the name of the adventurer at the given index.
+	 *
+	 * @param index The index.
+	 * @return the name.
+	 */
+	String getName(int index) {
+		return names[index];
+	}
+
+	/**
+	 * Sets the name of the adventurer at the given index.
+	 *
+	 * @param index The index.
+	 * @param name  The name.
+	 */
+	void setName(int index, String name) {
+		names[index] = name;
+	}
+
+	/**
+	 * Returns the compiled path of the adventurer at the given index, null if none.
+	 *
+	 * @param index The index.
+	 * @return the program or null.
+	 */
+	PathProgram getProgram(int index) {
+		return programs[index];
+	}
+
+	/**
+	 * Sets the compiled path of the adventurer at the given index.
+	 *
+	 * @param index   The index.
+	 * @param program The program or null.
+	 */
+	void setProgram(int index, PathProgram program) {
+		programs[index] = program;
+	}
+
+	/**
+	 * Returns the abscissa of the adventurer at the given index.
+	 *
+	 * @param index The index.
+	 * @return the abscissa.
+	 */
+	int getX(int index) {
+		return xs[index];
+	}
+
+	/**
+	 * Sets the abscissa of the adventurer at the given index.
+	 *
+	 * @param index The index.
+	 * @param x     The abscissa.
+	 */
+	void setX(int index, int x) {
+		xs[index] = x;
+	}
+
+	/**
+	 * Returns the ordinate of the adventurer at the given index.
+	 *
+	 * @param index The index.
+	 * @return the ordinate.
+	 */
+	int getY(int index) {
+		return ys[index];
+	}
+
+	/**
+	 * Sets the ordinate of the adventurer at the given index.
+	 *
+	 * @param index The index.
+	 * @param y     The ordinate.
+	 */
+	void setY(int index, int y) {
+		ys[index] = y;
+	}
+
+	/**
+	 * Returns the orientation of the adventurer at the given index, null if none.
+	 *
+	 * @param index The index.
+	 * @return the orientation or null.
+	 */
+	Orientation getOrientation(int index) {
+		byte ordinal = orientations[index];
+		return ordinal < 0 ? null : ORIENTATIONS[ordinal];
+	}
+
+	/**
+	 * Sets the orientation of the adventurer at the given index.
+	 *
+	 * @param index       The index.
+	 * @param orientation The orientation or null.
+	 */
+	void setOrientation(int index, Orientation orientation) {
+		orientations[index] = (byte) (orientation == null ? -1 : orientation.ordinal());
+	}
+
+	/**
+	 * Returns the step of the path to be executed by the adventurer at the given index.
+	 *
+	 * @param index The index.
+	 * @return the pointer.
+	 */
+	int getPointer(int index) {
+		return pointers[index];
+	}
+
+	/**
+	 * Sets the step of the path to be executed by the adventurer at the given index.
+	 *
+	 * @param index   The index.
+	 * @param pointer The pointer.
+	 */
+	void setPointer(int index, int pointer) {
+		pointers[index] = pointer;
+	}
+
+	/**
+	 * Returns the number of treasures of the adventurer at the given index.
+	 *
+	 * @param index The index.
+	 * @return the number of treasures.
+	 */
+	int getTreasures(int index) {
+		return treasures[index];
+	}
+
+	/**
+	 * Sets the number of treasures of the adventurer at the given index.
+	 *
+	 * @param index     The index.
+	 * @param treasures The number of treasures.
+	 */
+	void setTreasures(int index, int treasures) {
+		this.treasures[index] = treasures;
+	}
+
+	/**
+	 * Returns true if the adventurer at the given index is waiting, else false.
+	 *
+	 * @param index The index.
+	 * @return true if the adventurer is waiting.
+	 */
+	boolean isWaiting(int index) {
+		return (boolean) WAITING.getVolatile(waiting, index);
+	}
+
+	/**
+	 * Sets whether the adventurer at the given index is waiting.
+	 *
+	 * @param index   The index.
+	 * @param waiting True if the adventurer is waiting.
+	 */
+	void setWaiting(int index, boolean waiting) {
+		WAITING.setVolatile(this.waiting, index, waiting);
+	}
+
+	/**
+	 * The adventurers added, see {@link AdventurerStore#asList()}.
+	 */
+	private class Views extends AbstractList<Adventurer> implements RandomAccess {
+
+		@Override
+		public Adventurer get(int index) {
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+			}
+
+			return AdventurerStore.this.get(index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package com.treasuremap.app.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * ArrayTileStorage
+ *
+ * Dense storage made of one primitive array per attribute, indexed by y * width + x:
+ * - the terrain as the ordinals of {@link TileType}, one byte per tile;
+ * - the treasures, one int per tile;
+ * - the occupants as the identifiers of the adventurers, 0 for a free tile, see {@link AdventurerRegistry}.
+ *
+ * About 9 bytes per tile, and the tiles of a row are contiguous in each array.
+ */
+public class ArrayTileStorage implements TileStorage {
+	/**
+	 * Handle to compare-and-set the occupants.
+	 */
+	private static final VarHandle OCCUPANTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+	/**
+	 * The types of the tiles for {@link #terrain}.
+	 */
+	private static final TileType[] TYPES = TileType.values();
+
+	/**
+	 * The width.
+	 */
+	private final int width;
+
+	/**
+	 * The height.
+	 */
+	private final int height;
+
+	/**
+	 * The ordinals of the types of the tiles.
+	 */
+	private final byte[] terrain;
+
+	/**
+	 * The treasures of the tiles.
+	 */
+	private final int[] treasures;
+
+	/**
+	 * The identifiers of the adventurers on the tiles, 0 if free.
+	 */
+	private final int[] occupants;
+
+	/**
+	 * The adventurers who have occupied a tile.
+	 */
+	private final AdventurerRegistry adventurers = new AdventurerRegistry();
+
+	/**
+	 * Constructs a new object ArrayTileStorage, every tile is a free prairie without treasures.
+	 * At most {@link Integer#MAX_VALUE} tiles can be stored, see {@link SparseTileStorage} for larger maps.
+	 *
+	 * @param width  The width.
+	 * @param height The height.
+	 */
+	public ArrayTileStorage(int width, int height) {
+		if ((long) width * height > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many tiles for a dense storage: " + width + "x" + height);
+		}
+
+		this.width = width;
+		this.height = height;
+		terrain = new byte[width * height];
+		treasures = new int[width * height];
+		occupants = new int[width * height];
+	}
+
+	@Override
+	public int getWidth() {
+		return width;
+	}
+
+	@Override
+	public int getHeight() {
+		return height;
+	}
+
+	@Override
+	public TileType getType(int x, int y) {
+		return TYPES[terrain[y * width + x]];
+	}
+
+	@Override
+	public void setType(int x, int y, TileType type) {
+		terrain[y * width + x] = (byte) type.ordinal();
+	}
+
+	@Override
+	public int getTreasures(int x, int y) {
+		return treasures[y * width + x];
+	}
+
+	@Override
+	public void setTreasures(int x, int y, int treasures) {
+		this.treasures[y * width + x] = treasures;
+	}
+
+	@Override
+	public void fill(int x, int y, int width, int height, TileType type, int treasures) {
+		for (int j = y ; j < y + height ; j++) {
+			int start = j * this.width + x;
+			Arrays.fill(terrain, start, start + width, (byte) type.ordinal());
+			Arrays.fill(this.treasures, start, start + width, treasures);
+		}
+	}
+
+	@Override
+	public Adventurer getAdventurer(int x, int y) {
+		return adventurers.get(getOccupant(x, y));
+	}
+
+	@Override
+	public int getOccupant(int x, int y) {
+		return (int) OCCUPANTS.getVolatile(occupants, y * width + x);
+	}
+
+	@Override
+	public void setAdventurer(int x, int y, Adventurer adventurer) {
+		adventurers.unregister((int) OCCUPANTS.getAndSet(occupants, y * width + x, adventurers.register(adventurer)));
+	}
+
+	@Override
+	public boolean claim(int x, int y, Adventurer adventurer) {
+		int id = adventurers.register(adventurer);
+
+		if (OCCUPANTS.compareAndSet(occupants, y * width + x, 0, id)) {
+			return true;
+		}
+
+		adventurers.unregister(adventurer);
+
+		return false;
+	}
+
+	@Override
+	public boolean release(int x, int y, Adventurer adventurer) {
+		int id = adventurers.getId(adventurer);
+
+		if (id != 0 && OCCUPANTS.compareAndSet(occupants, y * width + x, id, 0)) {
+			adventurers.unregister(adventurer);
+			return true;
+		}
+
+		return false;
+	}
+}
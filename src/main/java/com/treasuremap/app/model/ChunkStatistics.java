@@ -0,0 +1,69 @@
+package com.treasuremap.app.model;
+
+import lombok.Getter;
+
+/**
+ * ChunkStatistics
+ *
+ * How much of a map backed by a {@link ChunkedTileStorage} has been touched.
+ */
+@Getter
+public class ChunkStatistics {
+	/**
+	 * The width and the height of a chunk.
+	 *
+	 * @return the width and the height of a chunk.
+	 */
+	private final int chunkSize;
+
+	/**
+	 * The number of chunks of the map.
+	 *
+	 * @return the number of chunks of the map.
+	 */
+	private final int chunks;
+
+	/**
+	 * The number of chunks allocated, i.e. written by the parser or entered by an adventurer.
+	 *
+	 * @return the number of chunks allocated.
+	 */
+	private final int allocated;
+
+	/**
+	 * The number of chunks entered by an adventurer.
+	 *
+	 * @return the number of chunks entered by an adventurer.
+	 */
+	private final int entered;
+
+	/**
+	 * Constructs a new object ChunkStatistics.
+	 *
+	 * @param chunkSize The width and the height of a chunk.
+	 * @param chunks    The number of chunks of the map.
+	 * @param allocated The number of chunks allocated.
+	 * @param entered   The number of chunks entered by an adventurer.
+	 */
+	public ChunkStatistics(int chunkSize, int chunks, int allocated, int entered) {
+		this.chunkSize = chunkSize;
+		this.chunks = chunks;
+		this.allocated = allocated;
+		this.entered = entered;
+	}
+
+	/**
+	 * Returns the share of the chunks allocated, between 0 and 1.
+	 *
+	 * @return the share of the chunks allocated.
+	 */
+	public double getAllocatedRatio() {
+		return chunks == 0 ? 0 : (double) allocated / chunks;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Chunks of %dx%d tiles: %d allocated of %d (%.1f%%), %d entered by an adventurer",
+				chunkSize, chunkSize, allocated, chunks, getAllocatedRatio() * 100, entered);
+	}
+}
@@ -0,0 +1,357 @@
+package com.treasuremap.app.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * ChunkedTileStorage
+ *
+ * Storage splitting the map into chunks of {@link #CHUNK_SIZE}x{@link #CHUNK_SIZE} tiles, each chunk being laid out
+ * like an {@link ArrayTileStorage}. Every chunk initially is a shared read-only chunk of free prairies: a chunk is only
+ * allocated when a tile of it is written, by the parser or by an adventurer entering it.
+ *
+ * Chunks are allocated with a compare-and-set and the occupants are claimed with a compare-and-set, as in
+ * {@link ArrayTileStorage}: concurrent moves never lock. See {@link #getStatistics()} for how much of the map was touched.
+ */
+public class ChunkedTileStorage implements TileStorage {
+	/**
+	 * The width and the height of a chunk.
+	 */
+	public static final int CHUNK_SIZE = 64;
+
+	/**
+	 * The number of bits of the coordinates within a chunk.
+	 */
+	private static final int CHUNK_SHIFT = 6;
+
+	/**
+	 * The mask of the coordinates within a chunk.
+	 */
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	/**
+	 * Handle to compare-and-set the occupants.
+	 */
+	private static final VarHandle OCCUPANTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+	/**
+	 * The types of the tiles for {@link Chunk#terrain}.
+	 */
+	private static final TileType[] TYPES = TileType.values();
+
+	/**
+	 * The chunk shared by every chunk not allocated yet, it is never written.
+	 */
+	private static final Chunk BLANK = new Chunk();
+
+	/**
+	 * The width.
+	 */
+	private final int width;
+
+	/**
+	 * The height.
+	 */
+	private final int height;
+
+	/**
+	 * The number of chunks along the abscissa.
+	 */
+	private final int columns;
+
+	/**
+	 * The chunks, row by row, {@link #BLANK} until allocated.
+	 */
+	private final AtomicReferenceArray<Chunk> chunks;
+
+	/**
+	 * The number of chunks allocated.
+	 */
+	private final AtomicInteger allocated = new AtomicInteger();
+
+	/**
+	 * The number of chunks entered by an adventurer.
+	 */
+	private final AtomicInteger entered = new AtomicInteger();
+
+	/**
+	 * The adventurers who have occupied a tile.
+	 */
+	private final AdventurerRegistry adventurers = new AdventurerRegistry();
+
+	/**
+	 * Constructs a new object ChunkedTileStorage, every tile is a free prairie without treasures.
+	 *
+	 * @param width  The width.
+	 * @param height The height.
+	 */
+	public ChunkedTileStorage(int width, int height) {
+		this.width = width;
+		this.height = height;
+		columns = (width + CHUNK_MASK) >> CHUNK_SHIFT;
+		int rows = (height + CHUNK_MASK) >> CHUNK_SHIFT;
+
+		if ((long) columns * rows > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many chunks: " + width + "x" + height);
+		}
+
+		chunks = new AtomicReferenceArray<>(columns * rows);
+
+		for (int i = 0 ; i < chunks.length() ; i++) {
+			chunks.lazySet(i, BLANK);
+		}
+	}
+
+	@Override
+	public int getWidth() {
+		return width;
+	}
+
+	@Override
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns the statistics of the chunks: how many there are, how many have been allocated and entered.
+	 *
+	 * @return the statistics of the chunks.
+	 */
+	public ChunkStatistics getStatistics() {
+		return new ChunkStatistics(CHUNK_SIZE, chunks.length(), allocated.get(), entered.get());
+	}
+
+	@Override
+	public TileType getType(int x, int y) {
+		return TYPES[chunkOf(x, y).terrain[offset(x, y)]];
+	}
+
+	@Override
+	public void setType(int x, int y, TileType type) {
+		if (type != TileType.PRAIRIE || isAllocated(x, y)) {
+			allocate(x, y).terrain[offset(x, y)] = (byte) type.ordinal();
+		}
+	}
+
+	@Override
+	public int getTreasures(int x, int y) {
+		return chunkOf(x, y).treasures[offset(x, y)];
+	}
+
+	@Override
+	public void setTreasures(int x, int y, int treasures) {
+		if (treasures != 0 || isAllocated(x, y)) {
+			allocate(x, y).treasures[offset(x, y)] = treasures;
+		}
+	}
+
+	/**
+	 * Fills the rectangle chunk by chunk, a row of a chunk at a time. Blank tiles leave the chunks not allocated as is.
+	 */
+	@Override
+	public void fill(int x, int y, int width, int height, TileType type, int treasures) {
+		boolean isBlank = type == TileType.PRAIRIE && treasures == 0;
+
+		for (int top = y ; top < y + height ; top = (top | CHUNK_MASK) + 1) {
+			int bottom = Math.min(y + height, (top | CHUNK_MASK) + 1);
+
+			for (int left = x ; left < x + width ; left = (left | CHUNK_MASK) + 1) {
+				int right = Math.min(x + width, (left | CHUNK_MASK) + 1);
+
+				if (isBlank && !isAllocated(left, top)) {
+					continue;
+				}
+
+				Chunk chunk = allocate(left, top);
+
+				for (int j = top ; j < bottom ; j++) {
+					int start = offset(left, j);
+					Arrays.fill(chunk.terrain, start, start + right - left, (byte) type.ordinal());
+					Arrays.fill(chunk.treasures, start, start + right - left, treasures);
+				}
+			}
+		}
+	}
+
+	@Override
+	public Adventurer getAdventurer(int x, int y) {
+		return adventurers.get(getOccupant(x, y));
+	}
+
+	@Override
+	public int getOccupant(int x, int y) {
+		return (int) OCCUPANTS.getVolatile(chunkOf(x, y).occupants, offset(x, y));
+	}
+
+	@Override
+	public void setAdventurer(int x, int y, Adventurer adventurer) {
+		if (adventurer != null) {
+			adventurers.unregister((int) OCCUPANTS.getAndSet(enter(x, y).occupants, offset(x, y), adventurers.register(adventurer)));
+		} else if (isAllocated(x, y)) {
+			adventurers.unregister((int) OCCUPANTS.getAndSet(chunkOf(x, y).occupants, offset(x, y), 0));
+		}
+	}
+
+	@Override
+	public boolean claim(int x, int y, Adventurer adventurer) {
+		int id = adventurers.register(adventurer);
+
+		if (OCCUPANTS.compareAndSet(enter(x, y).occupants, offset(x, y), 0, id)) {
+			return true;
+		}
+
+		adventurers.unregister(adventurer);
+
+		return false;
+	}
+
+	@Override
+	public boolean release(int x, int y, Adventurer adventurer) {
+		int id = adventurers.getId(adventurer);
+
+		// Never written on the blank chunk: it only holds 0, which is never an identifier
+		if (id != 0 && OCCUPANTS.compareAndSet(chunkOf(x, y).occupants, offset(x, y), id, 0)) {
+			adventurers.unregister(adventurer);
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Visits the tiles which are not blank row by row, the chunks not allocated are skipped.
+	 */
+	@Override
+	public void forEachNonBlank(TileVisitor visitor) {
+		int[] allocatedColumns = new int[columns];
+
+		for (int row = 0 ; row * CHUNK_SIZE < height ; row++) {
+			int count = 0;
+
+			for (int column = 0 ; column < columns ; column++) {
+				if (chunks.get(row * columns + column) != BLANK) {
+					allocatedColumns[count++] = column;
+				}
+			}
+
+			for (int y = row * CHUNK_SIZE ; y < Math.min(height, (row + 1) * CHUNK_SIZE) ; y++) {
+				for (int k = 0 ; k < count ; k++) {
+					int column = allocatedColumns[k];
+					Chunk chunk = chunks.get(row * columns + column);
+
+					for (int x = column * CHUNK_SIZE ; x < Math.min(width, (column + 1) * CHUNK_SIZE) ; x++) {
+						int offset = offset(x, y);
+
+						if (chunk.terrain[offset] != 0 || chunk.treasures[offset] != 0 || chunk.occupants[offset] != 0) {
+							visitor.visit(x, y);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the chunk of the given tile, possibly the blank one.
+	 *
+	 * @param x The abscissa.
+	 * @param y The ordinate.
+	 * @return the chunk of the tile.
+	 */
+	private Chunk chunkOf(int x, int y) {
+		return chunks.get((y >> CHUNK_SHIFT) * columns + (x >> CHUNK_SHIFT));
+	}
+
+	/**
+	 * Returns true if the chunk of the given tile has been allocated, else false.
+	 *
+	 * @param x The abscissa.
+	 * @param y The ordinate.
+	 * @return true if the chunk has been allocated, else false.
+	 */
+	private boolean isAllocated(int x, int y) {
+		return chunkOf(x, y) != BLANK;
+	}
+
+	/**
+	 * Returns the chunk of the given tile, allocated first if need be.
+	 *
+	 * @param x The abscissa.
+	 * @param y The ordinate.
+	 * @return the chunk of the tile, never the blank one.
+	 */
+	private Chunk allocate(int x, int y) {
+		int index = (y >> CHUNK_SHIFT) * columns + (x >> CHUNK_SHIFT);
+		Chunk chunk = chunks.get(index);
+
+		if (chunk != BLANK) {
+			return chunk;
+		}
+
+		Chunk allocation = new Chunk();
+
+		if (chunks.compareAndSet(index, BLANK, allocation)) {
+			allocated.incrementAndGet();
+			return allocation;
+		}
+
+		return chunks.get(index);
+	}
+
+	/**
+	 * Returns the chunk of the given tile, allocated first if need be, and records that an adventurer entered it.
+	 *
+	 * @param x The abscissa.
+	 * @param y The ordinate.
+	 * @return the chunk of the tile, never the blank one.
+	 */
+	private Chunk enter(int x, int y) {
+		Chunk chunk = allocate(x, y);
+
+		if (!chunk.entered.get() && chunk.entered.compareAndSet(false, true)) {
+			entered.incrementAndGet();
+		}
+
+		return chunk;
+	}
+
+	/**
+	 * Returns the index of the given tile within its chunk.
+	 *
+	 * @param x The abscissa.
+	 * @param y The ordinate.
+	 * @return the index of the tile within its chunk.
+	 */
+	private static int offset(int x, int y) {
+		return ((y & CHUNK_MASK) << CHUNK_SHIFT) | (x & CHUNK_MASK);
+	}
+
+	/**
+	 * A chunk of tiles, one primitive array per attribute.
+	 */
+	private static class Chunk {
+		/**
+		 * The ordinals of the types of the tiles.
+		 */
+		final byte[] terrain = new byte[CHUNK_SIZE * CHUNK_SIZE];
+
+		/**
+		 * The treasures of the tiles.
+		 */
+		final int[] treasures = new int[CHUNK_SIZE * CHUNK_SIZE];
+
+		/**
+		 * The identifiers of the adventurers on the tiles, 0 if free.
+		 */
+		final int[] occupants = new int[CHUNK_SIZE * CHUNK_SIZE];
+
+		/**
+		 * True once an adventurer has entered this chunk.
+		 */
+		final AtomicBoolean entered = new AtomicBoolean();
+	}
+}
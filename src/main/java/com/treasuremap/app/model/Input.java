@@ -0,0 +1,131 @@
+package com.treasuremap.app.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Input
+ *
+ * Input of the parsers read as a stream of bytes, e.g. a pipe: gzip compressed or not, an input being recognized as
+ * compressed by its first two bytes, whatever its name, and then decompressed as it is read.
+ */
+final class Input {
+	/**
+	 * The size of the buffer of the decompression, in bytes.
+	 */
+	private static final int BUFFER = 1 << 16;
+
+	/**
+	 * Constructs a new object Input.
+	 */
+	private Input() {}
+
+	/**
+	 * Returns true if the given file is gzip compressed, else false. The position of the file is left as is.
+	 *
+	 * @param channel The file.
+	 * @return true if the file is compressed.
+	 * @throws IOException if the file cannot be read.
+	 */
+	static boolean isCompressed(FileChannel channel) throws IOException {
+		ByteBuffer head = ByteBuffer.allocate(2);
+
+		while (head.hasRemaining() && channel.read(head, head.position()) > 0) {
+			// Up to the two bytes of the header
+		}
+
+		return isCompressed(head.flip());
+	}
+
+	/**
+	 * Returns the bytes of the given input, decompressed if it is gzip compressed.
+	 * The first bytes of the input are read to tell, the input must be read through the channel returned only.
+	 *
+	 * @param channel The input.
+	 * @return the bytes of the input, closing it when closed.
+	 * @throws IOException if the input cannot be read.
+	 */
+	static ReadableByteChannel decompress(ReadableByteChannel channel) throws IOException {
+		ByteBuffer head = ByteBuffer.allocate(2);
+
+		while (head.hasRemaining() && channel.read(head) >= 0) {
+			// Up to the two bytes of the header
+		}
+
+		ReadableByteChannel input = new Replay(head.flip(), channel);
+
+		if (isCompressed(head)) {
+			return Channels.newChannel(new GZIPInputStream(Channels.newInputStream(input), BUFFER));
+		}
+
+		return input;
+	}
+
+	/**
+	 * Returns true if the given bytes are the header of a gzip stream, see {@link GZIPInputStream#GZIP_MAGIC}.
+	 *
+	 * @param head The first bytes of the input.
+	 * @return true if the input is compressed.
+	 */
+	private static boolean isCompressed(ByteBuffer head) {
+		return head.remaining() == 2
+				&& (head.get(0) & 0xFF) == (GZIPInputStream.GZIP_MAGIC & 0xFF)
+				&& (head.get(1) & 0xFF) == GZIPInputStream.GZIP_MAGIC >>> 8;
+	}
+
+	/**
+	 * Channel giving back the bytes already read from an input, then the rest of the input.
+	 */
+	private static class Replay implements ReadableByteChannel {
+		/**
+		 * The bytes already read.
+		 */
+		private final ByteBuffer head;
+
+		/**
+		 * The input.
+		 */
+		private final ReadableByteChannel channel;
+
+		/**
+		 * Constructs a new object Replay.
+		 *
+		 * @param head    The bytes already read.
+		 * @param channel The input.
+		 */
+		Replay(ByteBuffer head, ReadableByteChannel channel) {
+			this.head = head;
+			this.channel = channel;
+		}
+
+		@Override
+		public int read(ByteBuffer destination) throws IOException {
+			if (!head.hasRemaining()) {
+				return channel.read(destination);
+			}
+
+			int count = 0;
+
+			while (head.hasRemaining() && destination.hasRemaining()) {
+				destination.put(head.get());
+				count++;
+			}
+
+			return count;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return channel.isOpen();
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,665 @@
+package com.treasuremap.app.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MappedTileStorage
+ *
+ * Storage laid out like an {@link ArrayTileStorage}, but in a memory-mapped file rather than in the heap:
+ * the operating system only pages in the regions of the map actually read, and the garbage collector never sees
+ * the tiles whatever the size of the map. A file is created once by {@link #create(Path, int, int)}, typically while
+ * parsing a map, and re-opened without parsing by {@link #open(Path, boolean)}.
+ *
+ * The file is made of:
+ * - a header of {@link #HEADER_SIZE} bytes: {@link #MAGIC}, {@link #VERSION}, the width and the height;
+ * - the terrain as the ordinals of {@link TileType}, one byte per tile, indexed by y * width + x;
+ * - the treasures, one int per tile, 8 bytes aligned;
+ * - the index of the pages of {@link #PAGE_SIZE} tiles holding a mountain or treasures, one bit per page packed in
+ *   longs, so that {@link #forEachNonBlank(TileVisitor)} only reads these pages.
+ *
+ * Identifiers of adventurers only make sense within a run: the occupants are never written to the file but kept in
+ * memory, by pages allocated as adventurers enter them and found through a table of directories of pages, without
+ * boxing nor hashing. Several runs can thus open the same file at once.
+ * A file opened read-only is mapped read-only, the changes made by the game, e.g. treasures collected, being kept in
+ * memory as well.
+ *
+ * The file stays mapped until the storage is closed, see {@link #close()}, and the garbage collector releases the
+ * mapping: a storage must be closed before its file is created or opened again.
+ */
+public class MappedTileStorage implements TileStorage, Closeable {
+	/**
+	 * The extension of the files of this storage.
+	 */
+	public static final String EXTENSION = ".tiles";
+
+	/**
+	 * The first int of the files of this storage.
+	 */
+	public static final int MAGIC = 0x544D4150;
+
+	/**
+	 * The version of the layout of the files of this storage.
+	 */
+	public static final int VERSION = 2;
+
+	/**
+	 * The size of the header, in bytes.
+	 */
+	private static final int HEADER_SIZE = 16;
+
+	/**
+	 * The size of a mapped segment, in bytes: a buffer cannot map more than {@link Integer#MAX_VALUE} bytes.
+	 */
+	private static final int SEGMENT_SIZE = 1 << 30;
+
+	/**
+	 * The number of bits of the index of a tile within its page.
+	 */
+	private static final int PAGE_SHIFT = 12;
+
+	/**
+	 * The number of tiles of a page, of the index and of the occupants.
+	 */
+	private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+
+	/**
+	 * The number of bits of the index of a page within its directory.
+	 */
+	private static final int DIRECTORY_SHIFT = 16;
+
+	/**
+	 * The maximum number of pages of a directory.
+	 */
+	private static final int DIRECTORY_SIZE = 1 << DIRECTORY_SHIFT;
+
+	/**
+	 * Handle to compare-and-set the occupants.
+	 */
+	private static final VarHandle OCCUPANTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+	/**
+	 * Handle to publish the pages of occupants of a directory.
+	 */
+	private static final VarHandle PAGES = MethodHandles.arrayElementVarHandle(int[][].class);
+
+	/**
+	 * Handle to publish the directories of pages of occupants.
+	 */
+	private static final VarHandle DIRECTORIES = MethodHandles.arrayElementVarHandle(int[][][].class);
+
+	/**
+	 * Handle to set the bits of the index.
+	 */
+	private static final VarHandle INDEX = MethodHandles.arrayElementVarHandle(long[].class);
+
+	/**
+	 * The types of the tiles for {@link #terrain}.
+	 */
+	private static final TileType[] TYPES = TileType.values();
+
+	/**
+	 * The width.
+	 */
+	private final int width;
+
+	/**
+	 * The height.
+	 */
+	private final int height;
+
+	/**
+	 * The ordinals of the types of the tiles.
+	 */
+	private final Region terrain;
+
+	/**
+	 * The treasures of the tiles.
+	 */
+	private final Region treasures;
+
+	/**
+	 * The index of the pages holding a mountain or treasures, as mapped in the file.
+	 */
+	private final Region indexRegion;
+
+	/**
+	 * The index of the pages holding a mountain or treasures, written to the file by {@link #force()}.
+	 */
+	private final long[] index;
+
+	/**
+	 * The pages of the identifiers of the adventurers on the tiles, 0 if free: the directory of a page is given by
+	 * the high bits of its index, see {@link #DIRECTORY_SHIFT}, then the page by the low bits. Directories and pages
+	 * are null until an adventurer enters them.
+	 */
+	private final int[][][] occupants;
+
+	/**
+	 * True if changes to the terrain and the treasures are written to the file.
+	 */
+	private final boolean isWritable;
+
+	/**
+	 * The types changed on a read-only file, by index of tile, null if the file is writable.
+	 */
+	private final ConcurrentHashMap<Long, TileType> changedTerrain;
+
+	/**
+	 * The treasures changed on a read-only file, by index of tile, null if the file is writable.
+	 */
+	private final ConcurrentHashMap<Long, Integer> changedTreasures;
+
+	/**
+	 * The adventurers who have occupied a tile.
+	 */
+	private final AdventurerRegistry adventurers = new AdventurerRegistry();
+
+	/**
+	 * Constructs a new object MappedTileStorage mapping the given file, whose header has been checked.
+	 *
+	 * @param channel    The channel of the file, open for reading, and for writing if writable.
+	 * @param width      The width.
+	 * @param height     The height.
+	 * @param isWritable True if the terrain and the treasures written are written to the file,
+	 *                   else they are only visible to this storage.
+	 * @throws IOException if the file cannot be mapped.
+	 */
+	private MappedTileStorage(FileChannel channel, int width, int height, boolean isWritable) throws IOException {
+		long tiles = (long) width * height;
+		long pages = pages(width, height);
+		MapMode mode = isWritable ? MapMode.READ_WRITE : MapMode.READ_ONLY;
+
+		this.width = width;
+		this.height = height;
+		this.isWritable = isWritable;
+		this.changedTerrain = isWritable ? null : new ConcurrentHashMap<>();
+		this.changedTreasures = isWritable ? null : new ConcurrentHashMap<>();
+
+		terrain = new Region(channel, mode, HEADER_SIZE, tiles);
+		treasures = new Region(channel, mode, treasuresOffset(tiles), 4 * tiles);
+		indexRegion = new Region(channel, mode, indexOffset(tiles), 8L * words(pages));
+		index = new long[words(pages)];
+		occupants = new int[(int) ((pages + DIRECTORY_SIZE - 1) >>> DIRECTORY_SHIFT)][][];
+
+		for (int i = 0 ; i < index.length ; i++) {
+			index[i] = indexRegion.segment(8L * i).getLong(Region.position(8L * i));
+		}
+	}
+
+	/**
+	 * Creates the given file for a map of the given size, every tile being a free prairie without treasures,
+	 * and returns the storage mapping it. An existing file is overwritten.
+	 *
+	 * @param path   The file.
+	 * @param width  The width.
+	 * @param height The height.
+	 * @return the storage.
+	 * @throws IOException if the file cannot be created.
+	 */
+	public static MappedTileStorage create(Path path, int width, int height) throws IOException {
+		if (pages(width, height) > (long) Integer.MAX_VALUE * 64) {
+			throw new IllegalArgumentException("Too many tiles for a tiles file: " + width + "x" + height);
+		}
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height).flip();
+			channel.write(header, 0);
+
+			return new MappedTileStorage(channel, width, height, true);
+		}
+	}
+
+	/**
+	 * Opens the given file, previously created by {@link #create(Path, int, int)}, and returns the storage mapping it.
+	 * Every tile is free.
+	 *
+	 * @param path       The file.
+	 * @param isWritable True if changes to the terrain and the treasures, e.g. treasures collected, are written to
+	 *                   the file, false to open it for reading only and leave it as is.
+	 * @return the storage.
+	 * @throws IOException if the file cannot be read or is not a file of this storage.
+	 */
+	public static MappedTileStorage open(Path path, boolean isWritable) throws IOException {
+		FileChannel channel = isWritable
+				? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+				: FileChannel.open(path, StandardOpenOption.READ);
+
+		try (channel) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+			while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+				// Reads until the header is full or the file ends
+			}
+
+			header.flip();
+
+			if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+				throw new IOException("Not a tiles file: " + path);
+			}
+
+			int version = header.getInt();
+
+			if (version != VERSION) {
+				throw new IOException("Unsupported version " + version + " of tiles file: " + path);
+			}
+
+			int width = header.getInt();
+			int height = header.getInt();
+
+			if (width < 0 || height < 0
+					|| channel.size() < indexOffset((long) width * height) + 8L * words(pages(width, height))) {
+				throw new IOException("Truncated tiles file: " + path);
+			}
+
+			return new MappedTileStorage(channel, width, height, isWritable);
+		}
+	}
+
+	/**
+	 * Returns the given offset rounded up to a multiple of 8.
+	 *
+	 * @param offset The offset.
+	 * @return the offset aligned.
+	 */
+	private static long align(long offset) {
+		return (offset + 7) & ~7L;
+	}
+
+	/**
+	 * Returns the offset of the treasures in the file.
+	 *
+	 * @param tiles The number of tiles.
+	 * @return the offset of the treasures.
+	 */
+	private static long treasuresOffset(long tiles) {
+		return align(HEADER_SIZE + tiles);
+	}
+
+	/**
+	 * Returns the offset of the index of the pages in the file.
+	 *
+	 * @param tiles The number of tiles.
+	 * @return the offset of the index.
+	 */
+	private static long indexOffset(long tiles) {
+		return align(treasuresOffset(tiles) + 4 * tiles);
+	}
+
+	/**
+	 * Returns the number of pages of a map of the given size.
+	 *
+	 * @param width  The width.
+	 * @param height The height.
+	 * @return the number of pages.
+	 */
+	private static long pages(int width, int height) {
+		return ((long) width * height + PAGE_SIZE - 1) >>> PAGE_SHIFT;
+	}
+
+	/**
+	 * Returns the number of longs of the index of the given number of pages.
+	 *
+	 * @param pages The number of pages.
+	 * @return the number of longs.
+	 */
+	private static int words(long pages) {
+		return (int) ((pages + 63) >>> 6);
+	}
+
+	/**
+	 * Releases the mapping of the file, once the garbage collector has collected it: the storage cannot be used
+	 * any more, its tiles failing with an {@link IllegalStateException}. The changes not forced, see
+	 * {@link #force()}, may not be written to the file.
+	 */
+	@Override
+	public void close() {
+		terrain.close();
+		treasures.close();
+		indexRegion.close();
+	}
+
+	/**
+	 * Writes the changes to the terrain, the treasures and the index to the file, if it has been opened writable.
+	 */
+	public void force() {
+		if (isWritable) {
+			for (int i = 0 ; i < index.length ; i++) {
+				indexRegion.segment(8L * i).putLong(Region.position(8L * i), (long) INDEX.getVolatile(index, i));
+			}
+
+			terrain.force();
+			treasures.force();
+			indexRegion.force();
+		}
+	}
+
+	@Override
+	public int getWidth() {
+		return width;
+	}
+
+	@Override
+	public int getHeight() {
+		return height;
+	}
+
+	@Override
+	public TileType getType(int x, int y) {
+		long index = (long) y * width + x;
+
+		if (changedTerrain != null && !changedTerrain.isEmpty()) {
+			TileType type = changedTerrain.get(index);
+
+			if (type != null) {
+				return type;
+			}
+		}
+
+		return TYPES[terrain.segment(index).get(Region.position(index))];
+	}
+
+	@Override
+	public void setType(int x, int y, TileType type) {
+		long index = (long) y * width + x;
+
+		if (type != TileType.PRAIRIE) {
+			mark(index);
+		}
+
+		if (changedTerrain != null) {
+			changedTerrain.put(index, type);
+		} else {
+			terrain.segment(index).put(Region.position(index), (byte) type.ordinal());
+		}
+	}
+
+	@Override
+	public int getTreasures(int x, int y) {
+		long index = (long) y * width + x;
+
+		if (changedTreasures != null && !changedTreasures.isEmpty()) {
+			Integer treasures = changedTreasures.get(index);
+
+			if (treasures != null) {
+				return treasures;
+			}
+		}
+
+		return treasures.segment(4 * index).getInt(Region.position(4 * index));
+	}
+
+	@Override
+	public void setTreasures(int x, int y, int treasures) {
+		long index = (long) y * width + x;
+
+		if (treasures != 0) {
+			mark(index);
+		}
+
+		if (changedTreasures != null) {
+			changedTreasures.put(index, treasures);
+		} else {
+			this.treasures.segment(4 * index).putInt(Region.position(4 * index), treasures);
+		}
+	}
+
+	@Override
+	public Adventurer getAdventurer(int x, int y) {
+		return adventurers.get(getOccupant(x, y));
+	}
+
+	@Override
+	public int getOccupant(int x, int y) {
+		return getOccupant((long) y * width + x);
+	}
+
+	@Override
+	public void setAdventurer(int x, int y, Adventurer adventurer) {
+		long index = (long) y * width + x;
+
+		if (adventurer != null) {
+			adventurers.unregister((int) OCCUPANTS.getAndSet(page(index), offset(index), adventurers.register(adventurer)));
+			return;
+		}
+
+		int[] page = findPage(index);
+
+		if (page != null) {
+			adventurers.unregister((int) OCCUPANTS.getAndSet(page, offset(index), 0));
+		}
+	}
+
+	@Override
+	public boolean claim(int x, int y, Adventurer adventurer) {
+		long index = (long) y * width + x;
+		int id = adventurers.register(adventurer);
+
+		if (OCCUPANTS.compareAndSet(page(index), offset(index), 0, id)) {
+			return true;
+		}
+
+		adventurers.unregister(adventurer);
+
+		return false;
+	}
+
+	@Override
+	public boolean release(int x, int y, Adventurer adventurer) {
+		long index = (long) y * width + x;
+		int[] page = findPage(index);
+		int id = adventurers.getId(adventurer);
+
+		if (page != null && id != 0 && OCCUPANTS.compareAndSet(page, offset(index), id, 0)) {
+			adventurers.unregister(adventurer);
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Visits the tiles which are not blank row by row: only the pages holding a mountain or treasures, as given by
+	 * the index, and the pages entered by an adventurer are read.
+	 */
+	@Override
+	public void forEachNonBlank(TileVisitor visitor) {
+		long[] visited = new long[index.length];
+
+		for (int i = 0 ; i < index.length ; i++) {
+			visited[i] = (long) INDEX.getVolatile(index, i);
+		}
+
+		for (int d = 0 ; d < occupants.length ; d++) {
+			int[][] directory = (int[][]) DIRECTORIES.getVolatile(occupants, d);
+
+			for (int k = 0 ; directory != null && k < directory.length ; k++) {
+				if (PAGES.getVolatile(directory, k) != null) {
+					long page = ((long) d << DIRECTORY_SHIFT) + k;
+					visited[(int) (page >>> 6)] |= 1L << page;
+				}
+			}
+		}
+
+		long tiles = (long) width * height;
+
+		for (int i = 0 ; i < visited.length ; i++) {
+			for (long word = visited[i] ; word != 0 ; word &= word - 1) {
+				long page = 64L * i + Long.numberOfTrailingZeros(word);
+
+				for (long tile = page << PAGE_SHIFT ; tile < Math.min(tiles, (page + 1) << PAGE_SHIFT) ; tile++) {
+					int x = (int) (tile % width);
+					int y = (int) (tile / width);
+
+					if (getType(x, y) != TileType.PRAIRIE || getTreasures(x, y) != 0 || getOccupant(tile) != 0) {
+						visitor.visit(x, y);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the identifier of the adventurer on the given tile.
+	 *
+	 * @param index The index of the tile.
+	 * @return the identifier of the adventurer, 0 if the tile is free.
+	 */
+	private int getOccupant(long index) {
+		int[] page = findPage(index);
+		return page == null ? 0 : (int) OCCUPANTS.getVolatile(page, offset(index));
+	}
+
+	/**
+	 * Records in the index that the page of the given tile holds a mountain or treasures.
+	 *
+	 * @param index The index of the tile.
+	 */
+	private void mark(long index) {
+		long page = index >>> PAGE_SHIFT;
+		int word = (int) (page >>> 6);
+		long bit = 1L << page;
+
+		if (((long) INDEX.getVolatile(this.index, word) & bit) == 0) {
+			INDEX.getAndBitwiseOr(this.index, word, bit);
+		}
+	}
+
+	/**
+	 * Returns the page of occupants of the given tile, null if no adventurer has entered it.
+	 *
+	 * @param index The index of the tile.
+	 * @return the page of the tile or null.
+	 */
+	private int[] findPage(long index) {
+		long page = index >>> PAGE_SHIFT;
+		int[][] directory = (int[][]) DIRECTORIES.getVolatile(occupants, (int) (page >>> DIRECTORY_SHIFT));
+		return directory == null ? null : (int[]) PAGES.getVolatile(directory, (int) (page & (DIRECTORY_SIZE - 1)));
+	}
+
+	/**
+	 * Returns the page of occupants of the given tile, allocated first if need be. Concurrent allocations of the same
+	 * directory or page are resolved by compare-and-set, the losers using the winner's.
+	 *
+	 * @param index The index of the tile.
+	 * @return the page of the tile.
+	 */
+	private int[] page(long index) {
+		int[] found = findPage(index);
+
+		if (found != null) {
+			return found;
+		}
+
+		long page = index >>> PAGE_SHIFT;
+		int d = (int) (page >>> DIRECTORY_SHIFT);
+		int[][] directory = (int[][]) DIRECTORIES.getVolatile(occupants, d);
+
+		if (directory == null) {
+			long pages = pages(width, height);
+			int[][] created = new int[(int) Math.min(DIRECTORY_SIZE, pages - ((long) d << DIRECTORY_SHIFT))][];
+			int[][] witness = (int[][]) DIRECTORIES.compareAndExchange(occupants, d, (int[][]) null, created);
+			directory = witness == null ? created : witness;
+		}
+
+		int k = (int) (page & (DIRECTORY_SIZE - 1));
+		int[] created = new int[PAGE_SIZE];
+		int[] witness = (int[]) PAGES.compareAndExchange(directory, k, (int[]) null, created);
+
+		return witness == null ? created : witness;
+	}
+
+	/**
+	 * Returns the index of the given tile within its page.
+	 *
+	 * @param index The index of the tile.
+	 * @return the index within the page.
+	 */
+	private static int offset(long index) {
+		return (int) (index & (PAGE_SIZE - 1));
+	}
+
+	/**
+	 * A region of the file, mapped by segments of {@link MappedTileStorage#SEGMENT_SIZE} bytes.
+	 * Regions are 8 bytes aligned, so an int never spans two segments.
+	 */
+	private static class Region {
+		/**
+		 * The segments, null once closed.
+		 */
+		private MappedByteBuffer[] segments;
+
+		/**
+		 * Maps the given region of the file.
+		 *
+		 * @param channel The channel of the file.
+		 * @param mode    The mode of the mapping.
+		 * @param offset  The offset of the region in the file.
+		 * @param length  The length of the region, in bytes.
+		 * @throws IOException if the region cannot be mapped.
+		 */
+		Region(FileChannel channel, MapMode mode, long offset, long length) throws IOException {
+			segments = new MappedByteBuffer[(int) ((length + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+
+			for (int i = 0 ; i < segments.length ; i++) {
+				long start = (long) i * SEGMENT_SIZE;
+				segments[i] = channel.map(mode, offset + start, Math.min(SEGMENT_SIZE, length - start));
+			}
+		}
+
+		/**
+		 * Returns the segment holding the given byte of the region.
+		 *
+		 * @param index The index of the byte in the region.
+		 * @return the segment.
+		 */
+		MappedByteBuffer segment(long index) {
+			MappedByteBuffer[] segments = this.segments;
+
+			if (segments == null) {
+				throw new IllegalStateException("Tiles file closed");
+			}
+
+			return segments[(int) (index / SEGMENT_SIZE)];
+		}
+
+		/**
+		 * Returns the position of the given byte of the region within its segment.
+		 *
+		 * @param index The index of the byte in the region.
+		 * @return the position within the segment.
+		 */
+		static int position(long index) {
+			return (int) (index & (SEGMENT_SIZE - 1));
+		}
+
+		/**
+		 * Writes the changes to the file.
+		 */
+		void force() {
+			MappedByteBuffer[] segments = this.segments;
+
+			for (int i = 0 ; segments != null && i < segments.length ; i++) {
+				segments[i].force();
+			}
+		}
+
+		/**
+		 * Drops the segments, so that the garbage collector can release the mapping.
+		 */
+		void close() {
+			segments = null;
+		}
+	}
+}
@@ -1,8 +1,71 @@
 package com.treasuremap.app.model;
 
+import lombok.Getter;
+
 /**
  * Orientation
+ *
+ * The rotations are looked up in tables indexed by ordinal, and the moves are given as deltas, so that turning
+ * and finding the tile in front of an adventurer never branch on the orientation.
  */
 public enum Orientation {
-	NORTH, SOUTH, EAST, WEST
+	NORTH(0, -1), SOUTH(0, 1), EAST(1, 0), WEST(-1, 0);
+
+	/**
+	 * The orientations, by ordinal.
+	 */
+	private static final Orientation[] VALUES = values();
+
+	/**
+	 * The ordinals of the next orientations clockwise, by ordinal.
+	 */
+	private static final int[] RIGHT = { 2, 3, 1, 0 };
+
+	/**
+	 * The ordinals of the next orientations counterclockwise, by ordinal.
+	 */
+	private static final int[] LEFT = { 3, 2, 0, 1 };
+
+	/**
+	 * The move along the abscissa of one step forward.
+	 *
+	 * @return the move along the abscissa.
+	 */
+	@Getter private final int dx;
+
+	/**
+	 * The move along the ordinate of one step forward.
+	 *
+	 * @return the move along the ordinate.
+	 */
+	@Getter private final int dy;
+
+	/**
+	 * Constructs a new orientation.
+	 *
+	 * @param dx The move along the abscissa of one step forward.
+	 * @param dy The move along the ordinate of one step forward.
+	 */
+	Orientation(int dx, int dy) {
+		this.dx = dx;
+		this.dy = dy;
+	}
+
+	/**
+	 * Returns the next orientation clockwise.
+	 *
+	 * @return the next orientation clockwise.
+	 */
+	public Orientation rotateRight() {
+		return VALUES[RIGHT[ordinal()]];
+	}
+
+	/**
+	 * Returns the next orientation counterclockwise.
+	 *
+	 * @return the next orientation counterclockwise.
+	 */
+	public Orientation rotateLeft() {
+		return VALUES[LEFT[ordinal()]];
+	}
 }
@@ -0,0 +1,681 @@
+package com.treasuremap.app.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PathProgram
+ *
+ * Path of an adventurer compiled into steps, see {@link #compile(String)}, each step being one action of the path:
+ * one step still takes one tick and {@link Adventurer#getPointer()} still counts the actions executed.
+ *
+ * A path is made of:
+ * - the letters 'A', 'D' and 'G', compiled into steps of 2 bits, 32 steps per long. Consecutive turns are folded:
+ *   only their overall rotation is executed, by the first steps of the run, the others are {@link #TURN_NONE}.
+ *   For example 'DDDA' is compiled into a left turn, two turns doing nothing, then a move, the letters as given
+ *   being kept for display only when their turns have been folded;
+ * - a letter followed by a number, the letter repeated, e.g. 'A100';
+ * - a path between parentheses followed by '*' and a number, the path repeated, e.g. '(AAD)*5000'.
+ * Repetitions are executed as they are, never expanded: the memory of a program does not depend on its number of
+ * steps. A path may also be read from a file, see {@link PathStream}.
+ */
+public abstract class PathProgram {
+	/**
+	 * Step moving forward, 'A'.
+	 */
+	public static final int MOVE = 0;
+
+	/**
+	 * Step turning to the right, 'D'.
+	 */
+	public static final int TURN_RIGHT = 1;
+
+	/**
+	 * Step turning to the left, 'G'.
+	 */
+	public static final int TURN_LEFT = 2;
+
+	/**
+	 * Step of a folded turn: the action is executed but the orientation does not change.
+	 */
+	public static final int TURN_NONE = 3;
+
+	/**
+	 * Tag of {@link Steps} in the binary form of a program, see {@link #write(DataOutput)}.
+	 */
+	private static final byte TAG_STEPS = 0;
+
+	/**
+	 * Tag of {@link Sequence} in the binary form of a program.
+	 */
+	private static final byte TAG_SEQUENCE = 1;
+
+	/**
+	 * Tag of {@link Repeat} in the binary form of a program.
+	 */
+	private static final byte TAG_REPEAT = 2;
+
+	/**
+	 * Tag of {@link PathStream} in the binary form of a program.
+	 */
+	static final byte TAG_STREAM = 3;
+
+	/**
+	 * Tag of {@link Steps} keeping their letters as given in the binary form of a program.
+	 */
+	private static final byte TAG_LETTERS = 4;
+
+	/**
+	 * Compiles the given path, see {@link PathProgram}. A path starting with '@' is the name of the file to read it
+	 * from, see {@link PathStream}.
+	 *
+	 * @param path The path.
+	 * @return the program.
+	 * @throws IllegalArgumentException if the path is malformed or longer than {@link Integer#MAX_VALUE} steps.
+	 */
+	public static PathProgram compile(String path) {
+		if (path.startsWith("@")) {
+			return new PathStream(Paths.get(path.substring(1)));
+		}
+
+		Parser parser = new Parser(path);
+		PathProgram program = parser.sequence();
+
+		if (parser.position < path.length()) {
+			throw parser.error("Unexpected ')'");
+		}
+
+		return program;
+	}
+
+	/**
+	 * Returns the number of steps, i.e. of actions of the path, -1 if not known yet.
+	 *
+	 * @return the number of steps or -1.
+	 */
+	public abstract int length();
+
+	/**
+	 * Returns true if the path has the given step, else false: the path is completed once the pointer has no step.
+	 *
+	 * @param index The index of the step.
+	 * @return true if the path has the step.
+	 */
+	public abstract boolean hasStep(int index);
+
+	/**
+	 * Returns the given step: {@link #MOVE}, {@link #TURN_RIGHT}, {@link #TURN_LEFT} or {@link #TURN_NONE}.
+	 *
+	 * @param index The index of the step, see {@link #hasStep(int)}.
+	 * @return the step.
+	 */
+	public abstract int step(int index);
+
+	/**
+	 * Returns true if the path is displayed one letter per step, see {@link #toString()}, i.e. it has no repetition
+	 * and is not read from a file.
+	 *
+	 * @return true if the path is displayed one letter per step.
+	 */
+	public abstract boolean isExpanded();
+
+	/**
+	 * Returns the path executed by this program in the syntax of {@link #compile(String)}: the letters and the
+	 * repetitions as they were given. The path has the same length and leads to the same positions as the path
+	 * compiled.
+	 */
+	@Override
+	public abstract String toString();
+
+	/**
+	 * Writes the binary form of this program: a tag then the state of the program as compiled, the steps being
+	 * written as their packed longs followed by their letters as given if their turns have been folded, see
+	 * {@link #read(DataInput)}.
+	 *
+	 * @param out The output.
+	 * @throws IOException if the output cannot be written.
+	 */
+	abstract void write(DataOutput out) throws IOException;
+
+	/**
+	 * Reads a program written by {@link #write(DataOutput)}, without compiling it again.
+	 *
+	 * @param in The input.
+	 * @return the program.
+	 * @throws IOException if the input cannot be read or is not a program.
+	 */
+	static PathProgram read(DataInput in) throws IOException {
+		byte tag = in.readByte();
+
+		if (tag == TAG_STEPS || tag == TAG_LETTERS) {
+			int length = in.readInt();
+			long[] words = new long[(length + Steps.STEPS_PER_WORD - 1) / Steps.STEPS_PER_WORD];
+
+			for (int i = 0 ; i < words.length ; i++) {
+				words[i] = in.readLong();
+			}
+
+			String letters = null;
+
+			if (tag == TAG_LETTERS) {
+				byte[] bytes = new byte[length];
+				in.readFully(bytes);
+				letters = new String(bytes, StandardCharsets.US_ASCII);
+			}
+
+			return new Steps(words, length, letters);
+		}
+
+		if (tag == TAG_SEQUENCE) {
+			int count = in.readInt();
+			List<PathProgram> programs = new ArrayList<>(count);
+
+			for (int i = 0 ; i < count ; i++) {
+				programs.add(read(in));
+			}
+
+			return new Sequence(programs);
+		}
+
+		if (tag == TAG_REPEAT) {
+			int count = in.readInt();
+			return new Repeat(read(in), count);
+		}
+
+		if (tag == TAG_STREAM) {
+			return new PathStream(Paths.get(in.readUTF()));
+		}
+
+		throw new IOException("Path tag unknown: " + tag);
+	}
+
+	/**
+	 * Returns the step of the given letter.
+	 *
+	 * @param c The letter.
+	 * @return the step, or -1 if the letter is not a step.
+	 */
+	static int stepOf(char c) {
+		if (c == 'A') return MOVE;
+		if (c == 'D') return TURN_RIGHT;
+		if (c == 'G') return TURN_LEFT;
+
+		return -1;
+	}
+
+	/**
+	 * Steps of 2 bits, 32 steps per long, consecutive turns being folded.
+	 */
+	private static class Steps extends PathProgram {
+		/**
+		 * The number of bits of a step.
+		 */
+		private static final int STEP_BITS = 2;
+
+		/**
+		 * The number of steps in a long.
+		 */
+		private static final int STEPS_PER_WORD = Long.SIZE / STEP_BITS;
+
+		/**
+		 * The steps, the first one in the lowest bits of the first long.
+		 */
+		private final long[] words;
+
+		/**
+		 * The number of steps.
+		 */
+		private final int length;
+
+		/**
+		 * The letters as given, null if they are the same as the letters compiled: only the paths whose turns have
+		 * been folded keep their letters, for {@link #toString()}.
+		 */
+		private final String letters;
+
+		/**
+		 * Compiles the given letters.
+		 *
+		 * @param letters The letters 'A', 'D' and 'G'.
+		 */
+		Steps(CharSequence letters) {
+			length = letters.length();
+			words = new long[(length + STEPS_PER_WORD - 1) / STEPS_PER_WORD];
+			compile(letters);
+
+			String given = letters.toString();
+			this.letters = given.equals(compiledLetters()) ? null : given;
+		}
+
+		/**
+		 * Constructs a new object Steps of the given packed steps.
+		 *
+		 * @param words   The steps, the first one in the lowest bits of the first long.
+		 * @param length  The number of steps.
+		 * @param letters The letters as given, null if they are the same as the letters compiled.
+		 */
+		Steps(long[] words, int length, String letters) {
+			this.words = words;
+			this.length = length;
+			this.letters = letters;
+		}
+
+		/**
+		 * Sets the steps of the given letters, the words being empty.
+		 *
+		 * @param letters The letters 'A', 'D' and 'G'.
+		 */
+		private void compile(CharSequence letters) {
+			int pointer = 0;
+
+			while (pointer < length) {
+				if (letters.charAt(pointer) == 'A') {
+					pointer++;
+					continue;
+				}
+
+				// A run of turns: its rotation, a quarter turn clockwise being 1, is executed by its first steps
+				int start = pointer;
+				int rotation = 0;
+
+				for ( ; pointer < length && letters.charAt(pointer) != 'A' ; pointer++) {
+					rotation += letters.charAt(pointer) == 'D' ? 1 : -1;
+				}
+
+				rotation &= 3;
+				int step = start;
+
+				if (rotation == 3) {
+					set(step++, TURN_LEFT);
+				} else {
+					for (int k = 0 ; k < rotation ; k++) {
+						set(step++, TURN_RIGHT);
+					}
+				}
+
+				for ( ; step < pointer ; step++) {
+					set(step, TURN_NONE);
+				}
+			}
+		}
+
+		/**
+		 * Sets the given step.
+		 *
+		 * @param index The index of the step.
+		 * @param step  The step.
+		 */
+		private void set(int index, int step) {
+			words[index / STEPS_PER_WORD] |= (long) step << (index % STEPS_PER_WORD * STEP_BITS);
+		}
+
+		@Override
+		public int length() {
+			return length;
+		}
+
+		@Override
+		public boolean hasStep(int index) {
+			return index < length;
+		}
+
+		@Override
+		public int step(int index) {
+			return (int) (words[index / STEPS_PER_WORD] >>> (index % STEPS_PER_WORD * STEP_BITS)) & 3;
+		}
+
+		@Override
+		void write(DataOutput out) throws IOException {
+			out.writeByte(letters == null ? TAG_STEPS : TAG_LETTERS);
+			out.writeInt(length);
+
+			for (long word : words) {
+				out.writeLong(word);
+			}
+
+			if (letters != null) {
+				out.write(letters.getBytes(StandardCharsets.US_ASCII));
+			}
+		}
+
+		@Override
+		public boolean isExpanded() {
+			return true;
+		}
+
+		@Override
+		public String toString() {
+			return letters != null ? letters : compiledLetters();
+		}
+
+		/**
+		 * Returns the letters of the steps as compiled, each pair of {@link #TURN_NONE} being written 'DG'.
+		 *
+		 * @return the letters of the steps.
+		 */
+		private String compiledLetters() {
+			StringBuilder builder = new StringBuilder(length);
+			int folded = 0;
+
+			for (int i = 0 ; i < length ; i++) {
+				int step = step(i);
+
+				if (step == TURN_NONE) {
+					// Folded turns always come by pairs
+					builder.append(folded++ % 2 == 0 ? 'D' : 'G');
+					continue;
+				}
+
+				folded = 0;
+				builder.append("ADG".charAt(step));
+			}
+
+			return builder.toString();
+		}
+	}
+
+	/**
+	 * Programs executed one after the other.
+	 */
+	private static class Sequence extends PathProgram {
+		/**
+		 * The programs.
+		 */
+		private final PathProgram[] programs;
+
+		/**
+		 * The index of the first step of each program.
+		 */
+		private final int[] starts;
+
+		/**
+		 * The number of steps.
+		 */
+		private final int length;
+
+		/**
+		 * Constructs a new object Sequence.
+		 *
+		 * @param programs The programs, of known lengths.
+		 * @throws IllegalArgumentException if the sequence is longer than {@link Integer#MAX_VALUE} steps.
+		 */
+		Sequence(List<PathProgram> programs) {
+			this.programs = programs.toArray(new PathProgram[0]);
+			starts = new int[this.programs.length];
+			long total = 0;
+
+			for (int i = 0 ; i < this.programs.length ; i++) {
+				starts[i] = (int) total;
+				total += this.programs[i].length();
+
+				if (total > Integer.MAX_VALUE) {
+					throw new IllegalArgumentException("Path longer than " + Integer.MAX_VALUE + " steps");
+				}
+			}
+
+			length = (int) total;
+		}
+
+		@Override
+		public int length() {
+			return length;
+		}
+
+		@Override
+		public boolean hasStep(int index) {
+			return index < length;
+		}
+
+		@Override
+		public int step(int index) {
+			int low = 0;
+			int high = starts.length - 1;
+
+			// The last program starting at or before the index
+			while (low < high) {
+				int middle = (low + high + 1) >>> 1;
+
+				if (starts[middle] <= index) {
+					low = middle;
+				} else {
+					high = middle - 1;
+				}
+			}
+
+			return programs[low].step(index - starts[low]);
+		}
+
+		@Override
+		void write(DataOutput out) throws IOException {
+			out.writeByte(TAG_SEQUENCE);
+			out.writeInt(programs.length);
+
+			for (PathProgram program : programs) {
+				program.write(out);
+			}
+		}
+
+		@Override
+		public boolean isExpanded() {
+			for (PathProgram program : programs) {
+				if (!program.isExpanded()) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder();
+
+			for (PathProgram program : programs) {
+				builder.append(program);
+			}
+
+			return builder.toString();
+		}
+	}
+
+	/**
+	 * A program repeated.
+	 */
+	private static class Repeat extends PathProgram {
+		/**
+		 * The program repeated.
+		 */
+		private final PathProgram body;
+
+		/**
+		 * The number of repetitions.
+		 */
+		private final int count;
+
+		/**
+		 * The number of steps.
+		 */
+		private final int length;
+
+		/**
+		 * Constructs a new object Repeat.
+		 *
+		 * @param body  The program repeated, of known length.
+		 * @param count The number of repetitions.
+		 * @throws IllegalArgumentException if the repetition is longer than {@link Integer#MAX_VALUE} steps.
+		 */
+		Repeat(PathProgram body, int count) {
+			long total = (long) body.length() * count;
+
+			if (total > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Path longer than " + Integer.MAX_VALUE + " steps");
+			}
+
+			this.body = body;
+			this.count = count;
+			this.length = (int) total;
+		}
+
+		@Override
+		public int length() {
+			return length;
+		}
+
+		@Override
+		public boolean hasStep(int index) {
+			return index < length;
+		}
+
+		@Override
+		public int step(int index) {
+			return body.step(index % body.length());
+		}
+
+		@Override
+		void write(DataOutput out) throws IOException {
+			out.writeByte(TAG_REPEAT);
+			out.writeInt(count);
+			body.write(out);
+		}
+
+		@Override
+		public boolean isExpanded() {
+			return false;
+		}
+
+		@Override
+		public String toString() {
+			if (body instanceof Steps && body.length() == 1) {
+				return body.toString() + count;
+			}
+
+			return "(" + body + ")*" + count;
+		}
+	}
+
+	/**
+	 * Recursive descent parser of the syntax of {@link PathProgram#compile(String)}.
+	 */
+	private static class Parser {
+		/**
+		 * The path.
+		 */
+		private final String path;
+
+		/**
+		 * The position of the next char to read.
+		 */
+		private int position;
+
+		/**
+		 * Constructs a new object Parser.
+		 *
+		 * @param path The path.
+		 */
+		Parser(String path) {
+			this.path = path;
+		}
+
+		/**
+		 * Reads a sequence, until the end of the path or a ')'.
+		 *
+		 * @return the program of the sequence.
+		 */
+		PathProgram sequence() {
+			List<PathProgram> programs = new ArrayList<>();
+			StringBuilder letters = new StringBuilder();
+
+			while (position < path.length() && path.charAt(position) != ')') {
+				char c = path.charAt(position);
+
+				if (stepOf(c) >= 0) {
+					position++;
+
+					if (position < path.length() && Character.isDigit(path.charAt(position))) {
+						flush(programs, letters);
+						programs.add(new Repeat(new Steps(String.valueOf(c)), count()));
+					} else {
+						letters.append(c);
+					}
+				} else if (c == '(') {
+					position++;
+					PathProgram body = sequence();
+					expect(')');
+					expect('*');
+					flush(programs, letters);
+					programs.add(new Repeat(body, count()));
+				} else {
+					throw error("Symbol '" + c + "' unknown");
+				}
+			}
+
+			flush(programs, letters);
+
+			return programs.size() == 1 ? programs.get(0) : new Sequence(programs);
+		}
+
+		/**
+		 * Adds the given letters to the given programs, if any.
+		 *
+		 * @param programs The programs.
+		 * @param letters  The letters, emptied.
+		 */
+		private void flush(List<PathProgram> programs, StringBuilder letters) {
+			if (letters.length() > 0) {
+				programs.add(new Steps(letters));
+				letters.setLength(0);
+			}
+		}
+
+		/**
+		 * Reads a number of repetitions.
+		 *
+		 * @return the number.
+		 */
+		private int count() {
+			int start = position;
+
+			while (position < path.length() && Character.isDigit(path.charAt(position))) {
+				position++;
+			}
+
+			if (start == position) {
+				throw error("Number expected");
+			}
+
+			try {
+				return Integer.parseInt(path.substring(start, position));
+			} catch (NumberFormatException e) {
+				throw error("Number too large");
+			}
+		}
+
+		/**
+		 * Reads the given char.
+		 *
+		 * @param expected The char expected.
+		 */
+		private void expect(char expected) {
+			if (position >= path.length() || path.charAt(position) != expected) {
+				throw error("'" + expected + "' expected");
+			}
+
+			position++;
+		}
+
+		/**
+		 * Returns the exception for the given message at the current position.
+		 *
+		 * @param message The message.
+		 * @return the exception.
+		 */
+		IllegalArgumentException error(String message) {
+			return new IllegalArgumentException(message + " at " + position + " in path: " + path);
+		}
+	}
+}
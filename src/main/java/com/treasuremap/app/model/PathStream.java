@@ -0,0 +1,280 @@
+package com.treasuremap.app.model;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * PathStream
+ *
+ * Path read from a file as the adventurer advances, see {@link PathProgram#compile(String)} with '@' followed by the
+ * name of the file. The file holds the letters 'A', 'D' and 'G', blanks and line breaks being skipped.
+ *
+ * Only a window of {@link #WINDOW} steps is kept, refilled by reading the file from where the previous window ended:
+ * no file is kept open between two refills, which are large enough for opening the file to cost little. The window
+ * before is kept as well, for the engines reading ahead of the pointer. The position in the file of at most
+ * {@link #CHECKPOINTS} windows is recorded, every window first, then one every two, four... windows as the file is
+ * read further: reading a step before both windows, e.g. when an engine replays a path, reads the file again from the
+ * last recorded window before that step only. The memory does not depend on the length of the path.
+ * Turns are not folded.
+ */
+class PathStream extends PathProgram {
+	/**
+	 * The default number of steps of the window, and of bytes read at once.
+	 */
+	static final int WINDOW = 1 << 16;
+
+	/**
+	 * The maximum number of windows whose position in the file is recorded.
+	 */
+	static final int CHECKPOINTS = 64;
+
+	/**
+	 * The file.
+	 */
+	private final Path file;
+
+	/**
+	 * The steps of the window.
+	 */
+	private byte[] window;
+
+	/**
+	 * The steps of the window before, empty once the file has been read again from a recorded position.
+	 */
+	private byte[] previous;
+
+	/**
+	 * The index of the first step of the window.
+	 */
+	private int base;
+
+	/**
+	 * The number of steps in the window.
+	 */
+	private int count;
+
+	/**
+	 * The index of the first step of the window before.
+	 */
+	private int previousBase;
+
+	/**
+	 * The number of steps in the window before.
+	 */
+	private int previousCount;
+
+	/**
+	 * The position in the file of the first byte after the window.
+	 */
+	private long offset;
+
+	/**
+	 * True once the end of the file has been read into the window.
+	 */
+	private boolean isEnded;
+
+	/**
+	 * The number of steps of the path, -1 until the end of the file has been read.
+	 */
+	private int length = -1;
+
+	/**
+	 * The indexes of the first steps of the windows recorded, in increasing order: the checkpoint k is the window
+	 * number k * {@link #stride} of the file.
+	 */
+	private final int[] bases = new int[CHECKPOINTS];
+
+	/**
+	 * The positions in the file of the windows recorded, see {@link #bases}.
+	 */
+	private final long[] offsets = new long[CHECKPOINTS];
+
+	/**
+	 * The number of windows recorded.
+	 */
+	private int checkpoints;
+
+	/**
+	 * The number of windows between two windows recorded, doubled each time the checkpoints are full.
+	 */
+	private int stride = 1;
+
+	/**
+	 * The number of the window in the file, from 0, -1 until the first window is read.
+	 */
+	private int number = -1;
+
+	/**
+	 * Constructs a new object PathStream of windows of {@link #WINDOW} steps, the file is read on the first step.
+	 *
+	 * @param file The file.
+	 * @throws IllegalArgumentException if the file cannot be read.
+	 */
+	PathStream(Path file) {
+		this(file, WINDOW);
+	}
+
+	/**
+	 * Constructs a new object PathStream, the file is read on the first step.
+	 *
+	 * @param file The file.
+	 * @param size The number of steps of the window.
+	 * @throws IllegalArgumentException if the file cannot be read.
+	 */
+	PathStream(Path file, int size) {
+		if (!Files.isReadable(file)) {
+			throw new IllegalArgumentException("Path file not readable: " + file);
+		}
+
+		this.file = file;
+		this.window = new byte[size];
+		this.previous = new byte[size];
+	}
+
+	@Override
+	public synchronized int length() {
+		return length;
+	}
+
+	@Override
+	public synchronized boolean hasStep(int index) {
+		if (length >= 0 && index >= length) {
+			return false;
+		}
+
+		if (index < base) {
+			if (index >= previousBase && index < previousBase + previousCount) {
+				return true;
+			}
+
+			seek(index);
+		}
+
+		while (index >= base + count) {
+			if (isEnded) {
+				return false;
+			}
+
+			advance();
+		}
+
+		return true;
+	}
+
+	@Override
+	public synchronized int step(int index) {
+		if (!hasStep(index)) {
+			throw new IndexOutOfBoundsException("Step " + index + " past the end of path file: " + file);
+		}
+
+		return index >= base ? window[index - base] : previous[index - previousBase];
+	}
+
+	/**
+	 * Reads the window following the current one, which becomes the window before.
+	 */
+	private void advance() {
+		byte[] steps = previous;
+		previous = window;
+		window = steps;
+		previousBase = base;
+		previousCount = count;
+		base += count;
+		count = 0;
+		number++;
+		fill();
+	}
+
+	/**
+	 * Reads the last window recorded at or before the given step from its recorded position.
+	 *
+	 * @param index The index of the step, before the window.
+	 */
+	private void seek(int index) {
+		int k = Arrays.binarySearch(bases, 0, checkpoints, index);
+		k = k >= 0 ? k : -k - 2;
+
+		base = bases[k];
+		offset = offsets[k];
+		number = k * stride;
+		count = 0;
+		previousCount = 0;
+		isEnded = false;
+		fill();
+	}
+
+	/**
+	 * Reads the next steps of the file into the window, which is empty, and records its position if it is the next
+	 * window to record.
+	 *
+	 * @throws UncheckedIOException if the file cannot be read.
+	 * @throws IllegalArgumentException if the file contains another symbol than 'A', 'D' or 'G'.
+	 */
+	private void fill() {
+		if (number == checkpoints * stride) {
+			if (checkpoints == CHECKPOINTS) {
+				// Keeps one checkpoint every two, the current window being the next one to record
+				for (int k = 0 ; k < CHECKPOINTS / 2 ; k++) {
+					bases[k] = bases[2 * k];
+					offsets[k] = offsets[2 * k];
+				}
+
+				checkpoints = CHECKPOINTS / 2;
+				stride *= 2;
+			}
+
+			bases[checkpoints] = base;
+			offsets[checkpoints++] = offset;
+		}
+
+		// The bytes are read into the window, then replaced by the steps: there are never more steps than bytes
+		ByteBuffer buffer = ByteBuffer.wrap(window);
+
+		try (FileChannel channel = FileChannel.open(file)) {
+			while (buffer.hasRemaining() && !isEnded) {
+				isEnded = channel.read(buffer, offset + buffer.position()) < 0;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		offset += buffer.position();
+
+		for (int i = 0 ; i < buffer.position() ; i++) {
+			char c = (char) window[i];
+			int step = stepOf(c);
+
+			if (step >= 0) {
+				window[count++] = (byte) step;
+			} else if (!Character.isWhitespace(c)) {
+				throw new IllegalArgumentException("Symbol '" + c + "' unknown in path file: " + file);
+			}
+		}
+
+		if (isEnded) {
+			length = base + count;
+		}
+	}
+
+	@Override
+	public boolean isExpanded() {
+		return false;
+	}
+
+	@Override
+	void write(DataOutput out) throws IOException {
+		out.writeByte(TAG_STREAM);
+		out.writeUTF(file.toString());
+	}
+
+	@Override
+	public String toString() {
+		return "@" + file;
+	}
+}
@@ -0,0 +1,36 @@
+package com.treasuremap.app.model;
+
+import lombok.Getter;
+
+/**
+ * Scenario
+ *
+ * A map and the adventurers to play on it, as given by a map file and an adventurers' file or by a scenario file,
+ * see {@link ScenarioFile}. The adventurers are not placed on the map.
+ */
+public class Scenario {
+	/**
+	 * The map.
+	 *
+	 * @return the map.
+	 */
+	@Getter private final TreasureMap map;
+
+	/**
+	 * The adventurers, in the order of the file.
+	 *
+	 * @return the adventurers.
+	 */
+	@Getter private final AdventurerStore adventurers;
+
+	/**
+	 * Constructs a new object Scenario.
+	 *
+	 * @param map         The map.
+	 * @param adventurers The adventurers.
+	 */
+	public Scenario(TreasureMap map, AdventurerStore adventurers) {
+		this.map = map;
+		this.adventurers = adventurers;
+	}
+}
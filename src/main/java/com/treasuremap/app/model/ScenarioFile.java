@@ -0,0 +1,482 @@
+package com.treasuremap.app.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * ScenarioFile
+ *
+ * Binary form of a {@link Scenario}, loaded by a single sequential read straight into the storage of the map and an
+ * {@link AdventurerStore}, without parsing any text: the tiles are read by blocks and the paths are read as compiled.
+ * A scenario file is written once from the map file and the adventurers' file, see
+ * {@link #convert(String, String, Path)}, and can be turned back into them, see
+ * {@link #writeText(Scenario, Path, Path)}.
+ *
+ * The file is made of, ints being big-endian:
+ * - a header: {@link #MAGIC}, {@link #VERSION}, the width and the height;
+ * - the terrain: {@link #BITMAP} followed by one bit per tile, set for a mountain, indexed by y * width + x and packed
+ *   in longs, or {@link #CELLS} followed by the number of mountains and their coordinates, whichever is smaller;
+ * - the treasures: the number of tiles with treasures, then the coordinates and the treasures of each one;
+ * - the adventurers: their number, then the name, the coordinates, the ordinal of the orientation (-1 for none) and
+ *   the path of each one, as compiled, see {@link PathProgram#write(java.io.DataOutput)} (-1 for none).
+ */
+public class ScenarioFile {
+	/**
+	 * The extension of the scenario files.
+	 */
+	public static final String EXTENSION = ".scenario";
+
+	/**
+	 * The first int of the scenario files.
+	 */
+	public static final int MAGIC = 0x5453434E;
+
+	/**
+	 * The version of the layout of the scenario files.
+	 */
+	public static final int VERSION = 2;
+
+	/**
+	 * The terrain is a bitmap of the mountains.
+	 */
+	private static final byte BITMAP = 0;
+
+	/**
+	 * The terrain is the list of the mountains.
+	 */
+	private static final byte CELLS = 1;
+
+	/**
+	 * The size of the buffers of the files, in bytes.
+	 */
+	private static final int BUFFER = 1 << 16;
+
+	/**
+	 * The size of the blocks of tiles read at once, in bytes: a multiple of the size of a word of the bitmap (8),
+	 * of a mountain (8) and of a tile with treasures (12).
+	 */
+	private static final int BLOCK = 3 << 15;
+
+	/**
+	 * The letters of the orientations in the adventurers' file, by ordinal.
+	 */
+	private static final char[] ORIENTATIONS = { 'N', 'S', 'E', 'W' };
+
+	/**
+	 * Constructs a new object ScenarioFile.
+	 */
+	private ScenarioFile() {}
+
+	/**
+	 * Parses the given adventurers' file and map file and returns their scenario.
+	 *
+	 * @param adventurersFile The adventurers' file, see {@link AdventurerParser#parseFile(String)}.
+	 * @param mapFile         The map file, see {@link TreasureMapParser#parseFile(String)}.
+	 * @return the scenario.
+	 * @throws IOException if a file cannot be read.
+	 */
+	public static Scenario parse(String adventurersFile, String mapFile) throws IOException {
+		TreasureMap map = TreasureMapParser.getInstance().parseFile(mapFile);
+		return new Scenario(map, AdventurerParser.getInstance().parseStore(adventurersFile));
+	}
+
+	/**
+	 * Parses the given adventurers' file and map file and writes their scenario to the given scenario file.
+	 *
+	 * @param adventurersFile The adventurers' file.
+	 * @param mapFile         The map file.
+	 * @param scenarioFile    The scenario file, overwritten.
+	 * @throws IOException if a file cannot be read or written.
+	 */
+	public static void convert(String adventurersFile, String mapFile, Path scenarioFile) throws IOException {
+		write(parse(adventurersFile, mapFile), scenarioFile);
+	}
+
+	/**
+	 * Writes the given scenario to the given file.
+	 *
+	 * @param scenario The scenario.
+	 * @param file     The file, overwritten.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public static void write(Scenario scenario, Path file) throws IOException {
+		TileStorage storage = scenario.getMap().getStorage();
+		int width = storage.getWidth();
+		int height = storage.getHeight();
+		long[] counts = new long[2];
+
+		storage.forEachNonBlank((x, y) -> {
+			if (storage.getType(x, y) == TileType.MOUNTAIN) {
+				counts[0]++;
+			} else if (storage.getTreasures(x, y) > 0) {
+				counts[1]++;
+			}
+		});
+
+		try (OutputStream stream = Files.newOutputStream(file);
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, BUFFER))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(width);
+			out.writeInt(height);
+
+			long words = ((long) width * height + 63) / 64;
+
+			if (words <= counts[0]) {
+				out.writeByte(BITMAP);
+				writeBitmap(out, storage, words);
+			} else {
+				out.writeByte(CELLS);
+				out.writeLong(counts[0]);
+				forEachTile(storage, (x, y) -> {
+					if (storage.getType(x, y) == TileType.MOUNTAIN) {
+						out.writeInt(x);
+						out.writeInt(y);
+					}
+				});
+			}
+
+			out.writeLong(counts[1]);
+			forEachTile(storage, (x, y) -> {
+				int treasures = storage.getTreasures(x, y);
+
+				if (storage.getType(x, y) == TileType.PRAIRIE && treasures > 0) {
+					out.writeInt(x);
+					out.writeInt(y);
+					out.writeInt(treasures);
+				}
+			});
+
+			AdventurerStore adventurers = scenario.getAdventurers();
+			out.writeInt(adventurers.size());
+
+			for (int i = 0 ; i < adventurers.size() ; i++) {
+				Adventurer adventurer = adventurers.get(i);
+				Orientation orientation = adventurer.getOrientation();
+				PathProgram program = adventurer.getProgram();
+
+				out.writeUTF(adventurer.getName());
+				out.writeInt(adventurer.getX());
+				out.writeInt(adventurer.getY());
+				out.writeByte(orientation == null ? -1 : orientation.ordinal());
+
+				if (program == null) {
+					out.writeByte(-1);
+				} else {
+					program.write(out);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the mountains of the given storage as a bitmap.
+	 *
+	 * @param out     The output.
+	 * @param storage The storage.
+	 * @param words   The number of longs of the bitmap.
+	 * @throws IOException if the output cannot be written.
+	 */
+	private static void writeBitmap(DataOutputStream out, TileStorage storage, long words) throws IOException {
+		long[] word = new long[1];
+		long[] written = new long[1];
+		int width = storage.getWidth();
+
+		// Tiles are visited row by row, hence by increasing index
+		forEachTile(storage, (x, y) -> {
+			if (storage.getType(x, y) == TileType.MOUNTAIN) {
+				long index = (long) y * width + x;
+
+				while (written[0] < index / 64) {
+					out.writeLong(word[0]);
+					word[0] = 0;
+					written[0]++;
+				}
+
+				word[0] |= 1L << (index % 64);
+			}
+		});
+
+		for ( ; written[0] < words ; written[0]++) {
+			out.writeLong(word[0]);
+			word[0] = 0;
+		}
+	}
+
+	/**
+	 * Reads the given scenario file.
+	 * The map is backed by the storage suited to its size, see {@link TreasureMap#TreasureMap(int, int)}.
+	 *
+	 * @param file The file.
+	 * @return the scenario.
+	 * @throws IOException if the file cannot be read or is not a scenario file.
+	 */
+	public static Scenario read(Path file) throws IOException {
+		try (InputStream stream = Files.newInputStream(file);
+				DataInputStream in = new DataInputStream(new BufferedInputStream(stream, BUFFER))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a scenario file: " + file);
+			}
+
+			int version = in.readInt();
+
+			if (version != VERSION) {
+				throw new IOException("Unsupported version " + version + " of scenario file: " + file);
+			}
+
+			int width = in.readInt();
+			int height = in.readInt();
+			TreasureMap map = new TreasureMap(width, height);
+			TileStorage storage = map.getStorage();
+			byte terrain = in.readByte();
+
+			ByteBuffer block = ByteBuffer.allocate(BLOCK);
+
+			if (terrain == BITMAP) {
+				long words = ((long) width * height + 63) / 64;
+				long i = 0;
+
+				for (long remaining = 8 * words ; remaining > 0 ; remaining -= block.limit()) {
+					readBlock(in, block, remaining);
+
+					for ( ; block.hasRemaining() ; i++) {
+						long word = block.getLong();
+
+						while (word != 0) {
+							long index = i * 64 + Long.numberOfTrailingZeros(word);
+							storage.setType((int) (index % width), (int) (index / width), TileType.MOUNTAIN);
+							word &= word - 1;
+						}
+					}
+				}
+			} else if (terrain == CELLS) {
+				for (long remaining = 8 * in.readLong() ; remaining > 0 ; remaining -= block.limit()) {
+					readBlock(in, block, remaining);
+
+					while (block.hasRemaining()) {
+						storage.setType(block.getInt(), block.getInt(), TileType.MOUNTAIN);
+					}
+				}
+			} else {
+				throw new IOException("Terrain unknown in scenario file: " + file);
+			}
+
+			for (long remaining = 12 * in.readLong() ; remaining > 0 ; remaining -= block.limit()) {
+				readBlock(in, block, remaining);
+
+				while (block.hasRemaining()) {
+					storage.setTreasures(block.getInt(), block.getInt(), block.getInt());
+				}
+			}
+
+			int count = in.readInt();
+			AdventurerStore adventurers = new AdventurerStore(count);
+			Orientation[] orientations = Orientation.values();
+
+			for (int i = 0 ; i < count ; i++) {
+				Adventurer adventurer = adventurers.add();
+				adventurer.setName(in.readUTF());
+				adventurer.setX(in.readInt());
+				adventurer.setY(in.readInt());
+
+				byte orientation = in.readByte();
+				adventurer.setOrientation(orientation < 0 ? null : orientations[orientation]);
+
+				in.mark(1);
+
+				if (in.readByte() >= 0) {
+					in.reset();
+					adventurer.setProgram(PathProgram.read(in));
+				}
+			}
+
+			return new Scenario(map, adventurers);
+		}
+	}
+
+	/**
+	 * Reads the next bytes of the given input into the given block, at most the given number, then flips it.
+	 *
+	 * @param in        The input.
+	 * @param block     The block, its capacity being a multiple of the size of the records read.
+	 * @param remaining The number of bytes left to read.
+	 * @throws IOException if the input cannot be read.
+	 */
+	private static void readBlock(DataInputStream in, ByteBuffer block, long remaining) throws IOException {
+		int length = (int) Math.min(block.capacity(), remaining);
+		in.readFully(block.array(), 0, length);
+		block.clear().limit(length);
+	}
+
+	/**
+	 * Writes the given scenario in the text formats of the map file and of the adventurers' file.
+	 * Consecutive tiles of a row with the same content are written as one rectangle record.
+	 * Adventurers without orientation or path cannot be written.
+	 *
+	 * @param scenario        The scenario.
+	 * @param adventurersFile The adventurers' file, overwritten.
+	 * @param mapFile         The map file, overwritten.
+	 * @throws IOException if a file cannot be written.
+	 */
+	public static void writeText(Scenario scenario, Path adventurersFile, Path mapFile) throws IOException {
+		TileStorage storage = scenario.getMap().getStorage();
+
+		try (BufferedWriter writer = Files.newBufferedWriter(mapFile)) {
+			writer.write("C " + storage.getWidth() + " " + storage.getHeight() + "\n");
+
+			// Consecutive tiles of a row with the same content are written as one rectangle
+			Run run = new Run(writer);
+			forEachTile(storage, (x, y) -> run.add(x, y, storage.getType(x, y), storage.getTreasures(x, y)));
+			run.flush();
+		}
+
+		try (BufferedWriter writer = Files.newBufferedWriter(adventurersFile)) {
+			for (Adventurer adventurer : scenario.getAdventurers().asList()) {
+				writer.write(adventurer.getName() + " " + adventurer.getX() + "-" + adventurer.getY() + " "
+						+ ORIENTATIONS[adventurer.getOrientation().ordinal()] + " " + adventurer.getPath() + "\n");
+			}
+		}
+	}
+
+	/**
+	 * Visits the tiles of the given storage which are not blank, row by row, see
+	 * {@link TileStorage#forEachNonBlank(TileStorage.TileVisitor)}, rethrowing the errors of the visitor.
+	 *
+	 * @param storage The storage.
+	 * @param visitor The visitor.
+	 * @throws IOException if the visitor has failed.
+	 */
+	private static void forEachTile(TileStorage storage, Writer visitor) throws IOException {
+		IOException[] failure = new IOException[1];
+
+		storage.forEachNonBlank((x, y) -> {
+			if (failure[0] == null) {
+				try {
+					visitor.visit(x, y);
+				} catch (IOException e) {
+					failure[0] = e;
+				}
+			}
+		});
+
+		if (failure[0] != null) {
+			throw failure[0];
+		}
+	}
+
+	/**
+	 * Run of consecutive tiles of a row with the same content, written as one record of the map file, see
+	 * {@link TreasureMapParser#parseFile(String)}.
+	 */
+	private static class Run {
+		/**
+		 * The map file.
+		 */
+		private final BufferedWriter writer;
+
+		/**
+		 * The abscissa of the first tile.
+		 */
+		private int x;
+
+		/**
+		 * The ordinate of the tiles.
+		 */
+		private int y;
+
+		/**
+		 * The number of tiles, 0 if none.
+		 */
+		private int length;
+
+		/**
+		 * The type of the tiles.
+		 */
+		private TileType type;
+
+		/**
+		 * The number of treasures of each tile.
+		 */
+		private int treasures;
+
+		/**
+		 * Constructs a new object Run, without tile.
+		 *
+		 * @param writer The map file.
+		 */
+		Run(BufferedWriter writer) {
+			this.writer = writer;
+		}
+
+		/**
+		 * Adds the given tile to the run, or writes the run then starts a new one with the tile.
+		 * Prairies without treasures are not written.
+		 *
+		 * @param x         The abscissa.
+		 * @param y         The ordinate.
+		 * @param type      The type.
+		 * @param treasures The number of treasures.
+		 * @throws IOException if the file cannot be written.
+		 */
+		void add(int x, int y, TileType type, int treasures) throws IOException {
+			if (type == TileType.MOUNTAIN) {
+				treasures = 0;
+			}
+
+			if (length > 0 && y == this.y && x == this.x + length && type == this.type && treasures == this.treasures) {
+				length++;
+				return;
+			}
+
+			flush();
+
+			if (type == TileType.MOUNTAIN || treasures > 0) {
+				this.x = x;
+				this.y = y;
+				this.length = 1;
+				this.type = type;
+				this.treasures = treasures;
+			}
+		}
+
+		/**
+		 * Writes the run, if any, and empties it.
+		 *
+		 * @throws IOException if the file cannot be written.
+		 */
+		void flush() throws IOException {
+			if (length == 0) {
+				return;
+			}
+
+			// Be mindful of indexes
+			String tiles = (x + 1) + "-" + (y + 1) + (length > 1 ? " " + (x + length) + "-" + (y + 1) : "");
+			writer.write(type == TileType.MOUNTAIN ? "M " + tiles + "\n" : "T " + tiles + " " + treasures + "\n");
+			length = 0;
+		}
+	}
+
+	/**
+	 * Visitor of tiles writing to a file.
+	 */
+	@FunctionalInterface
+	private interface Writer {
+		/**
+		 * Visits the given tile.
+		 *
+		 * @param x The abscissa.
+		 * @param y The ordinate.
+		 * @throws IOException if the file cannot be written.
+		 */
+		void visit(int x, int y) throws IOException;
+	}
+}
@@ -0,0 +1,801 @@
+package com.treasuremap.app.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * SparseTileStorage
+ *
+ * Storage keeping only the tiles which are not blank, i.e. mountains, tiles with treasures and occupied tiles:
+ * any other tile is implicitly a free prairie without treasures. Its footprint depends on the number of such tiles,
+ * not on the size of the map.
+ *
+ * The tiles are kept in an open-addressing table with linear probing, keyed by {@link TileStorage#key(int, int)},
+ * with one primitive array per attribute. A tile becoming blank is removed by shifting back the following entries.
+ *
+ * A rectangle of more than {@link #RANGE_AREA} tiles, see {@link #fill(int, int, int, int, TileType, int)}, is kept
+ * as a range rather than tile by tile: a tile absent from the table has the content of the last range holding it.
+ * A tile of a range is added to the table once written, with the content of the range, and stays in it.
+ * Reading a tile absent from the table looks up the ranges, thus they are meant to be few and large.
+ *
+ * Reads are optimistic, writes and claims hold the write lock of the table: unlike {@link ArrayTileStorage},
+ * concurrent moves are serialized.
+ */
+public class SparseTileStorage implements TileStorage {
+	/**
+	 * Key of an empty slot, coordinates being positive.
+	 */
+	private static final long EMPTY = -1L;
+
+	/**
+	 * The number of tiles above which a rectangle is kept as a range.
+	 */
+	static final long RANGE_AREA = 1024;
+
+	/**
+	 * The types of the tiles for {@link Table#types}.
+	 */
+	private static final TileType[] TYPES = TileType.values();
+
+	/**
+	 * The width.
+	 */
+	private final int width;
+
+	/**
+	 * The height.
+	 */
+	private final int height;
+
+	/**
+	 * The table of the tiles, replaced when it grows.
+	 */
+	private volatile Table table = new Table(16);
+
+	/**
+	 * The ranges, in the order they have been filled, replaced when one is added.
+	 */
+	private volatile Range[] ranges = new Range[0];
+
+	/**
+	 * The lock of the table.
+	 */
+	private final StampedLock lock = new StampedLock();
+
+	/**
+	 * The adventurers who have occupied a tile.
+	 */
+	private final AdventurerRegistry adventurers = new AdventurerRegistry();
+
+	/**
+	 * Constructs a new object SparseTileStorage, every tile is a free prairie without treasures.
+	 *
+	 * @param width  The width.
+	 * @param height The height.
+	 */
+	public SparseTileStorage(int width, int height) {
+		this.width = width;
+		this.height = height;
+	}
+
+	@Override
+	public int getWidth() {
+		return width;
+	}
+
+	@Override
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns the number of tiles kept one by one, i.e. which are not blank, the ranges excluded.
+	 *
+	 * @return the number of tiles kept.
+	 */
+	public int size() {
+		long stamp = lock.readLock();
+
+		try {
+			return table.size;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public TileType getType(int x, int y) {
+		return TYPES[read(x, y, Table.TYPE)];
+	}
+
+	@Override
+	public void setType(int x, int y, TileType type) {
+		write(x, y, Table.TYPE, type.ordinal());
+	}
+
+	@Override
+	public int getTreasures(int x, int y) {
+		return read(x, y, Table.TREASURES);
+	}
+
+	@Override
+	public void setTreasures(int x, int y, int treasures) {
+		write(x, y, Table.TREASURES, treasures);
+	}
+
+	@Override
+	public Adventurer getAdventurer(int x, int y) {
+		return adventurers.get(getOccupant(x, y));
+	}
+
+	@Override
+	public int getOccupant(int x, int y) {
+		return read(x, y, Table.OCCUPANT);
+	}
+
+	@Override
+	public void setAdventurer(int x, int y, Adventurer adventurer) {
+		long key = TileStorage.key(x, y);
+		int id = adventurers.register(adventurer);
+		int previous;
+		long stamp = lock.writeLock();
+
+		try {
+			previous = table.get(key, Table.OCCUPANT);
+			pin(x, y, key);
+			table = table.put(key, Table.OCCUPANT, id);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+
+		adventurers.unregister(previous);
+	}
+
+	@Override
+	public boolean claim(int x, int y, Adventurer adventurer) {
+		long key = TileStorage.key(x, y);
+		int id = adventurers.register(adventurer);
+		long stamp = lock.writeLock();
+
+		try {
+			int slot = table.find(key);
+
+			if (slot >= 0 && table.occupants[slot] != 0) {
+				adventurers.unregister(adventurer);
+				return false;
+			}
+
+			pin(x, y, key);
+			table = table.put(key, Table.OCCUPANT, id);
+
+			return true;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public boolean release(int x, int y, Adventurer adventurer) {
+		long key = TileStorage.key(x, y);
+		int id = adventurers.getId(adventurer);
+		long stamp = lock.writeLock();
+
+		try {
+			int slot = table.find(key);
+
+			if (id == 0 || slot < 0 || table.occupants[slot] != id) {
+				return false;
+			}
+
+			table.put(key, Table.OCCUPANT, 0);
+			adventurers.unregister(adventurer);
+
+			return true;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Keeps a rectangle of more than {@link #RANGE_AREA} tiles as a range, the tiles of the table within it taking
+	 * its content, else sets every tile one by one.
+	 */
+	@Override
+	public void fill(int x, int y, int width, int height, TileType type, int treasures) {
+		if ((long) width * height <= RANGE_AREA) {
+			TileStorage.super.fill(x, y, width, height, type, treasures);
+			return;
+		}
+
+		Range range = new Range(x, y, width, height, type, treasures);
+		long stamp = lock.writeLock();
+
+		try {
+			for (long key : table.keys()) {
+				if (range.contains((int) key, (int) (key >>> 32))) {
+					table.fill(table.find(key), type.ordinal(), treasures);
+				}
+			}
+
+			// A blank range only matters over another range
+			if (!range.isBlank() || ranges.length > 0) {
+				Range[] ranges = Arrays.copyOf(this.ranges, this.ranges.length + 1);
+				ranges[ranges.length - 1] = range;
+				this.ranges = ranges;
+			}
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Checks a rectangle of more tiles than the table keeps through the tiles of the table within it, and the ranges
+	 * as a whole: only the tiles of a range with another content are checked one by one, hence the check does not
+	 * depend on the area of the rectangle. A smaller rectangle is checked tile by tile.
+	 */
+	@Override
+	public boolean isFillable(int x, int y, int width, int height, TileType type, int treasures) {
+		if ((long) width * height <= Math.max(RANGE_AREA, size())) {
+			return TileStorage.super.isFillable(x, y, width, height, type, treasures);
+		}
+
+		Range rectangle = new Range(x, y, width, height, type, treasures);
+		long[] keys;
+		long stamp = lock.readLock();
+
+		try {
+			keys = table.keys();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+
+		for (long key : keys) {
+			if (rectangle.contains((int) key, (int) (key >>> 32)) && !isFillable((int) key, (int) (key >>> 32), type, treasures)) {
+				return false;
+			}
+		}
+
+		for (Range range : ranges) {
+			if (!range.isBlank() && (range.type != type || range.treasures != treasures) && range.intersects(rectangle)) {
+				int fromX = Math.max(x, range.x);
+				int toX = Math.min(x + width, range.x + range.width);
+				int fromY = Math.max(y, range.y);
+				int toY = Math.min(y + height, range.y + range.height);
+
+				for (int j = fromY ; j < toY ; j++) {
+					for (int i = fromX ; i < toX ; i++) {
+						if (!isFillable(i, j, type, treasures)) {
+							return false;
+						}
+					}
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Visits the kept tiles and the tiles of the ranges which are not blank, row by row.
+	 * The keys and the ranges are copied first, thus the visitor may modify the storage.
+	 */
+	@Override
+	public void forEachNonBlank(TileVisitor visitor) {
+		long[] keys;
+		Range[] ranges = this.ranges;
+		long stamp = lock.readLock();
+
+		try {
+			keys = table.keys();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+
+		Arrays.sort(keys);
+
+		if (ranges.length == 0) {
+			for (long key : keys) {
+				visitor.visit((int) key, (int) (key >>> 32));
+			}
+
+			return;
+		}
+
+		int k = 0;
+		long y = nextRow(keys, k, ranges, 0);
+
+		while (y < height) {
+			int row = (int) y;
+			List<int[]> spans = new ArrayList<>();
+
+			for (; k < keys.length && (int) (keys[k] >>> 32) == row ; k++) {
+				spans.add(new int[] { (int) keys[k], (int) keys[k] + 1 });
+			}
+
+			for (Range range : ranges) {
+				if (!range.isBlank() && row >= range.y && row < range.y + range.height) {
+					spans.add(new int[] { range.x, range.x + range.width });
+				}
+			}
+
+			spans.sort((a, b) -> Integer.compare(a[0], b[0]));
+			int next = 0;
+
+			for (int[] span : spans) {
+				for (int x = Math.max(next, span[0]) ; x < span[1] ; x++) {
+					if (getType(x, row) != TileType.PRAIRIE || getTreasures(x, row) != 0 || isOccupied(x, row)) {
+						visitor.visit(x, row);
+					}
+				}
+
+				next = Math.max(next, span[1]);
+			}
+
+			y = nextRow(keys, k, ranges, y + 1);
+		}
+	}
+
+	/**
+	 * Returns the first row from the given one holding a kept tile or a range which is not blank.
+	 *
+	 * @param keys   The keys of the kept tiles, sorted.
+	 * @param k      The index of the first key not visited.
+	 * @param ranges The ranges.
+	 * @param from   The first row.
+	 * @return the row, or the height if there is none.
+	 */
+	private long nextRow(long[] keys, int k, Range[] ranges, long from) {
+		long row = k < keys.length ? keys[k] >>> 32 : height;
+
+		for (Range range : ranges) {
+			if (!range.isBlank() && range.y + (long) range.height > from) {
+				row = Math.min(row, Math.max(from, range.y));
+			}
+		}
+
+		return row;
+	}
+
+	/**
+	 * Returns true if the given tile is blank or has the given content, whatever its occupant, else false.
+	 *
+	 * @param x         The abscissa.
+	 * @param y         The ordinate.
+	 * @param type      The type.
+	 * @param treasures The number of treasures.
+	 * @return true if the tile may be given the content, else false.
+	 */
+	private boolean isFillable(int x, int y, TileType type, int treasures) {
+		TileType currentType = getType(x, y);
+		int currentTreasures = getTreasures(x, y);
+
+		return currentType == type && currentTreasures == treasures
+				|| currentType == TileType.PRAIRIE && currentTreasures == 0;
+	}
+
+	/**
+	 * Returns the given attribute of the given tile: of the table if the tile is kept, else of the last range holding
+	 * it, else 0. The table is read optimistically, then under the read lock if it has been modified meanwhile.
+	 *
+	 * @param x         The abscissa.
+	 * @param y         The ordinate.
+	 * @param attribute The attribute.
+	 * @return the value of the attribute.
+	 */
+	private int read(int x, int y, int attribute) {
+		long key = TileStorage.key(x, y);
+		long stamp = lock.tryOptimisticRead();
+		Table table = this.table;
+		int slot = table.find(key);
+		int value = slot < 0 ? 0 : table.get(slot, attribute);
+
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+
+			try {
+				slot = this.table.find(key);
+				value = slot < 0 ? 0 : this.table.get(slot, attribute);
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+
+		if (slot >= 0 || attribute == Table.OCCUPANT) {
+			return value;
+		}
+
+		Range range = rangeOf(x, y);
+
+		return range == null ? 0 : attribute == Table.TYPE ? range.type.ordinal() : range.treasures;
+	}
+
+	/**
+	 * Sets the given attribute of the given tile.
+	 *
+	 * @param x         The abscissa.
+	 * @param y         The ordinate.
+	 * @param attribute The attribute.
+	 * @param value     The value.
+	 */
+	private void write(int x, int y, int attribute, int value) {
+		long key = TileStorage.key(x, y);
+		long stamp = lock.writeLock();
+
+		try {
+			pin(x, y, key);
+			table = table.put(key, attribute, value);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Adds the given tile to the table with the content of the last range holding it, if it is absent from the table
+	 * and held by a range, so that it keeps that content once written. The write lock must be held.
+	 *
+	 * @param x   The abscissa.
+	 * @param y   The ordinate.
+	 * @param key The key of the tile.
+	 */
+	private void pin(int x, int y, long key) {
+		if (ranges.length == 0 || table.find(key) >= 0) {
+			return;
+		}
+
+		Range range = rangeOf(x, y);
+
+		if (range != null) {
+			table = table.pin(key, range.type.ordinal(), range.treasures);
+		}
+	}
+
+	/**
+	 * Returns the last range holding the given tile, null if none.
+	 *
+	 * @param x The abscissa.
+	 * @param y The ordinate.
+	 * @return the range or null.
+	 */
+	private Range rangeOf(int x, int y) {
+		Range[] ranges = this.ranges;
+
+		for (int i = ranges.length - 1 ; i >= 0 ; i--) {
+			if (ranges[i].contains(x, y)) {
+				return ranges[i];
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * A rectangle of tiles of the same content, see {@link SparseTileStorage#fill(int, int, int, int, TileType, int)}.
+	 */
+	private static class Range {
+		/**
+		 * The abscissa of the top left corner.
+		 */
+		final int x;
+
+		/**
+		 * The ordinate of the top left corner.
+		 */
+		final int y;
+
+		/**
+		 * The width.
+		 */
+		final int width;
+
+		/**
+		 * The height.
+		 */
+		final int height;
+
+		/**
+		 * The type of the tiles.
+		 */
+		final TileType type;
+
+		/**
+		 * The treasures of the tiles.
+		 */
+		final int treasures;
+
+		Range(int x, int y, int width, int height, TileType type, int treasures) {
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+			this.type = type;
+			this.treasures = treasures;
+		}
+
+		/**
+		 * Returns true if the given tile is within the range, else false.
+		 */
+		boolean contains(int x, int y) {
+			return x >= this.x && x - this.x < width && y >= this.y && y - this.y < height;
+		}
+
+		/**
+		 * Returns true if the given range shares a tile with this one, else false.
+		 */
+		boolean intersects(Range range) {
+			return (long) x < (long) range.x + range.width && (long) range.x < (long) x + width
+					&& (long) y < (long) range.y + range.height && (long) range.y < (long) y + height;
+		}
+
+		/**
+		 * Returns true if the tiles of the range are prairies without treasures, else false.
+		 */
+		boolean isBlank() {
+			return type == TileType.PRAIRIE && treasures == 0;
+		}
+	}
+
+	/**
+	 * An open-addressing table, its capacity is a power of two and it is at most half full.
+	 * It is only modified under the write lock, reads may be concurrent with a modification
+	 * and must then be discarded, hence they never loop more than the capacity.
+	 */
+	private static class Table {
+		/**
+		 * The type of the tile.
+		 */
+		static final int TYPE = 0;
+
+		/**
+		 * The treasures of the tile.
+		 */
+		static final int TREASURES = 1;
+
+		/**
+		 * The identifier of the occupant of the tile.
+		 */
+		static final int OCCUPANT = 2;
+
+		/**
+		 * The keys of the tiles, {@link SparseTileStorage#EMPTY} for an empty slot.
+		 */
+		final long[] keys;
+
+		/**
+		 * The ordinals of the types of the tiles.
+		 */
+		final byte[] types;
+
+		/**
+		 * The treasures of the tiles.
+		 */
+		final int[] treasures;
+
+		/**
+		 * The identifiers of the occupants of the tiles.
+		 */
+		final int[] occupants;
+
+		/**
+		 * True for the tiles of a range, kept even when blank, see {@link SparseTileStorage#pin(int, int, long)}.
+		 */
+		final boolean[] pinned;
+
+		/**
+		 * The number of tiles.
+		 */
+		int size;
+
+		Table(int capacity) {
+			keys = new long[capacity];
+			types = new byte[capacity];
+			treasures = new int[capacity];
+			occupants = new int[capacity];
+			pinned = new boolean[capacity];
+			Arrays.fill(keys, EMPTY);
+		}
+
+		/**
+		 * Returns the slot of the given key, -1 if it is absent.
+		 */
+		int find(long key) {
+			int mask = keys.length - 1;
+			int slot = hash(key) & mask;
+
+			for (int probes = 0 ; probes < keys.length ; probes++) {
+				long current = keys[slot];
+
+				if (current == key) {
+					return slot;
+				}
+
+				if (current == EMPTY) {
+					return -1;
+				}
+
+				slot = (slot + 1) & mask;
+			}
+
+			return -1;
+		}
+
+		/**
+		 * Returns the given attribute of the given key, 0 if it is absent.
+		 */
+		int get(long key, int attribute) {
+			int slot = find(key);
+			return slot < 0 ? 0 : get(slot, attribute);
+		}
+
+		/**
+		 * Returns the given attribute of the given slot.
+		 */
+		int get(int slot, int attribute) {
+			return attribute == TYPE ? types[slot] : attribute == TREASURES ? treasures[slot] : occupants[slot];
+		}
+
+		/**
+		 * Adds the given key, which is absent, kept even when blank, and returns the table holding it.
+		 */
+		Table pin(long key, int type, int treasures) {
+			if ((size + 1) * 2 > keys.length) {
+				return grow().pin(key, type, treasures);
+			}
+
+			int slot = hash(key) & (keys.length - 1);
+
+			while (keys[slot] != EMPTY) {
+				slot = (slot + 1) & (keys.length - 1);
+			}
+
+			keys[slot] = key;
+			types[slot] = (byte) type;
+			this.treasures[slot] = treasures;
+			pinned[slot] = true;
+			size++;
+
+			return this;
+		}
+
+		/**
+		 * Gives the content of a range to the given slot, within it: the slot is removed if it is free, the range
+		 * giving it the same content.
+		 */
+		void fill(int slot, int type, int treasures) {
+			if (occupants[slot] == 0) {
+				remove(slot);
+				return;
+			}
+
+			types[slot] = (byte) type;
+			this.treasures[slot] = treasures;
+			pinned[slot] = true;
+		}
+
+		/**
+		 * Sets the given attribute of the given key and returns the table holding it, this one or a larger one.
+		 * The key is removed once all its attributes are 0.
+		 */
+		Table put(long key, int attribute, int value) {
+			int slot = find(key);
+
+			if (slot < 0) {
+				if (value == 0) {
+					return this;
+				}
+
+				if ((size + 1) * 2 > keys.length) {
+					return grow().put(key, attribute, value);
+				}
+
+				slot = hash(key) & (keys.length - 1);
+
+				while (keys[slot] != EMPTY) {
+					slot = (slot + 1) & (keys.length - 1);
+				}
+
+				keys[slot] = key;
+				size++;
+			}
+
+			if (attribute == TYPE) {
+				types[slot] = (byte) value;
+			} else if (attribute == TREASURES) {
+				treasures[slot] = value;
+			} else {
+				occupants[slot] = value;
+			}
+
+			if (types[slot] == 0 && treasures[slot] == 0 && occupants[slot] == 0 && !pinned[slot]) {
+				remove(slot);
+			}
+
+			return this;
+		}
+
+		/**
+		 * Removes the given slot and shifts back the following entries of its cluster.
+		 */
+		void remove(int slot) {
+			int mask = keys.length - 1;
+			int hole = slot;
+			int next = (slot + 1) & mask;
+
+			while (keys[next] != EMPTY) {
+				int home = hash(keys[next]) & mask;
+
+				// The entry may fill the hole if its home slot is not within (hole, next]
+				if (((next - home) & mask) >= ((next - hole) & mask)) {
+					keys[hole] = keys[next];
+					types[hole] = types[next];
+					treasures[hole] = treasures[next];
+					occupants[hole] = occupants[next];
+					pinned[hole] = pinned[next];
+					hole = next;
+				}
+
+				next = (next + 1) & mask;
+			}
+
+			keys[hole] = EMPTY;
+			types[hole] = 0;
+			treasures[hole] = 0;
+			occupants[hole] = 0;
+			pinned[hole] = false;
+			size--;
+		}
+
+		/**
+		 * Returns a table twice as large holding the same entries.
+		 */
+		Table grow() {
+			Table table = new Table(keys.length * 2);
+
+			for (int slot = 0 ; slot < keys.length ; slot++) {
+				if (keys[slot] != EMPTY) {
+					int target = hash(keys[slot]) & (table.keys.length - 1);
+
+					while (table.keys[target] != EMPTY) {
+						target = (target + 1) & (table.keys.length - 1);
+					}
+
+					table.keys[target] = keys[slot];
+					table.types[target] = types[slot];
+					table.treasures[target] = treasures[slot];
+					table.occupants[target] = occupants[slot];
+					table.pinned[target] = pinned[slot];
+				}
+			}
+
+			table.size = size;
+
+			return table;
+		}
+
+		/**
+		 * Returns the keys of the table.
+		 */
+		long[] keys() {
+			long[] result = new long[size];
+			int count = 0;
+
+			for (long key : keys) {
+				if (key != EMPTY) {
+					result[count++] = key;
+				}
+			}
+
+			return result;
+		}
+
+		/**
+		 * Mixes the bits of the given key, neighbouring tiles have close keys.
+		 */
+		static int hash(long key) {
+			long h = key * 0x9E3779B97F4A7C15L;
+
+			return (int) (h ^ (h >>> 32));
+		}
+	}
+}
@@ -1,15 +1,18 @@
 package com.treasuremap.app.model;
 
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
-import lombok.Data;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
 
 /**
  * The main component of the map.<br />
  * A tile has a type: it can be a prairie or a mountain, see {@link TileType}, by default, a tile is a prairie.<br />
- * A tile may contain treasures.
+ * A tile may contain treasures.<br />
+ * A tile is a view on a cell of a {@link TileStorage}: the tiles of a map share the map's storage,
+ * a tile created on its own has a storage of a single cell.
  */
-@Data
+@Getter
+@Setter
 public class Tile {
 	/**
 	 * The abscissa.
@@ -28,39 +31,31 @@ public class Tile {
 	private int y;
 
 	/**
-	 * Either a prairie or a mountain.
-	 *
-	 * @param type the type to set.
-	 * @return the type.
-	 */
-	private TileType type = TileType.PRAIRIE;
-
-	/**
-	 * The number of treasures this tile has.
-	 *
-	 * @param treasures the number of treasures to set.
-	 * @return the number of treasures.
+	 * The storage holding the state of this tile.
 	 */
-	private int treasures;
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private final TileStorage storage;
 
 	/**
-	 * Adventurer on this tile, is null if there is no adventurer.
-	 *
-	 * @return the adventurer on this tile.
+	 * The abscissa of this tile within the storage.
 	 */
-	private Adventurer adventurer;
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private final int column;
 
 	/**
-	 * Lock for synchronization purpose.
+	 * The ordinate of this tile within the storage.
 	 */
-	private Lock lock = new ReentrantLock();
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private final int row;
 
 	/**
 	 * Constructs a new object Tile.
 	 */
 	public Tile() {
-		this.x = 0;
-		this.y = 0;
+		this(0, 0);
 	}
 
 	/**
@@ -70,8 +65,60 @@ public class Tile {
 	 * @param y The ordinate.
 	 */
 	public Tile(int x, int y) {
+		this(x, y, new ArrayTileStorage(1, 1), 0, 0);
+	}
+
+	/**
+	 * Constructs a new object Tile viewing the given cell of the given storage.
+	 *
+	 * @param x       The abscissa.
+	 * @param y       The ordinate.
+	 * @param storage The storage.
+	 * @param column  The abscissa of the cell within the storage.
+	 * @param row     The ordinate of the cell within the storage.
+	 */
+	Tile(int x, int y, TileStorage storage, int column, int row) {
 		this.x = x;
 		this.y = y;
+		this.storage = storage;
+		this.column = column;
+		this.row = row;
+	}
+
+	/**
+	 * Returns either a prairie or a mountain.
+	 *
+	 * @return the type.
+	 */
+	public TileType getType() {
+		return storage.getType(column, row);
+	}
+
+	/**
+	 * Sets the type.
+	 *
+	 * @param type the type to set.
+	 */
+	public void setType(TileType type) {
+		storage.setType(column, row, type);
+	}
+
+	/**
+	 * Returns the number of treasures this tile has.
+	 *
+	 * @return the number of treasures.
+	 */
+	public int getTreasures() {
+		return storage.getTreasures(column, row);
+	}
+
+	/**
+	 * Returns the adventurer on this tile, null if there is no adventurer.
+	 *
+	 * @return the adventurer on this tile.
+	 */
+	public Adventurer getAdventurer() {
+		return storage.getAdventurer(column, row);
 	}
 
 	/**
@@ -81,7 +128,7 @@ public class Tile {
 	 * @return true if adventurer is present, else false.
 	 */
 	public boolean isAdventurerPresent() {
-		return adventurer != null;
+		return storage.isOccupied(column, row);
 	}
 
 	/**
@@ -90,13 +137,35 @@ public class Tile {
 	 * @param adventurer the adventurer to set.
 	 */
 	public void setAdventurer(Adventurer adventurer) {
-		if (type.equals(TileType.PRAIRIE)) {
-			lock.lock();
-			this.adventurer = adventurer;
-			lock.unlock();
+		if (isPrairie()) {
+			storage.setAdventurer(column, row, adventurer);
 		}
 	}
 
+	/**
+	 * Atomically sets the given adventurer if this tile is a free prairie and returns true, else false.
+	 *
+	 * @param adventurer the adventurer claiming this tile.
+	 * @return true if the adventurer now occupies this tile, else false.
+	 */
+	public boolean claim(Adventurer adventurer) {
+		if (!isPrairie()) {
+			return false;
+		}
+
+		return storage.claim(column, row, adventurer);
+	}
+
+	/**
+	 * Atomically frees this tile if it is occupied by the given adventurer and returns true, else false.
+	 *
+	 * @param adventurer the adventurer leaving this tile.
+	 * @return true if the tile has been freed, else false.
+	 */
+	public boolean release(Adventurer adventurer) {
+		return storage.release(column, row, adventurer);
+	}
+
 	/**
 	 * Sets the treasure.
 	 * 
@@ -104,10 +173,9 @@ public class Tile {
 	 */
 	public void setTreasures(int treasures) {
 		if (!isMountain()) {
-			this.treasures = treasures;
+			storage.setTreasures(column, row, treasures);
 		}
 	}
-
 	/**
 	 * Returns true if this tile is a mountain.
 	 *
@@ -142,14 +210,18 @@ public class Tile {
 	 */
 	@Override
 	public String toString() {
+		int treasures = getTreasures();
+
 		if (treasures > 0) {
 			return String.valueOf(treasures);
 		}
 
+		Adventurer adventurer = getAdventurer();
+
 		if (adventurer != null) {
 			return adventurer.toString();
 		}
 
-		return type.toString();
+		return getType().toString();
 	}
 }
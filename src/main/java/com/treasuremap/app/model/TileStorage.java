@@ -0,0 +1,216 @@
+package com.treasuremap.app.model;
+
+/**
+ * TileStorage
+ *
+ * Backend holding the state of the tiles of a {@link TreasureMap}: the terrain, the treasures and the occupant of
+ * each tile, addressed by abscissa and ordinate. A storage holds raw values, the rules of the game (no treasure
+ * on a mountain, no adventurer on a mountain...) are enforced by {@link Tile} and {@link TreasureMap}.
+ *
+ * The occupants are updated with compare-and-set, see {@link #claim(int, int, Adventurer)}, the other values
+ * are written before the game starts.
+ */
+public interface TileStorage {
+
+	/**
+	 * Returns the key of the given tile: the ordinate in the high bits, the abscissa in the low bits.
+	 * Keys are unique whatever the size of the map, and sorting them sorts the tiles row by row.
+	 *
+	 * @param x The abscissa.
+	 * @param y The ordinate.
+	 * @return the key of the tile.
+	 */
+	static long key(int x, int y) {
+		return ((long) y << 32) | (x & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Returns the width of the storage.
+	 *
+	 * @return the width.
+	 */
+	int getWidth();
+
+	/**
+	 * Returns the height of the storage.
+	 *
+	 * @return the height.
+	 */
+	int getHeight();
+
+	/**
+	 * Returns the type of the given tile.
+	 *
+	 * @param x The abscissa.
+	 * @param y The ordinate.
+	 * @return the type of the tile.
+	 */
+	TileType getType(int x, int y);
+
+	/**
+	 * Sets the type of the given tile.
+	 *
+	 * @param x    The abscissa.
+	 * @param y    The ordinate.
+	 * @param type The type.
+	 */
+	void setType(int x, int y, TileType type);
+
+	/**
+	 * Returns the number of treasures of the given tile.
+	 *
+	 * @param x The abscissa.
+	 * @param y The ordinate.
+	 * @return the number of treasures.
+	 */
+	int getTreasures(int x, int y);
+
+	/**
+	 * Sets the number of treasures of the given tile.
+	 *
+	 * @param x         The abscissa.
+	 * @param y         The ordinate.
+	 * @param treasures The number of treasures.
+	 */
+	void setTreasures(int x, int y, int treasures);
+
+	/**
+	 * Sets the type and the number of treasures of every tile of the given rectangle, e.g. a mountain range.
+	 * By default, every tile is set one by one.
+	 *
+	 * @param x         The abscissa of the top left corner.
+	 * @param y         The ordinate of the top left corner.
+	 * @param width     The width of the rectangle.
+	 * @param height    The height of the rectangle.
+	 * @param type      The type.
+	 * @param treasures The number of treasures.
+	 */
+	default void fill(int x, int y, int width, int height, TileType type, int treasures) {
+		for (int j = y ; j < y + height ; j++) {
+			for (int i = x ; i < x + width ; i++) {
+				setType(i, j, type);
+				setTreasures(i, j, treasures);
+			}
+		}
+	}
+
+	/**
+	 * Returns true if every tile of the given rectangle is either a prairie without treasures or has the given
+	 * content, whatever its occupant, else false: the rectangle may then be filled without overwriting another content.
+	 * By default, every tile is checked.
+	 *
+	 * @param x         The abscissa of the top left corner.
+	 * @param y         The ordinate of the top left corner.
+	 * @param width     The width of the rectangle.
+	 * @param height    The height of the rectangle.
+	 * @param type      The type.
+	 * @param treasures The number of treasures.
+	 * @return true if the rectangle may be filled, else false.
+	 */
+	default boolean isFillable(int x, int y, int width, int height, TileType type, int treasures) {
+		for (int j = y ; j < y + height ; j++) {
+			for (int i = x ; i < x + width ; i++) {
+				TileType currentType = getType(i, j);
+				int currentTreasures = getTreasures(i, j);
+
+				if ((currentType != type || currentTreasures != treasures)
+						&& (currentType != TileType.PRAIRIE || currentTreasures != 0)) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the adventurer on the given tile, null if there is none.
+	 *
+	 * @param x The abscissa.
+	 * @param y The ordinate.
+	 * @return the adventurer or null.
+	 */
+	Adventurer getAdventurer(int x, int y);
+
+	/**
+	 * Returns the identifier of the adventurer on the given tile, 0 if there is none.
+	 * Unlike {@link #getAdventurer(int, int)}, the adventurer is not resolved: the identifier only tells whether
+	 * the tile is occupied and whom by, within this storage.
+	 *
+	 * @param x The abscissa.
+	 * @param y The ordinate.
+	 * @return the identifier of the adventurer or 0.
+	 */
+	int getOccupant(int x, int y);
+
+	/**
+	 * Returns true if an adventurer is on the given tile, else false.
+	 *
+	 * @param x The abscissa.
+	 * @param y The ordinate.
+	 * @return true if the tile is occupied, else false.
+	 */
+	default boolean isOccupied(int x, int y) {
+		return getOccupant(x, y) != 0;
+	}
+
+	/**
+	 * Sets the adventurer on the given tile, null frees it.
+	 *
+	 * @param x          The abscissa.
+	 * @param y          The ordinate.
+	 * @param adventurer The adventurer or null.
+	 */
+	void setAdventurer(int x, int y, Adventurer adventurer);
+
+	/**
+	 * Atomically sets the given adventurer if the given tile is free and returns true, else false.
+	 *
+	 * @param x          The abscissa.
+	 * @param y          The ordinate.
+	 * @param adventurer The adventurer.
+	 * @return true if the adventurer now occupies the tile, else false.
+	 */
+	boolean claim(int x, int y, Adventurer adventurer);
+
+	/**
+	 * Atomically frees the given tile if it is occupied by the given adventurer and returns true, else false.
+	 *
+	 * @param x          The abscissa.
+	 * @param y          The ordinate.
+	 * @param adventurer The adventurer.
+	 * @return true if the tile has been freed, else false.
+	 */
+	boolean release(int x, int y, Adventurer adventurer);
+
+	/**
+	 * Visits the tiles which are not blank, i.e. mountains, tiles with treasures and occupied tiles, row by row.
+	 * By default, every tile is checked.
+	 *
+	 * @param visitor The visitor.
+	 */
+	default void forEachNonBlank(TileVisitor visitor) {
+		for (int y = 0 ; y < getHeight() ; y++) {
+			for (int x = 0 ; x < getWidth() ; x++) {
+				if (getType(x, y) != TileType.PRAIRIE || getTreasures(x, y) != 0 || isOccupied(x, y)) {
+					visitor.visit(x, y);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Visitor of tiles, see {@link TileStorage#forEachNonBlank(TileVisitor)}.
+	 */
+	@FunctionalInterface
+	interface TileVisitor {
+
+		/**
+		 * Visits the given tile.
+		 *
+		 * @param x The abscissa.
+		 * @param y The ordinate.
+		 */
+		void visit(int x, int y);
+	}
+}
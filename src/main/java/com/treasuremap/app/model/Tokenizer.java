@@ -0,0 +1,411 @@
+package com.treasuremap.app.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Tokenizer
+ *
+ * Cursor reading the tokens of one line at a time of the map and adventurers' files, in place: the line is given as
+ * a range of a {@link ByteBuffer}, e.g. a memory-mapped file, or as a {@link CharSequence}, and the tokens are
+ * decoded from it without copying it. Tokens are separated by spaces or tabs:
+ * - {@link #letter()}, a code of one letter, e.g. 'T' or 'N';
+ * - {@link #integer()}, a non-negative int;
+ * - {@link #coordinates()}, two ints separated by '-', e.g. '4-2', then read by {@link #getX()} and {@link #getY()};
+ * - {@link #bits()}, a string of '0' and '1', e.g. '0110', then read by {@link #bit(int)};
+ * - {@link #word()}, any other token, the only one returned as a String.
+ *
+ * A tokenizer is reused from line to line and only allocates the Strings of the words. It is not thread-safe.
+ * Errors are {@link IllegalArgumentException} giving the line and the column of the token, from 1.
+ */
+class Tokenizer {
+	/**
+	 * The name of the file read, for the errors.
+	 */
+	private final String source;
+
+	/**
+	 * The bytes of the line, or null if the line is a CharSequence.
+	 */
+	private ByteBuffer bytes;
+
+	/**
+	 * The chars of the line, or null if the line is in a ByteBuffer.
+	 */
+	private CharSequence chars;
+
+	/**
+	 * The position of the first char of the line.
+	 */
+	private int start;
+
+	/**
+	 * The position of the end of the line.
+	 */
+	private int end;
+
+	/**
+	 * The position of the next char.
+	 */
+	private int position;
+
+	/**
+	 * The position of the first char of the last token read.
+	 */
+	private int token;
+
+	/**
+	 * The number of the line, from 1.
+	 */
+	private long line;
+
+	/**
+	 * The message of the last error, see {@link #error(String)}.
+	 */
+	private String message;
+
+	/**
+	 * The abscissa read by {@link #coordinates()}.
+	 */
+	private int x;
+
+	/**
+	 * The ordinate read by {@link #coordinates()}.
+	 */
+	private int y;
+
+	/**
+	 * The bytes of the last word read from a buffer without array, grown to the longest word.
+	 */
+	private byte[] word = new byte[64];
+
+	/**
+	 * Constructs a new object Tokenizer.
+	 *
+	 * @param source The name of the file read, for the errors.
+	 */
+	Tokenizer(String source) {
+		this.source = source;
+	}
+
+	/**
+	 * Starts reading the given line of bytes, ASCII or UTF-8.
+	 *
+	 * @param bytes The bytes.
+	 * @param start The position of the first byte of the line.
+	 * @param end   The position of the end of the line, before its line break.
+	 * @param line  The number of the line, from 1.
+	 * @return this tokenizer.
+	 */
+	Tokenizer reset(ByteBuffer bytes, int start, int end, long line) {
+		this.bytes = bytes;
+		this.chars = null;
+
+		return reset(start, end, line);
+	}
+
+	/**
+	 * Starts reading the given line of chars.
+	 *
+	 * @param chars The line, without its line break.
+	 * @param line  The number of the line, from 1.
+	 * @return this tokenizer.
+	 */
+	Tokenizer reset(CharSequence chars, long line) {
+		this.bytes = null;
+		this.chars = chars;
+
+		return reset(0, chars.length(), line);
+	}
+
+	/**
+	 * Starts reading the given range of the line.
+	 *
+	 * @param start The position of the first char.
+	 * @param end   The position of the end of the line.
+	 * @param line  The number of the line.
+	 * @return this tokenizer.
+	 */
+	private Tokenizer reset(int start, int end, long line) {
+		// A carriage return is part of the line break
+		if (end > start && at(end - 1) == '\r') {
+			end--;
+		}
+
+		this.start = start;
+		this.end = end;
+		this.position = start;
+		this.token = start;
+		this.line = line;
+
+		return this;
+	}
+
+	/**
+	 * Returns true if only blanks are left on the line, else false.
+	 *
+	 * @return true at the end of the line.
+	 */
+	boolean isEnd() {
+		skipBlanks();
+		return position == end;
+	}
+
+	/**
+	 * Checks that only blanks are left on the line.
+	 *
+	 * @throws IllegalArgumentException if a token is left.
+	 */
+	void end() {
+		if (!isEnd()) {
+			token = position;
+			throw error("End of line expected");
+		}
+	}
+
+	/**
+	 * Reads a code of one letter.
+	 *
+	 * @return the letter.
+	 * @throws IllegalArgumentException if the token is not a single char.
+	 */
+	char letter() {
+		begin();
+
+		if (position == end || position + 1 < end && !isBlank(at(position + 1))) {
+			throw error("Letter expected");
+		}
+
+		return at(position++);
+	}
+
+	/**
+	 * Reads a non-negative int.
+	 *
+	 * @return the int.
+	 * @throws IllegalArgumentException if the token is not a number or is larger than {@link Integer#MAX_VALUE}.
+	 */
+	int integer() {
+		begin();
+		return digits();
+	}
+
+	/**
+	 * Reads coordinates 'X-Y', then given by {@link #getX()} and {@link #getY()}.
+	 *
+	 * @throws IllegalArgumentException if the token is not made of two numbers separated by '-'.
+	 */
+	void coordinates() {
+		begin();
+		x = digits();
+
+		if (position == end || at(position) != '-') {
+			throw error("Coordinates expected");
+		}
+
+		position++;
+		y = digits();
+	}
+
+	/**
+	 * Returns true if the next token starts as coordinates, i.e. with digits followed by '-', else false.
+	 * Nothing is read.
+	 *
+	 * @return true if coordinates come next.
+	 */
+	boolean isCoordinates() {
+		skipBlanks();
+		int index = position;
+
+		while (index < end && at(index) >= '0' && at(index) <= '9') {
+			index++;
+		}
+
+		return index > position && index < end && at(index) == '-';
+	}
+
+	/**
+	 * Returns the abscissa read by the last call to {@link #coordinates()}.
+	 *
+	 * @return the abscissa.
+	 */
+	int getX() {
+		return x;
+	}
+
+	/**
+	 * Returns the ordinate read by the last call to {@link #coordinates()}.
+	 *
+	 * @return the ordinate.
+	 */
+	int getY() {
+		return y;
+	}
+
+	/**
+	 * Reads a string of bits, then given by {@link #bit(int)}.
+	 *
+	 * @return the number of bits.
+	 * @throws IllegalArgumentException if the token holds another char than '0' or '1'.
+	 */
+	int bits() {
+		begin();
+
+		while (position < end && !isBlank(at(position))) {
+			char c = at(position);
+
+			if (c != '0' && c != '1') {
+				throw error("Bits expected");
+			}
+
+			position++;
+		}
+
+		if (position == token) {
+			throw error("Bits expected");
+		}
+
+		return position - token;
+	}
+
+	/**
+	 * Returns the given bit of the string read by the last call to {@link #bits()}.
+	 *
+	 * @param index The index of the bit, from 0.
+	 * @return true for a '1', false for a '0'.
+	 */
+	boolean bit(int index) {
+		return at(token + index) == '1';
+	}
+
+	/**
+	 * Reads a token, up to the next blank.
+	 *
+	 * @return the token.
+	 * @throws IllegalArgumentException if the line has no token left.
+	 */
+	String word() {
+		begin();
+
+		if (position == end) {
+			throw error("Word expected");
+		}
+
+		while (position < end && !isBlank(at(position))) {
+			position++;
+		}
+
+		if (chars != null) {
+			return chars.subSequence(token, position).toString();
+		}
+
+		int length = position - token;
+
+		if (bytes.hasArray()) {
+			return new String(bytes.array(), bytes.arrayOffset() + token, length, StandardCharsets.UTF_8);
+		}
+
+		if (length > word.length) {
+			word = Arrays.copyOf(word, Math.max(length, 2 * word.length));
+		}
+
+		for (int i = 0 ; i < length ; i++) {
+			word[i] = bytes.get(token + i);
+		}
+
+		return new String(word, 0, length, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns the exception for the given message at the last token read.
+	 *
+	 * @param message The message.
+	 * @return the exception.
+	 */
+	IllegalArgumentException error(String message) {
+		this.message = message;
+		return new IllegalArgumentException(message + " at line " + line + ", column " + (token - start + 1)
+				+ " of " + source);
+	}
+
+	/**
+	 * Returns the exception of the last error again, its line being moved by the given number of lines, e.g. for
+	 * lines numbered from the start of a chunk of a file.
+	 *
+	 * @param lines The number of lines before the first one read.
+	 * @return the exception.
+	 */
+	IllegalArgumentException error(long lines) {
+		line += lines;
+		return error(message);
+	}
+
+	/**
+	 * Skips the blanks before a token and marks its start.
+	 */
+	private void begin() {
+		skipBlanks();
+		token = position;
+	}
+
+	/**
+	 * Reads the digits of a non-negative int.
+	 *
+	 * @return the int.
+	 */
+	private int digits() {
+		int first = position;
+		long value = 0;
+
+		while (position < end) {
+			int digit = at(position) - '0';
+
+			if (digit < 0 || digit > 9) {
+				break;
+			}
+
+			value = value * 10 + digit;
+			position++;
+
+			if (value > Integer.MAX_VALUE) {
+				throw error("Number too large");
+			}
+		}
+
+		if (first == position) {
+			throw error("Number expected");
+		}
+
+		return (int) value;
+	}
+
+	/**
+	 * Skips the spaces and tabs.
+	 */
+	private void skipBlanks() {
+		while (position < end && isBlank(at(position))) {
+			position++;
+		}
+	}
+
+	/**
+	 * Returns the char at the given position of the line, bytes being read as ASCII.
+	 *
+	 * @param index The position.
+	 * @return the char.
+	 */
+	private char at(int index) {
+		return bytes != null ? (char) (bytes.get(index) & 0xFF) : chars.charAt(index);
+	}
+
+	/**
+	 * Returns true if the given char separates tokens, else false.
+	 *
+	 * @param c The char.
+	 * @return true for a space or a tab.
+	 */
+	private static boolean isBlank(char c) {
+		return c == ' ' || c == '\t';
+	}
+}
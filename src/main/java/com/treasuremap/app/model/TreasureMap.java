@@ -1,8 +1,16 @@
 package com.treasuremap.app.model;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
 
 /**
  * TreasureMap
@@ -10,65 +18,169 @@ import lombok.Data;
 @Data
 public class TreasureMap {
 	/**
-	 * The tiles of the map.
+	 * The maximum number of tiles of a map backed by an {@link ArrayTileStorage}, by default.
+	 */
+	public static final long DENSE_LIMIT = 1 << 24;
+
+	/**
+	 * The maximum number of chunks of a map backed by a {@link ChunkedTileStorage}, by default.
+	 */
+	public static final long CHUNKED_LIMIT = 1 << 20;
+
+	/**
+	 * The maximum number of tiles of a map drawn by {@link #toString()}.
+	 */
+	private static final long DRAWN_LIMIT = 1 << 16;
+
+	/**
+	 * The storage holding the state of the tiles.
 	 *
-	 * @param tiles The tiles to set.
-	 * @return the tiles of the map.
+	 * @return the storage of the map.
+	 */
+	private final TileStorage storage;
+
+	/**
+	 * The tiles of the map, created on the first call to {@link #getTiles()}.
+	 */
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	@EqualsAndHashCode.Exclude
+	private volatile Tile[][] tiles;
+
+	/**
+	 * Adventurers waiting for a tile to be free, in arrival order, by tile's key, see {@link TileStorage#key(int, int)}.
+	 * A queue is created the first time an adventurer waits for its tile.
 	 */
-	private Tile[][] tiles;
+	@Getter(AccessLevel.NONE)
+	private final Map<Long, Deque<Adventurer>> waitQueues = new ConcurrentHashMap<>();
 
 	/**
-	 * Constructs a new object TreasureMap.
+	 * Constructs a new object TreasureMap backed by an {@link ArrayTileStorage} up to {@link #DENSE_LIMIT} tiles,
+	 * else a {@link ChunkedTileStorage} up to {@link #CHUNKED_LIMIT} chunks, else a {@link SparseTileStorage}.
 	 *
 	 * @param width the width of the map.
 	 * @param height the height of the map.
 	 */
 	public TreasureMap(int width, int height) {
-		tiles = new Tile[height][width];
+		this(createStorage(width, height));
+	}
 
-		for (int i = 0 ; i < tiles.length ; i++) {
-			for (int j = 0 ; j < tiles[i].length ; j++) {
-				tiles[i][j] = new Tile(i, j);
-			}
+	/**
+	 * Constructs a new object TreasureMap backed by the given storage.
+	 *
+	 * @param storage the storage holding the state of the tiles.
+	 */
+	public TreasureMap(TileStorage storage) {
+		this.storage = storage;
+	}
+
+	/**
+	 * Returns the storage suited to a map of the given size, see {@link #TreasureMap(int, int)}.
+	 *
+	 * @param width the width of the map.
+	 * @param height the height of the map.
+	 * @return the storage.
+	 */
+	private static TileStorage createStorage(int width, int height) {
+		long chunks = ((width + ChunkedTileStorage.CHUNK_SIZE - 1L) / ChunkedTileStorage.CHUNK_SIZE)
+				* ((height + ChunkedTileStorage.CHUNK_SIZE - 1L) / ChunkedTileStorage.CHUNK_SIZE);
+
+		if ((long) width * height <= DENSE_LIMIT) {
+			return new ArrayTileStorage(width, height);
+		}
+
+		if (chunks <= CHUNKED_LIMIT) {
+			return new ChunkedTileStorage(width, height);
 		}
+
+		return new SparseTileStorage(width, height);
 	}
 
 	/**
 	 * Returns the width of the map.
 	 */
 	public int getWidth() {
-		return tiles[0].length;
+		return storage.getWidth();
 	}
 
 	/**
 	 * Returns the height of the map.
 	 */
 	public int getHeight() {
-		return tiles.length;
+		return storage.getHeight();
+	}
+
+	/**
+	 * Returns the tile at the given coordinates, a view on the storage.
+	 * Unlike {@link #getTiles()}, nothing is kept: prefer it to access a few tiles of a large map.
+	 *
+	 * @param abscissa The abscissa.
+	 * @param ordinate The ordinate.
+	 * @return the tile at the given coordinates.
+	 */
+	public Tile getTile(int abscissa, int ordinate) {
+		// Tiles are built with (row, column)
+		return new Tile(ordinate, abscissa, storage, abscissa, ordinate);
+	}
+
+	/**
+	 * Returns the tiles of the map, by row then column. They are created on the first call,
+	 * one object per tile: prefer {@link #getTile(int, int)} or the storage on large maps.
+	 *
+	 * @return the tiles of the map.
+	 */
+	public Tile[][] getTiles() {
+		Tile[][] tiles = this.tiles;
+
+		if (tiles == null) {
+			synchronized (this) {
+				tiles = this.tiles;
+
+				if (tiles == null) {
+					tiles = new Tile[getHeight()][getWidth()];
+
+					for (int i = 0 ; i < tiles.length ; i++) {
+						for (int j = 0 ; j < tiles[i].length ; j++) {
+							tiles[i][j] = getTile(j, i);
+						}
+					}
+
+					this.tiles = tiles;
+				}
+			}
+		}
+
+		return tiles;
 	}
 
 	/**
 	 * Adds the given adventurer to the given coordinates and returns true, else false.
 	 * Use this method to initialize the adventurers at the beginning.
+	 * The tile is claimed with a compare-and-set, thus no lock on the map is held.
+	 * The storage is accessed directly, no {@link Tile} is created.
 	 *
-	 * @see   #canAdventurerMoveToTile(int, int)
+	 * @see   Tile#claim(Adventurer)
 	 * @param adventurer The adventurer to add.
 	 * @param abscissa   The abscissa of the adventurer.
 	 * @param ordinate   The ordinate of the adventurer.
 	 * @return true if the adventurer is added, else false.
 	 */
-	public synchronized boolean addAdventurer(Adventurer adventurer, int abscissa, int ordinate) {
-		if (!canAdventurerMoveToTile(abscissa, ordinate)) {
+	public boolean addAdventurer(Adventurer adventurer, int abscissa, int ordinate) {
+		if (!areCoordinatesWithinBounds(abscissa, ordinate)) {
+			return false;
+		}
+
+		if (storage.getType(abscissa, ordinate) != TileType.PRAIRIE || !storage.claim(abscissa, ordinate, adventurer)) {
 			return false;
 		}
 
-		Tile tile = getTiles()[ordinate][abscissa];
+		int treasures = storage.getTreasures(abscissa, ordinate);
 
-		if (tile.hasTreasures()) {
-			adventurer.gainTreasures(tile);
+		if (treasures > 0) {
+			adventurer.setTreasures(adventurer.getTreasures() + treasures);
+			storage.setTreasures(abscissa, ordinate, 0);
 		}
 
-		tile.setAdventurer(adventurer);
 		adventurer.setX(abscissa);
 		adventurer.setY(ordinate);
 
@@ -76,32 +188,134 @@ public class TreasureMap {
 	}
 
 	/**
-	 * Returns true if an adventurer can move to given coordinates, else false; reasons for that to occur are:
-	 * - the tile is a mountain,
-	 * - the tile is already occupied by another adventurer.
+	 * Moves the given adventurer from their current tile to the given coordinates and returns true, else false.
+	 * The destination is claimed first, then the source is released: the adventurer never leaves a tile
+	 * without owning the next one and no other adventurer can take either of them in between.
+	 * Moves on distinct tiles never wait for each other.
 	 *
-	 * @param abscissa the abscissa to test.
-	 * @param ordinate the ordinate to test.
-	 * @return true if an adventurer can move to given coordinates, else false.
+	 * @param adventurer The adventurer to move.
+	 * @param abscissa   The abscissa of the destination.
+	 * @param ordinate   The ordinate of the destination.
+	 * @return true if the adventurer has moved, else false.
 	 */
-	private boolean canAdventurerMoveToTile(int abscissa, int ordinate) {
-		if (!areCoordinatesWithinBounds(abscissa, ordinate)) {
+	public boolean moveAdventurer(Adventurer adventurer, int abscissa, int ordinate) {
+		int currentX = adventurer.getX();
+		int currentY = adventurer.getY();
+
+		if (!addAdventurer(adventurer, abscissa, ordinate)) {
 			return false;
 		}
 
-		Tile tile = getTiles()[ordinate][abscissa];
-
-		if (tile.isMountain()) {
-			return false;
+		if (areCoordinatesWithinBounds(currentX, currentY) && storage.release(currentX, currentY, adventurer)) {
+			wakeUpNextAdventurer(currentX, currentY);
 		}
 
-		if (tile.isAdventurerPresent()) {
-			return false;
+		return true;
+	}
+
+	/**
+	 * Makes an adventurer move forward, see {@link #moveAdventurerForward(Adventurer)}, and returns true if the action is done.
+	 * If the tile in front of the adventurer is occupied by another adventurer, the former waits until the tile is free:
+	 * they are flagged as waiting and queued on that tile, then this method returns false.
+	 * When the occupant leaves, the first adventurer of the queue is woken up, i.e. no longer flagged as waiting,
+	 * and may attempt to move again.
+	 *
+	 * @see Adventurer#isWaiting()
+	 * @param adventurer The adventurer to move.
+	 * @return true if the action is done (moved or blocked by a mountain or the bounds), false if the adventurer waits.
+	 */
+	public boolean moveAdventurerForwardOrWait(Adventurer adventurer) {
+		int targetX = adventurer.getForwardX();
+		int targetY = adventurer.getForwardY();
+
+		while (!moveAdventurer(adventurer, targetX, targetY)) {
+			if (!areCoordinatesWithinBounds(targetX, targetY) || storage.getType(targetX, targetY) == TileType.MOUNTAIN) {
+				return true;
+			}
+
+			if (waitForTile(adventurer, targetX, targetY)) {
+				return false;
+			}
 		}
 
+		leaveQueue(adventurer, targetX, targetY);
+
 		return true;
 	}
 
+	/**
+	 * Queues the given adventurer on the given tile if it is still occupied and returns true, else false.
+	 * The check and the queuing are done under the queue's monitor, which is also held to wake up an adventurer,
+	 * hence a release cannot be missed. The first adventurer of the queue stays first until they get the tile:
+	 * if another adventurer took it after they were woken up, they wait again at the front of the queue.
+	 *
+	 * @param adventurer The adventurer to queue.
+	 * @param abscissa   The abscissa of the tile.
+	 * @param ordinate   The ordinate of the tile.
+	 * @return true if the adventurer is waiting, else false.
+	 */
+	private boolean waitForTile(Adventurer adventurer, int abscissa, int ordinate) {
+		Deque<Adventurer> queue = waitQueues.computeIfAbsent(TileStorage.key(abscissa, ordinate), key -> new ArrayDeque<>());
+
+		synchronized (queue) {
+			if (!storage.isOccupied(abscissa, ordinate)) {
+				return false;
+			}
+
+			adventurer.setWaiting(true);
+
+			if (!adventurer.equals(queue.peekFirst())) {
+				queue.addLast(adventurer);
+			}
+
+			return true;
+		}
+	}
+
+	/**
+	 * Wakes up the first adventurer waiting for the given tile, if any. They stay first in the queue until they get
+	 * the tile, see {@link #leaveQueue(Adventurer, int, int)}.
+	 *
+	 * @param abscissa The abscissa of the freed tile.
+	 * @param ordinate The ordinate of the freed tile.
+	 */
+	private void wakeUpNextAdventurer(int abscissa, int ordinate) {
+		Deque<Adventurer> queue = waitQueues.get(TileStorage.key(abscissa, ordinate));
+
+		if (queue == null) {
+			return;
+		}
+
+		synchronized (queue) {
+			Adventurer adventurer = queue.peekFirst();
+
+			if (adventurer != null) {
+				adventurer.setWaiting(false);
+			}
+		}
+	}
+
+	/**
+	 * Removes the given adventurer from the front of the queue of the given tile, once they have got it.
+	 *
+	 * @param adventurer The adventurer.
+	 * @param abscissa   The abscissa of the tile.
+	 * @param ordinate   The ordinate of the tile.
+	 */
+	private void leaveQueue(Adventurer adventurer, int abscissa, int ordinate) {
+		Deque<Adventurer> queue = waitQueues.get(TileStorage.key(abscissa, ordinate));
+
+		if (queue == null) {
+			return;
+		}
+
+		synchronized (queue) {
+			if (adventurer.equals(queue.peekFirst())) {
+				queue.pollFirst();
+			}
+		}
+	}
+
 	/**
 	 * Returns the adventurers present on the map.
 	 *
@@ -110,15 +324,13 @@ public class TreasureMap {
 	public List<Adventurer> getAdventurers() {
 		List<Adventurer> adventurers = new ArrayList<>();
 
-		Tile[][] tiles = getTiles();
+		storage.forEachNonBlank((x, y) -> {
+			Adventurer adventurer = storage.getAdventurer(x, y);
 
-		for (int i = 0 ; i < tiles.length ; i++) {
-			for (int j = 0 ; j < tiles[i].length ; j++) {
-				if (tiles[i][j].isAdventurerPresent()) {
-					adventurers.add(tiles[i][j].getAdventurer());
-				}
+			if (adventurer != null) {
+				adventurers.add(adventurer);
 			}
-		}
+		});
 
 		return adventurers;
 	}
@@ -142,23 +354,7 @@ public class TreasureMap {
 	 * +---+---+---+       +---+---+---+   +---+---+---+   +---+---+---+   +---+---+---+
 	 */
 	public void moveAdventurerForward(Adventurer adventurer) {
-		int currentX = adventurer.getX();
-		int currentY = adventurer.getY();
-		boolean hasAdventurerMoved = false;
-
-		if (adventurer.isFacing(Orientation.NORTH)) {
-			hasAdventurerMoved = addAdventurer(adventurer, currentX, currentY - 1);
-		} else if (adventurer.isFacing(Orientation.SOUTH)) {
-			hasAdventurerMoved = addAdventurer(adventurer, currentX, currentY + 1);
-		} else if (adventurer.isFacing(Orientation.EAST)) {
-			hasAdventurerMoved = addAdventurer(adventurer, currentX + 1, currentY);
-		} else if (adventurer.isFacing(Orientation.WEST)) {
-			hasAdventurerMoved = addAdventurer(adventurer, currentX - 1, currentY);
-		}
-
-		if (hasAdventurerMoved) {
-			removeAdventurer(currentX, currentY);
-		}
+		moveAdventurer(adventurer, adventurer.getForwardX(), adventurer.getForwardY());
 	}
 
 	/**
@@ -170,9 +366,9 @@ public class TreasureMap {
 	 */
 	private boolean areCoordinatesWithinBounds(int abscissa, int ordinate) {
 		if (ordinate < 0) return false;
-		if (ordinate > getTiles().length - 1)  return false;
+		if (ordinate > getHeight() - 1)  return false;
 		if (abscissa < 0) return false;
-		if (abscissa > tiles[0].length - 1) return false;
+		if (abscissa > getWidth() - 1) return false;
 		return true;
 	}
 
@@ -183,13 +379,19 @@ public class TreasureMap {
 	 * @param ordinate the ordinate.
 	 */
 	public void removeAdventurer(int abscissa, int ordinate) {
-		Tile[][] tiles = getTiles();
-		Tile tile = tiles[ordinate][abscissa];
-		tile.setAdventurer(null);
+		storage.setAdventurer(abscissa, ordinate, null);
+		wakeUpNextAdventurer(abscissa, ordinate);
 	}
 
+	/**
+	 * Returns the map drawn in ASCII, or only its size if it has more than {@link #DRAWN_LIMIT} tiles.
+	 */
 	@Override
 	public String toString() {
+		if ((long) getWidth() * getHeight() > DRAWN_LIMIT) {
+			return "Map of " + getWidth() + "x" + getHeight() + " tiles, too large to be drawn\n";
+		}
+
 		StringBuilder builder = new StringBuilder();
 
 		int width = getWidth();
@@ -217,7 +419,7 @@ public class TreasureMap {
 
 		addSeparator(builder, spaces, width);
 
-		for (int i = 0 ; i < tiles.length ; i++) {
+		for (int i = 0 ; i < getHeight() ; i++) {
 			// Row index
 			for (int k = 0; k < spaces; k++) {
 				if (k == (spaces / 2)) {
@@ -227,12 +429,12 @@ public class TreasureMap {
 				}
 			}
 
-			for (int j = 0 ; j < tiles[i].length ; j++) {
+			for (int j = 0 ; j < width ; j++) {
 				builder.append("|");
 
 				for (int k = 0 ; k < spaces ; k++) {
 					if (k == (spaces / 2)) {
-						builder.append(tiles[i][j].toString());
+						builder.append(getTile(j, i).toString());
 					} else {
 						builder.append(" ");
 					}
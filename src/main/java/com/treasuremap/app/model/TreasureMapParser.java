@@ -1,10 +1,21 @@
 package com.treasuremap.app.model;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * TreasureMapParser
@@ -15,10 +26,54 @@ public class TreasureMapParser {
 	 */
 	private static TreasureMapParser parser;
 
+	/**
+	 * The maximum size of a window of the file mapped at once, in bytes.
+	 */
+	private static final int WINDOW = 1 << 30;
+
+	/**
+	 * The size of the buffer reading an input which is not a plain file, e.g. a pipe or a gzip file, in bytes.
+	 */
+	private static final int BUFFER = 1 << 16;
+
+	/**
+	 * The minimum size of a chunk of a file scanned in parallel, in bytes: smaller files are scanned in order.
+	 */
+	private static final long MINIMUM_CHUNK = 1 << 24;
+
+	/**
+	 * The number of locks of the rows of a file scanned in parallel, a power of two.
+	 */
+	private static final int STRIPES = 1 << 10;
+
+	/**
+	 * The maximum size of a window of the file mapped at once by this parser, in bytes.
+	 */
+	private final int window;
+
+	/**
+	 * The minimum size of a chunk of a file scanned in parallel by this parser, in bytes.
+	 */
+	private final long minimumChunk;
+
 	/**
 	 * Constructs a new object TreasureMapParser.
 	 */
-	private TreasureMapParser() {}
+	private TreasureMapParser() {
+		this(WINDOW, MINIMUM_CHUNK);
+	}
+
+	/**
+	 * Constructs a new object TreasureMapParser mapping the files by windows of the given size.
+	 *
+	 * @param window       The maximum size of a window, in bytes, longer than any line, and of the buffer of an input
+	 *                     which is not a plain file.
+	 * @param minimumChunk The minimum size of a chunk of a file scanned in parallel, in bytes.
+	 */
+	TreasureMapParser(int window, long minimumChunk) {
+		this.window = window;
+		this.minimumChunk = minimumChunk;
+	}
 
 	/**
 	 * Returns a TreasureMap for given file's name.
@@ -27,6 +82,12 @@ public class TreasureMapParser {
 	 * - T X-Y n, a tile located at (X,Y) with n treasures;
 	 * - M X-Y, a ountain located at (X,Y).
 	 *
+	 * Large areas are given by a single record, applied as a bulk fill of the storage, see {@link TileStorage#fill}:
+	 * - T X1-Y1 X2-Y2 n, every tile of the rectangle from (X1,Y1) to (X2,Y2) included with n treasures;
+	 * - M X1-Y1 X2-Y2, a mountain on every tile of the rectangle from (X1,Y1) to (X2,Y2) included;
+	 * - M X-Y bits, a mountain on the tiles of the row starting at (X,Y) whose bit is '1', e.g. 'M 2-3 0110'
+	 *   for mountains at (3,3) and (4,3).
+	 *
 	 * Here's an example of file:
 	 * +----------+
 	 * | file.txt |
@@ -50,30 +111,125 @@ public class TreasureMapParser {
 	 * 5 |   |   |   |   |   |   |
 	 *   +---+---+---+---+---+---+
 	 *
+	 * The file is memory-mapped and its bytes decoded in place, without a String per line: parsing a file of millions
+	 * of records allocates next to nothing but the map. Files of several times {@link #MINIMUM_CHUNK} bytes are
+	 * scanned in parallel by chunks, giving the same map. Blank lines are skipped, a tile given twice must be given
+	 * the same content. The first malformed or conflicting line of the file throws an {@link IllegalArgumentException}
+	 * giving its number.
+	 *
+	 * A gzip compressed file, whatever its name, is decompressed and scanned in order as it is read, see
+	 * {@link #parse(ReadableByteChannel, String, String)}.
+	 *
+	 * A file ending with {@link MappedTileStorage#EXTENSION} is not parsed but opened as a {@link MappedTileStorage},
+	 * without writing the changes made by the game to it.
+	 *
 	 * @param fileName File to parse.
 	 * @return a TreasureMap for given file.
 	 * @throws IOException
 	 */
 	public TreasureMap parseFile(String fileName) throws IOException {
+		return parseFile(fileName, null);
+	}
+
+	/**
+	 * Returns a TreasureMap for given file's name, see {@link #parseFile(String)}.
+	 * If a tiles file is given, the map is backed by a {@link MappedTileStorage} written to it while parsing,
+	 * so that it can be opened later on without parsing, see {@link #parseFile(String)}.
+	 *
+	 * @param fileName  File to parse.
+	 * @param tilesFile File of the {@link MappedTileStorage} to create, null to keep the map in memory.
+	 * @return a TreasureMap for given file.
+	 * @throws IOException
+	 */
+	public TreasureMap parseFile(String fileName, String tilesFile) throws IOException {
+		if (fileName.endsWith(MappedTileStorage.EXTENSION)) {
+			return new TreasureMap(MappedTileStorage.open(Paths.get(fileName), false));
+		}
+
 		Path path = Paths.get(fileName);
+		TreasureMap map;
 
-		List<String> lines = Files.readAllLines(path);
+		try (FileChannel channel = FileChannel.open(path)) {
+			if (!Input.isCompressed(channel)) {
+				map = scan(channel, path, tilesFile);
+			} else {
+				try (ReadableByteChannel input = Input.decompress(channel)) {
+					map = scanStream(input, path.toString(), tilesFile);
+				}
+			}
+		}
+
+		return reopen(map, tilesFile);
+	}
+
+	/**
+	 * Returns a TreasureMap for the given input, see {@link #parseFile(String)}, e.g. the standard input.
+	 *
+	 * @param in     The input, gzip compressed or not, read to its end but not closed.
+	 * @param source The name of the input, for the errors.
+	 * @return a TreasureMap for the given input.
+	 * @throws IOException if the input cannot be read.
+	 */
+	public TreasureMap parse(InputStream in, String source) throws IOException {
+		return parse(Channels.newChannel(in), source, null);
+	}
 
-		TreasureMap map = initMap(lines.remove(0));
+	/**
+	 * Returns a TreasureMap for the given input, see {@link #parseFile(String, String)}.
+	 * The input is read through a buffer of {@link #BUFFER} bytes, decompressed first if it is gzip compressed,
+	 * and scanned in order: it is neither mapped nor split into chunks, it does not need to be a file.
+	 *
+	 * @param channel   The input, gzip compressed or not, read to its end but not closed.
+	 * @param source    The name of the input, for the errors.
+	 * @param tilesFile File of the {@link MappedTileStorage} to create, null to keep the map in memory.
+	 * @return a TreasureMap for the given input.
+	 * @throws IOException if the input cannot be read or the tiles file cannot be created.
+	 */
+	public TreasureMap parse(ReadableByteChannel channel, String source, String tilesFile) throws IOException {
+		return reopen(scanStream(Input.decompress(channel), source, tilesFile), tilesFile);
+	}
 
-		for (String line : lines) {
-			initTile(map, line);
+	/**
+	 * Returns the given map as played: itself if it is held in memory, else opened again from its tiles file.
+	 *
+	 * @param map       The map parsed.
+	 * @param tilesFile File of the {@link MappedTileStorage} of the map, null if the map is held in memory.
+	 * @return the map to play.
+	 * @throws IOException if the tiles file cannot be opened.
+	 */
+	private static TreasureMap reopen(TreasureMap map, String tilesFile) throws IOException {
+		if (tilesFile != null) {
+			// Played on a private mapping, so that the file keeps the map as parsed
+			MappedTileStorage storage = (MappedTileStorage) map.getStorage();
+			storage.force();
+			storage.close();
+			return new TreasureMap(MappedTileStorage.open(Paths.get(tilesFile), false));
 		}
 
 		return map;
 	}
 
+	/**
+	 * Closes the storage of the given map if it is a {@link MappedTileStorage}, e.g. before its tiles file is
+	 * created again.
+	 *
+	 * @param map The map, not used any more.
+	 */
+	private static void close(TreasureMap map) {
+		if (map.getStorage() instanceof MappedTileStorage) {
+			((MappedTileStorage) map.getStorage()).close();
+		}
+	}
+
 	/**
 	 * Returns an instance of TreasureMapParser parser.
 	 *
+	 * The parser holds no state of its own, each parse having its own scanner: it can be used by several threads at
+	 * once, e.g. to load the map and the adventurers concurrently.
+	 *
 	 * @return an instance of TreasureMapParser parser.
 	 */
-	public static TreasureMapParser getInstance() {
+	public static synchronized TreasureMapParser getInstance() {
 		if (parser == null) {
 			parser = new TreasureMapParser();
 		}
@@ -82,44 +238,605 @@ public class TreasureMapParser {
 	}
 
 	/**
-	 * Initializes a treasure map for given value and returns it.
+	 * Scans the given file and returns its map, see {@link #parseFile(String)}: files of more than one chunk, see
+	 * {@link #chunkSize(long)}, are scanned in parallel, see {@link #scanInParallel(FileChannel, Path, String, long)},
+	 * the others in order. A file whose first failing chunk holds conflicting records is scanned again in order, the
+	 * first conflict of the file depending on the scheduling of the chunks otherwise.
 	 *
-	 * @see #parseFile(String)
-	 * @param value String containing the map's dimensions.
-	 * @return a treaure map.
+	 * @param channel   The file, not compressed.
+	 * @param path      The path of the file.
+	 * @param tilesFile File of the {@link MappedTileStorage} to create, null to keep the map in memory.
+	 * @return the map.
+	 * @throws IOException if the file cannot be read or the tiles file cannot be created.
+	 * @throws IllegalArgumentException if the file is malformed.
 	 */
-	private TreasureMap initMap(String firstLine) {
-		String[] firstLineContent = firstLine.split(" ");
-		int width = Integer.valueOf( firstLineContent[1] ).intValue();
-		int height = Integer.valueOf( firstLineContent[2] ).intValue();
+	private TreasureMap scan(FileChannel channel, Path path, String tilesFile) throws IOException {
+		long chunk = chunkSize(channel.size());
 
-		TreasureMap map = new TreasureMap(width, height);
+		if (channel.size() > chunk) {
+			TreasureMap map = scanInParallel(channel, path, tilesFile, chunk);
 
-		return map;
+			if (map != null) {
+				return map;
+			}
+		}
+
+		return scanInOrder(channel, path, tilesFile);
+	}
+
+	/**
+	 * Returns the size of the chunks of a file of the given size scanned in parallel: about four chunks per thread of
+	 * the common pool, but no less than {@link #minimumChunk} bytes and no more than {@link #window} bytes.
+	 *
+	 * @param size The size of the file.
+	 * @return the size of a chunk.
+	 */
+	private long chunkSize(long size) {
+		long chunk = size / (4L * ForkJoinPool.getCommonPoolParallelism());
+		return Math.min(window, Math.max(minimumChunk, chunk));
+	}
+
+	/**
+	 * Scans the given file line after line and returns its map.
+	 * The file is mapped by windows of at most {@link #window} bytes, each one ending after the last line break it
+	 * holds, and its bytes are decoded in place: no line nor token is copied into a String.
+	 *
+	 * @param channel   The file.
+	 * @param path      The path of the file.
+	 * @param tilesFile File of the {@link MappedTileStorage} to create, null to keep the map in memory.
+	 * @return the map.
+	 * @throws IOException if the file cannot be read or the tiles file cannot be created.
+	 * @throws IllegalArgumentException if the file is malformed.
+	 */
+	private TreasureMap scanInOrder(FileChannel channel, Path path, String tilesFile) throws IOException {
+		Scanner scanner = new Scanner(path.toString(), tilesFile);
+		long size = channel.size();
+		long position = 0;
+
+		while (position < size) {
+			MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, position, Math.min(window, size - position));
+			int end = buffer.limit();
+
+			if (position + end < size) {
+				// Only whole lines, the next window starts with the line cut by this one
+				while (end > 0 && buffer.get(end - 1) != '\n') {
+					end--;
+				}
+
+				if (end == 0) {
+					throw scanner.error("Line longer than " + window + " bytes");
+				}
+			}
+
+			scanner.scan(buffer, end, false);
+			position += end;
+		}
+
+		if (scanner.map == null) {
+			throw scanner.error("Map expected");
+		}
+
+		return scanner.map;
+	}
+
+	/**
+	 * Scans the given input line after line and returns its map.
+	 * The input is read through a buffer of at most {@link #BUFFER} bytes, grown to the longest line, and the whole
+	 * lines of the buffer are decoded in place before it is filled again.
+	 *
+	 * @param channel   The input.
+	 * @param source    The name of the input.
+	 * @param tilesFile File of the {@link MappedTileStorage} to create, null to keep the map in memory.
+	 * @return the map.
+	 * @throws IOException if the input cannot be read or the tiles file cannot be created.
+	 * @throws IllegalArgumentException if the input is malformed.
+	 */
+	private TreasureMap scanStream(ReadableByteChannel channel, String source, String tilesFile) throws IOException {
+		Scanner scanner = new Scanner(source, tilesFile);
+		ByteBuffer buffer = ByteBuffer.allocate(Math.min(window, BUFFER));
+
+		while (channel.read(buffer) >= 0) {
+			int end = buffer.position();
+
+			// Only whole lines, the line cut by the buffer is decoded with the next bytes
+			while (end > 0 && buffer.get(end - 1) != '\n') {
+				end--;
+			}
+
+			if (end > 0) {
+				scanner.scan(buffer, end, false);
+				buffer.flip().position(end);
+				buffer.compact();
+			} else if (!buffer.hasRemaining()) {
+				buffer = ByteBuffer.allocate(2 * buffer.capacity()).put(buffer.flip());
+			}
+		}
+
+		if (buffer.position() > 0) {
+			scanner.scan(buffer, buffer.position(), false);
+		}
+
+		if (scanner.map == null) {
+			throw scanner.error("Map expected");
+		}
+
+		return scanner.map;
 	}
 
 	/**
-	 * Initializes the map with given line.
-	 * Be mindful of indexes.
+	 * Scans the given file in parallel and returns its map.
+	 * The record of the map is read first, then the rest of the file is split into chunks of about the given size,
+	 * ending on a line break, which are mapped and scanned by as many tasks on the common {@link ForkJoinPool}.
+	 * The tasks write to the storage of the map directly, the rows being spread over {@link #STRIPES} locks,
+	 * so that the check of a duplicate record and the write of a tile are atomic, a rectangle taking the locks of
+	 * its rows. Writes to distinct tiles are
+	 * safe whatever the storage, see {@link TileStorage}.
 	 *
-	 * @see #parseFile(String)
-	 * @param map  The map.
-	 * @param line The line containing the tile's informations.
+	 * Records do not depend on each other but for duplicates, which are rejected unless they are identical:
+	 * the map is the same as scanned in order. So is the failure of a malformed record, the lines of the chunks
+	 * before being counted, but not the one of a conflict: which of two conflicting records is reported depends on
+	 * the order they are written in, thus null is returned for the file to be scanned in order.
+	 *
+	 * @param channel   The file.
+	 * @param path      The path of the file.
+	 * @param tilesFile File of the {@link MappedTileStorage} to create, null to keep the map in memory.
+	 * @param chunk     The size of a chunk, in bytes.
+	 * @return the map, null if the first failing chunk holds conflicting records.
+	 * @throws IOException if the file cannot be read or the tiles file cannot be created.
+	 * @throws IllegalArgumentException if a record is malformed.
 	 */
-	private void initTile(TreasureMap map, String line) {
-		String[] content = line.split(" ");
-		String type = content[0];
-		String position = content[1];
-		int x = Integer.valueOf( position.split("-")[0] ).intValue();
-		int y = Integer.valueOf( position.split("-")[1] ).intValue();
+	private TreasureMap scanInParallel(FileChannel channel, Path path, String tilesFile, long chunk) throws IOException {
+		long size = channel.size();
+		Scanner header = new Scanner(path.toString(), tilesFile);
+		MappedByteBuffer first = channel.map(MapMode.READ_ONLY, 0, chunk);
+		long start = header.scan(first, first.limit(), true);
+
+		if (header.map == null) {
+			throw header.error("Map expected");
+		}
 
-		Tile tile = map.getTiles()[y - 1][x - 1];
+		ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+		for (int i = 0 ; i < STRIPES ; i++) {
+			locks[i] = new ReentrantLock();
+		}
+
+		List<ChunkTask> tasks = new ArrayList<>();
+
+		while (start < size) {
+			long end = nextLine(channel, Math.min(start + chunk, size));
+			tasks.add(new ChunkTask(channel.map(MapMode.READ_ONLY, start, end - start), new Scanner(path.toString(), header.map, locks)));
+			start = end;
+		}
+
+		for (ChunkTask task : tasks) {
+			ForkJoinPool.commonPool().execute(task);
+		}
+
+		for (ChunkTask task : tasks) {
+			task.join();
+		}
+
+		long line = header.line;
+
+		for (ChunkTask task : tasks) {
+			if (task.failure != null) {
+				close(header.map);
+
+				if (task.scanner.isConflicting) {
+					return null;
+				}
+
+				throw task.scanner.tokenizer.error(line);
+			}
+
+			line += task.scanner.line;
+		}
+
+		return header.map;
+	}
+
+	/**
+	 * Returns the position of the start of the first line beginning at or after the given position.
+	 *
+	 * @param channel  The file.
+	 * @param position The position.
+	 * @return the position of the start of the line, or the size of the file.
+	 * @throws IOException if the file cannot be read.
+	 */
+	private static long nextLine(FileChannel channel, long position) throws IOException {
+		if (position == 0 || position >= channel.size()) {
+			return Math.min(position, channel.size());
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(4096);
+		long start = position - 1;
+
+		while (channel.read(buffer.clear(), start) > 0) {
+			buffer.flip();
+
+			while (buffer.hasRemaining()) {
+				if (buffer.get() == '\n') {
+					return start + buffer.position();
+				}
+			}
+
+			start += buffer.limit();
+		}
+
+		return channel.size();
+	}
+
+	/**
+	 * Task scanning one chunk of a file, see {@link TreasureMapParser#scanInParallel(FileChannel, Path, String, long)}.
+	 */
+	private static class ChunkTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The bytes of the chunk.
+		 */
+		private final ByteBuffer buffer;
+
+		/**
+		 * The scanner of the chunk.
+		 */
+		private final Scanner scanner;
+
+		/**
+		 * The error of the first malformed or conflicting record of the chunk, null if there is none.
+		 */
+		private IllegalArgumentException failure;
+
+		/**
+		 * Constructs a new object ChunkTask.
+		 *
+		 * @param buffer  The bytes of the chunk, whole lines.
+		 * @param scanner The scanner of the chunk.
+		 */
+		ChunkTask(ByteBuffer buffer, Scanner scanner) {
+			this.buffer = buffer;
+			this.scanner = scanner;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				scanner.scan(buffer, buffer.limit(), false);
+			} catch (IllegalArgumentException e) {
+				// Reported in the order of the chunks, see scanInParallel
+				failure = e;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Decoder of the records of a map file, line by line:
+	 * - C W H, the map of W x H tiles, the first record;
+	 * - T X-Y n, n treasures at (X,Y);
+	 * - M X-Y, a mountain at (X,Y);
+	 * - T X1-Y1 X2-Y2 n and M X1-Y1 X2-Y2, the same for every tile of a rectangle;
+	 * - M X-Y bits, mountains on the row starting at (X,Y).
+	 * The coordinates start at 1, blank lines are skipped and the tiles are written to the storage of the map.
+	 * A tile given twice must be given the same content, a record of 0 treasures giving nothing.
+	 */
+	private static class Scanner {
+		/**
+		 * The tokenizer of the lines.
+		 */
+		private final Tokenizer tokenizer;
+
+		/**
+		 * File of the {@link MappedTileStorage} to create, null to keep the map in memory.
+		 */
+		private final String tilesFile;
+
+		/**
+		 * The locks of the rows, by ordinate modulo their number, null if the map is written by this scanner only.
+		 */
+		private final ReentrantLock[] locks;
+
+		/**
+		 * The map, created by the first record.
+		 */
+		private TreasureMap map;
+
+		/**
+		 * The storage of the map.
+		 */
+		private TileStorage storage;
+
+		/**
+		 * The number of the last line scanned, from 1.
+		 */
+		private long line;
+
+		/**
+		 * True if the last record scanned conflicts with a record scanned before.
+		 */
+		private boolean isConflicting;
+
+		/**
+		 * Constructs a new object Scanner of a whole file, creating its map.
+		 *
+		 * @param source    The name of the file.
+		 * @param tilesFile File of the {@link MappedTileStorage} to create, null to keep the map in memory.
+		 */
+		Scanner(String source, String tilesFile) {
+			this.tokenizer = new Tokenizer("map file: " + source);
+			this.tilesFile = tilesFile;
+			this.locks = null;
+		}
+
+		/**
+		 * Constructs a new object Scanner of a chunk of a file, after the record of the map.
+		 *
+		 * @param source The name of the file.
+		 * @param map    The map.
+		 * @param locks  The locks of the rows shared by the scanners of the file.
+		 */
+		Scanner(String source, TreasureMap map, ReentrantLock[] locks) {
+			this.tokenizer = new Tokenizer("map file: " + source);
+			this.tilesFile = null;
+			this.locks = locks;
+			this.map = map;
+			this.storage = map.getStorage();
+		}
+
+		/**
+		 * Decodes the lines of the given bytes, or only up to the record of the map.
+		 *
+		 * @param buffer     The bytes.
+		 * @param end        The position of the end of the last line.
+		 * @param isMapOnly  True to stop after the record of the map.
+		 * @return the position of the first line not decoded.
+		 * @throws IOException if the tiles file cannot be created.
+		 */
+		int scan(ByteBuffer buffer, int end, boolean isMapOnly) throws IOException {
+			int start = 0;
+
+			while (start < end && !(isMapOnly && map != null)) {
+				int lineEnd = start;
+
+				while (lineEnd < end && buffer.get(lineEnd) != '\n') {
+					lineEnd++;
+				}
+
+				tokenizer.reset(buffer, start, lineEnd, ++line);
+
+				if (!tokenizer.isEnd()) {
+					record();
+				}
+
+				start = Math.min(lineEnd + 1, end);
+			}
+
+			return start;
+		}
+
+		/**
+		 * Decodes the record of the line.
+		 *
+		 * @throws IOException if the tiles file cannot be created.
+		 */
+		private void record() throws IOException {
+			char type = tokenizer.letter();
+
+			if (map == null) {
+				if (type != 'C') {
+					throw tokenizer.error("Map expected");
+				}
+
+				int width = tokenizer.integer();
+				int height = tokenizer.integer();
+				map = tilesFile == null
+						? new TreasureMap(width, height)
+						: new TreasureMap(MappedTileStorage.create(Paths.get(tilesFile), width, height));
+				storage = map.getStorage();
+			} else if (type == 'T' || type == 'M') {
+				tokenizer.coordinates();
+				int x = tokenizer.getX() - 1;
+				int y = tokenizer.getY() - 1;
+				checkBounds(x, y);
+
+				if (tokenizer.isCoordinates()) {
+					tokenizer.coordinates();
+					int toX = tokenizer.getX() - 1;
+					int toY = tokenizer.getY() - 1;
+					checkBounds(toX, toY);
+
+					if (toX < x || toY < y) {
+						throw tokenizer.error("Bottom right corner expected");
+					}
+
+					fill(x, y, toX - x + 1, toY - y + 1,
+							type == 'T' ? TileType.PRAIRIE : TileType.MOUNTAIN, type == 'T' ? tokenizer.integer() : 0);
+				} else if (type == 'T') {
+					fill(x, y, 1, 1, TileType.PRAIRIE, tokenizer.integer());
+				} else if (!tokenizer.isEnd()) {
+					row(x, y, tokenizer.bits());
+				} else {
+					fill(x, y, 1, 1, TileType.MOUNTAIN, 0);
+				}
+			} else {
+				throw tokenizer.error("Record '" + type + "' unknown");
+			}
+
+			tokenizer.end();
+		}
+
+		/**
+		 * Checks that the given tile lies on the map.
+		 *
+		 * @param x The abscissa.
+		 * @param y The ordinate.
+		 */
+		private void checkBounds(int x, int y) {
+			if (x < 0 || x >= storage.getWidth() || y < 0 || y >= storage.getHeight()) {
+				throw tokenizer.error("Tile out of the map");
+			}
+		}
+
+		/**
+		 * Gives the given content to every tile of the given rectangle, under the locks of its rows if the map is
+		 * shared.
+		 *
+		 * @param x         The abscissa of the top left corner.
+		 * @param y         The ordinate of the top left corner.
+		 * @param width     The width.
+		 * @param height    The height.
+		 * @param type      The type.
+		 * @param treasures The number of treasures.
+		 */
+		private void fill(int x, int y, int width, int height, TileType type, int treasures) {
+			if (type == TileType.PRAIRIE && treasures == 0) {
+				return;
+			}
+
+			lock(y, height);
+
+			try {
+				write(x, y, width, height, type, treasures);
+			} finally {
+				unlock(y, height);
+			}
+		}
+
+		/**
+		 * Gives a mountain to the tiles of the given row whose bit, read by the tokenizer, is set.
+		 * Each run of consecutive mountains is written at once, under the lock of the row if the map is shared.
+		 *
+		 * @param x      The abscissa of the first bit.
+		 * @param y      The ordinate.
+		 * @param length The number of bits.
+		 */
+		private void row(int x, int y, int length) {
+			if ((long) x + length > storage.getWidth()) {
+				throw tokenizer.error("Row out of the map");
+			}
+
+			lock(y, 1);
+
+			try {
+				int i = 0;
+
+				while (i < length) {
+					if (!tokenizer.bit(i)) {
+						i++;
+						continue;
+					}
+
+					int first = i;
+
+					while (i < length && tokenizer.bit(i)) {
+						i++;
+					}
+
+					write(x + first, y, i - first, 1, TileType.MOUNTAIN, 0);
+				}
+			} finally {
+				unlock(y, 1);
+			}
+		}
+
+		/**
+		 * Gives the given content to every tile of the given rectangle, unless a tile has already been given
+		 * another one. The rectangle is checked first, see {@link TileStorage#isFillable}, then filled at once,
+		 * see {@link TileStorage#fill}.
+		 *
+		 * @param x         The abscissa of the top left corner.
+		 * @param y         The ordinate of the top left corner.
+		 * @param width     The width.
+		 * @param height    The height.
+		 * @param type      The type.
+		 * @param treasures The number of treasures.
+		 */
+		private void write(int x, int y, int width, int height, TileType type, int treasures) {
+			if (!storage.isFillable(x, y, width, height, type, treasures)) {
+				isConflicting = true;
+				throw tokenizer.error("Tile already given another content");
+			}
+
+			if (width == 1 && height == 1) {
+				if (type == TileType.MOUNTAIN) {
+					storage.setType(x, y, type);
+				} else {
+					storage.setTreasures(x, y, treasures);
+				}
+			} else {
+				storage.fill(x, y, width, height, type, treasures);
+			}
+		}
+
+		/**
+		 * Takes the locks of the given rows, if the map is shared, in increasing index whatever the rows so that two
+		 * scanners never wait for each other.
+		 *
+		 * @param y      The ordinate of the first row.
+		 * @param height The number of rows.
+		 */
+		private void lock(int y, int height) {
+			if (locks == null) {
+				return;
+			}
+
+			if (height == 1) {
+				locks[y & (locks.length - 1)].lock();
+				return;
+			}
+
+			for (int i = 0 ; i < locks.length ; i++) {
+				if (isLocked(i, y, height)) {
+					locks[i].lock();
+				}
+			}
+		}
+
+		/**
+		 * Releases the locks taken by {@link #lock(int, int)}.
+		 *
+		 * @param y      The ordinate of the first row.
+		 * @param height The number of rows.
+		 */
+		private void unlock(int y, int height) {
+			if (locks == null) {
+				return;
+			}
+
+			if (height == 1) {
+				locks[y & (locks.length - 1)].unlock();
+				return;
+			}
+
+			for (int i = 0 ; i < locks.length ; i++) {
+				if (isLocked(i, y, height)) {
+					locks[i].unlock();
+				}
+			}
+		}
+
+		/**
+		 * Returns true if the given lock guards one of the given rows, else false.
+		 *
+		 * @param index  The index of the lock.
+		 * @param y      The ordinate of the first row.
+		 * @param height The number of rows.
+		 * @return true if the lock guards one of the rows.
+		 */
+		private boolean isLocked(int index, int y, int height) {
+			return ((index - y) & (locks.length - 1)) < height;
+		}
 
-		if ("T".equals(type)) {
-			int treasures = Integer.valueOf( content[2] ).intValue();
-			tile.setTreasures(treasures);
-		} else if ("M".equals(type)) {
-			tile.setType(TileType.MOUNTAIN);
+		/**
+		 * Returns the exception for the given message after the last line.
+		 *
+		 * @param message The message.
+		 * @return the exception.
+		 */
+		IllegalArgumentException error(String message) {
+			return tokenizer.reset("", line + 1).error(message);
 		}
 	}
 }
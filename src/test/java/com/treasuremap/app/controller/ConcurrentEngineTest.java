@@ -0,0 +1,58 @@
+package com.treasuremap.app.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.treasuremap.app.model.Adventurer;
+import com.treasuremap.app.model.Orientation;
+import com.treasuremap.app.model.TreasureMap;
+
+/**
+ * ConcurrentEngineTest
+ */
+public class ConcurrentEngineTest {
+
+	/**
+	 * Every adventurer walks east on their own row, thus they never meet:
+	 * once the game has finished, each of them should have moved by the length of their path.
+	 *
+	 * Testing method {@link ConcurrentEngine#run(Game)}.
+	 */
+	@Test
+	public void adventurers_on_distinct_rows_should_all_complete_their_path() {
+		int count = 500;
+		TreasureMap map = new TreasureMap(10, count);
+		List<Adventurer> adventurers = new ArrayList<>();
+
+		for (int i = 0 ; i < count ; i++) {
+			Adventurer adventurer = new Adventurer();
+			adventurer.setName("A" + i);
+			adventurer.setPath("AAAA");
+			adventurer.setOrientation(Orientation.EAST);
+			map.addAdventurer(adventurer, 0, i);
+			adventurers.add(adventurer);
+		}
+
+		Game game = new Game();
+		game.setMap(map);
+		game.setAdventurers(adventurers);
+		GameScheduler scheduler = new GameScheduler(4);
+		game.setEngine(new ConcurrentEngine(scheduler));
+		game.play();
+		scheduler.shutdown();
+
+		assertTrue(game.hasFinished());
+		assertEquals(4, game.getDuration());
+		assertEquals(count, map.getAdventurers().size());
+
+		for (int i = 0 ; i < count ; i++) {
+			assertEquals(4, adventurers.get(i).getX());
+			assertEquals(i, adventurers.get(i).getY());
+		}
+	}
+}
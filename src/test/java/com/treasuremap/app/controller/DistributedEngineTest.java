@@ -0,0 +1,123 @@
+package com.treasuremap.app.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.treasuremap.app.model.Adventurer;
+import com.treasuremap.app.model.Orientation;
+import com.treasuremap.app.model.TreasureMap;
+
+/**
+ * DistributedEngineTest
+ */
+public class DistributedEngineTest {
+
+	/**
+	 * Whatever the number of workers, adventurers crossing the borders should behave as if the map was whole:
+	 * the result should match the one of {@link IntentEngine}. The workers are threads connected over loopback.
+	 *
+	 * Testing method {@link DistributedEngine#run(Game)}.
+	 */
+	@Test
+	public void result_should_match_the_intent_engine() {
+		GameScheduler scheduler = new GameScheduler(4);
+		int[] workers = { 1, 2, 4, 15 };
+
+		for (long seed = 0 ; seed < 10 ; seed++) {
+			String expected = RandomGames.play(new IntentEngine(scheduler), seed, 15, 12, 50, 40);
+
+			for (int count : workers) {
+				String actual = RandomGames.play(new DistributedEngine(count, false), seed, 15, 12, 50, 40);
+
+				assertEquals("seed " + seed + ", " + count + " workers", expected, actual);
+			}
+		}
+
+		scheduler.shutdown();
+	}
+
+	/**
+	 * Workers launched as processes should give the same result as threads.
+	 *
+	 * Testing method {@link DistributedEngine#run(Game)}.
+	 */
+	@Test
+	public void processes_should_match_the_intent_engine() {
+		GameScheduler scheduler = new GameScheduler(2);
+
+		assertEquals(RandomGames.play(new IntentEngine(scheduler), 42, 15, 12, 50, 40),
+				RandomGames.play(new DistributedEngine(2, true), 42, 15, 12, 50, 40));
+
+		scheduler.shutdown();
+	}
+
+	/**
+	 * Two adventurers facing each other across a border should stall the game at the same tick as {@link IntentEngine}.
+	 *
+	 * Testing method {@link DistributedEngine#run(Game)}.
+	 */
+	@Test
+	public void game_should_stall_like_the_intent_engine() {
+		GameScheduler scheduler = new GameScheduler(2);
+		Game expected = face(new IntentEngine(scheduler));
+		Game actual = face(new DistributedEngine(2, false));
+
+		assertTrue(actual.isStalled());
+		assertEquals(expected.getDuration(), actual.getDuration());
+		assertEquals(expected.toString(), actual.toString());
+
+		scheduler.shutdown();
+	}
+
+	/**
+	 * Every worker should report, and the actions reported should add up to the actions of the adventurers.
+	 *
+	 * Testing method {@link DistributedEngine#getReports()}.
+	 */
+	@Test
+	public void reports_should_count_every_action() {
+		DistributedEngine engine = new DistributedEngine(3, false);
+		Game game = face(engine);
+		long actions = 0;
+
+		for (WorkerReport report : engine.getReports()) {
+			actions += report.getActions();
+		}
+
+		assertEquals(2, engine.getReports().size());
+		assertEquals(game.getAdventurers().get(0).getPointer() + game.getAdventurers().get(1).getPointer(), actions);
+	}
+
+	/**
+	 * Plays a 2x1 map where two adventurers, each on their own strip, turn twice then face each other.
+	 *
+	 * @param engine The engine.
+	 * @return the game once over.
+	 */
+	private static Game face(GameEngine engine) {
+		TreasureMap map = new TreasureMap(2, 1);
+		List<Adventurer> adventurers = new ArrayList<>();
+
+		for (int i = 0 ; i < 2 ; i++) {
+			Adventurer adventurer = new Adventurer();
+			adventurer.setName("A" + i);
+			adventurer.setPath("DDA");
+			adventurer.setOrientation(i == 0 ? Orientation.WEST : Orientation.EAST);
+			map.addAdventurer(adventurer, i, 0);
+			adventurers.add(adventurer);
+		}
+
+		Game game = new Game();
+		game.setMap(map);
+		game.setAdventurers(adventurers);
+		game.setEngine(engine);
+		game.play();
+
+		return game;
+	}
+}
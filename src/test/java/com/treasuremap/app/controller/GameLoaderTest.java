@@ -0,0 +1,123 @@
+package com.treasuremap.app.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.treasuremap.app.model.Adventurer;
+import com.treasuremap.app.model.TreasureMap;
+
+/**
+ * GameLoaderTest
+ */
+public class GameLoaderTest {
+	/**
+	 * The folder of the files written by the tests.
+	 */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Loading a scenario should place every adventurer on the map, in the order of the file, those read before the
+	 * map is ready included, and report each phase.
+	 *
+	 * Testing method {@link GameLoader#load(Game)}.
+	 */
+	@Test
+	public void loading_should_place_every_adventurer_and_report_each_phase() throws IOException {
+		int count = 3 * GameLoader.BLOCK + 7;
+		StringBuilder adventurers = new StringBuilder();
+
+		for (int i = 0 ; i < count ; i++) {
+			adventurers.append("Adventurer" + i + " " + (i % 100) + "-" + (i / 100) + " N AADG\n");
+		}
+
+		File adventurersFile = write("adventurers.txt", adventurers.toString());
+		File mapFile = write("map.txt", "C 100 100\nM 1-50 100-100\nT 1-1 2\n");
+
+		GameLoader loader = new GameLoader(adventurersFile.getPath(), mapFile.getPath(), null);
+		Game game = loader.load(new Game());
+		TreasureMap map = game.getMap();
+
+		assertEquals(100, map.getWidth());
+		assertEquals(count, game.getAdventurers().size());
+
+		for (int i = 0 ; i < count ; i++) {
+			Adventurer adventurer = game.getAdventurers().get(i);
+
+			assertEquals("Adventurer" + i, adventurer.getName());
+			assertEquals(adventurer, map.getTile(i % 100, i / 100).getAdventurer());
+		}
+
+		LoadReport report = loader.getReport();
+
+		assertEquals(count, report.getAdventurers());
+		assertTrue(report.getMapNanos() > 0);
+		assertTrue(report.getAdventurersNanos() > 0);
+		assertTrue(report.getPlacementNanos() > 0);
+		assertTrue(report.getWallNanos() >= Math.max(report.getMapNanos(), report.getAdventurersNanos()));
+	}
+
+	/**
+	 * A malformed map should be reported before a malformed adventurers' file, and an adventurer on a mountain should
+	 * be rejected.
+	 *
+	 * Testing method {@link GameLoader#load(Game)}.
+	 */
+	@Test
+	public void loading_should_report_the_map_first() throws IOException {
+		File adventurersFile = write("adventurers.txt", "John 1-1 E AADADAGA\nJane 1-1 X A\n");
+		File mapFile = write("map.txt", "C 6 5\nQ 1-1\n");
+
+		try {
+			new GameLoader(adventurersFile.getPath(), mapFile.getPath(), null).load(new Game());
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage(), e.getMessage().startsWith("Record 'Q' unknown at line 2, column 1 "));
+		}
+
+		write("map.txt", "C 6 5\nM 2-2\n");
+		write("adventurers.txt", "John 1-1 E AADADAGA\n");
+
+		try {
+			new GameLoader(adventurersFile.getPath(), mapFile.getPath(), null).load(new Game());
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Adventurer John cannot be placed at (1,1)", e.getMessage());
+		}
+	}
+
+	/**
+	 * Both files cannot be read from the standard input.
+	 *
+	 * Testing method {@link GameLoader#GameLoader(String, String, String)}.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void both_files_should_not_be_the_standard_input() {
+		new GameLoader(GameLoader.STANDARD_INPUT, GameLoader.STANDARD_INPUT, null);
+	}
+
+	/**
+	 * Writes the given content to the given file of the folder.
+	 *
+	 * @param name    The name of the file.
+	 * @param content The content.
+	 * @return the file.
+	 * @throws IOException if the file cannot be written.
+	 */
+	private File write(String name, String content) throws IOException {
+		File file = new File(folder.getRoot(), name);
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+
+		return file;
+	}
+}
@@ -0,0 +1,62 @@
+package com.treasuremap.app.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * GameSchedulerTest
+ */
+public class GameSchedulerTest {
+
+	/**
+	 * A repeated task should run until it returns true, then the future should complete
+	 * and the task should not run anymore.
+	 *
+	 * Testing method {@link GameScheduler#repeat(java.util.function.BooleanSupplier, long, TimeUnit)}.
+	 */
+	@Test
+	public void repeated_task_should_stop_once_done() throws Exception {
+		GameScheduler scheduler = new GameScheduler(2);
+		AtomicInteger runs = new AtomicInteger();
+
+		CompletableFuture<Void> future = scheduler.repeat(() -> runs.incrementAndGet() == 3, 1, TimeUnit.MILLISECONDS);
+		future.get(5, TimeUnit.SECONDS);
+		Thread.sleep(20);
+
+		assertTrue(future.isDone());
+		assertEquals(3, runs.get());
+
+		scheduler.shutdown();
+	}
+
+	/**
+	 * A repeated task throwing an error should complete the future exceptionally rather than leave it pending.
+	 *
+	 * Testing method {@link GameScheduler#repeat(java.util.function.BooleanSupplier, long, TimeUnit)}.
+	 */
+	@Test
+	public void repeated_task_throwing_an_error_should_complete_exceptionally() throws Exception {
+		GameScheduler scheduler = new GameScheduler(1);
+
+		CompletableFuture<Void> future = scheduler.repeat(() -> {
+			throw new AssertionError("Broken task");
+		}, 1, TimeUnit.MILLISECONDS);
+
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertEquals("Broken task", e.getCause().getMessage());
+		}
+
+		scheduler.shutdown();
+	}
+}
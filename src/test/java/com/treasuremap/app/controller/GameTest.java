@@ -3,6 +3,7 @@ package com.treasuremap.app.controller;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import org.junit.Test;
 
@@ -110,4 +111,222 @@ public class GameTest {
 
 		assertFalse(game.hasFinished());
 	}
+
+	/**
+	 * Played by {@link TickEngine}, the game should return once finished and its duration should be
+	 * the number of actions of the longest path, in ticks.
+	 *
+	 * Testing method {@link Game#play()} with an engine.
+	 */
+	@Test
+	public void headless_game_duration_should_be_counted_in_ticks() {
+		Adventurer adventurer = new Adventurer();
+		adventurer.setPath("AADADAGA");
+		adventurer.setOrientation(Orientation.EAST);
+
+		TreasureMap map = new TreasureMap(3, 3);
+		map.addAdventurer(adventurer, 0, 0);
+
+		Game game = new Game();
+		game.setMap(map);
+		game.setAdventurers(Stream.of(adventurer).collect(Collectors.toList()));
+		game.setEngine(new TickEngine());
+		game.play();
+
+		assertTrue(game.hasFinished());
+		assertEquals(8, game.getDuration());
+		assertEquals(1, adventurer.getX());
+		assertEquals(2, adventurer.getY());
+	}
+
+	/**
+	 * Played in real time, the game is paced by the scheduler: one tick per second, the first one being immediate.
+	 *
+	 * Testing methods {@link Game#play()} and {@link Game#awaitTermination()}.
+	 */
+	@Test
+	public void real_time_game_should_terminate_once_every_path_is_completed() throws InterruptedException {
+		Adventurer adventurer = new Adventurer();
+		adventurer.setPath("AD");
+		adventurer.setOrientation(Orientation.EAST);
+
+		TreasureMap map = new TreasureMap(3, 3);
+		map.addAdventurer(adventurer, 0, 0);
+
+		Game game = new Game();
+		game.setMap(map);
+		game.setAdventurers(Stream.of(adventurer).collect(Collectors.toList()));
+		game.play();
+		game.awaitTermination();
+
+		assertTrue(game.hasFinished());
+		assertEquals(2, game.getDuration());
+		assertEquals(Orientation.SOUTH, adventurer.getOrientation());
+	}
+
+	/**
+	 * John faces Maria who first turns to the right then moves down.
+	 * John waits during the first two ticks and only moves once Maria has left.
+	 *
+	 *     1   2   3                 1   2   3
+	 *   +---+---+---+             +---+---+---+
+	 * 1 | → | M |   |           1 |   | J |   |
+	 *   +---+---+---+  3 ticks    +---+---+---+
+	 * 2 |   |   |   |  ------->   2 |   | M |   |
+	 *   +---+---+---+             +---+---+---+
+	 *
+	 * Testing method {@link Game#executeAdventurerPath(Adventurer)}.
+	 */
+	@Test
+	public void adventurer_facing_an_occupied_tile_should_wait_until_it_is_free() {
+		Adventurer john = new Adventurer();
+		john.setName("John");
+		john.setPath("A");
+		john.setOrientation(Orientation.EAST);
+
+		Adventurer maria = new Adventurer();
+		maria.setName("Maria");
+		maria.setPath("DA");
+		maria.setOrientation(Orientation.EAST);
+
+		TreasureMap map = new TreasureMap(3, 2);
+		map.addAdventurer(john, 0, 0);
+		map.addAdventurer(maria, 1, 0);
+
+		Game game = new Game();
+		game.setMap(map);
+		game.setAdventurers(Stream.of(john, maria).collect(Collectors.toList()));
+
+		game.tick();
+		assertTrue(john.isWaiting());
+		assertEquals(0, john.getPointer());
+
+		game.tick();
+		assertFalse(john.isWaiting());
+		assertEquals(0, john.getX());
+
+		game.tick();
+		assertTrue(game.hasFinished());
+		assertEquals(1, john.getX());
+		assertEquals(0, john.getY());
+		assertEquals(1, maria.getY());
+	}
+
+	/**
+	 * Maria has completed her path and stays on site, John waiting for her tile can never move:
+	 * the game is stalled and the engine returns.
+	 *
+	 * Testing method {@link Game#isStalled()}.
+	 */
+	@Test
+	public void game_should_stall_when_every_remaining_adventurer_waits() {
+		Adventurer john = new Adventurer();
+		john.setName("John");
+		john.setPath("A");
+		john.setOrientation(Orientation.EAST);
+
+		Adventurer maria = new Adventurer();
+		maria.setName("Maria");
+		maria.setPath("D");
+		maria.setOrientation(Orientation.EAST);
+
+		TreasureMap map = new TreasureMap(3, 2);
+		map.addAdventurer(john, 0, 0);
+		map.addAdventurer(maria, 1, 0);
+
+		Game game = new Game();
+		game.setMap(map);
+		game.setAdventurers(Stream.of(john, maria).collect(Collectors.toList()));
+		game.setEngine(new TickEngine());
+		game.play();
+
+		assertFalse(game.hasFinished());
+		assertTrue(game.isStalled());
+		assertEquals(1, game.getDuration());
+		assertEquals(0, john.getPointer());
+	}
+
+	/**
+	 * Adding adventurers should place them on the map at their coordinates, and refuse a tile already occupied.
+	 *
+	 * Testing method {@link Game#addAdventurer(Adventurer)}.
+	 */
+	@Test
+	public void added_adventurers_should_be_placed_on_the_map() {
+		TreasureMap map = new TreasureMap(3, 3);
+		map.getTile(2, 1).setTreasures(2);
+
+		Game game = new Game();
+		game.setMap(map);
+
+		Adventurer first = new Adventurer();
+		first.setX(2);
+		first.setY(1);
+		game.addAdventurer(first);
+
+		Adventurer second = new Adventurer();
+		second.setX(2);
+		second.setY(1);
+
+		try {
+			game.addAdventurer(second);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Tile occupied
+		}
+
+		assertEquals(1, game.getAdventurers().size());
+		assertEquals(first, map.getTile(2, 1).getAdventurer());
+		assertEquals(2, first.getTreasures());
+	}
+
+	/**
+	 * The scheduler should be the one set, or the scheduler of the process once needed.
+	 *
+	 * Testing method {@link Game#getScheduler()}.
+	 */
+	@Test
+	public void scheduler_should_default_to_the_scheduler_of_the_process() {
+		Game game = new Game();
+		assertEquals(GameScheduler.getInstance(), game.getScheduler());
+
+		GameScheduler scheduler = new GameScheduler(1);
+		game.setScheduler(scheduler);
+		assertEquals(scheduler, game.getScheduler());
+		scheduler.shutdown();
+	}
+
+	/**
+	 * An adventurer should be displayed with their path as given, the arrow pointing at their next action, or with
+	 * the number of actions executed if the path is not displayed one letter per action.
+	 *
+	 * Testing method {@link Game#toString()}.
+	 */
+	@Test
+	public void adventurer_should_be_displayed_with_their_path_as_given() {
+		Adventurer folded = new Adventurer();
+		folded.setName("John");
+		folded.setPath("DDDA");
+		folded.setOrientation(Orientation.EAST);
+		folded.setPointer(3);
+
+		Adventurer repeated = new Adventurer();
+		repeated.setName("Maria");
+		repeated.setPath("(AAD)*5000");
+		repeated.setOrientation(Orientation.SOUTH);
+		repeated.setPointer(42);
+
+		TreasureMap map = new TreasureMap(3, 3);
+		map.addAdventurer(folded, 0, 0);
+		map.addAdventurer(repeated, 2, 2);
+
+		Game game = new Game();
+		game.setMap(map);
+		game.setAdventurers(Stream.of(folded, repeated).collect(Collectors.toList()));
+		String display = game.toString();
+
+		assertTrue(display, display.contains("                            ↓\nJohn: (1,1), treasures=0, path=DDDA, orientation=EAST"));
+		assertTrue(display, display.contains("\nMaria: (3,3), treasures=0, path=(AAD)*5000, step=42/15000, orientation=SOUTH"));
+		assertFalse(display, display.contains("↓\nMaria"));
+	}
 }
@@ -0,0 +1,161 @@
+package com.treasuremap.app.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.treasuremap.app.model.Adventurer;
+import com.treasuremap.app.model.Orientation;
+import com.treasuremap.app.model.TreasureMap;
+
+/**
+ * IntentEngineTest
+ */
+public class IntentEngineTest {
+
+	/**
+	 * A and B aim at the same tile (2,2) during the first tick: the first one in the adventurers' order wins,
+	 * the other one waits until the tile is free at the beginning of a tick.
+	 *
+	 *     1   2   3
+	 *   +---+---+---+
+	 * 1 |   | A↓|   |
+	 *   +---+---+---+
+	 * 2 |   |   | ←B|
+	 *   +---+---+---+
+	 * 3 |   |   |   |
+	 *   +---+---+---+
+	 *
+	 * Testing method {@link IntentEngine#run(Game)}.
+	 */
+	@Test
+	public void contested_tile_should_be_won_by_the_first_adventurer_in_order() {
+		GameScheduler scheduler = new GameScheduler(2);
+
+		Adventurer a = adventurer("A", "AA", Orientation.SOUTH);
+		Adventurer b = adventurer("B", "AA", Orientation.WEST);
+		Game game = game(new TreasureMap(3, 3), Arrays.asList(a, b), new int[][] { {1, 0}, {2, 1} });
+		game.setEngine(new IntentEngine(scheduler));
+		game.play();
+
+		assertTrue(game.hasFinished());
+		assertEquals(4, game.getDuration());
+		assertEquals(1, a.getX());
+		assertEquals(2, a.getY());
+		assertEquals(0, b.getX());
+		assertEquals(1, b.getY());
+
+		a = adventurer("A", "AA", Orientation.SOUTH);
+		b = adventurer("B", "AA", Orientation.WEST);
+		game = game(new TreasureMap(3, 3), Arrays.asList(b, a), new int[][] { {2, 1}, {1, 0} });
+		game.setEngine(new IntentEngine(scheduler));
+		game.play();
+
+		assertEquals(4, game.getDuration());
+		assertEquals(0, b.getX());
+		assertEquals(1, b.getY());
+		assertEquals(1, a.getX());
+		assertEquals(2, a.getY());
+
+		scheduler.shutdown();
+	}
+
+	/**
+	 * A crowded map played with one thread or with several ones should give exactly the same result.
+	 *
+	 * Testing method {@link IntentEngine#run(Game)}.
+	 */
+	@Test
+	public void result_should_not_depend_on_the_number_of_threads() {
+		GameScheduler single = new GameScheduler(1);
+		GameScheduler multiple = new GameScheduler(4);
+
+		assertEquals(playCrowdedGame(single), playCrowdedGame(multiple));
+		assertEquals(playCrowdedGame(multiple), playCrowdedGame(multiple));
+
+		single.shutdown();
+		multiple.shutdown();
+	}
+
+	/**
+	 * Plays a crowded game generated from a fixed seed and returns the final state.
+	 *
+	 * @param scheduler The scheduler.
+	 * @return the final state of the game.
+	 */
+	private static String playCrowdedGame(GameScheduler scheduler) {
+		Random random = new Random(42);
+		TreasureMap map = new TreasureMap(12, 12);
+		List<Adventurer> adventurers = new ArrayList<>();
+		Orientation[] orientations = Orientation.values();
+
+		for (int i = 0 ; i < 12 ; i++) {
+			map.getTiles()[random.nextInt(12)][random.nextInt(12)].setTreasures(1 + random.nextInt(3));
+		}
+
+		for (int i = 0 ; i < 60 ; i++) {
+			StringBuilder path = new StringBuilder();
+
+			for (int k = 0 ; k < 30 ; k++) {
+				path.append("AADG".charAt(random.nextInt(4)));
+			}
+
+			Adventurer adventurer = adventurer("A" + i, path.toString(), orientations[random.nextInt(4)]);
+
+			if (map.addAdventurer(adventurer, random.nextInt(12), random.nextInt(12))) {
+				adventurers.add(adventurer);
+			}
+		}
+
+		Game game = new Game();
+		game.setMap(map);
+		game.setAdventurers(adventurers);
+		game.setEngine(new IntentEngine(scheduler));
+		game.play();
+
+		return game.toString();
+	}
+
+	/**
+	 * Returns a new adventurer.
+	 *
+	 * @param name        The name.
+	 * @param path        The path.
+	 * @param orientation The orientation.
+	 * @return a new adventurer.
+	 */
+	private static Adventurer adventurer(String name, String path, Orientation orientation) {
+		Adventurer adventurer = new Adventurer();
+		adventurer.setName(name);
+		adventurer.setPath(path);
+		adventurer.setOrientation(orientation);
+
+		return adventurer;
+	}
+
+	/**
+	 * Returns a new game whose adventurers are added to the given positions.
+	 *
+	 * @param map         The map.
+	 * @param adventurers The adventurers.
+	 * @param positions   The positions (x, y) of the adventurers.
+	 * @return a new game.
+	 */
+	private static Game game(TreasureMap map, List<Adventurer> adventurers, int[][] positions) {
+		for (int i = 0 ; i < adventurers.size() ; i++) {
+			map.addAdventurer(adventurers.get(i), positions[i][0], positions[i][1]);
+		}
+
+		Game game = new Game();
+		game.setMap(map);
+		game.setAdventurers(adventurers);
+
+		return game;
+	}
+}
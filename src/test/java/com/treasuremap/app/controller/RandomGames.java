@@ -0,0 +1,75 @@
+package com.treasuremap.app.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.treasuremap.app.model.Adventurer;
+import com.treasuremap.app.model.Orientation;
+import com.treasuremap.app.model.TileType;
+import com.treasuremap.app.model.TreasureMap;
+
+/**
+ * RandomGames
+ *
+ * Games generated from a seed, to compare the engines: a map scattered with treasures and mountains, and adventurers
+ * on random tiles following random paths. The same seed and parameters always give the same game.
+ */
+final class RandomGames {
+
+	/**
+	 * Not instantiable.
+	 */
+	private RandomGames() {
+	}
+
+	/**
+	 * Plays a game generated from the given seed with the given engine and returns the final state.
+	 * As many treasures and mountains as the greater side of the map are scattered, and the adventurers landing on
+	 * a mountain or an occupied tile are left out.
+	 *
+	 * @param engine      The engine.
+	 * @param seed        The seed.
+	 * @param width       The width of the map.
+	 * @param height      The height of the map.
+	 * @param adventurers The number of adventurers to attempt to add.
+	 * @param length      The number of steps of each path.
+	 * @return the final state of the game.
+	 */
+	static String play(GameEngine engine, long seed, int width, int height, int adventurers, int length) {
+		Random random = new Random(seed);
+		TreasureMap map = new TreasureMap(width, height);
+		List<Adventurer> list = new ArrayList<>();
+		Orientation[] orientations = Orientation.values();
+
+		for (int i = 0 ; i < Math.max(width, height) ; i++) {
+			map.getTiles()[random.nextInt(height)][random.nextInt(width)].setTreasures(1 + random.nextInt(3));
+			map.getTiles()[random.nextInt(height)][random.nextInt(width)].setType(TileType.MOUNTAIN);
+		}
+
+		for (int i = 0 ; i < adventurers ; i++) {
+			StringBuilder path = new StringBuilder();
+
+			for (int k = 0 ; k < length ; k++) {
+				path.append("AAADG".charAt(random.nextInt(5)));
+			}
+
+			Adventurer adventurer = new Adventurer();
+			adventurer.setName("A" + i);
+			adventurer.setPath(path.toString());
+			adventurer.setOrientation(orientations[random.nextInt(4)]);
+
+			if (map.addAdventurer(adventurer, random.nextInt(width), random.nextInt(height))) {
+				list.add(adventurer);
+			}
+		}
+
+		Game game = new Game();
+		game.setMap(map);
+		game.setAdventurers(list);
+		game.setEngine(engine);
+		game.play();
+
+		return game.toString();
+	}
+}
@@ -0,0 +1,35 @@
+package com.treasuremap.app.controller;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * ShardedEngineTest
+ */
+public class ShardedEngineTest {
+
+	/**
+	 * Whatever the layout of the regions, adventurers crossing the borders should behave as if the map was whole:
+	 * the result should match the one of {@link IntentEngine}.
+	 *
+	 * Testing method {@link ShardedEngine#run(Game)}.
+	 */
+	@Test
+	public void result_should_match_the_intent_engine() {
+		GameScheduler scheduler = new GameScheduler(4);
+		int[][] layouts = { {1, 1}, {4, 1}, {1, 3}, {3, 3}, {20, 20} };
+
+		for (long seed = 0 ; seed < 10 ; seed++) {
+			String expected = RandomGames.play(new IntentEngine(scheduler), seed, 15, 12, 50, 40);
+
+			for (int[] layout : layouts) {
+				String actual = RandomGames.play(new ShardedEngine(scheduler, layout[0], layout[1]), seed, 15, 12, 50, 40);
+
+				assertEquals("seed " + seed + ", layout " + layout[0] + "x" + layout[1], expected, actual);
+			}
+		}
+
+		scheduler.shutdown();
+	}
+}
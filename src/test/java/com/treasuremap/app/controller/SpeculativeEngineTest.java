@@ -0,0 +1,34 @@
+package com.treasuremap.app.controller;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * SpeculativeEngineTest
+ */
+public class SpeculativeEngineTest {
+
+	/**
+	 * Whatever the density of adventurers and the size of the windows, the speculative engine
+	 * should give exactly the same result as the sequential one.
+	 *
+	 * Testing method {@link SpeculativeEngine#run(Game)}.
+	 */
+	@Test
+	public void result_should_match_the_sequential_engine() {
+		GameScheduler scheduler = new GameScheduler(4);
+
+		for (long seed = 0 ; seed < 20 ; seed++) {
+			int adventurers = seed % 2 == 0 ? 8 : 80;
+			int window = 1 + (int) (seed * 7 % 40);
+
+			String expected = RandomGames.play(new TickEngine(), seed, 16, 16, adventurers, 50);
+			String actual = RandomGames.play(new SpeculativeEngine(scheduler, window), seed, 16, 16, adventurers, 50);
+
+			assertEquals("seed " + seed, expected, actual);
+		}
+
+		scheduler.shutdown();
+	}
+}
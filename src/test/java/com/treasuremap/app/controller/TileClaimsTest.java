@@ -0,0 +1,56 @@
+package com.treasuremap.app.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.treasuremap.app.model.TileStorage;
+
+/**
+ * TileClaimsTest
+ */
+public class TileClaimsTest {
+
+	/**
+	 * The first claimant of a tile should win it, tick after tick, the table growing past its expected size and
+	 * being cleared between two ticks.
+	 *
+	 * Testing methods:
+	 * - {@link TileClaims#claim(long, int)}
+	 * - {@link TileClaims#get(long)}
+	 * - {@link TileClaims#clear()}
+	 */
+	@Test
+	public void first_claimant_should_win_the_tile() {
+		TileClaims claims = new TileClaims(4);
+		Random random = new Random(7);
+
+		for (int tick = 0 ; tick < 20 ; tick++) {
+			Map<Long, Integer> expected = new HashMap<>();
+			claims.clear();
+
+			for (int i = 0 ; i < 500 ; i++) {
+				long key = TileStorage.key(random.nextInt(40) - 2, random.nextInt(40));
+				assertEquals(expected.putIfAbsent(key, i) == null, claims.claim(key, i));
+			}
+
+			assertEquals(expected.size(), claims.size());
+
+			for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+				assertEquals((int) entry.getValue(), claims.get(entry.getKey()));
+			}
+
+			assertEquals(-1, claims.get(TileStorage.key(100, 100)));
+		}
+
+		claims.clear();
+		assertTrue(claims.claim(TileStorage.key(1, 1), 3));
+		assertFalse(claims.claim(TileStorage.key(1, 1), 1));
+	}
+}
@@ -0,0 +1,66 @@
+package com.treasuremap.app.controller;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.treasuremap.app.model.TileStorage;
+
+/**
+ * TileOwnersTest
+ */
+public class TileOwnersTest {
+
+	/**
+	 * Tiles touched in parallel should be owned by their only adventurer, or be shared, window after window,
+	 * the table growing and being emptied between two windows.
+	 *
+	 * Testing methods:
+	 * - {@link TileOwners#reset(long, GameScheduler)}
+	 * - {@link TileOwners#touch(long, int)}
+	 * - {@link TileOwners#get(long)}
+	 */
+	@Test
+	public void tiles_should_be_owned_or_shared() throws InterruptedException {
+		GameScheduler scheduler = new GameScheduler(4);
+		TileOwners owners = new TileOwners();
+		Random random = new Random(7);
+
+		try {
+			for (int window = 0 ; window < 10 ; window++) {
+				int count = 50 * (window + 1);
+				long[][] touched = new long[count][];
+				Map<Long, Integer> expected = new HashMap<>();
+
+				for (int i = 0 ; i < count ; i++) {
+					touched[i] = new long[1 + random.nextInt(4)];
+
+					for (int k = 0 ; k < touched[i].length ; k++) {
+						touched[i][k] = TileStorage.key(random.nextInt(80), random.nextInt(80));
+						int index = i;
+						expected.merge(touched[i][k], i, (owner, other) -> owner == index ? owner : TileOwners.SHARED);
+					}
+				}
+
+				owners.reset(4L * count, scheduler);
+				scheduler.forEach(count, i -> {
+					for (long tile : touched[i]) {
+						owners.touch(tile, i);
+					}
+				});
+
+				for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+					assertEquals((int) entry.getValue(), owners.get(entry.getKey()));
+				}
+
+				assertEquals(TileOwners.NONE, owners.get(TileStorage.key(100, 100)));
+			}
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+}
@@ -1,13 +1,32 @@
 package com.treasuremap.app.model;
 
 import static org.junit.Assert.assertEquals;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * AdventurerParserTest
  */
 public class AdventurerParserTest {
+	/**
+	 * The folder of the files written by the tests.
+	 */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
 
 	/**
 	 * Parsing file 'adventurer_test.txt' should produces expected adventurer:
@@ -27,4 +46,84 @@ public class AdventurerParserTest {
 		assertEquals(Orientation.EAST, adventurer.getOrientation());
 		assertEquals("AADADAGA", adventurer.getPath());
 	}
+
+	/**
+	 * Streaming a file larger than the buffer and holding more adventurers than a store should produce every
+	 * adventurer in order, lines cut by the buffer and blank lines included.
+	 *
+	 * Testing method {@link AdventurerParser#stream(String)}.
+	 */
+	@Test
+	public void streaming_file_should_produce_every_adventurer_in_order() throws IOException {
+		File file = folder.newFile("adventurers.txt");
+		StringBuilder content = new StringBuilder();
+		int count = 3 * AdventurerParser.BLOCK;
+
+		for (int i = 0 ; i < count ; i++) {
+			content.append("Adventurer" + i + " " + i + "-" + (i % 7) + " S A" + i + "\r\n");
+
+			if (i % 100 == 0) {
+				content.append("\n");
+			}
+		}
+
+		Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+		assertEquals(true, file.length() > AdventurerParser.BUFFER);
+
+		List<Adventurer> adventurers;
+
+		try (Stream<Adventurer> stream = AdventurerParser.getInstance().stream(file.getPath())) {
+			adventurers = stream.collect(Collectors.toList());
+		}
+
+		assertEquals(count, adventurers.size());
+
+		for (int i = 0 ; i < count ; i++) {
+			Adventurer adventurer = adventurers.get(i);
+
+			assertEquals("Adventurer" + i, adventurer.getName());
+			assertEquals(i, adventurer.getX());
+			assertEquals(i % 7, adventurer.getY());
+			assertEquals(Orientation.SOUTH, adventurer.getOrientation());
+			assertEquals(i, adventurer.getProgram().length());
+		}
+	}
+
+	/**
+	 * Parsing a gzip file, whatever its name, or streaming a gzip stream should produce the adventurers of the plain
+	 * file.
+	 *
+	 * Testing methods:
+	 * - {@link AdventurerParser#parseFile(String)}
+	 * - {@link AdventurerParser#stream(InputStream, String)}
+	 */
+	@Test
+	public void reading_compressed_input_should_produce_same_adventurers() throws IOException {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+		try (OutputStream out = new GZIPOutputStream(compressed)) {
+			out.write("John 1-1 E AADADAGA\nJane 2-0 W (AG)*3\n".getBytes(StandardCharsets.UTF_8));
+		}
+
+		File file = folder.newFile("adventurers.txt");
+		Files.write(file.toPath(), compressed.toByteArray());
+
+		List<Adventurer> parsed = AdventurerParser.getInstance().parseFile(file.getPath());
+		List<Adventurer> streamed;
+
+		try (Stream<Adventurer> stream = AdventurerParser.getInstance()
+				.stream(new ByteArrayInputStream(compressed.toByteArray()), "test")) {
+			streamed = stream.collect(Collectors.toList());
+		}
+
+		for (List<Adventurer> adventurers : Arrays.asList(parsed, streamed)) {
+			assertEquals(2, adventurers.size());
+			assertEquals("John", adventurers.get(0).getName());
+			assertEquals("AADADAGA", adventurers.get(0).getPath());
+			assertEquals("Jane", adventurers.get(1).getName());
+			assertEquals(2, adventurers.get(1).getX());
+			assertEquals(Orientation.WEST, adventurers.get(1).getOrientation());
+			assertEquals(6, adventurers.get(1).getProgram().length());
+		}
+	}
 }
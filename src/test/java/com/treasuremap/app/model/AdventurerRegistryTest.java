@@ -0,0 +1,132 @@
+package com.treasuremap.app.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * AdventurerRegistryTest
+ */
+public class AdventurerRegistryTest {
+
+	/**
+	 * The identifiers of a store should be given back once none of its adventurers occupies a tile,
+	 * and given again to the next store, however many adventurers come and go.
+	 *
+	 * Testing methods:
+	 * - {@link AdventurerRegistry#register(Adventurer)}
+	 * - {@link AdventurerRegistry#unregister(int)}
+	 */
+	@Test
+	public void identifiers_should_be_given_back() {
+		AdventurerRegistry registry = new AdventurerRegistry();
+		AdventurerStore store = new AdventurerStore(2);
+		Adventurer john = store.add();
+		Adventurer maria = store.add();
+
+		int johnId = registry.register(john);
+		int mariaId = registry.register(maria);
+		assertEquals(johnId + 1, mariaId);
+		assertEquals(maria, registry.get(mariaId));
+
+		registry.unregister(johnId);
+		assertEquals(mariaId, registry.getId(maria));
+		registry.unregister(mariaId);
+		assertEquals(0, registry.getId(maria));
+
+		for (int k = 0 ; k < 1000 ; k++) {
+			int id = registry.register(new Adventurer());
+			assertTrue(id <= 3);
+			registry.unregister(id);
+		}
+	}
+
+	/**
+	 * Resolving an identifier which has not been given, or has been given back, should fail clearly.
+	 *
+	 * Testing method {@link AdventurerRegistry#get(int)}.
+	 */
+	@Test
+	public void unknown_identifier_should_fail() {
+		AdventurerRegistry registry = new AdventurerRegistry();
+		int id = registry.register(new Adventurer());
+		registry.unregister(id);
+
+		for (int unknown : new int[] { id, 42 }) {
+			try {
+				registry.get(unknown);
+				fail();
+			} catch (IllegalStateException e) {
+				assertEquals("Unknown adventurer identifier: " + unknown, e.getMessage());
+			}
+		}
+
+		assertFalse(new ArrayTileStorage(2, 2).release(0, 0, new Adventurer()));
+	}
+
+	/**
+	 * Adventurers of one store moving concurrently should keep their identifier while they occupy a tile, and the
+	 * identifiers of the store should be given back once they have all left.
+	 *
+	 * Testing methods:
+	 * - {@link AdventurerRegistry#register(Adventurer)}
+	 * - {@link AdventurerRegistry#unregister(Adventurer)}
+	 */
+	@Test
+	public void adventurers_of_one_store_should_move_concurrently() throws InterruptedException {
+		ArrayTileStorage storage = new ArrayTileStorage(64, 8);
+		AdventurerStore store = new AdventurerStore(8);
+		List<Thread> threads = new ArrayList<>();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		for (int i = 0 ; i < 8 ; i++) {
+			Adventurer adventurer = store.add();
+			int y = i;
+			assertTrue(storage.claim(0, y, adventurer));
+
+			threads.add(new Thread(() -> {
+				for (int k = 0 ; k < 20000 ; k++) {
+					int x = k % 63;
+					assertTrue(storage.claim(x + 1, y, adventurer));
+					assertTrue(storage.release(x, y, adventurer));
+					assertEquals(adventurer, storage.getAdventurer(x + 1, y));
+
+					// Back to the first column at the end of a row
+					if (x == 62) {
+						assertTrue(storage.claim(0, y, adventurer));
+						assertTrue(storage.release(63, y, adventurer));
+					}
+				}
+			}));
+		}
+
+		for (Thread thread : threads) {
+			thread.setUncaughtExceptionHandler((t, e) -> failure.compareAndSet(null, e));
+			thread.start();
+		}
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		if (failure.get() != null) {
+			throw new AssertionError("A move has failed", failure.get());
+		}
+
+		int firstId = storage.getOccupant(20000 % 63, 0);
+
+		for (int i = 0 ; i < 8 ; i++) {
+			assertEquals(firstId + i, storage.getOccupant(20000 % 63, i));
+			assertTrue(storage.release(20000 % 63, i, store.get(i)));
+		}
+
+		assertEquals(firstId, storage.claim(5, 5, new AdventurerStore(8).add()) ? storage.getOccupant(5, 5) : -1);
+	}
+}
@@ -0,0 +1,146 @@
+package com.treasuremap.app.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.treasuremap.app.controller.Game;
+import com.treasuremap.app.controller.IntentEngine;
+
+/**
+ * AdventurerStoreTest
+ */
+public class AdventurerStoreTest {
+
+	/**
+	 * Views of the same index should share the state of the adventurer and be equal,
+	 * and indexes should be consecutive.
+	 *
+	 * Testing methods:
+	 * - {@link AdventurerStore#add()}
+	 * - {@link AdventurerStore#get(int)}
+	 */
+	@Test
+	public void views_should_share_the_state() {
+		AdventurerStore store = new AdventurerStore(2);
+		Adventurer john = store.add();
+		Adventurer maria = store.add();
+
+		john.setName("John");
+		john.setOrientation(Orientation.EAST);
+		john.setX(3);
+		john.setTreasures(2);
+		maria.setWaiting(true);
+
+		Adventurer view = store.get(0);
+		assertEquals(john, view);
+		assertEquals(john.hashCode(), view.hashCode());
+		assertNotEquals(john, maria);
+		assertEquals("John", view.getName());
+		assertEquals(Orientation.EAST, view.getOrientation());
+		assertEquals(3, view.getX());
+		assertEquals(2, view.getTreasures());
+		assertFalse(view.isWaiting());
+		assertTrue(store.get(1).isWaiting());
+		assertEquals("A", maria.getName());
+		assertNull(maria.getOrientation());
+		assertEquals(1, maria.getIndex());
+		assertEquals(2, store.size());
+	}
+
+	/**
+	 * A full store should not accept more adventurers.
+	 *
+	 * Testing method {@link AdventurerStore#add()}.
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void full_store_should_fail() {
+		AdventurerStore store = new AdventurerStore(1);
+		store.add();
+		store.add();
+	}
+
+	/**
+	 * A map should give back views of the store of the adventurer occupying a tile,
+	 * and a standalone adventurer should be given back as is.
+	 *
+	 * Testing method {@link TreasureMap#addAdventurer(Adventurer, int, int)}.
+	 */
+	@Test
+	public void map_should_resolve_adventurers_from_their_store() {
+		AdventurerStore store = new AdventurerStore(3);
+		TreasureMap map = new TreasureMap(3, 3);
+		Adventurer standalone = new Adventurer();
+
+		for (int i = 0 ; i < 3 ; i++) {
+			assertTrue(map.addAdventurer(store.add(), i, i));
+		}
+
+		assertTrue(map.addAdventurer(standalone, 2, 0));
+
+		assertEquals(store.get(1), map.getTile(1, 1).getAdventurer());
+		assertSame(standalone, map.getTile(2, 0).getAdventurer());
+		assertEquals(4, map.getAdventurers().size());
+	}
+
+	/**
+	 * A game played on the adventurers of a store should give the same result as on standalone adventurers.
+	 *
+	 * Testing method {@link AdventurerParser#parseStore(String)}.
+	 */
+	@Test
+	public void game_should_run_against_a_store() throws IOException {
+		String adventurersFile = "src/test/resources/adventurer_test.txt";
+		String mapFile = "src/test/resources/treasure_map_test.txt";
+		AdventurerStore store = AdventurerParser.getInstance().parseStore(adventurersFile);
+		List<Adventurer> adventurers = store.asList();
+		List<Adventurer> standalone = new ArrayList<>();
+
+		for (Adventurer adventurer : adventurers) {
+			Adventurer copy = new Adventurer();
+			copy.setName(adventurer.getName());
+			copy.setPath(adventurer.getPath());
+			copy.setOrientation(adventurer.getOrientation());
+			copy.setX(adventurer.getX());
+			copy.setY(adventurer.getY());
+			standalone.add(copy);
+		}
+
+		assertEquals(play(mapFile, standalone), play(mapFile, adventurers));
+		assertEquals(1, store.size());
+		assertTrue(adventurers.get(0).hasCompletedPath());
+	}
+
+	/**
+	 * Plays the given adventurers on the given map with the intent engine and returns the final state.
+	 *
+	 * @param mapFile     The map's file.
+	 * @param adventurers The adventurers.
+	 * @return the final state of the game.
+	 * @throws IOException if the map cannot be read.
+	 */
+	private static String play(String mapFile, List<Adventurer> adventurers) throws IOException {
+		TreasureMap map = TreasureMapParser.getInstance().parseFile(mapFile);
+
+		for (Adventurer adventurer : adventurers) {
+			map.addAdventurer(adventurer, adventurer.getX() - 1, adventurer.getY() - 1);
+		}
+
+		Game game = new Game();
+		game.setMap(map);
+		game.setAdventurers(adventurers);
+		game.setEngine(new IntentEngine());
+		game.play();
+
+		return game.toString();
+	}
+}
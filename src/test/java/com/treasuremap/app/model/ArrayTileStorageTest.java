@@ -0,0 +1,112 @@
+package com.treasuremap.app.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * ArrayTileStorageTest
+ */
+public class ArrayTileStorageTest {
+
+	/**
+	 * A new storage should only contain free prairies without treasures.
+	 */
+	@Test
+	public void new_storage_should_be_free_prairies() {
+		TileStorage storage = new ArrayTileStorage(3, 2);
+
+		assertEquals(3, storage.getWidth());
+		assertEquals(2, storage.getHeight());
+
+		for (int y = 0 ; y < 2 ; y++) {
+			for (int x = 0 ; x < 3 ; x++) {
+				assertEquals(TileType.PRAIRIE, storage.getType(x, y));
+				assertEquals(0, storage.getTreasures(x, y));
+				assertNull(storage.getAdventurer(x, y));
+			}
+		}
+	}
+
+	/**
+	 * Values written to a tile should only be read back from that tile.
+	 *
+	 * Testing methods:
+	 * - {@link ArrayTileStorage#setType(int, int, TileType)}
+	 * - {@link ArrayTileStorage#setTreasures(int, int, int)}
+	 * - {@link ArrayTileStorage#setAdventurer(int, int, Adventurer)}
+	 */
+	@Test
+	public void values_should_be_stored_by_tile() {
+		TileStorage storage = new ArrayTileStorage(3, 2);
+		Adventurer adventurer = new Adventurer();
+
+		storage.setType(2, 0, TileType.MOUNTAIN);
+		storage.setTreasures(0, 1, 5);
+		storage.setAdventurer(1, 1, adventurer);
+
+		assertEquals(TileType.MOUNTAIN, storage.getType(2, 0));
+		assertEquals(TileType.PRAIRIE, storage.getType(0, 1));
+		assertEquals(5, storage.getTreasures(0, 1));
+		assertEquals(0, storage.getTreasures(1, 0));
+		assertSame(adventurer, storage.getAdventurer(1, 1));
+		assertNull(storage.getAdventurer(1, 0));
+
+		storage.setAdventurer(1, 1, null);
+		assertNull(storage.getAdventurer(1, 1));
+	}
+
+	/**
+	 * A tile should be claimed only when free, and released only by its occupant.
+	 *
+	 * Testing methods:
+	 * - {@link ArrayTileStorage#claim(int, int, Adventurer)}
+	 * - {@link ArrayTileStorage#release(int, int, Adventurer)}
+	 * - {@link ArrayTileStorage#getOccupant(int, int)}
+	 */
+	@Test
+	public void claim_and_release_should_compare_the_occupant() {
+		TileStorage storage = new ArrayTileStorage(2, 2);
+		Adventurer john = new Adventurer();
+		Adventurer maria = new Adventurer();
+
+		assertTrue(storage.claim(1, 0, john));
+		assertFalse(storage.claim(1, 0, maria));
+		assertFalse(storage.release(1, 0, maria));
+		assertSame(john, storage.getAdventurer(1, 0));
+
+		assertTrue(storage.isOccupied(1, 0));
+		assertFalse(storage.isOccupied(0, 0));
+
+		assertTrue(storage.release(1, 0, john));
+		assertEquals(0, storage.getOccupant(1, 0));
+		assertTrue(storage.claim(1, 0, maria));
+		assertSame(maria, storage.getAdventurer(1, 0));
+	}
+
+	/**
+	 * The tiles of a map should be views on its storage: a change through a tile should be seen by the others.
+	 *
+	 * Testing methods:
+	 * - {@link TreasureMap#getTile(int, int)}
+	 * - {@link TreasureMap#getTiles()}
+	 */
+	@Test
+	public void tiles_should_share_the_storage_of_the_map() {
+		TreasureMap map = new TreasureMap(4, 3);
+		Adventurer adventurer = new Adventurer();
+
+		map.getTile(3, 1).setTreasures(2);
+		map.getTiles()[2][0].setType(TileType.MOUNTAIN);
+		map.addAdventurer(adventurer, 1, 2);
+
+		assertEquals(2, map.getTiles()[1][3].getTreasures());
+		assertEquals(2, map.getStorage().getTreasures(3, 1));
+		assertTrue(map.getTile(0, 2).isMountain());
+		assertSame(adventurer, map.getTiles()[2][1].getAdventurer());
+		assertSame(adventurer, map.getStorage().getAdventurer(1, 2));
+	}
+}
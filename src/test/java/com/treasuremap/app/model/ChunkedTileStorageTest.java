@@ -0,0 +1,192 @@
+package com.treasuremap.app.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * ChunkedTileStorageTest
+ */
+public class ChunkedTileStorageTest {
+
+	/**
+	 * After any sequence of writes, the chunked storage should read like the dense one.
+	 *
+	 * Testing methods:
+	 * - {@link ChunkedTileStorage#setType(int, int, TileType)}
+	 * - {@link ChunkedTileStorage#setTreasures(int, int, int)}
+	 * - {@link ChunkedTileStorage#claim(int, int, Adventurer)}
+	 * - {@link ChunkedTileStorage#release(int, int, Adventurer)}
+	 */
+	@Test
+	public void storage_should_read_like_the_dense_one() {
+		Random random = new Random(7);
+		ChunkedTileStorage chunked = new ChunkedTileStorage(200, 150);
+		ArrayTileStorage dense = new ArrayTileStorage(200, 150);
+		Adventurer[] adventurers = { new Adventurer(), new Adventurer(), new Adventurer() };
+
+		for (int k = 0 ; k < 20000 ; k++) {
+			int x = random.nextInt(200);
+			int y = random.nextInt(150);
+			Adventurer adventurer = adventurers[random.nextInt(adventurers.length)];
+
+			switch (random.nextInt(4)) {
+				case 0:
+					TileType type = random.nextInt(4) == 0 ? TileType.MOUNTAIN : TileType.PRAIRIE;
+					chunked.setType(x, y, type);
+					dense.setType(x, y, type);
+					break;
+				case 1:
+					int treasures = random.nextInt(3);
+					chunked.setTreasures(x, y, treasures);
+					dense.setTreasures(x, y, treasures);
+					break;
+				case 2:
+					assertEquals(dense.claim(x, y, adventurer), chunked.claim(x, y, adventurer));
+					break;
+				default:
+					assertEquals(dense.release(x, y, adventurer), chunked.release(x, y, adventurer));
+					break;
+			}
+		}
+
+		for (int y = 0 ; y < 150 ; y++) {
+			for (int x = 0 ; x < 200 ; x++) {
+				assertEquals(dense.getType(x, y), chunked.getType(x, y));
+				assertEquals(dense.getTreasures(x, y), chunked.getTreasures(x, y));
+				assertSame(dense.getAdventurer(x, y), chunked.getAdventurer(x, y));
+			}
+		}
+	}
+
+	/**
+	 * Reading a tile or writing a blank value should not allocate its chunk.
+	 *
+	 * Testing method {@link ChunkedTileStorage#getStatistics()}.
+	 */
+	@Test
+	public void blank_accesses_should_not_allocate() {
+		ChunkedTileStorage storage = new ChunkedTileStorage(1000, 1000);
+		Adventurer adventurer = new Adventurer();
+
+		assertEquals(TileType.PRAIRIE, storage.getType(999, 999));
+		assertEquals(0, storage.getTreasures(500, 500));
+		assertNull(storage.getAdventurer(0, 0));
+
+		storage.setType(10, 10, TileType.PRAIRIE);
+		storage.setTreasures(10, 10, 0);
+		storage.setAdventurer(10, 10, null);
+		storage.release(10, 10, adventurer);
+
+		ChunkStatistics statistics = storage.getStatistics();
+		assertEquals(16 * 16, statistics.getChunks());
+		assertEquals(0, statistics.getAllocated());
+		assertEquals(0, statistics.getEntered());
+	}
+
+	/**
+	 * Chunks should be counted as allocated when written and as entered when an adventurer claims a tile of theirs.
+	 *
+	 * Testing method {@link ChunkedTileStorage#getStatistics()}.
+	 */
+	@Test
+	public void statistics_should_count_chunks_touched() {
+		ChunkedTileStorage storage = new ChunkedTileStorage(1000, 1000);
+		Adventurer adventurer = new Adventurer();
+
+		storage.setType(0, 0, TileType.MOUNTAIN);
+		storage.setTreasures(63, 63, 2);
+		storage.setTreasures(64, 0, 1);
+
+		assertTrue(storage.claim(999, 999, adventurer));
+		assertTrue(storage.release(999, 999, adventurer));
+		assertTrue(storage.claim(998, 999, adventurer));
+		assertTrue(storage.claim(65, 1, new Adventurer()));
+
+		ChunkStatistics statistics = storage.getStatistics();
+		assertEquals(64, statistics.getChunkSize());
+		assertEquals(3, statistics.getAllocated());
+		assertEquals(2, statistics.getEntered());
+		assertEquals(3.0 / 256, statistics.getAllocatedRatio(), 1e-9);
+	}
+
+	/**
+	 * The tiles which are not blank should be visited row by row across the chunks.
+	 *
+	 * Testing method {@link ChunkedTileStorage#forEachNonBlank(TileStorage.TileVisitor)}.
+	 */
+	@Test
+	public void tiles_should_be_visited_row_by_row() {
+		ChunkedTileStorage storage = new ChunkedTileStorage(10000, 10000);
+		storage.setTreasures(9999, 9999, 1);
+		storage.setType(5, 70, TileType.MOUNTAIN);
+		storage.setTreasures(3000, 70, 2);
+		storage.setTreasures(3, 71, 2);
+		storage.setAdventurer(200, 1, new Adventurer());
+
+		List<String> visited = new ArrayList<>();
+		storage.forEachNonBlank((x, y) -> visited.add(x + "," + y));
+
+		assertEquals(Arrays.asList("200,1", "5,70", "3000,70", "3,71", "9999,9999"), visited);
+	}
+
+	/**
+	 * After any sequence of fills, the chunked storage and the dense one should read like a storage filling tile by
+	 * tile, and the chunks only touched by blank fills should not be allocated.
+	 *
+	 * Testing method {@link ChunkedTileStorage#fill(int, int, int, int, TileType, int)}.
+	 */
+	@Test
+	public void fills_should_read_like_tile_by_tile_writes() {
+		Random random = new Random(11);
+		ChunkedTileStorage chunked = new ChunkedTileStorage(200, 150);
+		ArrayTileStorage dense = new ArrayTileStorage(200, 150);
+		SparseTileStorage sparse = new SparseTileStorage(200, 150);
+
+		chunked.fill(0, 0, 200, 150, TileType.PRAIRIE, 0);
+		assertEquals(0, chunked.getStatistics().getAllocated());
+
+		for (int k = 0 ; k < 200 ; k++) {
+			int x = random.nextInt(200);
+			int y = random.nextInt(150);
+			int width = random.nextInt(200 - x) + 1;
+			int height = random.nextInt(150 - y) + 1;
+			TileType type = random.nextInt(3) == 0 ? TileType.MOUNTAIN : TileType.PRAIRIE;
+			int treasures = type == TileType.MOUNTAIN ? 0 : random.nextInt(3);
+
+			for (TileStorage storage : new TileStorage[] { chunked, dense, sparse }) {
+				storage.fill(x, y, width, height, type, treasures);
+			}
+		}
+
+		for (int y = 0 ; y < 150 ; y++) {
+			for (int x = 0 ; x < 200 ; x++) {
+				assertEquals(sparse.getType(x, y), chunked.getType(x, y));
+				assertEquals(sparse.getTreasures(x, y), chunked.getTreasures(x, y));
+				assertEquals(sparse.getType(x, y), dense.getType(x, y));
+				assertEquals(sparse.getTreasures(x, y), dense.getTreasures(x, y));
+			}
+		}
+	}
+
+	/**
+	 * A map above {@link TreasureMap#DENSE_LIMIT} tiles but within {@link TreasureMap#CHUNKED_LIMIT} chunks
+	 * should be chunked.
+	 *
+	 * Testing method {@link TreasureMap#TreasureMap(int, int)}.
+	 */
+	@Test
+	public void large_map_should_be_chunked() {
+		assertTrue(new TreasureMap(4096, 4096).getStorage() instanceof ArrayTileStorage);
+		assertTrue(new TreasureMap(10000, 10000).getStorage() instanceof ChunkedTileStorage);
+		assertTrue(new TreasureMap(1000000, 1000000).getStorage() instanceof SparseTileStorage);
+	}
+}
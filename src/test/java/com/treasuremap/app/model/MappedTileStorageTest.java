@@ -0,0 +1,197 @@
+package com.treasuremap.app.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * MappedTileStorageTest
+ */
+public class MappedTileStorageTest {
+	/**
+	 * Folder of the tiles files, deleted after each test.
+	 */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * After any sequence of writes, the mapped storage should read like the dense one.
+	 *
+	 * Testing methods:
+	 * - {@link MappedTileStorage#setType(int, int, TileType)}
+	 * - {@link MappedTileStorage#setTreasures(int, int, int)}
+	 * - {@link MappedTileStorage#claim(int, int, Adventurer)}
+	 * - {@link MappedTileStorage#release(int, int, Adventurer)}
+	 */
+	@Test
+	public void storage_should_read_like_the_dense_one() throws IOException {
+		Random random = new Random(7);
+		MappedTileStorage mapped = MappedTileStorage.create(folder.newFile().toPath(), 21, 13);
+		ArrayTileStorage dense = new ArrayTileStorage(21, 13);
+		Adventurer[] adventurers = { new Adventurer(), new Adventurer(), new Adventurer() };
+
+		for (int k = 0 ; k < 20000 ; k++) {
+			int x = random.nextInt(21);
+			int y = random.nextInt(13);
+			Adventurer adventurer = adventurers[random.nextInt(adventurers.length)];
+
+			switch (random.nextInt(4)) {
+				case 0:
+					TileType type = random.nextInt(4) == 0 ? TileType.MOUNTAIN : TileType.PRAIRIE;
+					mapped.setType(x, y, type);
+					dense.setType(x, y, type);
+					break;
+				case 1:
+					int treasures = random.nextInt(3);
+					mapped.setTreasures(x, y, treasures);
+					dense.setTreasures(x, y, treasures);
+					break;
+				case 2:
+					assertEquals(dense.claim(x, y, adventurer), mapped.claim(x, y, adventurer));
+					break;
+				default:
+					assertEquals(dense.release(x, y, adventurer), mapped.release(x, y, adventurer));
+					break;
+			}
+		}
+
+		for (int y = 0 ; y < 13 ; y++) {
+			for (int x = 0 ; x < 21 ; x++) {
+				assertEquals(dense.getType(x, y), mapped.getType(x, y));
+				assertEquals(dense.getTreasures(x, y), mapped.getTreasures(x, y));
+				assertSame(dense.getAdventurer(x, y), mapped.getAdventurer(x, y));
+			}
+		}
+	}
+
+	/**
+	 * A file re-opened should keep the terrain and the treasures, and free every tile.
+	 * Changes made after opening it read-only should not be written to it.
+	 *
+	 * Testing method {@link MappedTileStorage#open(Path, boolean)}.
+	 */
+	@Test
+	public void reopened_file_should_keep_the_tiles() throws IOException {
+		Path path = folder.newFile().toPath();
+		MappedTileStorage created = MappedTileStorage.create(path, 5, 4);
+		created.setType(4, 3, TileType.MOUNTAIN);
+		created.setTreasures(1, 2, 7);
+		created.setAdventurer(0, 0, new Adventurer());
+		created.force();
+
+		MappedTileStorage opened = MappedTileStorage.open(path, false);
+		assertEquals(5, opened.getWidth());
+		assertEquals(4, opened.getHeight());
+		assertEquals(TileType.MOUNTAIN, opened.getType(4, 3));
+		assertEquals(7, opened.getTreasures(1, 2));
+		assertNull(opened.getAdventurer(0, 0));
+		assertTrue(opened.claim(0, 0, new Adventurer()));
+
+		opened.setTreasures(1, 2, 0);
+		assertEquals(7, MappedTileStorage.open(path, true).getTreasures(1, 2));
+	}
+
+	/**
+	 * A file which cannot be written should be opened read-only, and two storages opened on the same file should not
+	 * share their occupants.
+	 *
+	 * Testing method {@link MappedTileStorage#open(Path, boolean)}.
+	 */
+	@Test
+	public void read_only_file_should_be_shared() throws IOException {
+		Path path = folder.newFile().toPath();
+		MappedTileStorage.create(path, 5, 4).force();
+		assertTrue(path.toFile().setWritable(false));
+
+		MappedTileStorage first = MappedTileStorage.open(path, false);
+		MappedTileStorage second = MappedTileStorage.open(path, false);
+		Adventurer adventurer = new Adventurer();
+
+		assertTrue(first.claim(2, 2, adventurer));
+		assertTrue(second.claim(2, 2, new Adventurer()));
+		first.setTreasures(1, 1, 4);
+
+		assertEquals(adventurer, first.getAdventurer(2, 2));
+		assertEquals(4, first.getTreasures(1, 1));
+		assertEquals(0, second.getTreasures(1, 1));
+	}
+
+	/**
+	 * Only the tiles with a mountain, treasures or an adventurer should be visited, row by row, once the file
+	 * re-opened as well.
+	 *
+	 * Testing method {@link MappedTileStorage#forEachNonBlank(TileStorage.TileVisitor)}.
+	 */
+	@Test
+	public void only_non_blank_tiles_should_be_visited() throws IOException {
+		Path path = folder.newFile().toPath();
+		MappedTileStorage created = MappedTileStorage.create(path, 300, 100);
+		created.setTreasures(299, 90, 1);
+		created.setType(3, 2, TileType.MOUNTAIN);
+		created.force();
+
+		MappedTileStorage opened = MappedTileStorage.open(path, false);
+		opened.claim(150, 50, new Adventurer());
+		StringBuilder visited = new StringBuilder();
+		opened.forEachNonBlank((x, y) -> visited.append(x).append('-').append(y).append(' '));
+
+		assertEquals("3-2 150-50 299-90 ", visited.toString());
+	}
+
+	/**
+	 * Opening a file which is not a tiles file should fail.
+	 *
+	 * Testing method {@link MappedTileStorage#open(Path, boolean)}.
+	 */
+	@Test(expected = IOException.class)
+	public void opening_other_file_should_fail() throws IOException {
+		Path path = folder.newFile().toPath();
+		Files.write(path, "C 6 5\n".getBytes());
+
+		MappedTileStorage.open(path, false);
+	}
+
+	/**
+	 * A closed storage should fail clearly rather than read a mapping its file may no longer back.
+	 *
+	 * Testing method {@link MappedTileStorage#close()}.
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void closed_storage_should_fail() throws IOException {
+		MappedTileStorage storage = MappedTileStorage.create(folder.newFile().toPath(), 5, 4);
+		storage.close();
+
+		storage.getType(1, 1);
+	}
+
+	/**
+	 * A map parsed to a tiles file should be read back from it without parsing.
+	 *
+	 * Testing method {@link TreasureMapParser#parseFile(String, String)}.
+	 */
+	@Test
+	public void parsed_map_should_be_reopened() throws IOException {
+		String tilesFile = folder.getRoot().toPath().resolve("map" + MappedTileStorage.EXTENSION).toString();
+		TreasureMap parsed = TreasureMapParser.getInstance().parseFile("src/test/resources/treasure_map_test.txt", tilesFile);
+
+		assertTrue(parsed.getStorage() instanceof MappedTileStorage);
+		parsed.getTile(3, 1).setTreasures(0);
+
+		TreasureMap reopened = TreasureMapParser.getInstance().parseFile(tilesFile);
+		assertEquals(6, reopened.getWidth());
+		assertEquals(5, reopened.getHeight());
+		assertEquals(1, reopened.getTile(3, 1).getTreasures());
+		assertEquals(3, reopened.getTile(0, 3).getTreasures());
+		assertEquals(TileType.MOUNTAIN, reopened.getTile(4, 2).getType());
+	}
+}
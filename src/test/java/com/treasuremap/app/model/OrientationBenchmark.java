@@ -0,0 +1,145 @@
+package com.treasuremap.app.model;
+
+import java.util.Random;
+
+/**
+ * OrientationBenchmark
+ *
+ * Compares turning and finding the tile in front of an adventurer with the tables of {@link Orientation}
+ * against the chains of comparisons they replaced, the way JMH would: a few warm-up iterations, then measured
+ * iterations, each replaying the same random steps, and the result is consumed so that nothing is optimized away.
+ * It is not a test, run it once the tests are compiled:
+ *
+ * java -cp target/classes:target/test-classes com.treasuremap.app.model.OrientationBenchmark
+ */
+public class OrientationBenchmark {
+	/**
+	 * The number of steps of an iteration.
+	 */
+	private static final int STEPS = 1 << 22;
+
+	/**
+	 * The number of warm-up iterations.
+	 */
+	private static final int WARM_UP = 5;
+
+	/**
+	 * The number of measured iterations.
+	 */
+	private static final int ITERATIONS = 10;
+
+	/**
+	 * Runs the benchmark and prints the time per step of both implementations.
+	 *
+	 * @param args Unused.
+	 */
+	public static void main(String[] args) {
+		Random random = new Random(42);
+		byte[] steps = new byte[STEPS];
+
+		for (int i = 0 ; i < STEPS ; i++) {
+			steps[i] = (byte) random.nextInt(3);
+		}
+
+		System.out.println(String.format("chains: %.2f ns/step", measure(steps, false)));
+		System.out.println(String.format("tables: %.2f ns/step", measure(steps, true)));
+	}
+
+	/**
+	 * Returns the average time per step of the given implementation, in nanoseconds.
+	 *
+	 * @param steps    The steps: 0 to move forward, 1 to turn right, 2 to turn left.
+	 * @param isTables True to use the tables, false for the chains.
+	 * @return the time per step.
+	 */
+	private static double measure(byte[] steps, boolean isTables) {
+		long sink = 0;
+		long elapsed = 0;
+
+		for (int iteration = 0 ; iteration < WARM_UP + ITERATIONS ; iteration++) {
+			long start = System.nanoTime();
+			sink += isTables ? walkWithTables(steps) : walkWithChains(steps);
+
+			if (iteration >= WARM_UP) {
+				elapsed += System.nanoTime() - start;
+			}
+		}
+
+		if (sink == 42) {
+			System.out.println();
+		}
+
+		return (double) elapsed / ITERATIONS / steps.length;
+	}
+
+	/**
+	 * Walks the given steps with the tables of {@link Orientation} and returns the final position.
+	 *
+	 * @param steps The steps.
+	 * @return the final position, mixed.
+	 */
+	private static long walkWithTables(byte[] steps) {
+		Orientation orientation = Orientation.NORTH;
+		int x = 0;
+		int y = 0;
+
+		for (byte step : steps) {
+			if (step == 1) {
+				orientation = orientation.rotateRight();
+			} else if (step == 2) {
+				orientation = orientation.rotateLeft();
+			} else {
+				x += orientation.getDx();
+				y += orientation.getDy();
+			}
+		}
+
+		return 31L * x + y;
+	}
+
+	/**
+	 * Walks the given steps with chains of comparisons, as before the tables, and returns the final position.
+	 *
+	 * @param steps The steps.
+	 * @return the final position, mixed.
+	 */
+	private static long walkWithChains(byte[] steps) {
+		Orientation orientation = Orientation.NORTH;
+		int x = 0;
+		int y = 0;
+
+		for (byte step : steps) {
+			if (step == 1) {
+				if (orientation.equals(Orientation.NORTH)) {
+					orientation = Orientation.EAST;
+				} else if (orientation.equals(Orientation.EAST)) {
+					orientation = Orientation.SOUTH;
+				} else if (orientation.equals(Orientation.SOUTH)) {
+					orientation = Orientation.WEST;
+				} else if (orientation.equals(Orientation.WEST)) {
+					orientation = Orientation.NORTH;
+				}
+			} else if (step == 2) {
+				if (orientation.equals(Orientation.NORTH)) {
+					orientation = Orientation.WEST;
+				} else if (orientation.equals(Orientation.WEST)) {
+					orientation = Orientation.SOUTH;
+				} else if (orientation.equals(Orientation.SOUTH)) {
+					orientation = Orientation.EAST;
+				} else if (orientation.equals(Orientation.EAST)) {
+					orientation = Orientation.NORTH;
+				}
+			} else if (orientation.equals(Orientation.NORTH)) {
+				y--;
+			} else if (orientation.equals(Orientation.SOUTH)) {
+				y++;
+			} else if (orientation.equals(Orientation.EAST)) {
+				x++;
+			} else if (orientation.equals(Orientation.WEST)) {
+				x--;
+			}
+		}
+
+		return 31L * x + y;
+	}
+}
@@ -0,0 +1,55 @@
+package com.treasuremap.app.model;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * OrientationTest
+ */
+public class OrientationTest {
+
+	/**
+	 * Rotating should follow the compass, and a left rotation should undo a right one.
+	 *
+	 * Testing methods:
+	 * - {@link Orientation#rotateRight()}
+	 * - {@link Orientation#rotateLeft()}
+	 */
+	@Test
+	public void rotations_should_follow_the_compass() {
+		assertEquals(Orientation.EAST, Orientation.NORTH.rotateRight());
+		assertEquals(Orientation.SOUTH, Orientation.EAST.rotateRight());
+		assertEquals(Orientation.WEST, Orientation.SOUTH.rotateRight());
+		assertEquals(Orientation.NORTH, Orientation.WEST.rotateRight());
+
+		for (Orientation orientation : Orientation.values()) {
+			assertEquals(orientation, orientation.rotateRight().rotateLeft());
+			assertEquals(orientation, orientation.rotateLeft().rotateLeft().rotateLeft().rotateLeft());
+		}
+	}
+
+	/**
+	 * The tile in front of an adventurer should be one step away in the direction they face,
+	 * the ordinates increasing southward.
+	 *
+	 * Testing methods:
+	 * - {@link Adventurer#getForwardX()}
+	 * - {@link Adventurer#getForwardY()}
+	 */
+	@Test
+	public void forward_tile_should_be_one_step_away() {
+		Adventurer adventurer = new Adventurer();
+		adventurer.setX(5);
+		adventurer.setY(5);
+		int[][] expected = { {5, 4}, {5, 6}, {6, 5}, {4, 5} };
+
+		for (Orientation orientation : Orientation.values()) {
+			adventurer.setOrientation(orientation);
+
+			assertEquals(expected[orientation.ordinal()][0], adventurer.getForwardX());
+			assertEquals(expected[orientation.ordinal()][1], adventurer.getForwardY());
+			assertEquals(1, Math.abs(orientation.getDx()) + Math.abs(orientation.getDy()));
+		}
+	}
+}
@@ -0,0 +1,156 @@
+package com.treasuremap.app.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * PathProgramTest
+ */
+public class PathProgramTest {
+
+	/**
+	 * Runs of turns should be folded into their overall rotation, keeping one step per action.
+	 *
+	 * Testing method {@link PathProgram#compile(String)}.
+	 */
+	@Test
+	public void turns_should_be_folded() {
+		assertSteps("AADAGA", PathProgram.MOVE, PathProgram.MOVE, PathProgram.TURN_RIGHT, PathProgram.MOVE,
+				PathProgram.TURN_LEFT, PathProgram.MOVE);
+		assertSteps("DDDA", PathProgram.TURN_LEFT, PathProgram.TURN_NONE, PathProgram.TURN_NONE, PathProgram.MOVE);
+		assertSteps("DG", PathProgram.TURN_NONE, PathProgram.TURN_NONE);
+		assertSteps("GGA", PathProgram.TURN_RIGHT, PathProgram.TURN_RIGHT, PathProgram.MOVE);
+		assertSteps("GGGGG", PathProgram.TURN_LEFT, PathProgram.TURN_NONE, PathProgram.TURN_NONE, PathProgram.TURN_NONE,
+				PathProgram.TURN_NONE);
+	}
+
+	/**
+	 * A program should read back as the path given, folded turns included, and lead to the same orientation at
+	 * every move, whatever its length.
+	 *
+	 * Testing methods:
+	 * - {@link PathProgram#step(int)}
+	 * - {@link PathProgram#toString()}
+	 */
+	@Test
+	public void program_should_execute_like_the_path() {
+		Random random = new Random(3);
+
+		for (int n = 0 ; n < 200 ; n++) {
+			StringBuilder path = new StringBuilder();
+
+			for (int k = random.nextInt(100) ; k > 0 ; k--) {
+				path.append("ADG".charAt(random.nextInt(3)));
+			}
+
+			PathProgram program = PathProgram.compile(path.toString());
+			assertEquals(path.length(), program.length());
+			assertEquals(path.toString(), program.toString());
+			assertExecutesLike(path.toString(), program);
+		}
+	}
+
+	/**
+	 * Repetitions should execute like the path expanded, without being expanded, and read back as given.
+	 *
+	 * Testing methods:
+	 * - {@link PathProgram#compile(String)}
+	 * - {@link PathProgram#toString()}
+	 */
+	@Test
+	public void repetitions_should_execute_like_the_path_expanded() {
+		String path = "GA3(AD(GA)*2)*3D2A";
+		String expanded = "GAAAADGAGAADGAGAADGAGADDA";
+		PathProgram program = PathProgram.compile(path);
+
+		assertEquals(path, program.toString());
+		assertEquals(expanded.length(), program.length());
+		assertExecutesLike(expanded, program);
+		assertFalse(program.hasStep(expanded.length()));
+	}
+
+	/**
+	 * A path of billions of steps should be compiled in constant memory, but not past {@link Integer#MAX_VALUE} steps.
+	 *
+	 * Testing method {@link PathProgram#compile(String)}.
+	 */
+	@Test
+	public void long_repetitions_should_not_be_expanded() {
+		PathProgram program = PathProgram.compile("(AAD)*700000000A100");
+
+		assertEquals(2100000100, program.length());
+		assertEquals(PathProgram.TURN_RIGHT, program.step(2099999999));
+		assertEquals(PathProgram.MOVE, program.step(2100000099));
+
+		for (String malformed : new String[] { "(AAD)*800000000", "(AA", "(AA)", "(AA)*", "AA)", "A99999999999" }) {
+			try {
+				PathProgram.compile(malformed);
+				fail(malformed);
+			} catch (IllegalArgumentException e) {
+				// Expected
+			}
+		}
+	}
+
+	/**
+	 * A path containing another symbol than 'A', 'D' or 'G' should be rejected.
+	 *
+	 * Testing method {@link PathProgram#compile(String)}.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void unknown_symbol_should_fail() {
+		PathProgram.compile("AADX");
+	}
+
+	/**
+	 * Asserts the given program leads to the same orientation as the given letters at every move and at the end.
+	 *
+	 * @param path    The letters.
+	 * @param program The program.
+	 */
+	private static void assertExecutesLike(String path, PathProgram program) {
+		Adventurer expected = new Adventurer();
+		Adventurer actual = new Adventurer();
+		expected.setOrientation(Orientation.NORTH);
+		actual.setOrientation(Orientation.NORTH);
+
+		for (int i = 0 ; i < path.length() ; i++) {
+			char c = path.charAt(i);
+
+			if (c == 'D') {
+				expected.rotateRight();
+			} else if (c == 'G') {
+				expected.rotateLeft();
+			}
+
+			actual.turn(program.step(i));
+
+			if (c == 'A') {
+				assertEquals(path + " at " + i, PathProgram.MOVE, program.step(i));
+				assertEquals(path + " at " + i, expected.getOrientation(), actual.getOrientation());
+			}
+		}
+
+		assertEquals(expected.getOrientation(), actual.getOrientation());
+	}
+
+	/**
+	 * Asserts the given path is compiled into the given steps.
+	 *
+	 * @param path  The path.
+	 * @param steps The steps expected.
+	 */
+	private static void assertSteps(String path, int... steps) {
+		PathProgram program = PathProgram.compile(path);
+		assertEquals(steps.length, program.length());
+
+		for (int i = 0 ; i < steps.length ; i++) {
+			assertEquals(path + " at " + i, steps[i], program.step(i));
+		}
+	}
+}
@@ -0,0 +1,177 @@
+package com.treasuremap.app.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.treasuremap.app.controller.Game;
+import com.treasuremap.app.controller.IntentEngine;
+
+/**
+ * PathStreamTest
+ */
+public class PathStreamTest {
+	/**
+	 * Folder of the files, deleted after each test.
+	 */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * A path read from a file over several windows should have the steps of the letters of the file,
+	 * even when read again from the beginning.
+	 *
+	 * Testing methods:
+	 * - {@link PathStream#hasStep(int)}
+	 * - {@link PathStream#step(int)}
+	 */
+	@Test
+	public void steps_should_be_read_from_the_file() throws IOException {
+		Random random = new Random(5);
+		StringBuilder letters = new StringBuilder();
+		StringBuilder file = new StringBuilder();
+
+		while (letters.length() < 3 * PathStream.WINDOW) {
+			char c = "ADG".charAt(random.nextInt(3));
+			letters.append(c);
+			file.append(c).append(random.nextInt(50) == 0 ? "\n" : "");
+		}
+
+		Path path = folder.newFile("patrol.txt").toPath();
+		Files.write(path, file.toString().getBytes());
+		PathProgram program = PathProgram.compile("@" + path);
+
+		assertEquals(-1, program.length());
+
+		for (int pass = 0 ; pass < 2 ; pass++) {
+			for (int i = 0 ; i < letters.length() ; i++) {
+				assertTrue(program.hasStep(i));
+				assertEquals(PathProgram.stepOf(letters.charAt(i)), program.step(i));
+			}
+		}
+
+		assertFalse(program.hasStep(letters.length()));
+		assertEquals(letters.length(), program.length());
+		assertEquals("@" + path, program.toString());
+	}
+
+	/**
+	 * Steps read backwards or alternately in two windows, as the engines reading ahead do, should be the letters
+	 * of the file.
+	 *
+	 * Testing method {@link PathStream#step(int)}.
+	 */
+	@Test
+	public void steps_should_be_read_in_any_order() throws IOException {
+		Random random = new Random(9);
+		StringBuilder letters = new StringBuilder();
+
+		while (letters.length() < 5 * PathStream.WINDOW + 17) {
+			letters.append("ADG".charAt(random.nextInt(3)));
+		}
+
+		Path path = folder.newFile("patrol.txt").toPath();
+		Files.write(path, letters.toString().replace("AD", "A D\n").getBytes());
+		String steps = letters.toString();
+		PathProgram program = PathProgram.compile("@" + path);
+
+		for (int i = steps.length() - 1 ; i >= 0 ; i -= 7) {
+			assertEquals(PathProgram.stepOf(steps.charAt(i)), program.step(i));
+		}
+
+		for (int i = 0 ; i + PathStream.WINDOW < steps.length() ; i += 3) {
+			assertEquals(PathProgram.stepOf(steps.charAt(i + PathStream.WINDOW)), program.step(i + PathStream.WINDOW));
+			assertEquals(PathProgram.stepOf(steps.charAt(i)), program.step(i));
+		}
+
+		assertEquals(steps.length(), program.length());
+	}
+
+	/**
+	 * A path of many more windows than {@link PathStream#CHECKPOINTS} should still have the letters of the file,
+	 * whatever the order its steps are read in.
+	 *
+	 * Testing method {@link PathStream#step(int)}.
+	 */
+	@Test
+	public void steps_should_be_read_past_the_checkpoints() throws IOException {
+		Random random = new Random(11);
+		StringBuilder letters = new StringBuilder();
+
+		while (letters.length() < 40 * PathStream.CHECKPOINTS * 16) {
+			letters.append("ADG".charAt(random.nextInt(3)));
+		}
+
+		Path path = folder.newFile("patrol.txt").toPath();
+		Files.write(path, letters.toString().replace("GA", "G A\n").getBytes());
+		PathStream program = new PathStream(path, 16);
+
+		for (int i = 0 ; i < letters.length() ; i++) {
+			assertEquals(PathProgram.stepOf(letters.charAt(i)), program.step(i));
+		}
+
+		for (int n = 0 ; n < 500 ; n++) {
+			int i = random.nextInt(letters.length());
+			assertEquals(PathProgram.stepOf(letters.charAt(i)), program.step(i));
+		}
+
+		assertEquals(letters.length(), program.length());
+	}
+
+	/**
+	 * An adventurer whose path is read from a file next to the adventurers' file should play like with the path
+	 * written in full.
+	 *
+	 * Testing method {@link AdventurerParser#parseFile(String)}.
+	 */
+	@Test
+	public void path_file_should_play_like_the_path() throws IOException {
+		Files.write(folder.newFile("patrol.txt").toPath(), "AAD\nAGA\n".getBytes());
+		Path streamed = folder.newFile("streamed.txt").toPath();
+		Path written = folder.newFile("written.txt").toPath();
+		Files.write(streamed, "John 1-1 E @patrol.txt".getBytes());
+		Files.write(written, "John 1-1 E AADAGA".getBytes());
+
+		assertEquals(play(written.toString()), play(streamed.toString()));
+	}
+
+	/**
+	 * Plays the adventurers of the given file on a 3x3 map with the intent engine and returns the state reached by
+	 * the adventurer.
+	 *
+	 * @param fileName The adventurers' file.
+	 * @return the state reached by the adventurer.
+	 * @throws IOException if the file cannot be read.
+	 */
+	private static String play(String fileName) throws IOException {
+		List<Adventurer> adventurers = AdventurerParser.getInstance().parseFile(fileName);
+		TreasureMap map = new TreasureMap(3, 3);
+
+		for (Adventurer adventurer : adventurers) {
+			map.addAdventurer(adventurer, adventurer.getX() - 1, adventurer.getY() - 1);
+		}
+
+		Game game = new Game();
+		game.setMap(map);
+		game.setAdventurers(adventurers);
+		game.setEngine(new IntentEngine());
+		game.play();
+
+		Adventurer adventurer = adventurers.get(0);
+		assertTrue(adventurer.hasCompletedPath());
+
+		// The path itself is displayed as given, only the state reached is compared
+		return "(" + adventurer.getX() + "," + adventurer.getY() + ") " + adventurer.getOrientation() + " "
+				+ adventurer.getTreasures() + " after " + game.getDuration() + " ticks";
+	}
+}
@@ -0,0 +1,128 @@
+package com.treasuremap.app.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * ScenarioFileTest
+ */
+public class ScenarioFileTest {
+	/**
+	 * The folder of the files written by the tests.
+	 */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Converting the test files to a scenario file then reading it should give the same map and adventurers,
+	 * the mountains being written as a bitmap.
+	 *
+	 * Testing methods:
+	 * - {@link ScenarioFile#convert(String, String, Path)}
+	 * - {@link ScenarioFile#read(Path)}
+	 */
+	@Test
+	public void scenario_file_should_hold_the_text_files() throws IOException {
+		File adventurers = folder.newFile("adventurers.txt");
+		Files.write(adventurers.toPath(), "John 1-1 E AADADAGA\nJane 0-4 N A100(AAD)*5000GDD\n".getBytes(StandardCharsets.UTF_8));
+		Path scenarioFile = folder.getRoot().toPath().resolve("test" + ScenarioFile.EXTENSION);
+
+		ScenarioFile.convert(adventurers.getPath(), "src/test/resources/treasure_map_test.txt", scenarioFile);
+
+		assertSameScenario(ScenarioFile.parse(adventurers.getPath(), "src/test/resources/treasure_map_test.txt"),
+				ScenarioFile.read(scenarioFile));
+	}
+
+	/**
+	 * A huge map with few mountains should be written as a list of mountains, and read back as it was.
+	 *
+	 * Testing methods:
+	 * - {@link ScenarioFile#write(Scenario, Path)}
+	 * - {@link ScenarioFile#read(Path)}
+	 */
+	@Test
+	public void sparse_scenario_should_list_its_mountains() throws IOException {
+		Scenario scenario = ScenarioFile.parse("src/test/resources/adventurer_test.txt", "src/test/resources/huge_treasure_map_test.txt");
+		Path scenarioFile = folder.getRoot().toPath().resolve("huge" + ScenarioFile.EXTENSION);
+
+		ScenarioFile.write(scenario, scenarioFile);
+
+		assertEquals(true, Files.size(scenarioFile) < 1024);
+		assertSameScenario(scenario, ScenarioFile.read(scenarioFile));
+	}
+
+	/**
+	 * Writing a scenario file back to text files should give files parsed into the same scenario.
+	 *
+	 * Testing method {@link ScenarioFile#writeText(Scenario, Path, Path)}.
+	 */
+	@Test
+	public void text_files_should_hold_the_scenario_file() throws IOException {
+		Scenario scenario = ScenarioFile.parse("src/test/resources/adventurer_test.txt", "src/test/resources/treasure_map_test.txt");
+		Path adventurers = folder.getRoot().toPath().resolve("adventurers.txt");
+		Path map = folder.getRoot().toPath().resolve("map.txt");
+
+		ScenarioFile.writeText(scenario, adventurers, map);
+
+		assertSameScenario(scenario, ScenarioFile.parse(adventurers.toString(), map.toString()));
+	}
+
+	/**
+	 * Reading a file which is not a scenario file should fail.
+	 *
+	 * Testing method {@link ScenarioFile#read(Path)}.
+	 */
+	@Test
+	public void reading_another_file_should_fail() throws IOException {
+		try {
+			ScenarioFile.read(new File("src/test/resources/treasure_map_test.txt").toPath());
+			fail();
+		} catch (IOException e) {
+			assertEquals(true, e.getMessage().startsWith("Not a scenario file"));
+		}
+	}
+
+	/**
+	 * Checks that the given scenarios have the same tiles and the same adventurers.
+	 *
+	 * @param expected The scenario expected.
+	 * @param actual   The scenario read.
+	 */
+	private static void assertSameScenario(Scenario expected, Scenario actual) {
+		TileStorage expectedTiles = expected.getMap().getStorage();
+		TileStorage actualTiles = actual.getMap().getStorage();
+
+		assertEquals(expectedTiles.getWidth(), actualTiles.getWidth());
+		assertEquals(expectedTiles.getHeight(), actualTiles.getHeight());
+
+		expectedTiles.forEachNonBlank((x, y) -> {
+			assertEquals(expectedTiles.getType(x, y), actualTiles.getType(x, y));
+			assertEquals(expectedTiles.getTreasures(x, y), actualTiles.getTreasures(x, y));
+		});
+		actualTiles.forEachNonBlank((x, y) -> assertEquals(expectedTiles.getType(x, y), actualTiles.getType(x, y)));
+
+		assertEquals(expected.getAdventurers().size(), actual.getAdventurers().size());
+
+		for (int i = 0 ; i < expected.getAdventurers().size() ; i++) {
+			Adventurer expectedAdventurer = expected.getAdventurers().get(i);
+			Adventurer actualAdventurer = actual.getAdventurers().get(i);
+
+			assertEquals(expectedAdventurer.getName(), actualAdventurer.getName());
+			assertEquals(expectedAdventurer.getX(), actualAdventurer.getX());
+			assertEquals(expectedAdventurer.getY(), actualAdventurer.getY());
+			assertEquals(expectedAdventurer.getOrientation(), actualAdventurer.getOrientation());
+			assertEquals(expectedAdventurer.getPath(), actualAdventurer.getPath());
+			assertEquals(expectedAdventurer.getProgram().length(), actualAdventurer.getProgram().length());
+		}
+	}
+}
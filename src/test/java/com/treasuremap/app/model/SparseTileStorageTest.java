@@ -0,0 +1,175 @@
+package com.treasuremap.app.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * SparseTileStorageTest
+ */
+public class SparseTileStorageTest {
+
+	/**
+	 * After any sequence of writes, the sparse storage should read like the dense one,
+	 * and only keep the tiles which are not blank.
+	 *
+	 * Testing methods:
+	 * - {@link SparseTileStorage#setType(int, int, TileType)}
+	 * - {@link SparseTileStorage#setTreasures(int, int, int)}
+	 * - {@link SparseTileStorage#claim(int, int, Adventurer)}
+	 * - {@link SparseTileStorage#release(int, int, Adventurer)}
+	 */
+	@Test
+	public void storage_should_read_like_the_dense_one() {
+		Random random = new Random(7);
+		SparseTileStorage sparse = new SparseTileStorage(20, 20);
+		ArrayTileStorage dense = new ArrayTileStorage(20, 20);
+		Adventurer[] adventurers = { new Adventurer(), new Adventurer(), new Adventurer() };
+
+		for (int k = 0 ; k < 20000 ; k++) {
+			int x = random.nextInt(20);
+			int y = random.nextInt(20);
+			Adventurer adventurer = adventurers[random.nextInt(adventurers.length)];
+
+			switch (random.nextInt(4)) {
+				case 0:
+					TileType type = random.nextInt(4) == 0 ? TileType.MOUNTAIN : TileType.PRAIRIE;
+					sparse.setType(x, y, type);
+					dense.setType(x, y, type);
+					break;
+				case 1:
+					int treasures = random.nextInt(3);
+					sparse.setTreasures(x, y, treasures);
+					dense.setTreasures(x, y, treasures);
+					break;
+				case 2:
+					assertEquals(dense.claim(x, y, adventurer), sparse.claim(x, y, adventurer));
+					break;
+				default:
+					assertEquals(dense.release(x, y, adventurer), sparse.release(x, y, adventurer));
+					break;
+			}
+		}
+
+		int kept = 0;
+
+		for (int y = 0 ; y < 20 ; y++) {
+			for (int x = 0 ; x < 20 ; x++) {
+				assertEquals(dense.getType(x, y), sparse.getType(x, y));
+				assertEquals(dense.getTreasures(x, y), sparse.getTreasures(x, y));
+				assertSame(dense.getAdventurer(x, y), sparse.getAdventurer(x, y));
+
+				if (dense.getType(x, y) != TileType.PRAIRIE || dense.getTreasures(x, y) != 0 || dense.getAdventurer(x, y) != null) {
+					kept++;
+				}
+			}
+		}
+
+		assertEquals(kept, sparse.size());
+	}
+
+	/**
+	 * The tiles which are not blank should be visited row by row, even past the range of an int index.
+	 *
+	 * Testing method {@link SparseTileStorage#forEachNonBlank(TileStorage.TileVisitor)}.
+	 */
+	@Test
+	public void tiles_should_be_visited_row_by_row() {
+		SparseTileStorage storage = new SparseTileStorage(1000000, 1000000);
+		storage.setTreasures(999999, 999999, 1);
+		storage.setType(5, 70000, TileType.MOUNTAIN);
+		storage.setTreasures(3, 70000, 2);
+		storage.setAdventurer(0, 1, new Adventurer());
+
+		List<String> visited = new ArrayList<>();
+		storage.forEachNonBlank((x, y) -> visited.add(x + "," + y));
+
+		assertEquals(Arrays.asList("0,1", "3,70000", "5,70000", "999999,999999"), visited);
+	}
+
+	/**
+	 * A game on a huge map should be played without allocating its tiles.
+	 *
+	 * Testing method {@link TreasureMap#TreasureMap(int, int)}.
+	 */
+	@Test
+	public void huge_map_should_be_sparse_and_playable() {
+		TreasureMap map = new TreasureMap(1000000, 1000000);
+		map.getTile(999999, 2).setTreasures(3);
+
+		Adventurer adventurer = new Adventurer();
+		adventurer.setOrientation(Orientation.SOUTH);
+
+		assertTrue(map.getStorage() instanceof SparseTileStorage);
+		assertTrue(map.addAdventurer(adventurer, 999999, 0));
+		assertFalse(map.addAdventurer(new Adventurer(), 999999, 0));
+
+		map.moveAdventurerForward(adventurer);
+		map.moveAdventurerForward(adventurer);
+
+		assertEquals(2, adventurer.getY());
+		assertEquals(3, adventurer.getTreasures());
+		assertEquals(1, ((SparseTileStorage) map.getStorage()).size());
+		assertEquals(1, map.getAdventurers().size());
+	}
+
+	/**
+	 * A large rectangle should be kept as a range, whatever its area: its tiles should read like filled one by one,
+	 * keep what is written to them, and be visited row by row with the other tiles.
+	 *
+	 * Testing methods:
+	 * - {@link SparseTileStorage#fill(int, int, int, int, TileType, int)}
+	 * - {@link SparseTileStorage#forEachNonBlank(TileStorage.TileVisitor)}
+	 */
+	@Test
+	public void large_rectangle_should_be_kept_as_a_range() {
+		SparseTileStorage storage = new SparseTileStorage(1000000, 1000000);
+		storage.setType(5, 5, TileType.MOUNTAIN);
+		storage.fill(0, 0, 500000, 500000, TileType.PRAIRIE, 2);
+
+		assertEquals(0, storage.size());
+		assertEquals(TileType.PRAIRIE, storage.getType(5, 5));
+		assertEquals(2, storage.getTreasures(499999, 499999));
+		assertEquals(0, storage.getTreasures(500000, 0));
+
+		Adventurer adventurer = new Adventurer();
+		assertTrue(storage.claim(7, 7, adventurer));
+		assertEquals(2, storage.getTreasures(7, 7));
+		storage.setTreasures(7, 7, 0);
+		assertTrue(storage.release(7, 7, adventurer));
+		assertEquals(0, storage.getTreasures(7, 7));
+		assertEquals(2, storage.getTreasures(8, 7));
+
+		assertTrue(storage.isFillable(100, 100, 400000, 1, TileType.PRAIRIE, 2));
+		assertFalse(storage.isFillable(400000, 100, 200000, 1, TileType.MOUNTAIN, 0));
+		assertTrue(storage.isFillable(500000, 100, 200000, 1, TileType.MOUNTAIN, 0));
+
+		SparseTileStorage small = new SparseTileStorage(100, 100);
+		small.fill(10, 10, 40, 40, TileType.MOUNTAIN, 0);
+		small.fill(30, 30, 40, 40, TileType.PRAIRIE, 0);
+		small.setTreasures(60, 20, 1);
+		List<Long> visited = new ArrayList<>();
+		small.forEachNonBlank((x, y) -> visited.add(TileStorage.key(x, y)));
+
+		List<Long> expected = new ArrayList<>();
+
+		for (int y = 0 ; y < 100 ; y++) {
+			for (int x = 0 ; x < 100 ; x++) {
+				if (small.getType(x, y) != TileType.PRAIRIE || small.getTreasures(x, y) != 0) {
+					expected.add(TileStorage.key(x, y));
+				}
+			}
+		}
+
+		assertEquals(40 * 40 - 20 * 20 + 1, expected.size());
+		assertEquals(expected, visited);
+	}
+}
@@ -172,4 +172,25 @@ public class TileTest {
 
 		assertEquals(0, tile.getTreasures());
 	}
+
+	/**
+	 * A free prairie can be claimed once, then only its occupant can release it.
+	 *
+	 * Testing methods {@link Tile#claim(Adventurer)} and {@link Tile#release(Adventurer)}.
+	 */
+	@Test
+	public void a_tile_should_be_claimed_once_and_released_by_its_occupant_only() {
+		Adventurer john = new Adventurer();
+		Adventurer maria = new Adventurer();
+		Tile tile = new Tile();
+
+		assertTrue(tile.claim(john));
+		assertFalse(tile.claim(maria));
+		assertFalse(tile.release(maria));
+		assertTrue(tile.release(john));
+		assertFalse(tile.isAdventurerPresent());
+
+		tile.setType(TileType.MOUNTAIN);
+		assertFalse(tile.claim(maria));
+	}
 }
@@ -0,0 +1,149 @@
+package com.treasuremap.app.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * TokenizerBenchmark
+ *
+ * Compares the throughput, in lines per second, of decoding the records 'T X-Y n' and 'M X-Y' of a map file with a
+ * {@link Tokenizer} reading the bytes in place, against the Strings split as the parsers did before it. The lines are
+ * held by a direct buffer, like a memory-mapped file. As {@link OrientationBenchmark}, a few warm-up iterations run
+ * before the measured ones, and the result is consumed so that nothing is optimized away:
+ *
+ * java -cp target/classes:target/test-classes com.treasuremap.app.model.TokenizerBenchmark
+ */
+public class TokenizerBenchmark {
+	/**
+	 * The number of lines decoded by an iteration.
+	 */
+	private static final int LINES = 1 << 20;
+
+	/**
+	 * The number of warm-up iterations.
+	 */
+	private static final int WARM_UP = 5;
+
+	/**
+	 * The number of measured iterations.
+	 */
+	private static final int ITERATIONS = 10;
+
+	/**
+	 * Runs the benchmark and prints the throughput of both decoders.
+	 *
+	 * @param args Unused.
+	 */
+	public static void main(String[] args) {
+		Random random = new Random(42);
+		StringBuilder builder = new StringBuilder();
+
+		for (int i = 0 ; i < LINES ; i++) {
+			String position = (random.nextInt(100000) + 1) + "-" + (random.nextInt(100000) + 1);
+			builder.append(i % 3 == 0 ? "M " + position : "T " + position + " " + (random.nextInt(9) + 1)).append('\n');
+		}
+
+		byte[] content = builder.toString().getBytes(StandardCharsets.US_ASCII);
+		ByteBuffer lines = ByteBuffer.allocateDirect(content.length).put(content);
+
+		System.out.println(String.format("split:     %,.0f lines/s", measure(lines, false)));
+		System.out.println(String.format("tokenizer: %,.0f lines/s", measure(lines, true)));
+	}
+
+	/**
+	 * Returns the number of lines decoded per second by the given decoder.
+	 *
+	 * @param lines       The lines.
+	 * @param isTokenizer True to use the tokenizer, false to split Strings.
+	 * @return the throughput.
+	 */
+	private static double measure(ByteBuffer lines, boolean isTokenizer) {
+		long sink = 0;
+		long elapsed = 0;
+
+		for (int iteration = 0 ; iteration < WARM_UP + ITERATIONS ; iteration++) {
+			long start = System.nanoTime();
+			sink += isTokenizer ? decodeWithTokenizer(lines) : decodeWithSplit(lines);
+
+			if (iteration >= WARM_UP) {
+				elapsed += System.nanoTime() - start;
+			}
+		}
+
+		if (sink == 42) {
+			System.out.println();
+		}
+
+		return (double) LINES * ITERATIONS / elapsed * 1e9;
+	}
+
+	/**
+	 * Decodes the lines with a tokenizer and returns the sum of their values.
+	 *
+	 * @param lines The lines.
+	 * @return the sum of the values.
+	 */
+	private static long decodeWithTokenizer(ByteBuffer lines) {
+		Tokenizer tokenizer = new Tokenizer("benchmark");
+		long sum = 0;
+		int start = 0;
+		long line = 0;
+
+		while (start < lines.limit()) {
+			int end = start;
+
+			while (lines.get(end) != '\n') {
+				end++;
+			}
+
+			tokenizer.reset(lines, start, end, ++line);
+			char type = tokenizer.letter();
+			tokenizer.coordinates();
+			sum += tokenizer.getX() + tokenizer.getY();
+
+			if (type == 'T') {
+				sum += tokenizer.integer();
+			}
+
+			tokenizer.end();
+			start = end + 1;
+		}
+
+		return sum;
+	}
+
+	/**
+	 * Decodes the lines into Strings split as the parsers did before {@link Tokenizer} and returns the sum of
+	 * their values.
+	 *
+	 * @param lines The lines.
+	 * @return the sum of the values.
+	 */
+	private static long decodeWithSplit(ByteBuffer lines) {
+		byte[] bytes = new byte[64];
+		long sum = 0;
+		int start = 0;
+
+		while (start < lines.limit()) {
+			int end = start;
+
+			while (lines.get(end) != '\n') {
+				bytes[end - start] = lines.get(end);
+				end++;
+			}
+
+			String[] content = new String(bytes, 0, end - start, StandardCharsets.US_ASCII).split(" ");
+			String position = content[1];
+			sum += Integer.valueOf( position.split("-")[0] ).intValue() + Integer.valueOf( position.split("-")[1] ).intValue();
+
+			if ("T".equals(content[0])) {
+				sum += Integer.valueOf( content[2] ).intValue();
+			}
+
+			start = end + 1;
+		}
+
+		return sum;
+	}
+}
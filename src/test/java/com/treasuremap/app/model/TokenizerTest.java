@@ -0,0 +1,122 @@
+package com.treasuremap.app.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * TokenizerTest
+ */
+public class TokenizerTest {
+
+	/**
+	 * Reading a line of bytes and the same line of chars should give the same tokens, whatever the blanks.
+	 *
+	 * Testing methods:
+	 * - {@link Tokenizer#letter()}
+	 * - {@link Tokenizer#word()}
+	 * - {@link Tokenizer#coordinates()}
+	 * - {@link Tokenizer#integer()}
+	 */
+	@Test
+	public void bytes_and_chars_should_give_same_tokens() {
+		String text = "Zoé \t12-345  S A100\r";
+		ByteBuffer bytes = ByteBuffer.wrap(("xx" + text + "\n").getBytes(StandardCharsets.UTF_8));
+		Tokenizer tokenizer = new Tokenizer("test");
+
+		for (int i = 0 ; i < 2 ; i++) {
+			if (i == 0) {
+				tokenizer.reset(bytes, 2, bytes.limit() - 1, 1);
+			} else {
+				tokenizer.reset(text, 1);
+			}
+
+			assertEquals("Zoé", tokenizer.word());
+			tokenizer.coordinates();
+			assertEquals(12, tokenizer.getX());
+			assertEquals(345, tokenizer.getY());
+			assertEquals('S', tokenizer.letter());
+			assertFalse(tokenizer.isEnd());
+			assertEquals("A100", tokenizer.word());
+			assertTrue(tokenizer.isEnd());
+		}
+	}
+
+	/**
+	 * Errors should give the line and the column of the token, from 1.
+	 *
+	 * Testing method {@link Tokenizer#error(String)}.
+	 */
+	@Test
+	public void errors_should_give_line_and_column() {
+		Tokenizer tokenizer = new Tokenizer("test");
+
+		assertError("Number expected at line 7, column 4 of test", () -> tokenizer.reset("T  -2 1", 7).letter(), tokenizer::coordinates);
+		assertError("Coordinates expected at line 2, column 3 of test", () -> tokenizer.reset("T 42 1", 2).letter(), tokenizer::coordinates);
+		assertError("Letter expected at line 1, column 1 of test", () -> {}, () -> tokenizer.reset("TM 1-1", 1).letter());
+		assertError("Number too large at line 1, column 1 of test", () -> {}, () -> tokenizer.reset("2147483648", 1).integer());
+		assertError("Bits expected at line 1, column 7 of test", () -> tokenizer.reset("M 1-1 0120", 1).letter(), () -> {
+			tokenizer.coordinates();
+			tokenizer.bits();
+		});
+		assertError("End of line expected at line 3, column 5 of test", () -> tokenizer.reset("M 1 x", 3).letter(), () -> {
+			tokenizer.integer();
+			tokenizer.end();
+		});
+
+		assertTrue(tokenizer.reset(" \t\r", 4).isEnd());
+		assertEquals(Integer.MAX_VALUE, tokenizer.reset("2147483647", 1).integer());
+	}
+
+	/**
+	 * The second coordinates of a rectangle should be told from a count or from bits, and the bits should be read.
+	 *
+	 * Testing methods:
+	 * - {@link Tokenizer#isCoordinates()}
+	 * - {@link Tokenizer#bits()}
+	 * - {@link Tokenizer#bit(int)}
+	 */
+	@Test
+	public void rectangles_and_rows_should_be_read() {
+		Tokenizer tokenizer = new Tokenizer("test");
+		tokenizer.reset("M 2-3  40-5 0110", 1).letter();
+		tokenizer.coordinates();
+
+		assertTrue(tokenizer.isCoordinates());
+		tokenizer.coordinates();
+		assertEquals(40, tokenizer.getX());
+		assertEquals(5, tokenizer.getY());
+		assertFalse(tokenizer.isCoordinates());
+		assertEquals(4, tokenizer.bits());
+		assertFalse(tokenizer.bit(0));
+		assertTrue(tokenizer.bit(1));
+		assertTrue(tokenizer.bit(2));
+		assertFalse(tokenizer.bit(3));
+		assertTrue(tokenizer.isEnd());
+		assertFalse(tokenizer.reset("T 1-1 10", 1).isCoordinates());
+	}
+
+	/**
+	 * Runs the given actions and checks that the second one fails with the given message.
+	 *
+	 * @param message The message expected.
+	 * @param before  The action expected to succeed.
+	 * @param failing The action expected to fail.
+	 */
+	private static void assertError(String message, Runnable before, Runnable failing) {
+		before.run();
+
+		try {
+			failing.run();
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(message, e.getMessage());
+		}
+	}
+}
@@ -1,13 +1,31 @@
 package com.treasuremap.app.model;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * TreasureMapParserTest
  */
 public class TreasureMapParserTest {
+	/**
+	 * The folder of the files written by the tests.
+	 */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
 
 	/**
 	 * Parsing file 'treasure_map_test.txt' should produces following map:
@@ -60,5 +78,294 @@ public class TreasureMapParserTest {
 		assertEquals(4, tile3.getY());
 		assertEquals(TileType.MOUNTAIN, tile3.getType());
 	}
-	
+
+	/**
+	 * Parsing file 'huge_treasure_map_test.txt', a map of 1000000x1000000 tiles, should only keep its special tiles.
+	 *
+	 * Testing method {@link TreasureMapParser#parseFile(String)}.
+	 */
+	@Test
+	public void reading_huge_file_should_produce_sparse_treasure_map() throws IOException {
+		TreasureMap map = TreasureMapParser.getInstance().parseFile("src/test/resources/huge_treasure_map_test.txt");
+
+		assertEquals(1000000, map.getWidth());
+		assertEquals(1000000, map.getHeight());
+		assertTrue(map.getStorage() instanceof SparseTileStorage);
+		assertEquals(3, ((SparseTileStorage) map.getStorage()).size());
+
+		assertEquals(4, map.getTile(999998, 1).getTreasures());
+		assertEquals(2, map.getTile(0, 999999).getTreasures());
+		assertTrue(map.getTile(499999, 499999).isMountain());
+		assertTrue(map.getTile(123456, 654321).isPrairie());
+	}
+
+	/**
+	 * Parsing a file by windows smaller than the file should give the same map, lines cut by a window being read
+	 * by the next one, and blank lines, extra blanks and CRLF line breaks should be accepted.
+	 *
+	 * Testing method {@link TreasureMapParser#parseFile(String)}.
+	 */
+	@Test
+	public void reading_file_by_windows_should_produce_same_treasure_map() throws IOException {
+		File file = folder.newFile("map.txt");
+		Files.write(file.toPath(), "C 6 5\r\nT 4-2 1\r\n\r\n  T 1-4  3\r\nM 5-3".getBytes(StandardCharsets.US_ASCII));
+
+		TreasureMap map = new TreasureMapParser(12, Long.MAX_VALUE).parseFile(file.getPath());
+
+		assertEquals(6, map.getWidth());
+		assertEquals(5, map.getHeight());
+		assertEquals(1, map.getTile(3, 1).getTreasures());
+		assertEquals(3, map.getTile(0, 3).getTreasures());
+		assertTrue(map.getTile(4, 2).isMountain());
+	}
+
+	/**
+	 * Parsing a malformed file should fail with the line and the column of the malformed token.
+	 *
+	 * Testing method {@link TreasureMapParser#parseFile(String)}.
+	 */
+	@Test
+	public void reading_malformed_file_should_give_line() throws IOException {
+		File file = folder.newFile("map.txt");
+		Files.write(file.toPath(), "C 6 5\nT 4-2 1\nT 7-1 1\n".getBytes(StandardCharsets.US_ASCII));
+
+		try {
+			TreasureMapParser.getInstance().parseFile(file.getPath());
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage(), e.getMessage().startsWith("Tile out of the map at line 3, column 3 "));
+		}
+	}
+
+	/**
+	 * Parsing a file in parallel, by chunks much smaller than the file, should give the same map as parsing it in
+	 * order, identical duplicate records included.
+	 *
+	 * Testing method {@link TreasureMapParser#parseFile(String)}.
+	 */
+	@Test
+	public void reading_file_in_parallel_should_produce_same_treasure_map() throws IOException {
+		File file = writeRandomMap(null);
+
+		TreasureMap expected = new TreasureMapParser(1 << 20, Long.MAX_VALUE).parseFile(file.getPath());
+		TreasureMap actual = new TreasureMapParser(1 << 20, 256).parseFile(file.getPath());
+
+		for (int y = 0 ; y < expected.getHeight() ; y++) {
+			for (int x = 0 ; x < expected.getWidth() ; x++) {
+				assertEquals(expected.getTile(x, y).getType(), actual.getTile(x, y).getType());
+				assertEquals(expected.getTile(x, y).getTreasures(), actual.getTile(x, y).getTreasures());
+			}
+		}
+	}
+
+	/**
+	 * Parsing a file with conflicting duplicate records in parallel should always report the first conflict of the
+	 * file, as parsing it in order.
+	 *
+	 * Testing method {@link TreasureMapParser#parseFile(String)}.
+	 */
+	@Test
+	public void reading_conflicting_records_in_parallel_should_fail_deterministically() throws IOException {
+		File file = writeRandomMap("T 1-1 1\nT 2-2 4\nM 1-1\nT 2-2 3\n");
+
+		for (int i = 0 ; i < 10 ; i++) {
+			try {
+				new TreasureMapParser(1 << 20, 256).parseFile(file.getPath());
+				fail();
+			} catch (IllegalArgumentException e) {
+				assertTrue(e.getMessage(), e.getMessage().startsWith("Tile already given another content at line 5004, "));
+			}
+		}
+	}
+
+	/**
+	 * Parsing a file with a malformed record in parallel should report its line in the file, not in its chunk.
+	 *
+	 * Testing method {@link TreasureMapParser#parseFile(String)}.
+	 */
+	@Test
+	public void reading_malformed_record_in_parallel_should_report_its_line() throws IOException {
+		File file = writeRandomMap("T 1-1\nM 41-1\n");
+
+		try {
+			new TreasureMapParser(1 << 20, 256).parseFile(file.getPath());
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage(), e.getMessage().startsWith("Number expected at line 5002, "));
+		}
+	}
+
+	/**
+	 * Rectangle and row records should give the same map as the records of their tiles one by one, and a rectangle
+	 * overlapping a tile of another content should be rejected.
+	 *
+	 * Testing method {@link TreasureMapParser#parseFile(String)}.
+	 */
+	@Test
+	public void reading_rectangles_and_rows_should_fill_their_tiles() throws IOException {
+		File file = folder.newFile("map.txt");
+		Files.write(file.toPath(), "C 6 5\nM 2-1 4-2\nT 1-4 6-5 3\nM 1-3 010011\nT 2-4 2\n".getBytes(StandardCharsets.US_ASCII));
+
+		try {
+			TreasureMapParser.getInstance().parseFile(file.getPath());
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage(), e.getMessage().startsWith("Tile already given another content at line 5, "));
+		}
+
+		Files.write(file.toPath(), "C 6 5\nM 2-1 4-2\nT 1-4 6-5 3\nM 1-3 010011\nT 2-4 3\nM 3-2\n".getBytes(StandardCharsets.US_ASCII));
+		TreasureMap map = TreasureMapParser.getInstance().parseFile(file.getPath());
+		String[] expected = { ".MMM..", ".MMM..", ".M..MM", "333333", "333333" };
+
+		for (int y = 0 ; y < 5 ; y++) {
+			for (int x = 0 ; x < 6 ; x++) {
+				char tile = expected[y].charAt(x);
+				assertEquals(tile == 'M', map.getStorage().getType(x, y) == TileType.MOUNTAIN);
+				assertEquals(tile == '3' ? 3 : 0, map.getStorage().getTreasures(x, y));
+			}
+		}
+	}
+
+	/**
+	 * Rectangles of billions of tiles on a huge map should be parsed without visiting their tiles, and a rectangle
+	 * overlapping another content should still be rejected.
+	 *
+	 * Testing method {@link TreasureMapParser#parse(InputStream, String)}.
+	 */
+	@Test
+	public void reading_huge_rectangles_should_keep_them_as_ranges() throws IOException {
+		String content = "C 1000000 1000000\nM 1-1 100000-100000\nT 100001-1 1000000-100000 2\nM 5-5 10-10\nT 1-200000 1\n";
+		TreasureMap map = TreasureMapParser.getInstance().parse(new ByteArrayInputStream(content.getBytes(StandardCharsets.US_ASCII)), "huge");
+
+		assertTrue(map.getStorage() instanceof SparseTileStorage);
+		assertEquals(TileType.MOUNTAIN, map.getStorage().getType(99999, 99999));
+		assertEquals(2, map.getStorage().getTreasures(999999, 0));
+		assertEquals(1, map.getStorage().getTreasures(0, 199999));
+
+		try {
+			TreasureMapParser.getInstance().parse(new ByteArrayInputStream((content + "T 50000-1 200000-1 2\n").getBytes(StandardCharsets.US_ASCII)), "huge");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage(), e.getMessage().startsWith("Tile already given another content at line 6, "));
+		}
+	}
+
+	/**
+	 * Parsing overlapping rectangles and rows in parallel should give the same map as parsing them in order.
+	 *
+	 * Testing method {@link TreasureMapParser#parseFile(String)}.
+	 */
+	@Test
+	public void reading_rectangles_in_parallel_should_produce_same_treasure_map() throws IOException {
+		File file = folder.newFile("map.txt");
+		StringBuilder content = new StringBuilder("C 40 40\n");
+		Random random = new Random(42);
+
+		// Mountains on the left half, treasures on the right half
+		for (int i = 0 ; i < 2000 ; i++) {
+			int x = random.nextInt(20) + 1;
+			int y = random.nextInt(40) + 1;
+			int toX = x + random.nextInt(21 - x);
+			int toY = y + random.nextInt(41 - y);
+
+			if (i % 3 == 0) {
+				content.append("M " + x + "-" + y + " " + toX + "-" + toY + "\n");
+			} else if (i % 3 == 1) {
+				content.append("T " + (x + 20) + "-" + y + " " + (toX + 20) + "-" + toY + " 7\n");
+			} else {
+				content.append("M 1-" + y + " " + Long.toBinaryString(random.nextInt(1 << 20)) + "\n");
+			}
+		}
+
+		Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.US_ASCII));
+
+		TreasureMap expected = new TreasureMapParser(1 << 20, Long.MAX_VALUE).parseFile(file.getPath());
+		TreasureMap actual = new TreasureMapParser(1 << 20, 256).parseFile(file.getPath());
+
+		for (int y = 0 ; y < expected.getHeight() ; y++) {
+			for (int x = 0 ; x < expected.getWidth() ; x++) {
+				assertEquals(expected.getTile(x, y).getType(), actual.getTile(x, y).getType());
+				assertEquals(expected.getTile(x, y).getTreasures(), actual.getTile(x, y).getTreasures());
+			}
+		}
+	}
+
+	/**
+	 * Parsing a gzip file, whatever its name, or a stream, compressed or not, should give the same map as parsing the
+	 * plain file, lines cut by the buffer included.
+	 *
+	 * Testing methods:
+	 * - {@link TreasureMapParser#parseFile(String)}
+	 * - {@link TreasureMapParser#parse(InputStream, String)}
+	 */
+	@Test
+	public void reading_compressed_and_piped_input_should_produce_same_treasure_map() throws IOException {
+		File file = writeRandomMap("M 1-40 40-40\n");
+		byte[] plain = Files.readAllBytes(file.toPath());
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+		try (OutputStream out = new GZIPOutputStream(compressed)) {
+			out.write(plain);
+		}
+
+		File compressedFile = folder.newFile("map.txt.bin");
+		Files.write(compressedFile.toPath(), compressed.toByteArray());
+
+		TreasureMap expected = TreasureMapParser.getInstance().parseFile(file.getPath());
+		TreasureMap[] actuals = {
+				TreasureMapParser.getInstance().parseFile(compressedFile.getPath()),
+				TreasureMapParser.getInstance().parse(new ByteArrayInputStream(compressed.toByteArray()), "test"),
+				new TreasureMapParser(4, Long.MAX_VALUE).parse(new ByteArrayInputStream(plain), "test")
+		};
+
+		for (TreasureMap actual : actuals) {
+			for (int y = 0 ; y < expected.getHeight() ; y++) {
+				for (int x = 0 ; x < expected.getWidth() ; x++) {
+					assertEquals(expected.getTile(x, y).getType(), actual.getTile(x, y).getType());
+					assertEquals(expected.getTile(x, y).getTreasures(), actual.getTile(x, y).getTreasures());
+				}
+			}
+		}
+
+		try {
+			byte[] malformed = "C 4 4\nM 5-1\n".getBytes(StandardCharsets.US_ASCII);
+			TreasureMapParser.getInstance().parse(new ByteArrayInputStream(malformed), "stdin");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Tile out of the map at line 2, column 3 of map file: stdin", e.getMessage());
+		}
+	}
+
+	/**
+	 * Writes a map file of 40x40 tiles, with 5000 random records, each tile having a single content.
+	 *
+	 * @param tail The records appended to the file, or null.
+	 * @return the file.
+	 * @throws IOException if the file cannot be written.
+	 */
+	private File writeRandomMap(String tail) throws IOException {
+		File file = folder.newFile("map.txt");
+		StringBuilder content = new StringBuilder("C 40 40\n");
+		Random random = new Random(42);
+
+		for (int i = 0 ; i < 5000 ; i++) {
+			int x = random.nextInt(40) + 1;
+			int y = random.nextInt(40) + 1;
+
+			// The content of a tile only depends on its coordinates
+			if ((x + y) % 3 == 0) {
+				content.append("M " + x + "-" + y + "\n");
+			} else {
+				content.append("T " + x + "-" + y + " " + (x * y % 5) + "\n");
+			}
+		}
+
+		if (tail != null) {
+			content.append(tail);
+		}
+
+		Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.US_ASCII));
+
+		return file;
+	}
 }
@@ -4,7 +4,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import org.junit.Test;
 
 /**
@@ -384,4 +386,128 @@ public class TreasureMapTest {
 		assertFalse(mountain.isAdventurerPresent());
 		assertTrue(currentTile.isAdventurerPresent());
 	}
+
+	/**
+	 * Adventurers moving concurrently on a crowded map should never share a tile nor vanish:
+	 * once every move is done, each adventurer is on exactly one tile, the one matching their coordinates.
+	 *
+	 * Testing method {@link TreasureMap#moveAdventurer(Adventurer, int, int)}.
+	 */
+	@Test
+	public void concurrent_moves_should_keep_one_adventurer_per_tile() throws InterruptedException {
+		TreasureMap map = new TreasureMap(4, 4);
+		List<Adventurer> adventurers = new ArrayList<>();
+		List<Thread> threads = new ArrayList<>();
+
+		for (int i = 0 ; i < 8 ; i++) {
+			Adventurer adventurer = new Adventurer();
+			adventurer.setName("A" + i);
+			map.addAdventurer(adventurer, i % 4, i / 4);
+			adventurers.add(adventurer);
+
+			threads.add(new Thread(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+
+				for (int k = 0 ; k < 20000 ; k++) {
+					map.moveAdventurer(adventurer, random.nextInt(4), random.nextInt(4));
+				}
+			}));
+		}
+
+		for (Thread thread : threads) {
+			thread.start();
+		}
+
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(8, map.getAdventurers().size());
+
+		for (Adventurer adventurer : adventurers) {
+			Tile tile = map.getTiles()[adventurer.getY()][adventurer.getX()];
+			assertTrue(tile.getAdventurer() == adventurer);
+		}
+	}
+
+	/**
+	 * Two adventurers wait for the tile occupied by a third one: once the occupant leaves, only the first one in line
+	 * is woken up, the second one is woken up once the first one has gone through.
+	 *
+	 * Testing method {@link TreasureMap#moveAdventurerForwardOrWait(Adventurer)}.
+	 */
+	@Test
+	public void adventurers_waiting_for_a_tile_should_be_woken_up_in_arrival_order() {
+		TreasureMap map = new TreasureMap(3, 3);
+
+		Adventurer first = new Adventurer();
+		first.setOrientation(Orientation.EAST);
+		map.addAdventurer(first, 0, 1);
+
+		Adventurer second = new Adventurer();
+		second.setOrientation(Orientation.NORTH);
+		map.addAdventurer(second, 1, 2);
+
+		Adventurer occupant = new Adventurer();
+		occupant.setOrientation(Orientation.NORTH);
+		map.addAdventurer(occupant, 1, 1);
+
+		assertFalse(map.moveAdventurerForwardOrWait(first));
+		assertFalse(map.moveAdventurerForwardOrWait(second));
+		assertTrue(first.isWaiting());
+		assertTrue(second.isWaiting());
+
+		assertTrue(map.moveAdventurerForwardOrWait(occupant));
+		assertFalse(first.isWaiting());
+		assertTrue(second.isWaiting());
+
+		assertTrue(map.moveAdventurerForwardOrWait(first));
+		assertEquals(1, first.getX());
+		assertTrue(second.isWaiting());
+
+		assertTrue(map.moveAdventurerForwardOrWait(first));
+		assertEquals(2, first.getX());
+		assertFalse(second.isWaiting());
+	}
+
+	/**
+	 * The first adventurer in line woken up should stay first when another adventurer takes the tile before them.
+	 *
+	 * Testing method {@link TreasureMap#moveAdventurerForwardOrWait(Adventurer)}.
+	 */
+	@Test
+	public void adventurer_woken_up_should_keep_their_place_in_line() {
+		TreasureMap map = new TreasureMap(3, 3);
+
+		Adventurer first = new Adventurer();
+		first.setOrientation(Orientation.EAST);
+		map.addAdventurer(first, 0, 1);
+
+		Adventurer second = new Adventurer();
+		second.setOrientation(Orientation.NORTH);
+		map.addAdventurer(second, 1, 2);
+
+		Adventurer occupant = new Adventurer();
+		occupant.setOrientation(Orientation.NORTH);
+		map.addAdventurer(occupant, 1, 1);
+
+		Adventurer intruder = new Adventurer();
+		intruder.setOrientation(Orientation.SOUTH);
+		map.addAdventurer(intruder, 1, 0);
+
+		assertFalse(map.moveAdventurerForwardOrWait(first));
+		assertFalse(map.moveAdventurerForwardOrWait(second));
+
+		map.removeAdventurer(1, 1);
+		assertFalse(first.isWaiting());
+		assertTrue(map.moveAdventurerForwardOrWait(intruder));
+
+		assertFalse(map.moveAdventurerForwardOrWait(first));
+		assertTrue(first.isWaiting());
+		assertTrue(second.isWaiting());
+
+		map.removeAdventurer(1, 1);
+		assertFalse(first.isWaiting());
+		assertTrue(second.isWaiting());
+	}
 }